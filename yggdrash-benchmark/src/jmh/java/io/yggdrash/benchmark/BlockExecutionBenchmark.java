@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.benchmark;
+
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.core.blockchain.BlockChain;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.blockchain.osgi.ContractManager;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.runtime.result.BlockRuntimeResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Executes the blocks of YEED transfers on the branch with the in-memory stores
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BlockExecutionBenchmark {
+
+    @Param({"100", "1000"})
+    private int blockTxSize;
+
+    private BlockChain blockChain;
+    private ContractManager contractManager;
+    private List<Transaction> txs;
+
+    @Setup
+    public void setUp() {
+        blockChain = BlockChainTestUtils.createBlockChain(false);
+        contractManager = blockChain.getContractManager();
+        txs = IntStream.range(0, blockTxSize)
+                .mapToObj(i -> BlockChainTestUtils.createTransferTx()).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public BlockRuntimeResult executeTxs() {
+        return contractManager.executeTxs(txs);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> addBlock(NextBlock nextBlock) {
+        return blockChain.addBlock(nextBlock.block, false);
+    }
+
+    private ConsensusBlock createNextBlock() {
+        List<Transaction> blockBody = IntStream.range(0, blockTxSize)
+                .mapToObj(i -> BlockChainTestUtils.createTransferTx()).collect(Collectors.toList());
+        return BlockChainTestUtils.createNextBlock(
+                blockBody, blockChain.getBlockChainManager().getLastConfirmedBlock(), contractManager);
+    }
+
+    /**
+     * The block next to the last block of the branch, which is created before each addBlock
+     */
+    @State(Scope.Thread)
+    public static class NextBlock {
+        private ConsensusBlock block;
+
+        @Setup(Level.Invocation)
+        public void setUp(BlockExecutionBenchmark benchmark) {
+            block = benchmark.createNextBlock();
+        }
+    }
+}
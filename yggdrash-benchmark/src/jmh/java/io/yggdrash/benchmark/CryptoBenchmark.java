@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.yggdrash.benchmark;
+
+import io.yggdrash.common.crypto.ECKey;
+import io.yggdrash.common.crypto.HashUtil;
+import io.yggdrash.common.crypto.cryptohash.Keccak256;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.SignatureException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CryptoBenchmark {
+
+    @Param({"32", "1024"})
+    private int dataSize;
+
+    private byte[] data;
+    private byte[] messageHash;
+    private ECKey key;
+    private ECKey.ECDSASignature signature;
+
+    @Setup
+    public void setUp() {
+        data = new byte[dataSize];
+        new Random(dataSize).nextBytes(data);
+        messageHash = HashUtil.sha3(data);
+        key = new ECKey();
+        signature = key.sign(messageHash);
+    }
+
+    @Benchmark
+    public byte[] sha3() {
+        return HashUtil.sha3(data);
+    }
+
+    @Benchmark
+    public byte[] keccak256() {
+        return new Keccak256().digest(data);
+    }
+
+    @Benchmark
+    public ECKey.ECDSASignature sign() {
+        return key.sign(messageHash);
+    }
+
+    @Benchmark
+    public ECKey recover() throws SignatureException {
+        return ECKey.signatureToKey(messageHash, signature);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.benchmark;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.datasource.LevelDbDataSource;
+import io.yggdrash.core.store.TempStateStore;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StateStoreBenchmark {
+    private static final int ACCOUNT_SIZE = 10000;
+
+    private Path dbPath;
+    private StateStore stateStore;
+    private TempStateStore tempStateStore;
+    private JsonObject balance;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        dbPath = Files.createTempDirectory("yggdrash-benchmark");
+        stateStore = new StateStore(new LevelDbDataSource(dbPath.toString(), "state"));
+
+        Map<String, JsonObject> accounts = new HashMap<>();
+        for (int i = 0; i < ACCOUNT_SIZE; i++) {
+            accounts.put(accountOf(i), balanceOf(i));
+        }
+        stateStore.updatePatch(accounts);
+        balance = balanceOf(ACCOUNT_SIZE);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpTempStateStore() {
+        tempStateStore = new TempStateStore(stateStore);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        stateStore.close();
+        FileUtils.deleteDirectory(dbPath.toFile());
+    }
+
+    @Benchmark
+    public JsonObject get() {
+        return stateStore.get(accountOf(next++ % ACCOUNT_SIZE));
+    }
+
+    @Benchmark
+    public void put() {
+        tempStateStore.put(accountOf(next++ % ACCOUNT_SIZE), balance);
+    }
+
+    private static String accountOf(int i) {
+        return String.format("%040x", i);
+    }
+
+    private static JsonObject balanceOf(int i) {
+        JsonObject balance = new JsonObject();
+        balance.addProperty("balance", i);
+        return balance;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.yggdrash.benchmark;
+
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.trie.Trie;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.blockchain.TransactionImpl;
+import io.yggdrash.proto.Proto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransactionBenchmark {
+    private static final int BLOCK_TX_SIZE = 1000;
+
+    private Transaction tx;
+    private byte[] txBinary;
+    private Proto.Transaction protoTx;
+    private List<Transaction> blockTxs;
+
+    @Setup
+    public void setUp() {
+        tx = BlockChainTestUtils.createTransferTx();
+        txBinary = tx.toBinary();
+        protoTx = tx.getProtoTransaction();
+        blockTxs = IntStream.range(0, BLOCK_TX_SIZE)
+                .mapToObj(i -> BlockChainTestUtils.createTransferTx()).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Transaction parse() {
+        return new TransactionImpl(txBinary);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return tx.toBinary();
+    }
+
+    @Benchmark
+    public Sha3Hash getHash() {
+        // The hash is cached by the instance
+        return new TransactionImpl(protoTx).getHash();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public byte[] getMerkleRoot() {
+        return Trie.getMerkleRoot(blockTxs);
+    }
+}
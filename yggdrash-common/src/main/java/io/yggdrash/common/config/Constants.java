@@ -69,6 +69,10 @@ public final class Constants {
     public static final String YGGDRASH_ADMIN_TIMEOUT = "yggdrash.admin.timeout";
     public static final String YGGDRASH_CONTRACT_PATH = "yggdrash.contract.path";
     public static final String YGGDRASH_CONTRACT_URL = "yggdrash.contract.url";
+    public static final String YGGDRASH_CONTRACT_EXECUTOR_THREADS = "yggdrash.contract.executor.threads";
+    public static final String YGGDRASH_TXPOOL_MAX_COUNT = "yggdrash.txpool.max.count";
+    public static final String YGGDRASH_TXPOOL_MAX_BYTES = "yggdrash.txpool.max.bytes";
+    public static final String YGGDRASH_PBFT_CERTIFICATE_COMPACT = "yggdrash.pbft.certificate.compact";
     public static final String YGGDRASH_OSGI_PATH = "yggdrash.osgi.path";
     public static final String YGGDRASH_BRANCH_PATH = "yggdrash.branch.path";
 
@@ -101,6 +105,8 @@ public final class Constants {
     public static final long TIMEOUT_STATUS = 5;
 
     public static final long BLOCK_SYNC_COUNT = 10;
+    // The blocks are streamed in the messages of up to BLOCK_SYNC_SIZE
+    public static final long BLOCK_STREAM_COUNT = 100;
     public static final long TRANSACTION_UNCONFIRMED_MAX = 1000;
 
     // Base currency
@@ -111,6 +117,8 @@ public final class Constants {
         }
 
         public static final long BLOCK_SYNC_SIZE = 3 * 1024 * 1024L; // 3MB
+        public static final int TX_POOL_MAX_COUNT = 10000;
+        public static final long TX_POOL_MAX_BYTES = 32 * 1024 * 1024L; // 32MB
     }
 
     public final class Key {
@@ -1,18 +1,35 @@
 package io.yggdrash.common.store;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.gson.JsonObject;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.yggdrash.common.store.datasource.DbSource;
-import io.yggdrash.common.store.datasource.LevelDbDataSource;
-import io.yggdrash.common.utils.JsonUtil;
-import io.yggdrash.common.utils.SerializationUtil;
 import io.yggdrash.contract.core.store.ReadWriterStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
 
+/**
+ * The state values are stored by StateValueCodec, and the values stored as the JSON text are migrated on open.
+ * <p>
+ * The decoded values and the missing keys are cached up to CACHE_BYTES of the encoded values,
+ * so the hot keys are read without the lock and the database. The cache is updated with the database
+ * under the lock, and the values are copied in and out of the cache since JsonObject is mutable.
+ * <p>
+ * A snapshot of the values as of the last block is pinned by every updatePatch(). The writes keep the values
+ * they replace in the live snapshots, so the snapshots are read without blocking the writes and the writes are
+ * not blocked by the reads of the snapshots.
+ */
 public class StateStore implements ReadWriterStore<String, JsonObject> {
 
     private static final Logger log = LoggerFactory.getLogger(StateStore.class);
@@ -21,27 +38,116 @@ public class StateStore implements ReadWriterStore<String, JsonObject> {
     private static final String STATE_ROOT = "stateRoot";
     private static final String STATE_HASH = "stateHash";
 
+    // The keys are UTF-8 strings which never have 0xff, so the range covers all the values
+    private static final byte[] FIRST_KEY = new byte[0];
+    private static final byte[] LAST_KEY = {(byte) 0xff};
+    // Marks the values are migrated, out of the range of the keys
+    private static final byte[] FORMAT_KEY = {(byte) 0xff, 'f', 'o', 'r', 'm', 'a', 't'};
+    private static final int MIGRATION_BATCH_ROWS = 2000;
+
+    private static final long CACHE_BYTES = 32 * 1024 * 1024L;
+
     private final ReentrantLock lock = new ReentrantLock();
+    private final Cache<String, CachedValue> cache;
+
+    // The snapshots which are pinned or read
+    private final Set<Snapshot> snapshots = ConcurrentHashMap.newKeySet();
+    private volatile Snapshot latestSnapshot;
 
     public StateStore(DbSource<byte[], byte[]> dbSource) {
         this.db = dbSource.init();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(CACHE_BYTES)
+                .weigher((String key, CachedValue value) -> key.length() + value.bytes)
+                .recordStats()
+                .build();
+        // The values are scanned only by the first open after the upgrade, the marker is checked otherwise
+        if (!isMigrated()) {
+            migrateLegacyValues();
+        }
+        this.latestSnapshot = newSnapshot(0);
+    }
+
+    public void bindTo(MeterRegistry registry, String branch) {
+        FunctionCounter.builder("yggdrash.state.cache.requests", cache, c -> c.stats().hitCount())
+                .description("The number of the state reads by the cache")
+                .tag("branch", branch)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("yggdrash.state.cache.requests", cache, c -> c.stats().missCount())
+                .description("The number of the state reads by the cache")
+                .tag("branch", branch)
+                .tag("result", "miss")
+                .register(registry);
     }
 
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Apply the changes of a block to the database and the cache at once, and pin the snapshot of the block
+     */
     public void updatePatch(Map<String, JsonObject> result) {
-        if (db instanceof LevelDbDataSource) {
-            LevelDbDataSource levelDbDataSource = (LevelDbDataSource) this.db;
-            levelDbDataSource.updateByBatch(convertToByteMap(result));
-        } else {
-            result.forEach(this::put);
+        lock.lock();
+        try {
+            Map<byte[], byte[]> rows = new HashMap<>();
+            Map<String, CachedValue> values = new HashMap<>();
+            result.forEach((key, value) -> {
+                byte[] bytes = StateValueCodec.encode(value);
+                rows.put(key.getBytes(), bytes);
+                values.put(key, new CachedValue(value.deepCopy(), bytes.length));
+                preserve(key);
+            });
+            db.updateByBatch(rows);
+            cache.putAll(values);
+
+            Snapshot pinned = latestSnapshot;
+            latestSnapshot = newSnapshot(pinned.version + 1);
+            pinned.close();
+        } catch (RuntimeException e) {
+            cache.invalidateAll(result.keySet());
+            throw e;
+        } finally {
+            lock.unlock();
         }
     }
 
-    private Map<byte[], byte[]> convertToByteMap(Map<String, JsonObject> result) {
-        Map<byte[], byte[]> ret = new HashMap<>();
-        for (String k : result.keySet()) {
-            ret.put(k.getBytes(), SerializationUtil.serializeJson(result.get(k)));
+    /**
+     * Drop the cached values, e.g. when the changes of the database are rolled back
+     */
+    public void invalidateCache() {
+        lock.lock();
+        try {
+            cache.invalidateAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The version of the latest snapshot, which is the number of the blocks applied by updatePatch()
+     */
+    public long getVersion() {
+        return latestSnapshot.version;
+    }
+
+    /**
+     * Drop the cached values and the snapshot pinned after the version, when the changes of the database
+     * after the version are rolled back
+     */
+    public void rollback(long version) {
+        lock.lock();
+        try {
+            cache.invalidateAll();
+            Snapshot rolledBack = latestSnapshot;
+            if (rolledBack.version != version) {
+                latestSnapshot = newSnapshot(version);
+                rolledBack.close();
+            }
+        } finally {
+            lock.unlock();
         }
-        return ret;
     }
 
     @Override
@@ -51,45 +157,233 @@ public class StateStore implements ReadWriterStore<String, JsonObject> {
         }
 
         lock.lock();
-        log.trace("current STATEROOT: {}",
-                this.get(STATE_ROOT) == null ? "null" : this.get(STATE_ROOT).get(STATE_HASH).getAsString());
-        log.trace("Key: {} , Value: {}", key, value);
+        // The state root is read only for the trace
+        if (log.isTraceEnabled()) {
+            log.trace("current STATEROOT: {}",
+                    this.get(STATE_ROOT) == null ? "null" : this.get(STATE_ROOT).get(STATE_HASH).getAsString());
+            log.trace("Key: {} , Value: {}", key, value);
+        }
         try {
-            byte[] tempValue = SerializationUtil.serializeJson(value);
+            byte[] tempValue = StateValueCodec.encode(value);
+            preserve(key);
             db.put(key.getBytes(), tempValue);
+            cache.put(key, new CachedValue(value.deepCopy(), tempValue.length));
+        } catch (RuntimeException e) {
+            cache.invalidate(key);
+            throw e;
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Visit all the values in the order of the keys, they are read from the database apart from the cache
+     */
+    public void forEach(BiConsumer<String, JsonObject> visitor) {
+        db.scan(FIRST_KEY, LAST_KEY, (key, value) -> {
+            visitor.accept(new String(key), StateValueCodec.decode(value));
+            return true;
+        });
+    }
+
+    /**
+     * Get the snapshot of the values as of the last block. It is released by close().
+     */
+    public Snapshot getSnapshot() {
+        while (true) {
+            Snapshot snapshot = latestSnapshot;
+            if (snapshot.acquire()) {
+                return snapshot;
+            }
+        }
+    }
+
+    private Snapshot newSnapshot(long version) {
+        Snapshot snapshot = new Snapshot(version);
+        snapshots.add(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Keep the value before it is replaced in the live snapshots, it is called under the lock before the write
+     */
+    private void preserve(String key) {
+        // Read apart from the statistics of the cache, they count the reads of the callers
+        CachedValue current = cache.asMap().get(key);
+        if (current == null) {
+            byte[] result = db.get(key.getBytes());
+            current = result != null
+                    ? new CachedValue(StateValueCodec.decode(result), result.length) : CachedValue.MISSING;
+        }
+        for (Snapshot snapshot : snapshots) {
+            snapshot.preserved.putIfAbsent(key, current);
+        }
+    }
+
     @Override
     public JsonObject get(String key) {
+        JsonObject value = load(key).value;
+        return value != null ? value.deepCopy() : null;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return load(key).value != null;
+    }
+
+    @Override
+    public void close() {
+        cache.invalidateAll();
+        db.close();
+    }
+
+    private CachedValue load(String key) {
+        CachedValue cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        // The value is read under the lock, so it is not older than the value written meanwhile
         lock.lock();
         try {
             byte[] result = db.get(key.getBytes());
-            if (result == null) {
-                return null;
-            }
-            String tempValue = SerializationUtil.deserializeString(result);
-            return JsonUtil.parseJsonObject(tempValue);
+            CachedValue value = result != null
+                    ? new CachedValue(StateValueCodec.decode(result), result.length) : CachedValue.MISSING;
+            cache.put(key, value);
+            return value;
         } finally {
             lock.unlock();
         }
     }
 
-    @Override
-    public boolean contains(String key) {
+    /**
+     * The decoded value weighed by the encoded bytes, or the missing key
+     */
+    private static class CachedValue {
+        private static final CachedValue MISSING = new CachedValue(null, 0);
+
+        private final JsonObject value;
+        private final int bytes;
+
+        CachedValue(JsonObject value, int bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * The read-only values as of a block. The values replaced after the block are kept in the snapshot,
+     * and the others are read from the store.
+     */
+    public class Snapshot implements ReadWriterStore<String, JsonObject> {
+        private final long version;
+        private final Map<String, CachedValue> preserved = new ConcurrentHashMap<>();
+        // The store holds a reference while the snapshot is the latest one
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private Snapshot(long version) {
+            this.version = version;
+        }
+
+        /**
+         * The number of the blocks applied by updatePatch() before the snapshot
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        public JsonObject get(String key) {
+            JsonObject value = load(key).value;
+            return value != null ? value.deepCopy() : null;
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return load(key).value != null;
+        }
+
+        @Override
+        public void put(String key, JsonObject value) {
+            throw new UnsupportedOperationException("The snapshot is read only");
+        }
+
+        /**
+         * Release the snapshot, it is dropped when it is neither the latest nor read
+         */
+        @Override
+        public void close() {
+            if (references.decrementAndGet() == 0) {
+                snapshots.remove(this);
+                preserved.clear();
+            }
+        }
+
+        private boolean acquire() {
+            int count;
+            do {
+                count = references.get();
+                if (count == 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        private CachedValue load(String key) {
+            CachedValue value = preserved.get(key);
+            if (value != null) {
+                return value;
+            }
+            CachedValue current = StateStore.this.load(key);
+            // The value is preserved before it is replaced, so a value replaced meanwhile is found here
+            value = preserved.get(key);
+            return value != null ? value : current;
+        }
+    }
+
+    private boolean isMigrated() {
+        return db.get(FORMAT_KEY) != null;
+    }
+
+    /**
+     * Encode the values stored as the JSON text by StateValueCodec. Both of them are read until they are migrated.
+     * The format marker is written after the migration, so it runs once for a database.
+     *
+     * @return the number of the migrated values
+     */
+    public long migrateLegacyValues() {
         lock.lock();
         try {
-            return db.get(key.getBytes()) != null;
+            if (isMigrated()) {
+                return 0;
+            }
+            Map<byte[], byte[]> rows = new HashMap<>();
+            long[] count = new long[1];
+            db.scan(FIRST_KEY, LAST_KEY, (key, value) -> {
+                if (StateValueCodec.isBinary(value)) {
+                    return true;
+                }
+                try {
+                    rows.put(key, StateValueCodec.encode(StateValueCodec.decode(value)));
+                    count[0]++;
+                } catch (Exception e) {
+                    log.warn("The state value is not migrated. key={} {}", new String(key), e.getMessage());
+                }
+                if (rows.size() >= MIGRATION_BATCH_ROWS) {
+                    db.updateByBatch(rows);
+                    rows.clear();
+                }
+                return true;
+            });
+            rows.put(FORMAT_KEY, new byte[] {StateValueCodec.FORMAT_TREE});
+            db.updateByBatch(rows);
+            if (count[0] > 0) {
+                log.info("Migrated {} state values to the binary encoding.", count[0]);
+            }
+            return count[0];
         } finally {
             lock.unlock();
         }
     }
 
-    @Override
-    public void close() {
-        db.close();
-    }
-
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import io.yggdrash.common.utils.JsonUtil;
+import io.yggdrash.common.utils.SerializationUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The binary encoding of the state values instead of the JSON text.
+ * A value is a tree of the tagged elements, and the lengths and the sizes are prefixed as varints.
+ * The numbers are decoded as the JSON parser does, so a decoded value is written to JSON as it was.
+ * <p>
+ * FORMAT_TREE + element : any value
+ * FORMAT_BALANCE + integer bytes : {"balance": integer}
+ * <p>
+ * The values stored as the JSON text are still decoded, they start with '{' unlike the binary values.
+ */
+public final class StateValueCodec {
+    static final byte FORMAT_TREE = 1;
+    static final byte FORMAT_BALANCE = 2;
+
+    private static final String BALANCE = "balance";
+
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+    private static final byte STRING = 3;
+    // An integer in the canonical text, stored as the two's complement bytes
+    private static final byte INTEGER = 4;
+    // Any other number, stored as the text
+    private static final byte NUMBER = 5;
+    private static final byte TRUE = 6;
+    private static final byte FALSE = 7;
+    private static final byte NULL = 8;
+
+    private StateValueCodec() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static byte[] encode(JsonObject value) {
+        String balance = balanceOf(value);
+        if (balance != null) {
+            byte[] integer = new BigInteger(balance).toByteArray();
+            byte[] bytes = new byte[integer.length + 1];
+            bytes[0] = FORMAT_BALANCE;
+            System.arraycopy(integer, 0, bytes, 1, integer.length);
+            return bytes;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(FORMAT_TREE);
+        writeElement(out, value);
+        return out.toByteArray();
+    }
+
+    public static JsonObject decode(byte[] bytes) {
+        if (!isBinary(bytes)) {
+            return JsonUtil.parseJsonObject(SerializationUtil.deserializeString(bytes));
+        }
+
+        if (bytes[0] == FORMAT_BALANCE) {
+            JsonObject value = new JsonObject();
+            BigInteger balance = new BigInteger(Arrays.copyOfRange(bytes, 1, bytes.length));
+            value.add(BALANCE, new JsonPrimitive(new LazilyParsedNumber(balance.toString())));
+            return value;
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        return readElement(in).getAsJsonObject();
+    }
+
+    /**
+     * Whether the value is encoded by the codec, or stored as the JSON text
+     */
+    public static boolean isBinary(byte[] bytes) {
+        return bytes.length > 0 && (bytes[0] == FORMAT_TREE || bytes[0] == FORMAT_BALANCE);
+    }
+
+    private static String balanceOf(JsonObject value) {
+        if (value.size() != 1 || !value.has(BALANCE)) {
+            return null;
+        }
+        JsonElement balance = value.get(BALANCE);
+        if (!balance.isJsonPrimitive() || !balance.getAsJsonPrimitive().isNumber()) {
+            return null;
+        }
+        String text = balance.getAsString();
+        return isCanonicalInteger(text) ? text : null;
+    }
+
+    private static void writeElement(ByteArrayOutputStream out, JsonElement element) {
+        if (element.isJsonObject()) {
+            out.write(OBJECT);
+            writeVarint(out, element.getAsJsonObject().size());
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                writeBytes(out, entry.getKey().getBytes(StandardCharsets.UTF_8));
+                writeElement(out, entry.getValue());
+            }
+        } else if (element.isJsonArray()) {
+            out.write(ARRAY);
+            writeVarint(out, element.getAsJsonArray().size());
+            for (JsonElement item : element.getAsJsonArray()) {
+                writeElement(out, item);
+            }
+        } else if (element.isJsonNull()) {
+            out.write(NULL);
+        } else {
+            writePrimitive(out, element.getAsJsonPrimitive());
+        }
+    }
+
+    private static void writePrimitive(ByteArrayOutputStream out, JsonPrimitive primitive) {
+        if (primitive.isBoolean()) {
+            out.write(primitive.getAsBoolean() ? TRUE : FALSE);
+        } else if (primitive.isNumber()) {
+            // The text of the number is what the JSON text has
+            String text = primitive.getAsString();
+            if (isCanonicalInteger(text)) {
+                out.write(INTEGER);
+                writeBytes(out, new BigInteger(text).toByteArray());
+            } else {
+                out.write(NUMBER);
+                writeBytes(out, text.getBytes(StandardCharsets.UTF_8));
+            }
+        } else {
+            out.write(STRING);
+            writeBytes(out, primitive.getAsString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static JsonElement readElement(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case OBJECT:
+                JsonObject object = new JsonObject();
+                for (int size = readVarint(in); size > 0; size--) {
+                    String name = new String(readBytes(in), StandardCharsets.UTF_8);
+                    object.add(name, readElement(in));
+                }
+                return object;
+            case ARRAY:
+                JsonArray array = new JsonArray();
+                for (int size = readVarint(in); size > 0; size--) {
+                    array.add(readElement(in));
+                }
+                return array;
+            case STRING:
+                return new JsonPrimitive(new String(readBytes(in), StandardCharsets.UTF_8));
+            case INTEGER:
+                return new JsonPrimitive(new LazilyParsedNumber(new BigInteger(readBytes(in)).toString()));
+            case NUMBER:
+                return new JsonPrimitive(new LazilyParsedNumber(new String(readBytes(in), StandardCharsets.UTF_8)));
+            case TRUE:
+                return new JsonPrimitive(true);
+            case FALSE:
+                return new JsonPrimitive(false);
+            case NULL:
+                return JsonNull.INSTANCE;
+            default:
+                throw new IllegalArgumentException("Unknown tag of the state value " + tag);
+        }
+    }
+
+    /**
+     * Whether the text is an integer which BigInteger writes as it is, e.g. not "-0" or "1e3"
+     */
+    private static boolean isCanonicalInteger(String text) {
+        int start = text.startsWith("-") ? 1 : 0;
+        if (text.length() == start || (text.charAt(start) == '0' && (text.length() > start + 1 || start == 1))) {
+            return false;
+        }
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, byte[] bytes) {
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        byte[] bytes = new byte[readVarint(in)];
+        in.get(bytes);
+        return bytes;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint of the state value");
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store.datasource;
+
+import com.google.common.primitives.UnsignedBytes;
+import org.iq80.leveldb.Options;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.BiPredicate;
+
+/**
+ * DbSource which collects the writes of a thread between startBatch() and commitBatch(),
+ * and writes them to the origin source in a single batch.
+ * The collected writes are visible only to the reads of the thread before they are committed,
+ * the other threads read and write the origin source meanwhile.
+ */
+public class BatchDbSource implements DbSource<byte[], byte[]> {
+    // Marks a deleted key in the collected writes
+    private static final byte[] DELETED = new byte[0];
+    private static final Comparator<byte[]> KEY_ORDER = UnsignedBytes.lexicographicalComparator();
+
+    private final DbSource<byte[], byte[]> origin;
+    // The writes collected by the thread in the batch
+    private final ThreadLocal<Map<ByteBuffer, byte[]>> batch = new ThreadLocal<>();
+
+    public BatchDbSource(DbSource<byte[], byte[]> origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public DbSource<byte[], byte[]> init() {
+        origin.init();
+        return this;
+    }
+
+    @Override
+    public DbSource<byte[], byte[]> init(Options options) {
+        origin.init(options);
+        return this;
+    }
+
+    /**
+     * Collect the writes of the current thread until commitBatch()
+     */
+    public void startBatch() {
+        if (batch.get() == null) {
+            batch.set(new HashMap<>());
+        }
+    }
+
+    public void commitBatch() {
+        Map<ByteBuffer, byte[]> pending = batch.get();
+        if (pending == null) {
+            return;
+        }
+        if (!pending.isEmpty()) {
+            Map<byte[], byte[]> rows = new LinkedHashMap<>();
+            pending.forEach((key, value) -> rows.put(key.array(), value == DELETED ? null : value));
+            origin.updateByBatch(rows);
+        }
+        batch.remove();
+    }
+
+    /**
+     * Drop the collected writes of the current thread, e.g. when the block is failed to commit
+     */
+    public void discardBatch() {
+        batch.remove();
+    }
+
+    /**
+     * Whether the writes of the current thread are collected
+     */
+    public boolean isBatching() {
+        return batch.get() != null;
+    }
+
+    @Override
+    public byte[] get(byte[] key) {
+        Map<ByteBuffer, byte[]> pending = batch.get();
+        if (pending != null) {
+            byte[] value = pending.get(ByteBuffer.wrap(key));
+            if (value != null) {
+                return value == DELETED ? null : value;
+            }
+        }
+        return origin.get(key);
+    }
+
+    @Override
+    public void put(byte[] key, byte[] value) {
+        Map<ByteBuffer, byte[]> pending = batch.get();
+        if (pending != null) {
+            pending.put(ByteBuffer.wrap(key.clone()), value);
+        } else {
+            origin.put(key, value);
+        }
+    }
+
+    @Override
+    public void delete(byte[] key) {
+        Map<ByteBuffer, byte[]> pending = batch.get();
+        if (pending != null) {
+            pending.put(ByteBuffer.wrap(key.clone()), DELETED);
+        } else {
+            origin.delete(key);
+        }
+    }
+
+    @Override
+    public void updateByBatch(Map<byte[], byte[]> rows) {
+        Map<ByteBuffer, byte[]> pending = batch.get();
+        if (pending != null) {
+            rows.forEach((key, value) -> pending.put(ByteBuffer.wrap(key.clone()), value == null ? DELETED : value));
+        } else {
+            origin.updateByBatch(rows);
+        }
+    }
+
+    /**
+     * The collected writes in the range are merged into the entries of the origin source
+     */
+    @Override
+    public void scan(byte[] fromKey, byte[] toKey, BiPredicate<byte[], byte[]> visitor) {
+        NavigableMap<byte[], byte[]> writes = new TreeMap<>(KEY_ORDER);
+        Map<ByteBuffer, byte[]> pending = batch.get();
+        if (pending != null) {
+            pending.forEach((key, value) -> {
+                byte[] bytes = key.array();
+                if (KEY_ORDER.compare(bytes, fromKey) >= 0 && KEY_ORDER.compare(bytes, toKey) <= 0) {
+                    writes.put(bytes, value);
+                }
+            });
+        }
+        if (writes.isEmpty()) {
+            origin.scan(fromKey, toKey, visitor);
+            return;
+        }
+
+        MergingVisitor merging = new MergingVisitor(writes, visitor);
+        origin.scan(fromKey, toKey, merging);
+        merging.finish();
+    }
+
+    @Override
+    public void close() {
+        commitBatch();
+        origin.close();
+    }
+
+    /**
+     * Visits the entries of the origin source and the collected writes in the order of the keys
+     */
+    private static class MergingVisitor implements BiPredicate<byte[], byte[]> {
+        private final Iterator<Map.Entry<byte[], byte[]>> writes;
+        private final BiPredicate<byte[], byte[]> visitor;
+        private Map.Entry<byte[], byte[]> nextWrite;
+        private boolean stopped;
+
+        MergingVisitor(NavigableMap<byte[], byte[]> writes, BiPredicate<byte[], byte[]> visitor) {
+            this.writes = writes.entrySet().iterator();
+            this.visitor = visitor;
+            this.nextWrite = this.writes.next();
+        }
+
+        @Override
+        public boolean test(byte[] key, byte[] value) {
+            // The written keys before the key
+            while (nextWrite != null && KEY_ORDER.compare(nextWrite.getKey(), key) < 0) {
+                if (!visitWrite()) {
+                    return false;
+                }
+            }
+            if (nextWrite != null && KEY_ORDER.compare(nextWrite.getKey(), key) == 0) {
+                return visitWrite();
+            }
+            stopped = !visitor.test(key, value);
+            return !stopped;
+        }
+
+        /**
+         * Visit the written keys after the last key of the origin source
+         */
+        void finish() {
+            while (!stopped && nextWrite != null) {
+                visitWrite();
+            }
+        }
+
+        private boolean visitWrite() {
+            Map.Entry<byte[], byte[]> write = nextWrite;
+            nextWrite = writes.hasNext() ? writes.next() : null;
+            stopped = write.getValue() != DELETED && !visitor.test(write.getKey(), write.getValue());
+            return !stopped;
+        }
+    }
+}
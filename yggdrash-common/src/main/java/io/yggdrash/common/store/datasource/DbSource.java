@@ -18,6 +18,9 @@ package io.yggdrash.common.store.datasource;
 
 import org.iq80.leveldb.Options;
 
+import java.util.Map;
+import java.util.function.BiPredicate;
+
 public interface DbSource<K, V> {
     DbSource<K, V> init();
 
@@ -30,4 +33,25 @@ public interface DbSource<K, V> {
     void close();
 
     void delete(K key);
+
+    /**
+     * Write the rows at once if the source supports it. A null value deletes the key.
+     */
+    default void updateByBatch(Map<K, V> rows) {
+        rows.forEach((key, value) -> {
+            if (value == null) {
+                delete(key);
+            } else {
+                put(key, value);
+            }
+        });
+    }
+
+    /**
+     * Visit the entries from the start key to the end key, both inclusive, in the unsigned order of the keys,
+     * until the visitor returns false. Only the sources keeping the keys in order support it.
+     */
+    default void scan(K fromKey, K toKey, BiPredicate<K, V> visitor) {
+        throw new UnsupportedOperationException("The keys are not in order");
+    }
 }
@@ -16,11 +16,14 @@
 
 package io.yggdrash.common.store.datasource;
 
+import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
 import org.iq80.leveldb.Options;
 
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
 
 public class HashMapDbSource implements DbSource<byte[], byte[]> {
     private Map<String, byte[]> db;
@@ -47,6 +50,30 @@ public class HashMapDbSource implements DbSource<byte[], byte[]> {
         db.put(Hex.encodeHexString(key), value);
     }
 
+    /**
+     * The hex strings of the keys are in the unsigned order of the keys
+     */
+    @Override
+    public void scan(byte[] fromKey, byte[] toKey, BiPredicate<byte[], byte[]> visitor) {
+        String from = Hex.encodeHexString(fromKey);
+        String to = Hex.encodeHexString(toKey);
+        Map<String, byte[]> entries = new TreeMap<>();
+        db.forEach((key, value) -> {
+            if (key.compareTo(from) >= 0 && key.compareTo(to) <= 0) {
+                entries.put(key, value);
+            }
+        });
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            try {
+                if (!visitor.test(Hex.decodeHex(entry.getKey().toCharArray()), entry.getValue())) {
+                    return;
+                }
+            } catch (DecoderException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
     @Override
     public void close() {
         db = null;
@@ -16,9 +16,13 @@
 
 package io.yggdrash.common.store.datasource;
 
+import com.google.common.primitives.UnsignedBytes;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.yggdrash.common.exception.FailedOperationException;
 import io.yggdrash.common.utils.FileUtil;
 import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.WriteBatch;
 import org.iq80.leveldb.impl.Iq80DBFactory;
@@ -29,17 +33,25 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Comparator;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiPredicate;
 
 public class LevelDbDataSource implements DbSource<byte[], byte[]> {
 
     private static final Logger log = LoggerFactory.getLogger(LevelDbDataSource.class);
+    private static final Comparator<byte[]> KEY_ORDER = UnsignedBytes.lexicographicalComparator();
 
     private final ReadWriteLock resetDbLock = new ReentrantReadWriteLock();
     private final String name;
     private final String dbPath;
+    private final Timer readTimer;
+    private final Timer writeTimer;
+    private final Timer batchTimer;
+    private final Timer scanTimer;
 
     private boolean alive;
     private DB db;
@@ -47,6 +59,19 @@ public class LevelDbDataSource implements DbSource<byte[], byte[]> {
     public LevelDbDataSource(String dbPath, String name) {
         this.dbPath = dbPath;
         this.name = name;
+        this.readTimer = dbTimer(name, "read");
+        this.writeTimer = dbTimer(name, "write");
+        this.batchTimer = dbTimer(name, "batch");
+        this.scanTimer = dbTimer(name, "scan");
+    }
+
+    private static Timer dbTimer(String name, String operation) {
+        return Timer.builder("yggdrash.db.latency")
+                .description("The latency of the LevelDB operations")
+                .tag("db", String.valueOf(name))
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
     }
 
     public DbSource<byte[], byte[]> init() {
@@ -101,24 +126,30 @@ public class LevelDbDataSource implements DbSource<byte[], byte[]> {
     }
 
     public void put(byte[] key, byte[] value) {
+        long started = System.nanoTime();
         resetDbLock.readLock().lock();
         try {
             db.put(key, value);
         } finally {
             resetDbLock.readLock().unlock();
+            writeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         }
     }
 
     public byte[] get(byte[] key) {
+        long started = System.nanoTime();
         resetDbLock.readLock().lock();
         try {
             return db.get(key);
         } finally {
             resetDbLock.readLock().unlock();
+            readTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         }
     }
 
+    @Override
     public void updateByBatch(Map<byte[], byte[]> rows) {
+        long started = System.nanoTime();
         resetDbLock.readLock().lock();
         log.trace("UpdateByBatch Rows size: {}", rows.size());
         try (WriteBatch batch = db.createWriteBatch()) {
@@ -134,6 +165,26 @@ public class LevelDbDataSource implements DbSource<byte[], byte[]> {
             log.debug(e.getMessage());
         } finally {
             resetDbLock.readLock().unlock();
+            batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void scan(byte[] fromKey, byte[] toKey, BiPredicate<byte[], byte[]> visitor) {
+        long started = System.nanoTime();
+        resetDbLock.readLock().lock();
+        try (DBIterator iterator = db.iterator()) {
+            for (iterator.seek(fromKey); iterator.hasNext(); ) {
+                Map.Entry<byte[], byte[]> entry = iterator.next();
+                if (KEY_ORDER.compare(entry.getKey(), toKey) > 0 || !visitor.test(entry.getKey(), entry.getValue())) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            log.debug(e.getMessage());
+        } finally {
+            resetDbLock.readLock().unlock();
+            scanTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         }
     }
 
@@ -160,11 +211,13 @@ public class LevelDbDataSource implements DbSource<byte[], byte[]> {
 
     @Override
     public void delete(byte[] key) {
+        long started = System.nanoTime();
         resetDbLock.readLock().lock();
         try {
             db.delete(key);
         } finally {
             resetDbLock.readLock().unlock();
+            writeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         }
     }
 
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import io.yggdrash.common.utils.JsonUtil;
+import io.yggdrash.common.utils.SerializationUtil;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StateValueCodecTest {
+
+    @Test
+    public void balanceShouldBeEncodedAsInteger() {
+        JsonObject value = new JsonObject();
+        value.addProperty("balance", new BigInteger("1000000000000000000000"));
+
+        byte[] bytes = StateValueCodec.encode(value);
+        assertThat(bytes[0]).isEqualTo(StateValueCodec.FORMAT_BALANCE);
+        assertThat(bytes.length).isLessThan(SerializationUtil.serializeJson(value).length);
+
+        JsonObject decoded = StateValueCodec.decode(bytes);
+        assertThat(decoded.get("balance").getAsBigInteger()).isEqualTo(new BigInteger("1000000000000000000000"));
+        assertThat(decoded.toString()).isEqualTo(value.toString());
+    }
+
+    @Test
+    public void valueShouldBeWrittenToJsonAsItWas() {
+        JsonObject value = new JsonObject();
+        value.addProperty("name", "yggdrash");
+        value.addProperty("negative", -123);
+        value.addProperty("decimal", 1.50);
+        value.addProperty("zero", 0);
+        value.addProperty("flag", true);
+        value.add("none", JsonNull.INSTANCE);
+        JsonArray array = new JsonArray();
+        array.add("a");
+        array.add(new JsonObject());
+        value.add("array", array);
+        JsonObject nested = new JsonObject();
+        nested.addProperty("balance", 10);
+        value.add("nested", nested);
+
+        byte[] bytes = StateValueCodec.encode(value);
+        assertThat(bytes[0]).isEqualTo(StateValueCodec.FORMAT_TREE);
+
+        JsonObject decoded = StateValueCodec.decode(bytes);
+        // The state root is hashed from the JSON text of the values
+        assertThat(decoded.toString()).isEqualTo(value.toString());
+        assertThat(decoded).isEqualTo(JsonUtil.parseJsonObject(value.toString()));
+    }
+
+    @Test
+    public void jsonTextShouldBeDecoded() {
+        byte[] legacy = SerializationUtil.serializeString("{\"balance\":100,\"memo\":\"legacy\"}");
+
+        assertThat(StateValueCodec.isBinary(legacy)).isFalse();
+        JsonObject decoded = StateValueCodec.decode(legacy);
+        assertThat(decoded.get("balance").getAsBigInteger()).isEqualTo(BigInteger.valueOf(100));
+        assertThat(decoded.get("memo").getAsString()).isEqualTo("legacy");
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store.datasource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchDbSourceTest {
+    private HashMapDbSource origin;
+    private BatchDbSource ds;
+
+    @Before
+    public void setUp() {
+        origin = new HashMapDbSource();
+        ds = new BatchDbSource(origin);
+        ds.init();
+    }
+
+    @Test
+    public void shouldBeWrittenOnCommit() {
+        origin.put("deleted".getBytes(), "value".getBytes());
+
+        ds.startBatch();
+        ds.put("key".getBytes(), "value".getBytes());
+        ds.put("key".getBytes(), "changed".getBytes());
+        ds.delete("deleted".getBytes());
+        Map<byte[], byte[]> rows = new HashMap<>();
+        rows.put("row".getBytes(), "value".getBytes());
+        ds.updateByBatch(rows);
+
+        // The pending writes are visible only through the batch source
+        assertThat(ds.get("key".getBytes())).isEqualTo("changed".getBytes());
+        assertThat(ds.get("row".getBytes())).isEqualTo("value".getBytes());
+        assertThat(ds.get("deleted".getBytes())).isNull();
+        assertThat(origin.get("key".getBytes())).isNull();
+        assertThat(origin.get("deleted".getBytes())).isEqualTo("value".getBytes());
+
+        ds.commitBatch();
+        assertThat(ds.isBatching()).isFalse();
+        assertThat(origin.get("key".getBytes())).isEqualTo("changed".getBytes());
+        assertThat(origin.get("row".getBytes())).isEqualTo("value".getBytes());
+        assertThat(origin.get("deleted".getBytes())).isNull();
+    }
+
+    @Test
+    public void shouldBeDroppedOnDiscard() {
+        origin.put("key".getBytes(), "value".getBytes());
+
+        ds.startBatch();
+        ds.put("key".getBytes(), "changed".getBytes());
+        ds.put("added".getBytes(), "value".getBytes());
+        ds.discardBatch();
+
+        assertThat(ds.isBatching()).isFalse();
+        assertThat(ds.get("key".getBytes())).isEqualTo("value".getBytes());
+        assertThat(ds.get("added".getBytes())).isNull();
+        ds.commitBatch();
+        assertThat(origin.get("added".getBytes())).isNull();
+    }
+
+    @Test
+    public void otherThreadsShouldNotBeBatched() throws Exception {
+        origin.put("key".getBytes(), "value".getBytes());
+
+        ds.startBatch();
+        ds.put("key".getBytes(), "changed".getBytes());
+
+        // The other threads neither read the collected writes nor write into the batch
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(executor.submit(() -> ds.get("key".getBytes())).get()).isEqualTo("value".getBytes());
+            executor.submit(() -> ds.put("other".getBytes(), "value".getBytes())).get();
+            assertThat(executor.submit(ds::isBatching).get()).isFalse();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(origin.get("other".getBytes())).isEqualTo("value".getBytes());
+
+        ds.discardBatch();
+        assertThat(ds.get("key".getBytes())).isEqualTo("value".getBytes());
+        assertThat(ds.get("other".getBytes())).isEqualTo("value".getBytes());
+    }
+
+    @Test
+    public void scanShouldMergePendingWrites() {
+        origin.put(new byte[] {1}, "origin".getBytes());
+        origin.put(new byte[] {2}, "deleted".getBytes());
+        origin.put(new byte[] {4}, "origin".getBytes());
+
+        ds.startBatch();
+        ds.put(new byte[] {1}, "changed".getBytes());
+        ds.delete(new byte[] {2});
+        ds.put(new byte[] {3}, "added".getBytes());
+        ds.put(new byte[] {(byte) 0x80}, "added".getBytes());
+
+        List<String> values = new ArrayList<>();
+        ds.scan(new byte[] {1}, new byte[] {(byte) 0xff}, (key, value) -> values.add(new String(value)));
+        assertThat(values).containsExactly("changed", "added", "origin", "added");
+
+        values.clear();
+        ds.scan(new byte[] {1}, new byte[] {(byte) 0xff}, (key, value) -> values.add(new String(value))
+                && values.size() < 2);
+        assertThat(values).containsExactly("changed", "added");
+    }
+
+    @Test
+    public void shouldBeWrittenDirectlyWithoutBatch() {
+        ds.put("key".getBytes(), "value".getBytes());
+        assertThat(origin.get("key".getBytes())).isEqualTo("value".getBytes());
+
+        ds.delete("key".getBytes());
+        assertThat(origin.get("key".getBytes())).isNull();
+    }
+}
@@ -22,7 +22,9 @@ import org.junit.AfterClass;
 import org.junit.Test;
 
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
@@ -86,6 +88,25 @@ public class LevelDbDataSourceTest {
         return value;
     }
 
+    @Test
+    public void shouldBeScannedInKeyOrder() {
+        LevelDbDataSource ds = new LevelDbDataSource(dbPath, "scan-test");
+        ds.init();
+
+        for (int i = 0; i < 0x100; i += 0x10) {
+            ds.put(new byte[] {(byte) i}, new byte[] {(byte) i});
+        }
+
+        List<Integer> keys = new ArrayList<>();
+        ds.scan(new byte[] {0x70}, new byte[] {(byte) 0x90}, (key, value) -> keys.add(key[0] & 0xff));
+        Assertions.assertThat(keys).containsExactly(0x70, 0x80, 0x90);
+
+        keys.clear();
+        ds.scan(new byte[] {0x05}, new byte[] {(byte) 0xff}, (key, value) -> keys.add(key[0] & 0xff)
+                && keys.size() < 2);
+        Assertions.assertThat(keys).containsExactly(0x10, 0x20);
+    }
+
     @Test
     public void shouldInitialize() {
         String dbName = "initial-test";
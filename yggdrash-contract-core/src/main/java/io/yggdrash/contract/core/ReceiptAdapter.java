@@ -5,10 +5,11 @@ import java.util.Set;
 
 public class ReceiptAdapter implements Receipt {
 
-    Receipt tr;
+    // Bound per thread so that transactions executed on parallel workers keep their own receipt
+    private final ThreadLocal<Receipt> tr = new ThreadLocal<>();
 
     public void setReceipt(Receipt tr) {
-        this.tr = tr;
+        this.tr.set(tr);
     }
 
     @Override
@@ -48,82 +49,82 @@ public class ReceiptAdapter implements Receipt {
 
     @Override
     public void addLog(String log) {
-        this.tr.addLog(log);
+        this.tr.get().addLog(log);
     }
 
     @Override
     public void setStatus(ExecuteStatus status) {
-        this.tr.setStatus(status);
+        this.tr.get().setStatus(status);
     }
 
     @Override
     public void setEvent(ContractEventSet event) {
-        this.tr.setEvent(event);
+        this.tr.get().setEvent(event);
     }
 
     @Override
     public String getIssuer() {
-        return this.tr.getIssuer();
+        return this.tr.get().getIssuer();
     }
 
     @Override
     public String getBranchId() {
-        return this.tr.getBranchId();
+        return this.tr.get().getBranchId();
     }
 
     @Override
     public String getBlockId() {
-        return this.tr.getBlockId();
+        return this.tr.get().getBlockId();
     }
 
     @Override
     public Long getBlockSize() {
-        return this.tr.getBlockSize();
+        return this.tr.get().getBlockSize();
     }
 
     @Override
     public Long getBlockHeight() {
-        return this.tr.getBlockHeight();
+        return this.tr.get().getBlockHeight();
     }
 
     @Override
     public String getTxId() {
-        return this.tr.getTxId();
+        return this.tr.get().getTxId();
     }
 
     @Override
     public Long getTxSize() {
-        return this.tr.getTxSize();
+        return this.tr.get().getTxSize();
     }
 
     @Override
     public String getContractVersion() {
-        return this.tr.getContractVersion();
+        return this.tr.get().getContractVersion();
     }
 
     @Override
     public String getMethod() {
-        return this.tr.getMethod();
+        return this.tr.get().getMethod();
     }
 
     @Override
     public List<String> getLog() {
-        return this.tr.getLog();
+        return this.tr.get().getLog();
     }
 
     @Override
     public boolean isSuccess() {
-        return this.tr.isSuccess();
+        return this.tr.get().isSuccess();
     }
 
     @Override
     public ExecuteStatus getStatus() {
-        return tr.getStatus();
+        return tr.get().getStatus();
     }
 
     @Override
     public Set<ContractEvent> getEvents() {
-        return this.tr.getEvents();
+        return this.tr.get().getEvents();
     }
 
 }
@@ -16,6 +16,7 @@ import static io.yggdrash.common.config.Constants.VALIDATOR_DATABASE_PATH;
 import static io.yggdrash.common.config.Constants.VALIDATOR_PATH;
 import static io.yggdrash.common.config.Constants.YGGDRASH_ADMIN_PATH;
 import static io.yggdrash.common.config.Constants.YGGDRASH_BRANCH_PATH;
+import static io.yggdrash.common.config.Constants.YGGDRASH_CONTRACT_EXECUTOR_THREADS;
 import static io.yggdrash.common.config.Constants.YGGDRASH_CONTRACT_PATH;
 import static io.yggdrash.common.config.Constants.YGGDRASH_CONTRACT_URL;
 import static io.yggdrash.common.config.Constants.YGGDRASH_DATABASE_PATH;
@@ -24,6 +25,9 @@ import static io.yggdrash.common.config.Constants.YGGDRASH_KEY_PATH;
 import static io.yggdrash.common.config.Constants.YGGDRASH_NETWORK_ID;
 import static io.yggdrash.common.config.Constants.YGGDRASH_NETWORK_P2P_VERSION;
 import static io.yggdrash.common.config.Constants.YGGDRASH_OSGI_PATH;
+import static io.yggdrash.common.config.Constants.YGGDRASH_PBFT_CERTIFICATE_COMPACT;
+import static io.yggdrash.common.config.Constants.YGGDRASH_TXPOOL_MAX_BYTES;
+import static io.yggdrash.common.config.Constants.YGGDRASH_TXPOOL_MAX_COUNT;
 import static io.yggdrash.common.config.Constants.YGG_CONF_PATH;
 import static io.yggdrash.common.config.Constants.YGG_DATA_PATH;
 import static io.yggdrash.common.config.Constants.YGG_DEFAULT_FILENAME;
@@ -154,6 +158,26 @@ public class DefaultConfig {
         return config.getString(YGGDRASH_CONTRACT_PATH);
     }
 
+    public int getContractExecutorThreads() {
+        return config.hasPath(YGGDRASH_CONTRACT_EXECUTOR_THREADS)
+                ? config.getInt(YGGDRASH_CONTRACT_EXECUTOR_THREADS) : 1;
+    }
+
+    public int getTxPoolMaxCount() {
+        return config.hasPath(YGGDRASH_TXPOOL_MAX_COUNT)
+                ? config.getInt(YGGDRASH_TXPOOL_MAX_COUNT) : Constants.Limit.TX_POOL_MAX_COUNT;
+    }
+
+    public long getTxPoolMaxBytes() {
+        return config.hasPath(YGGDRASH_TXPOOL_MAX_BYTES)
+                ? config.getBytes(YGGDRASH_TXPOOL_MAX_BYTES) : Constants.Limit.TX_POOL_MAX_BYTES;
+    }
+
+    public boolean isPbftCertificateCompact() {
+        return config.hasPath(YGGDRASH_PBFT_CERTIFICATE_COMPACT)
+                && config.getBoolean(YGGDRASH_PBFT_CERTIFICATE_COMPACT);
+    }
+
     public String getOsgiPath() {
         return config.getString(YGGDRASH_OSGI_PATH);
     }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package io.yggdrash.common.crypto;
+
+import io.yggdrash.common.Sha3Hash;
+import org.ehcache.Cache;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.spongycastle.util.Arrays;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Verifies the ECDSA signatures across a worker pool and caches the public keys recovered from them.
+ * The cache is keyed by the hash of the signed data and the signature, so a signature verified once,
+ * e.g. at the admission of a transaction, is not recovered again at the import of the block.
+ */
+public class SignatureVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(SignatureVerifier.class);
+
+    private static final int CACHE_SIZE = 100000;
+
+    private static final Cache<Sha3Hash, byte[]> pubKeyCache = CacheManagerBuilder
+            .newCacheManagerBuilder().build(true)
+            .createCache("pubKeyCache", CacheConfigurationBuilder
+                    .newCacheConfigurationBuilder(Sha3Hash.class, byte[].class,
+                            ResourcePoolsBuilder.heap(CACHE_SIZE)));
+
+    private static final ExecutorService verifyExecutor =
+            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "signature-verifier");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private SignatureVerifier() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Recover the public key of the signature and verify the signature with it
+     *
+     * @param hashedData signed data hash
+     * @param signature signature
+     * @return the public key, null if the signature is not valid
+     */
+    public static byte[] recoverPubKey(byte[] hashedData, byte[] signature) {
+        Sha3Hash key = new Sha3Hash(Arrays.concatenate(hashedData, signature));
+        byte[] pubKey = pubKeyCache.get(key);
+        if (pubKey != null) {
+            return pubKey;
+        }
+
+        ECKey.ECDSASignature ecdsaSignature = new ECKey.ECDSASignature(signature);
+        try {
+            ECKey ecKeyPub = ECKey.signatureToKey(hashedData, ecdsaSignature);
+            if (!ecKeyPub.verify(hashedData, ecdsaSignature)) {
+                return null;
+            }
+            pubKey = ecKeyPub.getPubKey();
+        } catch (SignatureException e) {
+            log.debug("Invalid signature. {}", e.getMessage());
+            return null;
+        }
+
+        pubKeyCache.put(key, pubKey);
+        return pubKey;
+    }
+
+    public static boolean verify(byte[] hashedData, byte[] signature) {
+        return recoverPubKey(hashedData, signature) != null;
+    }
+
+    /**
+     * Verify the items in a batch across the worker pool.
+     * It should not be called by the verifier itself.
+     *
+     * @param items the items to verify
+     * @param verifier verifies an item, e.g. the signature of a transaction
+     * @return true if all the items are verified
+     */
+    public static <T> boolean verifyAll(Collection<T> items, Predicate<T> verifier) {
+        if (items.size() <= 1) {
+            return items.stream().allMatch(verifier);
+        }
+
+        List<Future<Boolean>> results = new ArrayList<>(items.size());
+        for (T item : items) {
+            results.add(verifyExecutor.submit(() -> verifier.test(item)));
+        }
+
+        boolean verified = true;
+        for (Future<Boolean> result : results) {
+            try {
+                verified &= result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                log.debug("Verification is failed. {}", e.getCause().getMessage());
+                verified = false;
+            }
+        }
+        return verified;
+    }
+}
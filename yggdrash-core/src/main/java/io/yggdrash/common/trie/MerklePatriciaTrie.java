@@ -0,0 +1,426 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.trie;
+
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.crypto.HashUtil;
+import io.yggdrash.common.rlp.RLP;
+import io.yggdrash.common.rlp.RLPElement;
+import io.yggdrash.common.rlp.RLPList;
+import io.yggdrash.common.store.datasource.DbSource;
+import org.spongycastle.util.encoders.Hex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merkle Patricia Trie of the state.
+ * <br> referenced <a href="https://github.com/ethereum/wiki/wiki/Patricia-Tree"> Patricia Tree </a>
+ * <p>
+ * Keys are hashed before they are inserted, so every path has the same length. Nodes are RLP encoded and
+ * referenced by their sha3 hash. Nodes created by {@link #update(byte[], Map)} are kept in memory until
+ * {@link #commit(byte[])} writes the nodes of the committed root in a single batch.
+ * An empty trie has {@link #EMPTY_ROOT}, the hash of {@link Constants#EMPTY_HASH}, as its root like the
+ * state root of a branch without any state.
+ */
+public class MerklePatriciaTrie {
+
+    public static final byte[] EMPTY_ROOT = HashUtil.sha3(Constants.EMPTY_HASH);
+
+    private static final int BRANCH_SIZE = 17;
+
+    private final DbSource<byte[], byte[]> nodeStore;
+    // Encoded nodes that are not committed yet. Keyed by hex string of the node hash.
+    private final Map<String, byte[]> dirtyNodes = new ConcurrentHashMap<>();
+
+    public MerklePatriciaTrie(DbSource<byte[], byte[]> nodeStore) {
+        this.nodeStore = nodeStore.init();
+    }
+
+    /**
+     * Puts the values on the trie of the given root. Only the paths of the changed keys are hashed.
+     *
+     * @param rootHash root of the trie to update
+     * @param values   values to put
+     * @return root of the updated trie
+     */
+    public byte[] update(byte[] rootHash, Map<byte[], byte[]> values) {
+        Node root = isEmpty(rootHash) ? null : new HashNode(rootHash);
+        for (Map.Entry<byte[], byte[]> entry : values.entrySet()) {
+            root = insert(root, toNibbles(HashUtil.sha3(entry.getKey())), entry.getValue());
+        }
+        return root == null ? EMPTY_ROOT : hash(root);
+    }
+
+    /**
+     * Writes the uncommitted nodes of the root to the node store and discards the others.
+     */
+    public synchronized void commit(byte[] rootHash) {
+        Map<byte[], byte[]> batch = new HashMap<>();
+        if (!isEmpty(rootHash)) {
+            collectDirtyNodes(rootHash, batch);
+        }
+
+        nodeStore.updateByBatch(batch);
+        dirtyNodes.clear();
+    }
+
+    /**
+     * Discards the uncommitted nodes, e.g. the nodes of the roots of the blocks which are not committed
+     */
+    public synchronized void discard() {
+        dirtyNodes.clear();
+    }
+
+    /**
+     * Whether the root is the empty root or a root of the nodes which are kept in this trie
+     */
+    public boolean contains(byte[] rootHash) {
+        return isEmpty(rootHash)
+                || dirtyNodes.containsKey(Hex.toHexString(rootHash)) || nodeStore.get(rootHash) != null;
+    }
+
+    public void close() {
+        nodeStore.close();
+    }
+
+    public byte[] get(byte[] rootHash, byte[] key) {
+        return verifyProof(rootHash, key, getProof(rootHash, key));
+    }
+
+    /**
+     * Get the nodes on the path of the key from the root.
+     *
+     * @param rootHash root of the trie
+     * @param key      key to prove
+     * @return RLP encoded nodes from the root. The last node holds the value or proves that the key is absent.
+     */
+    public List<byte[]> getProof(byte[] rootHash, byte[] key) {
+        List<byte[]> proof = new ArrayList<>();
+        if (isEmpty(rootHash)) {
+            return proof;
+        }
+
+        byte[] path = toNibbles(HashUtil.sha3(key));
+        byte[] hash = rootHash;
+        while (hash != null) {
+            byte[] encoded = load(hash);
+            proof.add(encoded);
+            RLPList node = decode(encoded);
+            hash = null;
+            if (node.size() == BRANCH_SIZE) {
+                if (path.length > 0) {
+                    hash = node.get(path[0]).getRLPData();
+                    path = slice(path, 1);
+                }
+            } else {
+                byte[] nodePath = decodePath(node.get(0).getRLPData());
+                if (!isLeaf(node.get(0).getRLPData()) && startsWith(path, nodePath)) {
+                    hash = node.get(1).getRLPData();
+                    path = slice(path, nodePath.length);
+                }
+            }
+        }
+        return proof;
+    }
+
+    /**
+     * Verifies the proof of a key against a state root.
+     *
+     * @param rootHash root of the trie
+     * @param key      key to verify
+     * @param proof    nodes returned by {@link #getProof(byte[], byte[])}
+     * @return value of the key, or null if the proof shows that the key does not exist
+     * @throws IllegalArgumentException if the proof does not match the root
+     */
+    public static byte[] verifyProof(byte[] rootHash, byte[] key, List<byte[]> proof) {
+        if (isEmpty(rootHash)) {
+            return null;
+        }
+        Map<String, byte[]> nodes = new HashMap<>();
+        proof.forEach(encoded -> nodes.put(Hex.toHexString(HashUtil.sha3(encoded)), encoded));
+
+        byte[] path = toNibbles(HashUtil.sha3(key));
+        byte[] hash = rootHash;
+        while (true) {
+            byte[] encoded = nodes.get(Hex.toHexString(hash));
+            if (encoded == null) {
+                throw new IllegalArgumentException("Invalid proof. Missing node " + Hex.toHexString(hash));
+            }
+            RLPList node = decode(encoded);
+            if (node.size() == BRANCH_SIZE) {
+                if (path.length == 0) {
+                    return node.get(BRANCH_SIZE - 1).getRLPData();
+                }
+                hash = node.get(path[0]).getRLPData();
+                path = slice(path, 1);
+            } else {
+                byte[] encodedPath = node.get(0).getRLPData();
+                byte[] nodePath = decodePath(encodedPath);
+                if (isLeaf(encodedPath)) {
+                    return Arrays.equals(path, nodePath) ? node.get(1).getRLPData() : null;
+                }
+                if (!startsWith(path, nodePath)) {
+                    return null;
+                }
+                hash = node.get(1).getRLPData();
+                path = slice(path, nodePath.length);
+            }
+            if (hash == null) {
+                return null;
+            }
+        }
+    }
+
+    private Node insert(Node node, byte[] path, byte[] value) {
+        if (node == null) {
+            return new LeafNode(path, value);
+        } else if (node instanceof HashNode) {
+            return insert(resolve(node.hash), path, value);
+        } else if (node instanceof LeafNode) {
+            LeafNode leaf = (LeafNode) node;
+            int common = commonPrefixLength(leaf.path, path);
+            if (common == leaf.path.length && common == path.length) {
+                return new LeafNode(path, value);
+            }
+            BranchNode branch = new BranchNode();
+            branch.put(slice(leaf.path, common), leaf.value);
+            branch.put(slice(path, common), value);
+            return common > 0 ? new ExtensionNode(Arrays.copyOf(path, common), branch) : branch;
+        } else if (node instanceof ExtensionNode) {
+            ExtensionNode extension = (ExtensionNode) node;
+            int common = commonPrefixLength(extension.path, path);
+            if (common == extension.path.length) {
+                return new ExtensionNode(extension.path, insert(extension.child, slice(path, common), value));
+            }
+            BranchNode branch = new BranchNode();
+            byte[] rest = slice(extension.path, common + 1);
+            branch.children[extension.path[common]]
+                    = rest.length > 0 ? new ExtensionNode(rest, extension.child) : extension.child;
+            branch.put(slice(path, common), value);
+            return common > 0 ? new ExtensionNode(Arrays.copyOf(path, common), branch) : branch;
+        } else {
+            BranchNode branch = ((BranchNode) node).copy();
+            if (path.length == 0) {
+                branch.value = value;
+            } else {
+                branch.children[path[0]] = insert(branch.children[path[0]], slice(path, 1), value);
+            }
+            return branch;
+        }
+    }
+
+    // Hashes the node and keeps the encoding of the new nodes as dirty nodes
+    private byte[] hash(Node node) {
+        if (node.hash == null) {
+            byte[] encoded = encode(node);
+            node.hash = HashUtil.sha3(encoded);
+            dirtyNodes.put(Hex.toHexString(node.hash), encoded);
+        }
+        return node.hash;
+    }
+
+    private byte[] encode(Node node) {
+        if (node instanceof LeafNode) {
+            LeafNode leaf = (LeafNode) node;
+            return RLP.encodeList(RLP.encodeElement(encodePath(leaf.path, true)), RLP.encodeElement(leaf.value));
+        } else if (node instanceof ExtensionNode) {
+            ExtensionNode extension = (ExtensionNode) node;
+            return RLP.encodeList(RLP.encodeElement(encodePath(extension.path, false)),
+                    RLP.encodeElement(hash(extension.child)));
+        } else {
+            BranchNode branch = (BranchNode) node;
+            byte[][] elements = new byte[BRANCH_SIZE][];
+            for (int i = 0; i < BRANCH_SIZE - 1; i++) {
+                elements[i] = branch.children[i] == null
+                        ? RLP.EMPTY_ELEMENT_RLP : RLP.encodeElement(hash(branch.children[i]));
+            }
+            elements[BRANCH_SIZE - 1] = branch.value == null
+                    ? RLP.EMPTY_ELEMENT_RLP : RLP.encodeElement(branch.value);
+            return RLP.encodeList(elements);
+        }
+    }
+
+    private Node resolve(byte[] hash) {
+        RLPList decoded = decode(load(hash));
+        Node node;
+        if (decoded.size() == BRANCH_SIZE) {
+            BranchNode branch = new BranchNode();
+            for (int i = 0; i < BRANCH_SIZE - 1; i++) {
+                byte[] childHash = decoded.get(i).getRLPData();
+                branch.children[i] = childHash == null ? null : new HashNode(childHash);
+            }
+            branch.value = decoded.get(BRANCH_SIZE - 1).getRLPData();
+            node = branch;
+        } else {
+            byte[] encodedPath = decoded.get(0).getRLPData();
+            byte[] path = decodePath(encodedPath);
+            byte[] data = decoded.get(1).getRLPData();
+            node = isLeaf(encodedPath) ? new LeafNode(path, data) : new ExtensionNode(path, new HashNode(data));
+        }
+        node.hash = hash;
+        return node;
+    }
+
+    private byte[] load(byte[] hash) {
+        byte[] encoded = dirtyNodes.get(Hex.toHexString(hash));
+        if (encoded == null) {
+            encoded = nodeStore.get(hash);
+        }
+        if (encoded == null) {
+            throw new IllegalStateException("Missing trie node " + Hex.toHexString(hash));
+        }
+        return encoded;
+    }
+
+    private void collectDirtyNodes(byte[] hash, Map<byte[], byte[]> batch) {
+        byte[] encoded = dirtyNodes.get(Hex.toHexString(hash));
+        if (encoded == null) {
+            return; // Already committed
+        }
+        batch.put(hash, encoded);
+
+        RLPList node = decode(encoded);
+        if (node.size() == BRANCH_SIZE) {
+            for (int i = 0; i < BRANCH_SIZE - 1; i++) {
+                byte[] childHash = node.get(i).getRLPData();
+                if (childHash != null) {
+                    collectDirtyNodes(childHash, batch);
+                }
+            }
+        } else if (!isLeaf(node.get(0).getRLPData())) {
+            collectDirtyNodes(node.get(1).getRLPData(), batch);
+        }
+    }
+
+    private static RLPList decode(byte[] encoded) {
+        RLPElement element = RLP.decode2(encoded).get(0);
+        return (RLPList) element;
+    }
+
+    private static boolean isEmpty(byte[] rootHash) {
+        return rootHash == null || Arrays.equals(rootHash, EMPTY_ROOT) || Arrays.equals(rootHash, Constants.EMPTY_HASH);
+    }
+
+    private static byte[] toNibbles(byte[] key) {
+        byte[] nibbles = new byte[key.length * 2];
+        for (int i = 0; i < key.length; i++) {
+            nibbles[i * 2] = (byte) ((key[i] >> 4) & 0x0f);
+            nibbles[i * 2 + 1] = (byte) (key[i] & 0x0f);
+        }
+        return nibbles;
+    }
+
+    // Hex prefix encoding. The flag nibble tells whether the node is a leaf and the path length is odd.
+    private static byte[] encodePath(byte[] nibbles, boolean leaf) {
+        boolean odd = nibbles.length % 2 == 1;
+        int flag = (leaf ? 2 : 0) + (odd ? 1 : 0);
+        byte[] encoded = new byte[nibbles.length / 2 + 1];
+        int offset = 0;
+        if (odd) {
+            encoded[0] = (byte) ((flag << 4) | nibbles[0]);
+            offset = 1;
+        } else {
+            encoded[0] = (byte) (flag << 4);
+        }
+        for (int i = offset; i < nibbles.length; i += 2) {
+            encoded[(i + 2 - offset) / 2] = (byte) ((nibbles[i] << 4) | nibbles[i + 1]);
+        }
+        return encoded;
+    }
+
+    private static byte[] decodePath(byte[] encoded) {
+        boolean odd = ((encoded[0] >> 4) & 1) == 1;
+        byte[] nibbles = toNibbles(encoded);
+        return slice(nibbles, odd ? 1 : 2);
+    }
+
+    private static boolean isLeaf(byte[] encodedPath) {
+        return ((encodedPath[0] >> 4) & 2) == 2;
+    }
+
+    private static int commonPrefixLength(byte[] a, byte[] b) {
+        int i = 0;
+        while (i < a.length && i < b.length && a[i] == b[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean startsWith(byte[] path, byte[] prefix) {
+        return path.length >= prefix.length && commonPrefixLength(path, prefix) == prefix.length;
+    }
+
+    private static byte[] slice(byte[] nibbles, int from) {
+        return Arrays.copyOfRange(nibbles, from, nibbles.length);
+    }
+
+    private abstract static class Node {
+        byte[] hash;
+    }
+
+    // Node that is not loaded from the store yet
+    private static class HashNode extends Node {
+        HashNode(byte[] hash) {
+            this.hash = hash;
+        }
+    }
+
+    private static class LeafNode extends Node {
+        private final byte[] path;
+        private final byte[] value;
+
+        LeafNode(byte[] path, byte[] value) {
+            this.path = path;
+            this.value = value;
+        }
+    }
+
+    private static class ExtensionNode extends Node {
+        private final byte[] path;
+        private final Node child;
+
+        ExtensionNode(byte[] path, Node child) {
+            this.path = path;
+            this.child = child;
+        }
+    }
+
+    private static class BranchNode extends Node {
+        private final Node[] children = new Node[BRANCH_SIZE - 1];
+        private byte[] value;
+
+        private void put(byte[] path, byte[] value) {
+            if (path.length == 0) {
+                this.value = value;
+            } else {
+                children[path[0]] = new LeafNode(slice(path, 1), value);
+            }
+        }
+
+        private BranchNode copy() {
+            BranchNode branch = new BranchNode();
+            System.arraycopy(children, 0, branch.children, 0, children.length);
+            branch.value = value;
+            return branch;
+        }
+    }
+}
@@ -16,8 +16,8 @@ import com.google.gson.JsonObject;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
 import io.yggdrash.common.contract.ContractVersion;
-import io.yggdrash.common.crypto.ECKey;
 import io.yggdrash.common.crypto.HashUtil;
+import io.yggdrash.common.crypto.SignatureVerifier;
 import io.yggdrash.common.trie.Trie;
 import io.yggdrash.core.blockchain.Block;
 import io.yggdrash.core.blockchain.BlockBody;
@@ -29,8 +29,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.spongycastle.util.encoders.Hex;
 
-import java.security.SignatureException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import static io.yggdrash.common.config.Constants.Key.SIGNATURE;
@@ -126,17 +126,18 @@ public class VerifierUtils {
         return verifySignature(block.getSignature(), block.getHeader().getHashForSigning());
     }
 
-    private static boolean verifySignature(byte[] protoSignature, byte[] hashedHeader) {
-        ECKey.ECDSASignature ecdsaSignature = new ECKey.ECDSASignature(protoSignature);
-        ECKey ecKeyPub;
-
-        try {
-            ecKeyPub = ECKey.signatureToKey(hashedHeader, ecdsaSignature);
-        } catch (SignatureException e) {
-            return false; // handling exception
-        }
+    /**
+     * Verify the signatures of the transactions in a batch.
+     * The recovered public keys are cached for the later verification of the transactions.
+     *
+     * @return true if all the signatures are valid
+     */
+    public static boolean verifySignatures(Collection<Transaction> txs) {
+        return SignatureVerifier.verifyAll(txs, VerifierUtils::verifySignature);
+    }
 
-        return ecKeyPub.verify(hashedHeader, ecdsaSignature);
+    private static boolean verifySignature(byte[] protoSignature, byte[] hashedHeader) {
+        return SignatureVerifier.verify(hashedHeader, protoSignature);
     }
 
     /**
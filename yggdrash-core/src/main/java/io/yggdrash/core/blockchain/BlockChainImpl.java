@@ -1,6 +1,8 @@
 package io.yggdrash.core.blockchain;
 
 import com.google.gson.JsonObject;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.contract.BranchContract;
 import io.yggdrash.common.contract.ContractVersion;
@@ -28,6 +30,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class BlockChainImpl<T, V> implements BlockChain<T, V> {
@@ -47,6 +50,12 @@ public class BlockChainImpl<T, V> implements BlockChain<T, V> {
     private final Consensus consensus;
     private final ReentrantLock lock = new ReentrantLock();
 
+    // The durations of the phases of addBlock
+    private final Timer verifyTimer;
+    private final Timer executeTimer;
+    private final Timer stateRootTimer;
+    private final Timer commitTimer;
+
     private boolean isFullSynced = false;
 
     public BlockChainImpl(Branch branch,
@@ -60,6 +69,10 @@ public class BlockChainImpl<T, V> implements BlockChain<T, V> {
         this.genesisBlock = genesisBlock;
         this.blockChainManager = blockChainManager;
         this.contractManager = contractManager;
+        this.verifyTimer = phaseTimer("verify");
+        this.executeTimer = phaseTimer("execute");
+        this.stateRootTimer = phaseTimer("stateRoot");
+        this.commitTimer = phaseTimer("commit");
 
         if (!VerifierUtils.verifyGenesisHash(genesisBlock)) {
             log.error("GenesisBlock is not valid.");
@@ -69,6 +82,15 @@ public class BlockChainImpl<T, V> implements BlockChain<T, V> {
         init();
     }
 
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("yggdrash.block.add")
+                .description("The duration of the phases of adding a block")
+                .tag("branch", getBranchId().toString())
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
     public boolean isFullSynced() {
         return isFullSynced;
     }
@@ -145,44 +167,65 @@ public class BlockChainImpl<T, V> implements BlockChain<T, V> {
         try {
             lock.lock();
 
+            long started = System.nanoTime();
             int verificationCode = blockChainManager.verify(nextBlock);
+            started = record(verifyTimer, started);
             if (verificationCode != BusinessError.VALID.toValue()) {
                 log.trace("addBlock is failed. Index({}) {}",
                         nextBlock.getIndex(), BusinessError.getErrorLogsMap(verificationCode).values());
                 return BusinessError.getErrorLogsMap(verificationCode);
             }
 
-            if (isLastExecutedBlock(nextBlock)) {
-                log.info("Block[{}] has already been executed. Save it directly to blockStore.", nextBlock.getIndex());
-                branchStore.setLastExecuteBlock(nextBlock);
-                blockChainManager.addBlock(nextBlock);
-                return new HashMap<>();
-            }
+            // All writes of the block are flushed at once per database after the block is committed,
+            // and none of them is flushed if the block is failed to commit
+            BlockRuntimeResult blockResult;
+            boolean committed = false;
+            blockChainManager.startBlockCommit();
+            try {
+                if (isLastExecutedBlock(nextBlock)) {
+                    log.info("Block[{}] has already been executed. Save it directly to blockStore.",
+                            nextBlock.getIndex());
+                    branchStore.setLastExecuteBlock(nextBlock);
+                    blockChainManager.addBlock(nextBlock);
+                    committed = true;
+                    return new HashMap<>();
+                }
 
-            // Run Block Transactions
-            // TODO run block execute move to other process (or thread)
-            // TODO last execute block will invoke
+                // Run Block Transactions
+                // TODO run block execute move to other process (or thread)
+                // TODO last execute block will invoke
+
+                // Execute block and commit the result of block.
+                blockResult = contractManager.executeTxs(nextBlock); //TODO Exception
+                started = record(executeTimer, started);
+                Sha3Hash nextBlockStateRoot = new Sha3Hash(nextBlock.getHeader().getStateRoot(), true);
+                // Validate StateRoot
+                Sha3Hash blockResultStateRoot = blockResult.getBlockResult().size() > 0
+                        ? new Sha3Hash(blockResult.getBlockResult().get("stateRoot").get("stateHash").getAsString())
+                        : contractManager.getOriginStateRootHash();
+                started = record(stateRootTimer, started);
+                if (!nextBlockStateRoot.equals(blockResultStateRoot)) {
+                    log.warn("Add block failed. Invalid stateRoot. BlockStateRoot : {}, CurStateRoot : {}",
+                            nextBlockStateRoot, blockResultStateRoot);
+                    return BusinessError.getErrorLogsMap(BusinessError.INVALID_STATE_ROOT_HASH.toValue());
+                }
 
-            // Execute block and commit the result of block.
-            BlockRuntimeResult blockResult = contractManager.executeTxs(nextBlock); //TODO Exception
-            Sha3Hash nextBlockStateRoot = new Sha3Hash(nextBlock.getHeader().getStateRoot(), true);
-            // Validate StateRoot
-            Sha3Hash blockResultStateRoot = blockResult.getBlockResult().size() > 0
-                    ? new Sha3Hash(blockResult.getBlockResult().get("stateRoot").get("stateHash").getAsString())
-                    : contractManager.getOriginStateRootHash();
-            if (!nextBlockStateRoot.equals(blockResultStateRoot)) {
-                log.warn("Add block failed. Invalid stateRoot. BlockStateRoot : {}, CurStateRoot : {}",
-                        nextBlockStateRoot, blockResultStateRoot);
-                return BusinessError.getErrorLogsMap(BusinessError.INVALID_STATE_ROOT_HASH.toValue());
+                branchStore.setLastExecuteBlock(nextBlock);
+                // Add best Block
+                branchStore.setBestBlock(nextBlock); // It can be sure that all Txs in BestBlock have been executed.
+                contractManager.commitBlockResult(blockResult);
+                // BlockChainManager add nextBlock to the blockStore, set the lastConfirmedBlock to nextBlock,
+                // and then batch the transactions.
+                blockChainManager.addBlock(nextBlock);
+                committed = true;
+            } finally {
+                if (committed) {
+                    blockChainManager.endBlockCommit();
+                } else {
+                    blockChainManager.discardBlockCommit();
+                }
             }
-
-            branchStore.setLastExecuteBlock(nextBlock);
-            // Add best Block
-            branchStore.setBestBlock(nextBlock); // It can be sure that all Txs in BestBlock have been executed.
-            contractManager.commitBlockResult(blockResult);
-            // BlockChainManager add nextBlock to the blockStore, set the lastConfirmedBlock to nextBlock,
-            // and then batch the transactions.
-            blockChainManager.addBlock(nextBlock);
+            record(commitTimer, started);
 
             // Fire contract event
             getContractEventList(blockResult).stream()
@@ -301,6 +344,17 @@ public class BlockChainImpl<T, V> implements BlockChain<T, V> {
         contractEventListenerList.add(listener);
     }
 
+    /**
+     * Record the duration of a phase
+     *
+     * @return the end of the phase, which is the start of the next phase
+     */
+    private static long record(Timer timer, long started) {
+        long ended = System.nanoTime();
+        timer.record(ended - started, TimeUnit.NANOSECONDS);
+        return ended;
+    }
+
     private boolean isLastExecutedBlock(ConsensusBlock<T> nextBlock) {
         if (branchStore.getLastExecuteBlockIndex() >= nextBlock.getIndex()) {
             log.info("IsLastExecutedBlock? lastExecutedBlock: {} >= nextBlockIndex: {}",
@@ -32,6 +32,12 @@ public interface BlockChainManager<T> {
 
     void addBlock(ConsensusBlock<T> nextBlock);
 
+    void startBlockCommit();
+
+    void endBlockCommit();
+
+    void discardBlockCommit();
+
     void batchTxs(ConsensusBlock<T> block);
 
     void addTransaction(Transaction tx);
@@ -46,8 +52,14 @@ public interface BlockChainManager<T> {
 
     ConsensusBlock<T> getBlockByIndex(long index);
 
+    List<ConsensusBlock<T>> getBlocksByRange(long fromIndex, long toIndex);
+
+    List<byte[]> getBlockBinariesByRange(long fromIndex, long toIndex, long maxBytes);
+
     Transaction getTxByHash(Sha3Hash hash);
 
+    TransactionLocation getTxLocation(Sha3Hash txHash);
+
     Collection<Transaction> getRecentTxs();
 
     List<Transaction> getUnconfirmedTxs();
@@ -23,25 +23,42 @@ import io.yggdrash.core.store.BlockChainStore;
 import io.yggdrash.core.store.BranchStore;
 import io.yggdrash.core.store.ConsensusBlockStore;
 import io.yggdrash.core.store.ReceiptStore;
+import io.yggdrash.core.store.TransactionIndexStore;
 import io.yggdrash.core.store.TransactionStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
 
     private static final Logger log = LoggerFactory.getLogger(BlockChainManagerImpl.class);
+    // The blocks are read in the chunks of the size to rebuild the transaction index
+    private static final int TX_INDEX_CHUNK_SIZE = 1000;
+    // The recent blocks which fill the transaction cache after the startup
+    private static final int WARM_UP_BLOCKS = 1000;
+    private static final int WARM_UP_CHUNK_SIZE = 100;
+
+    // The caches of the branches are filled one by one while the node is serving
+    private static final ExecutorService warmUpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tx-cache-warm-up");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private final BranchStore branchStore;
     private final ConsensusBlockStore<T> blockStore;
     private final TransactionStore transactionStore;
     private final ReceiptStore receiptStore;
+    private final TransactionIndexStore transactionIndexStore;
     private final BlockChainStore blockChainStore;
     private final ReentrantLock lock = new ReentrantLock();
 
@@ -52,6 +69,7 @@ public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
         this.blockStore = blockChainStore.getConsensusBlockStore();
         this.transactionStore = blockChainStore.getTransactionStore();
         this.receiptStore = blockChainStore.getReceiptStore();
+        this.transactionIndexStore = blockChainStore.getTransactionIndexStore();
         this.blockChainStore = blockChainStore;
     }
 
@@ -64,40 +82,97 @@ public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
         }
     }
 
+    /**
+     * Load the last confirmed block from the checkpoint instead of replaying the recent blocks.
+     * The transaction cache is filled in the background.
+     */
     @Override
     public void loadTransaction() {
         try {
             lock.lock();
-            // load recent 1000 block
-            // Start Block and End Block
             long bestBlock = branchStore.getBestBlock();
-            long loadStart = bestBlock > 1000 ? bestBlock - 1000 : 0;
-            for (long i = loadStart; i <= bestBlock; i++) { // TODO Consider block verification (genesis, prevHash ...)
-                // Load recent block and update cache
-                ConsensusBlock<T> block = getBlockByIndex(i);
-                // TODO Node can be shutdown before blockStore.addBlock()
-                // addBlock(): branchStore.setBestBlock() -> executeTransactions() -> blockStore.addBlock()
-                if (block == null) {
-                    long prevIdx = i - 1;
-                    ConsensusBlock<T> curBestBlock = getBlockByIndex(prevIdx);
-                    branchStore.setBestBlock(curBestBlock);
-                    //Set lastConfirmedBlock to the changed bestBlock. Currently, the lastConfirmedBlock is null
-                    setLastConfirmedBlock(curBestBlock);
-                    log.warn("Reset branchStore bestBlock: {} -> {}, lastExecutedBlock: {}",
-                            bestBlock, prevIdx, branchStore.getLastExecuteBlockIndex());
-                    break;
-                }
-                updateTxCache(block);
-                // Set Last Best Block
-                if (i == bestBlock) {
-                    setLastConfirmedBlock(block);
-                }
+            long checkpoint = branchStore.getLastConfirmedBlockIndex();
+            // The blocks after the checkpoint are usually none, or the best block of the interrupted commit.
+            // The stores without the checkpoint start from the block before the best block.
+            long loadStart = checkpoint >= 0 && checkpoint <= bestBlock ? checkpoint : Math.max(bestBlock - 1, 0);
+            // TODO Consider block verification (genesis, prevHash ...)
+            List<ConsensusBlock<T>> blocks = getBlocksByRange(loadStart, bestBlock);
+            ConsensusBlock<T> curBestBlock =
+                    blocks.isEmpty() ? getBlockByIndex(loadStart - 1) : blocks.get(blocks.size() - 1);
+            // TODO Node can be shutdown before blockStore.addBlock()
+            // addBlock(): branchStore.setBestBlock() -> executeTransactions() -> blockStore.addBlock()
+            long prevIdx = loadStart + blocks.size() - 1;
+            if (prevIdx < bestBlock && curBestBlock != null) {
+                branchStore.setBestBlock(curBestBlock);
+                log.warn("Reset branchStore bestBlock: {} -> {}, lastExecutedBlock: {}",
+                        bestBlock, prevIdx, branchStore.getLastExecuteBlockIndex());
             }
+            if (curBestBlock == null) {
+                return;
+            }
+            //Set lastConfirmedBlock to the best block
+            setLastConfirmedBlock(curBestBlock);
+            branchStore.setLastConfirmedBlock(curBestBlock);
+            rebuildTxIndex();
+            long lastIndex = curBestBlock.getIndex();
+            warmUpExecutor.execute(() -> warmUpTxCache(lastIndex));
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Fill the transaction cache with the recent blocks until the block, from the last one backwards
+     */
+    private void warmUpTxCache(long lastIndex) {
+        try {
+            int capacity = transactionStore.getCacheCapacity();
+            long firstIndex = Math.max(lastIndex - WARM_UP_BLOCKS + 1, 0);
+            List<Transaction> txs = new ArrayList<>();
+            for (long toIndex = lastIndex; toIndex >= firstIndex && txs.size() < capacity;
+                    toIndex -= WARM_UP_CHUNK_SIZE) {
+                List<ConsensusBlock<T>> blocks =
+                        getBlocksByRange(Math.max(toIndex - WARM_UP_CHUNK_SIZE + 1, firstIndex), toIndex);
+                for (int i = blocks.size() - 1; i >= 0 && txs.size() < capacity; i--) {
+                    List<Transaction> body = new ArrayList<>(blocks.get(i).getBody().getTransactionList());
+                    Collections.reverse(body);
+                    txs.addAll(body);
+                }
+            }
+            Collections.reverse(txs);
+            transactionStore.warmUpCache(txs);
+            log.debug("Transaction cache is warmed up. lastIndex={} txs={}", lastIndex, txs.size());
+        } catch (Exception e) {
+            log.warn("Warm up transaction cache is failed. {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Index the transactions of the blocks that are stored but not indexed yet,
+     * e.g. the blocks stored before the transaction index was introduced.
+     */
+    private void rebuildTxIndex() {
+        if (lastConfirmedBlock == null) {
+            return;
+        }
+        long lastIndexedBlock = transactionIndexStore.getLastIndexedBlock();
+        if (lastIndexedBlock >= lastConfirmedBlock.getIndex()) {
+            return;
+        }
+
+        log.info("Rebuild transaction index. {} -> {}", lastIndexedBlock + 1, lastConfirmedBlock.getIndex());
+        long fromIndex = lastIndexedBlock + 1;
+        while (fromIndex <= lastConfirmedBlock.getIndex()) {
+            long toIndex = Math.min(fromIndex + TX_INDEX_CHUNK_SIZE - 1, lastConfirmedBlock.getIndex());
+            List<ConsensusBlock<T>> blocks = getBlocksByRange(fromIndex, toIndex);
+            if (blocks.isEmpty()) {
+                break;
+            }
+            blocks.forEach(transactionIndexStore::addBlock);
+            fromIndex += blocks.size();
+        }
+    }
+
     @Override
     public int verify(Transaction transaction) {
         return verify(transaction, true);
@@ -183,8 +258,12 @@ public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
             }
             batchTxs(nextBlock);
 
+            // Index the location of the txs before the block is stored, so the stored block is always indexed
+            transactionIndexStore.addBlock(nextBlock);
             // Store Block Index and Block Data
             this.blockStore.addBlock(nextBlock);
+            // The checkpoint of the startup
+            branchStore.setLastConfirmedBlock(nextBlock);
             setLastConfirmedBlock(nextBlock);
 
         } finally {
@@ -192,6 +271,30 @@ public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
         }
     }
 
+    /**
+     * Collect the writes of the stores while a block is committed, instead of writing them one by one
+     */
+    @Override
+    public void startBlockCommit() {
+        blockChainStore.startBatch();
+    }
+
+    /**
+     * Flush the writes of the committed block once per database
+     */
+    @Override
+    public void endBlockCommit() {
+        blockChainStore.commitBatch();
+    }
+
+    /**
+     * Drop the writes of the block which is failed to commit, so none of them is persisted
+     */
+    @Override
+    public void discardBlockCommit() {
+        blockChainStore.discardBatch();
+    }
+
     @Override
     public void batchTxs(ConsensusBlock<T> block) {
         try {
@@ -257,6 +360,31 @@ public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
         }
     }
 
+    /**
+     * Gets the consecutive blocks of the range by a range scan.
+     *
+     * @param fromIndex the first index
+     * @param toIndex   the last index
+     * @return the blocks until the last index or the first missing block
+     **/
+    @Override
+    public List<ConsensusBlock<T>> getBlocksByRange(long fromIndex, long toIndex) {
+        return blockStore.getBlocksByRange(fromIndex, toIndex);
+    }
+
+    /**
+     * Gets the stored binaries of the blocks of the range, which are sent to the peers without parsing them.
+     *
+     * @param fromIndex the first index
+     * @param toIndex   the last index
+     * @param maxBytes  the total size of the binaries
+     * @return the binaries until the last index or the first missing block
+     **/
+    @Override
+    public List<byte[]> getBlockBinariesByRange(long fromIndex, long toIndex, long maxBytes) {
+        return blockStore.getBlockBinariesByRange(fromIndex, toIndex, maxBytes);
+    }
+
     /**
      * Gets transaction by hash.
      *
@@ -268,6 +396,11 @@ public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
         return transactionStore.get(hash);
     }
 
+    @Override
+    public TransactionLocation getTxLocation(Sha3Hash txHash) {
+        return transactionIndexStore.get(txHash);
+    }
+
     @Override
     public Collection<Transaction> getRecentTxs() {
         return transactionStore.getRecentTxs();
@@ -345,5 +478,6 @@ public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
         this.blockStore.close();
         this.transactionStore.close();
         this.receiptStore.close();
+        this.transactionIndexStore.close();
     }
 }
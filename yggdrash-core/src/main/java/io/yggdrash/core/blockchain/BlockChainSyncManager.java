@@ -12,6 +12,7 @@
 
 package io.yggdrash.core.blockchain;
 
+import io.yggdrash.common.util.VerifierUtils;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.net.NodeStatus;
 import io.yggdrash.core.net.PeerNetwork;
@@ -21,8 +22,10 @@ import io.yggdrash.core.p2p.PeerTableGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 public class BlockChainSyncManager implements SyncManager {
@@ -33,6 +36,25 @@ public class BlockChainSyncManager implements SyncManager {
     private PeerNetwork peerNetwork;
     private PeerTableGroup peerTableGroup;
 
+    private final ExecutorService fetchExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "block-sync-fetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService verifyExecutor =
+            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "block-sync-verify");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // The catch-up of a range runs off the thread which found the gap
+    private final ExecutorService catchUpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "block-sync-catch-up");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public BlockChainSyncManager(NodeStatus nodeStatus, PeerNetwork peerNetwork, BranchGroup branchGroup,
                                  PeerTableGroup peerTableGroup) {
         this.nodeStatus = nodeStatus;
@@ -64,72 +86,41 @@ public class BlockChainSyncManager implements SyncManager {
         }
     }
 
+    /**
+     * Import the blocks of the peer with a pipeline.
+     * The next batches are fetched and verified while the current batch is executed.
+     */
     @Override
     public boolean syncBlock(BlockChainHandler peerHandler, BlockChain blockChain) {
-        long offset = blockChain.getBlockChainManager().getLastIndex() + 1;
-
-        try {
-            BranchId branchId = blockChain.getBranchId();
-            Future<List<ConsensusBlock>> futureBlockList = peerHandler.syncBlock(branchId, offset);
-            if (futureBlockList == null) {
-                return false;
-            }
-
-            List<ConsensusBlock> blockList = futureBlockList.get();
-            if (blockList.isEmpty()) {
-                return false;
-            }
-            log.debug("syncBlock() reqBlock={} resBlock=({} - {}) from={}",
-                    offset,
-                    ((ConsensusBlock) blockList.toArray()[0]).getBlock().getIndex(),
-                    ((ConsensusBlock) blockList.toArray()[blockList.size() - 1]).getBlock().getIndex(),
-                    peerHandler.getPeer().getYnodeUri());
-
-            for (ConsensusBlock block : blockList) {
-                // Handling exception if the block was not added properly
-                Map<String, List<String>> errorLogs = blockChain.addBlock(block, false);
-                if (errorLogs.size() > 0) {
-                    log.debug("addBlock() is failed. {}", errorLogs);
-                    return false;
-                }
-            }
-
-            if (blockChain.getBlockChainManager().getLastIndex() < peerHandler.getPeer().getBestBlock()) {
-                log.debug("MyBlockIndex({}) < PeerBlockIndex({})",
-                        blockChain.getBlockChainManager().getLastIndex(),
-                        peerHandler.getPeer().getBestBlock());
-                return syncBlock(peerHandler, blockChain);
-            }
-        } catch (Exception e) {
-            log.info("syncBlock() is failed. {}", e.getMessage());
-            return false;
-        }
-
-        return true;
+        return new BlockSyncPipeline(blockChain, peerHandler, verifyExecutor).run(fetchExecutor);
     }
 
+    /**
+     * Download the blocks up to the best block of the peers from all the peers ahead of us
+     */
     private void fullSyncBlock(BlockChain blockChain, List<BlockChainHandler> peerHandlerList) {
+        long lastBlockIndex = blockChain.getBlockChainManager().getLastIndex();
+        long bestBlock = lastBlockIndex;
+        List<BlockChainHandler> syncPeerHandlerList = new ArrayList<>();
         for (BlockChainHandler peerHandler : peerHandlerList) {
             try {
                 peerHandler.getPeer().setBestBlock(
                         peerHandler.pingPong(blockChain.getBranchId(), peerTableGroup.getOwner(), "Ping"));
                 long peerBestBlock = peerHandler.getPeer().getBestBlock();
-                long lastBlockIndex = blockChain.getBlockChainManager().getLastIndex();
-                long blockDiff = peerBestBlock - lastBlockIndex;
                 if (peerBestBlock > lastBlockIndex) {
-                    if (blockDiff > 10000) {
-                        for (long l = 0; l < blockDiff / 10000L; l++) {
-                            peerHandler.getPeer().setBestBlock(lastBlockIndex + (l + 1L) * 10000L);
-                            syncBlock(peerHandler, blockChain);
-                        }
-                        peerHandler.getPeer().setBestBlock(peerBestBlock);
-                    }
-                    syncBlock(peerHandler, blockChain);
+                    syncPeerHandlerList.add(peerHandler);
+                    bestBlock = Math.max(bestBlock, peerBestBlock);
                 }
             } catch (Exception e) {
                 log.debug("fullSyncBlock() is failed. {}", e.getMessage());
             }
         }
+
+        if (!syncPeerHandlerList.isEmpty()) {
+            log.debug("fullSyncBlock() ({} - {}) from {} peers",
+                    lastBlockIndex + 1, bestBlock, syncPeerHandlerList.size());
+            new BlockSyncPipeline(blockChain, syncPeerHandlerList, bestBlock, verifyExecutor).run(fetchExecutor);
+        }
     }
 
     @Override
@@ -168,14 +159,14 @@ public class BlockChainSyncManager implements SyncManager {
 
     The following should be managed :
     - Request peer management (timeout etc)
-    - Request syncBlock to multiple peers upon request
+    - Request syncBlock to multiple peers upon request (fullSync downloads the chunks from all the peers)
         - maxDiffBetweenCurrentAndReceivedBlockHeight = 100
 
-    The current block synchronization proceeds recursively.
-    That is, it recursively inquires whether the current block height is higher than
-    the current block height.
+    The current block synchronization proceeds with a pipeline (BlockSyncPipeline).
+    That is, it fetches the next batches from the peer until the best block of the peer,
+    while the fetched blocks are verified in parallel and executed in order.
     This should proceed in normal_mode of block synchronization.
-    The synchronization will be very slow if the block height is high.
+    The synchronization is bound by the execution of the blocks.
 
     [TODO]
     The "fast_sync" mode should be implemented so that when a new node is connected
@@ -212,6 +203,17 @@ public class BlockChainSyncManager implements SyncManager {
         }
     }
 
+    // When a gap is left below the pending blocks (BlockServiceConsumer)
+    @Override
+    public void catchUpRequest(BranchId branchId, long fromIndex, long toIndex) {
+        try {
+            BlockChain blockChain = branchGroup.getBranch(branchId);
+            catchUpExecutor.execute(() -> reqSyncBlockRange(blockChain, fromIndex, toIndex));
+        } catch (Exception e) {
+            log.trace(e.getMessage());
+        }
+    }
+
     // When ping received (DiscoveryServiceConsumer)
     @Override
     public void catchUpRequest(BranchId branchId, Peer from) {
@@ -233,6 +235,8 @@ public class BlockChainSyncManager implements SyncManager {
     }
 
     private void addTransaction(BlockChain blockChain, List<Transaction> txList) {
+        // The signatures are verified in a batch, then the recovered public keys are reused by addTransaction
+        VerifierUtils.verifySignatures(txList);
         for (Transaction tx : txList) {
             try {
                 blockChain.addTransaction(tx, false);
@@ -260,6 +264,28 @@ public class BlockChainSyncManager implements SyncManager {
         }
     }
 
+    private void reqSyncBlockRange(BlockChain blockChain, long fromIndex, long toIndex) {
+        if (nodeStatus.isSyncStatus()) {
+            log.debug("NodeStatus is down. ({})", nodeStatus.toString());
+            return;
+        }
+        if (blockChain.getBlockChainManager().getLastIndex() + 1 != fromIndex) {
+            return;
+        }
+
+        nodeStatus.sync();
+        try {
+            List<BlockChainHandler> peerHandlerList = peerNetwork.getHandlerList(blockChain.getBranchId());
+            if (!peerHandlerList.isEmpty()) {
+                BlockSyncPipeline.forRange(blockChain, peerHandlerList, toIndex, verifyExecutor).run(fetchExecutor);
+            }
+        } catch (Exception e) {
+            log.warn("[SyncManager] Request sync block ERR occurred: {}", e.getMessage());
+        } finally {
+            nodeStatus.up();
+        }
+    }
+
     private void reqSyncBlockToPeer(BlockChain blockChain, Peer peer) {
         if (nodeStatus.isSyncStatus()) {
             log.debug("NodeStatus is down. ({})", nodeStatus.toString());
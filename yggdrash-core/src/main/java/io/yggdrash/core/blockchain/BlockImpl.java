@@ -22,7 +22,7 @@ import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
-import io.yggdrash.common.crypto.ECKey;
+import io.yggdrash.common.crypto.SignatureVerifier;
 import io.yggdrash.common.util.TimeUtils;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.exception.InvalidSignatureException;
@@ -34,7 +34,6 @@ import org.spongycastle.util.encoders.Hex;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.security.SignatureException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -163,13 +162,11 @@ public class BlockImpl implements Block, ProtoObject<Proto.Block> {
 
     @Override
     public byte[] getPubKey() {
-        ECKey.ECDSASignature ecdsaSignature = new ECKey.ECDSASignature(getSignature());
-        try {
-            ECKey ecKeyPub = ECKey.signatureToKey(this.header.getHashForSigning(), ecdsaSignature);
-            return ecKeyPub.getPubKey();
-        } catch (SignatureException e) {
-            throw new InvalidSignatureException(e);
+        byte[] pubKey = SignatureVerifier.recoverPubKey(this.header.getHashForSigning(), getSignature());
+        if (pubKey == null) {
+            throw new InvalidSignatureException();
         }
+        return pubKey;
     }
 
     @Override
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package io.yggdrash.core.blockchain;
+
+import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.p2p.BlockChainHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Splits the range of the blocks to download into chunks and assigns them to the peers.
+ * The chunk of a slow or failing peer is reassigned to the other peers,
+ * and the downloaded chunks are handed over in order of the block index.
+ */
+class BlockRangeScheduler {
+    private static final Logger log = LoggerFactory.getLogger(BlockRangeScheduler.class);
+
+    // The number of the blocks of a chunk
+    static final long CHUNK_SIZE = 100;
+    // A peer is not assigned any more after the consecutive failures
+    static final int MAX_FAILURES = 3;
+    // A chunk is stalled if it takes longer than the times of the expected time of an idle peer
+    private static final int STALL_FACTOR = 3;
+    private static final long MIN_STALL_MILLIS = 2000;
+
+    private final BranchId branchId;
+    private final List<BlockChainHandler> peerHandlers;
+    private final long chunkSize;
+    // The last chunk takes the blocks beyond the target unless the target is fixed
+    private final boolean fixedTarget;
+    private final int maxChunks;
+    // The chunks not handed over yet, by the start index
+    private final TreeMap<Long, Chunk> chunks = new TreeMap<>();
+    private final List<Future<?>> workers = new ArrayList<>();
+
+    private long targetIndex;
+    private long nextChunkStart;
+    private long nextIndex;
+    private int activePeers;
+    private boolean stopped;
+
+    BlockRangeScheduler(BranchId branchId, List<BlockChainHandler> peerHandlers, long startIndex, long targetIndex) {
+        this(branchId, peerHandlers, startIndex, targetIndex, false);
+    }
+
+    BlockRangeScheduler(BranchId branchId, List<BlockChainHandler> peerHandlers, long startIndex, long targetIndex,
+                        boolean fixedTarget) {
+        this(branchId, peerHandlers, startIndex, targetIndex, CHUNK_SIZE, fixedTarget);
+    }
+
+    BlockRangeScheduler(BranchId branchId, List<BlockChainHandler> peerHandlers, long startIndex, long targetIndex,
+                        long chunkSize) {
+        this(branchId, peerHandlers, startIndex, targetIndex, chunkSize, false);
+    }
+
+    BlockRangeScheduler(BranchId branchId, List<BlockChainHandler> peerHandlers, long startIndex, long targetIndex,
+                        long chunkSize, boolean fixedTarget) {
+        this.branchId = branchId;
+        this.peerHandlers = peerHandlers;
+        this.targetIndex = targetIndex;
+        this.chunkSize = chunkSize;
+        this.fixedTarget = fixedTarget;
+        // Every peer can download a chunk ahead of the one being handed over
+        this.maxChunks = 2 * peerHandlers.size() + 1;
+        this.nextChunkStart = startIndex;
+        this.nextIndex = startIndex;
+    }
+
+    synchronized void start(ExecutorService executor) {
+        activePeers = peerHandlers.size();
+        for (BlockChainHandler peerHandler : peerHandlers) {
+            workers.add(executor.submit(() -> download(peerHandler)));
+        }
+    }
+
+    synchronized void stop() {
+        stopped = true;
+        workers.forEach(worker -> worker.cancel(true));
+        notifyAll();
+    }
+
+    /**
+     * Get the blocks of the next chunk in order
+     *
+     * @return the blocks, null if the range is completed or no peer can download the next chunk
+     */
+    synchronized List<ConsensusBlock> next() throws InterruptedException {
+        while (!stopped && !isCompleted()) {
+            Chunk chunk = chunks.get(nextIndex);
+            if (chunk != null && chunk.blocks != null) {
+                chunks.remove(nextIndex);
+                nextIndex = chunk.blocks.get(chunk.blocks.size() - 1).getIndex() + 1;
+                notifyAll();
+                return chunk.blocks;
+            }
+            if (activePeers == 0) {
+                return null;
+            }
+            wait();
+        }
+        return null;
+    }
+
+    synchronized boolean isCompleted() {
+        return nextIndex > targetIndex;
+    }
+
+    private void download(BlockChainHandler peerHandler) {
+        PeerStats stats = new PeerStats();
+        try {
+            Chunk chunk;
+            while ((chunk = assign(peerHandler, stats)) != null) {
+                long started = System.currentTimeMillis();
+                try {
+                    List<ConsensusBlock> blocks = download(peerHandler, chunk);
+                    stats.succeeded(blocks.size(), System.currentTimeMillis() - started);
+                    complete(chunk, peerHandler, blocks);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    log.debug("Download blocks({} - {}) is failed. from={} {}",
+                            chunk.start, chunk.end, peerHandler.getPeer().getYnodeUri(), e.getMessage());
+                    release(chunk, peerHandler);
+                    if (stats.failed() >= MAX_FAILURES) {
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            log.debug("Downloaded {} blocks in {} ms. from={}",
+                    stats.blocks, stats.millis, peerHandler.getPeer().getYnodeUri());
+            retire();
+        }
+    }
+
+    private List<ConsensusBlock> download(BlockChainHandler peerHandler, Chunk chunk) throws Exception {
+        List<ConsensusBlock> blocks = new ArrayList<>();
+        long offset = chunk.start;
+        while (offset <= chunk.end) {
+            Future<List<ConsensusBlock>> futureBlockList = peerHandler.syncBlock(branchId, offset);
+            List<ConsensusBlock> blockList = futureBlockList != null ? futureBlockList.get() : null;
+            if (blockList == null || blockList.isEmpty() || blockList.get(0).getIndex() != offset) {
+                throw new FailedOperationException("No blocks from " + offset);
+            }
+
+            for (ConsensusBlock block : blockList) {
+                // The last chunk takes the blocks beyond the best block known to the peers
+                if (block.getIndex() != offset || (offset > chunk.end && !isLastChunk(chunk))) {
+                    break;
+                }
+                blocks.add(block);
+                offset++;
+            }
+            if (isDownloaded(chunk)) {
+                // Downloaded by the other peer
+                break;
+            }
+        }
+        return blocks;
+    }
+
+    private synchronized Chunk assign(BlockChainHandler peerHandler, PeerStats stats) throws InterruptedException {
+        long peerBestBlock = peerHandler.getPeer().getBestBlock();
+        while (!stopped) {
+            while (chunks.size() < maxChunks && nextChunkStart <= targetIndex) {
+                long end = Math.min(nextChunkStart + chunkSize - 1, targetIndex);
+                chunks.put(nextChunkStart, new Chunk(nextChunkStart, end));
+                nextChunkStart = end + 1;
+            }
+
+            Chunk assigned = null;
+            Chunk stalled = null;
+            long now = System.currentTimeMillis();
+            for (Chunk chunk : chunks.values()) {
+                if (chunk.blocks != null || chunk.assignees.contains(peerHandler)) {
+                    continue;
+                }
+                if (chunk.assignees.isEmpty()) {
+                    // Prefer the chunks the peer has
+                    if (chunk.end <= peerBestBlock) {
+                        assigned = chunk;
+                        break;
+                    } else if (assigned == null) {
+                        assigned = chunk;
+                    }
+                } else if (stalled == null && now - chunk.assignedAt > stats.stallMillis(chunk.size())) {
+                    stalled = chunk;
+                }
+            }
+            if (assigned == null && stalled != null) {
+                log.debug("Reassign the stalled blocks({} - {}) to {}",
+                        stalled.start, stalled.end, peerHandler.getPeer().getYnodeUri());
+                assigned = stalled;
+            }
+
+            if (assigned != null) {
+                assigned.assignees.add(peerHandler);
+                assigned.assignedAt = now;
+                return assigned;
+            } else if (nextChunkStart > targetIndex && chunks.values().stream().allMatch(c -> c.blocks != null)) {
+                return null;
+            }
+            wait(MIN_STALL_MILLIS);
+        }
+        return null;
+    }
+
+    private synchronized void complete(Chunk chunk, BlockChainHandler peerHandler, List<ConsensusBlock> blocks) {
+        chunk.assignees.remove(peerHandler);
+        if (chunk.blocks == null) {
+            chunk.blocks = blocks;
+            if (isLastChunk(chunk)) {
+                targetIndex = Math.max(targetIndex, blocks.get(blocks.size() - 1).getIndex());
+            }
+        }
+        notifyAll();
+    }
+
+    private synchronized void release(Chunk chunk, BlockChainHandler peerHandler) {
+        chunk.assignees.remove(peerHandler);
+        notifyAll();
+    }
+
+    private synchronized void retire() {
+        activePeers--;
+        notifyAll();
+    }
+
+    private synchronized boolean isDownloaded(Chunk chunk) {
+        return chunk.blocks != null;
+    }
+
+    private synchronized boolean isLastChunk(Chunk chunk) {
+        return !fixedTarget && chunk.end == targetIndex;
+    }
+
+    private static class Chunk {
+        private final long start;
+        private final long end;
+        private final Set<BlockChainHandler> assignees = new HashSet<>();
+        private long assignedAt;
+        private List<ConsensusBlock> blocks;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        long size() {
+            return end - start + 1;
+        }
+    }
+
+    /**
+     * The throughput of a peer
+     */
+    private static class PeerStats {
+        private long blocks;
+        private long millis;
+        private int failures;
+
+        void succeeded(long blocks, long millis) {
+            this.blocks += blocks;
+            this.millis += millis;
+            this.failures = 0;
+        }
+
+        int failed() {
+            return ++failures;
+        }
+
+        /**
+         * A chunk is stalled if it takes longer than the times of the time this peer is expected to take
+         */
+        long stallMillis(long chunkSize) {
+            if (blocks == 0) {
+                return STALL_FACTOR * MIN_STALL_MILLIS;
+            }
+            return Math.max(MIN_STALL_MILLIS, STALL_FACTOR * millis * chunkSize / blocks);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package io.yggdrash.core.blockchain;
+
+import io.yggdrash.common.util.VerifierUtils;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.exception.NotValidateException;
+import io.yggdrash.core.p2p.BlockChainHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports the blocks of the peers in three stages connected by a bounded queue.
+ * The next batches are fetched from the peers while the current batch is executed,
+ * the blocks of a batch are verified in parallel and then executed in order.
+ */
+class BlockSyncPipeline {
+    private static final Logger log = LoggerFactory.getLogger(BlockSyncPipeline.class);
+
+    // The number of the batches fetched ahead of the execution
+    static final int PREFETCH_SIZE = 4;
+
+    private static final CompletableFuture<List<ConsensusBlock>> NO_MORE_BLOCKS =
+            CompletableFuture.completedFuture(Collections.emptyList());
+    private static final CompletableFuture<List<ConsensusBlock>> REACHED_BEST_BLOCK =
+            CompletableFuture.completedFuture(Collections.emptyList());
+
+    private final BlockChain blockChain;
+    private final List<BlockChainHandler> peerHandlers;
+    private final long targetIndex;
+    // The blocks above the target are not requested
+    private final boolean fixedTarget;
+    private final ExecutorService verifyExecutor;
+    private final BlockingQueue<CompletableFuture<List<ConsensusBlock>>> verifiedBatches =
+            new ArrayBlockingQueue<>(PREFETCH_SIZE);
+
+    private volatile boolean stopped;
+
+    BlockSyncPipeline(BlockChain blockChain, BlockChainHandler peerHandler, ExecutorService verifyExecutor) {
+        // At least the next batch is requested, even if the best block of the peer is not known yet
+        this(blockChain, Collections.singletonList(peerHandler),
+                Math.max(peerHandler.getPeer().getBestBlock(), blockChain.getBlockChainManager().getLastIndex() + 1),
+                verifyExecutor);
+    }
+
+    BlockSyncPipeline(BlockChain blockChain, List<BlockChainHandler> peerHandlers, long targetIndex,
+                      ExecutorService verifyExecutor) {
+        this(blockChain, peerHandlers, targetIndex, false, verifyExecutor);
+    }
+
+    private BlockSyncPipeline(BlockChain blockChain, List<BlockChainHandler> peerHandlers, long targetIndex,
+                              boolean fixedTarget, ExecutorService verifyExecutor) {
+        this.blockChain = blockChain;
+        this.peerHandlers = peerHandlers;
+        this.targetIndex = targetIndex;
+        this.fixedTarget = fixedTarget;
+        this.verifyExecutor = verifyExecutor;
+    }
+
+    /**
+     * The pipeline which imports the blocks up to the target only, e.g. the gap below the blocks received already
+     */
+    static BlockSyncPipeline forRange(BlockChain blockChain, List<BlockChainHandler> peerHandlers, long targetIndex,
+                                      ExecutorService verifyExecutor) {
+        return new BlockSyncPipeline(blockChain, peerHandlers, targetIndex, true, verifyExecutor);
+    }
+
+    /**
+     * Import the blocks of the peers until the target block
+     *
+     * @param fetchExecutor the executor which runs the fetch stage and the downloads of the peers
+     * @return true if the blocks are imported until the target block
+     */
+    boolean run(ExecutorService fetchExecutor) {
+        long offset = blockChain.getBlockChainManager().getLastIndex() + 1;
+        BlockRangeScheduler scheduler =
+                new BlockRangeScheduler(blockChain.getBranchId(), peerHandlers, offset, targetIndex, fixedTarget);
+        scheduler.start(fetchExecutor);
+        Future<?> fetcher = fetchExecutor.submit(() -> fetch(scheduler, offset));
+        try {
+            return execute();
+        } finally {
+            stopped = true;
+            fetcher.cancel(true);
+            scheduler.stop();
+        }
+    }
+
+    private void fetch(BlockRangeScheduler scheduler, long startOffset) {
+        long offset = startOffset;
+        CompletableFuture<List<ConsensusBlock>> last = NO_MORE_BLOCKS;
+        try {
+            List<ConsensusBlock> blockList;
+            while (!stopped && (blockList = scheduler.next()) != null) {
+                log.debug("syncBlock() reqBlock={} resBlock=({} - {})",
+                        offset, blockList.get(0).getIndex(), blockList.get(blockList.size() - 1).getIndex());
+
+                enqueue(verify(blockList, offset));
+                offset = blockList.get(blockList.size() - 1).getIndex() + 1;
+            }
+            if (scheduler.isCompleted()) {
+                last = REACHED_BEST_BLOCK;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            CompletableFuture<List<ConsensusBlock>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            last = failed;
+        }
+
+        try {
+            enqueue(last);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(CompletableFuture<List<ConsensusBlock>> batch) throws InterruptedException {
+        while (!stopped) {
+            if (verifiedBatches.offer(batch, 1, TimeUnit.SECONDS)) {
+                return;
+            }
+        }
+    }
+
+    private CompletableFuture<List<ConsensusBlock>> verify(List<ConsensusBlock> blockList, long offset) {
+        CompletableFuture[] verified = blockList.stream()
+                .map(block -> CompletableFuture.runAsync(() -> verifyBlock(block), verifyExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(verified).thenApply(v -> {
+            verifyHeaderChain(blockList, offset);
+            return blockList;
+        });
+    }
+
+    private void verifyBlock(ConsensusBlock block) {
+        if (!VerifierUtils.verify(block)) {
+            throw new NotValidateException("Invalid block. index=" + block.getIndex());
+        }
+        // The invalid transactions are excluded by the execution,
+        // this only recovers the public keys of the transactions ahead of the execution.
+        VerifierUtils.verifySignatures(block.getBody().getTransactionList());
+    }
+
+    /**
+     * The blocks of a batch should be linked from the requested offset.
+     * The link to the last block of the chain is verified by addBlock.
+     */
+    private void verifyHeaderChain(List<ConsensusBlock> blockList, long offset) {
+        ConsensusBlock prevBlock = null;
+        for (ConsensusBlock block : blockList) {
+            long expectedIndex = prevBlock == null ? offset : prevBlock.getIndex() + 1;
+            if (block.getIndex() != expectedIndex
+                    || (prevBlock != null && !prevBlock.getHash().equals(block.getPrevBlockHash()))) {
+                throw new NotValidateException("Unlinked block. index=" + block.getIndex());
+            }
+            prevBlock = block;
+        }
+    }
+
+    private boolean execute() {
+        try {
+            while (true) {
+                CompletableFuture<List<ConsensusBlock>> batch = verifiedBatches.take();
+                if (batch == REACHED_BEST_BLOCK) {
+                    return true;
+                } else if (batch == NO_MORE_BLOCKS) {
+                    return false;
+                }
+
+                for (ConsensusBlock block : batch.get()) {
+                    // Handling exception if the block was not added properly
+                    Map<String, List<String>> errorLogs = blockChain.addBlock(block, false);
+                    if (errorLogs.size() > 0) {
+                        log.debug("addBlock() is failed. {}", errorLogs);
+                        return false;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.info("syncBlock() is failed. {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -128,6 +128,20 @@ public class BranchGroup {
         return getBranch(branchId).getBlockChainManager().getTxByHash(hash);
     }
 
+    public TransactionLocation getTxLocation(BranchId branchId, String id) {
+        Sha3Hash txId;
+        try {
+            txId = new Sha3Hash(id);
+        } catch (Exception e) {
+            throw new DecodeException.TxIdNotHexString();
+        }
+        TransactionLocation location = getBranch(branchId).getBlockChainManager().getTxLocation(txId);
+        if (location == null) {
+            throw new NonExistObjectException.TxNotFound(id);
+        }
+        return location;
+    }
+
     void addBlock(ConsensusBlock block) {
         addBlock(block, true);
     }
@@ -146,6 +160,14 @@ public class BranchGroup {
         return blockByIndex;
     }
 
+    public List<ConsensusBlock> getBlocksByRange(BranchId branchId, long fromIndex, long toIndex) {
+        return getBranch(branchId).getBlockChainManager().getBlocksByRange(fromIndex, toIndex);
+    }
+
+    public List<byte[]> getBlockBinariesByRange(BranchId branchId, long fromIndex, long toIndex, long maxBytes) {
+        return getBranch(branchId).getBlockChainManager().getBlockBinariesByRange(fromIndex, toIndex, maxBytes);
+    }
+
     public ConsensusBlock getBlockByHash(BranchId branchId, String hash) {
         try {
             Sha3Hash blockHash = new Sha3Hash(hash);
@@ -182,4 +204,13 @@ public class BranchGroup {
         }
     }
 
+    public List<byte[]> getStateProof(BranchId branchId, String key) {
+        BlockChain chain = getBranch(branchId);
+        try {
+            return chain.getContractManager().getStateProof(key);
+        } catch (IllegalStateException e) {
+            throw new FailedOperationException(e);
+        }
+    }
+
 }
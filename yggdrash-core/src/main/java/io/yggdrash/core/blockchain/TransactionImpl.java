@@ -24,7 +24,7 @@ import com.google.protobuf.util.JsonFormat;
 import io.yggdrash.common.RawTransaction;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
-import io.yggdrash.common.crypto.ECKey;
+import io.yggdrash.common.crypto.SignatureVerifier;
 import io.yggdrash.core.exception.InvalidSignatureException;
 import io.yggdrash.core.exception.NotValidateException;
 import io.yggdrash.core.exception.WrongStructuredException;
@@ -37,7 +37,6 @@ import org.spongycastle.util.encoders.Hex;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.security.SignatureException;
 import java.util.Arrays;
 
 import static io.yggdrash.common.config.Constants.Key.BODY;
@@ -150,13 +149,11 @@ public class TransactionImpl implements Transaction {
 
     @Override
     public byte[] getPubKey() {
-        ECKey.ECDSASignature ecdsaSignature = new ECKey.ECDSASignature(getSignature());
-        try {
-            ECKey ecKeyPub = ECKey.signatureToKey(this.header.getHashForSigning(), ecdsaSignature);
-            return ecKeyPub.getPubKey();
-        } catch (SignatureException e) {
-            throw new InvalidSignatureException(e);
+        byte[] pubKey = SignatureVerifier.recoverPubKey(this.header.getHashForSigning(), getSignature());
+        if (pubKey == null) {
+            throw new InvalidSignatureException();
         }
+        return pubKey;
     }
 
     @Override
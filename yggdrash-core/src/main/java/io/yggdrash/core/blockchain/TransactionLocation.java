@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.blockchain;
+
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.config.Constants;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Location of a transaction in the chain. (blockIndex, blockHash, position in the block body)
+ */
+public class TransactionLocation {
+    private static final int BINARY_LENGTH = Long.BYTES + Constants.HASH_LENGTH + Integer.BYTES;
+
+    private final long blockIndex;
+    private final Sha3Hash blockHash;
+    private final int position;
+
+    public TransactionLocation(long blockIndex, Sha3Hash blockHash, int position) {
+        this.blockIndex = blockIndex;
+        this.blockHash = blockHash;
+        this.position = position;
+    }
+
+    public long getBlockIndex() {
+        return blockIndex;
+    }
+
+    public Sha3Hash getBlockHash() {
+        return blockHash;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public byte[] toBinary() {
+        return ByteBuffer.allocate(BINARY_LENGTH)
+                .putLong(blockIndex)
+                .put(blockHash.getBytes())
+                .putInt(position)
+                .array();
+    }
+
+    public static TransactionLocation parseFrom(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long blockIndex = buffer.getLong();
+        byte[] blockHash = new byte[Constants.HASH_LENGTH];
+        buffer.get(blockHash);
+        return new TransactionLocation(blockIndex, Sha3Hash.createByHashed(blockHash), buffer.getInt());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        TransactionLocation that = (TransactionLocation) o;
+        return blockIndex == that.blockIndex && position == that.position && blockHash.equals(that.blockHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(blockIndex, blockHash, position);
+    }
+}
@@ -5,99 +5,87 @@ import io.yggdrash.contract.core.annotation.ContractEndBlock;
 import io.yggdrash.contract.core.annotation.ContractQuery;
 import io.yggdrash.contract.core.annotation.InvokeTransaction;
 import io.yggdrash.contract.core.channel.ContractMethodType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ContractCacheImpl implements ContractCache {
+    private static final Logger log = LoggerFactory.getLogger(ContractCacheImpl.class);
 
-    //Map<contractVersion, Map<methodName, method>>
-    private final Map<String, Map<String, Method>> invokeTransactionMethods = new HashMap<>();
-    //Map<contractVersion, Map<methodName, method>>
-    private final Map<String, Map<String, Method>> queryMethods = new HashMap<>();
+    private static final Map<ContractMethodType, Class<? extends Annotation>> ANNOTATIONS =
+            new EnumMap<>(ContractMethodType.class);
 
-    private final Map<String, Map<String, Method>> contractChannelMethods = new HashMap<>();
-
-    private final Map<String, Map<String, Method>> endBlockMethods = new HashMap<>();
-
-    Map<String, Map<String, Method>> getInvokeTransactionMethods() {
-        return invokeTransactionMethods;
+    static {
+        ANNOTATIONS.put(ContractMethodType.INVOKE, InvokeTransaction.class);
+        ANNOTATIONS.put(ContractMethodType.QUERY, ContractQuery.class);
+        ANNOTATIONS.put(ContractMethodType.CHANNEL_METHOD, ContractChannelMethod.class);
+        ANNOTATIONS.put(ContractMethodType.END_BLOCK, ContractEndBlock.class);
     }
 
-    Map<String, Map<String, Method>> getQueryMethods() {
-        return queryMethods;
-    }
-
-    Map<String, Map<String, Method>> getChannelMethods() {
-        return contractChannelMethods;
-    }
+    //Map<contractVersion, methods of the contract by the type>
+    private final Map<String, ContractMethods> contracts = new ConcurrentHashMap<>();
 
-    Map<String, Map<String, Method>> getEndBlockMethods() {
-        return endBlockMethods;
+    /**
+     * Compile the methods of the service, they replace the methods of the contract version cached before
+     */
+    @Override
+    public void cacheContract(String contractVersion, Object service) {
+        contracts.put(contractVersion, new ContractMethods(contractVersion, service));
     }
 
-    public void cacheContract(String contractName, Object service) {
-        List<Method> serviceMethods = Arrays.stream(service.getClass().getDeclaredMethods())
-                .filter(method -> Modifier.isPublic(method.getModifiers()))
-                .collect(Collectors.toList());
-
-        Map<String, Method> invokeMap = invokeTransactionMethods.computeIfAbsent(contractName,
-                k -> serviceMethods.stream()
-                        .filter(method -> method.isAnnotationPresent(InvokeTransaction.class))
-                        .collect(Collectors.toMap(Method::getName, m -> m)));
-        invokeTransactionMethods.put(contractName, invokeMap);
-
-        Map<String, Method> channelMap = contractChannelMethods.computeIfAbsent(contractName,
-                k -> serviceMethods.stream()
-                        .filter(method -> method.isAnnotationPresent(ContractChannelMethod.class))
-                        .collect(Collectors.toMap(Method::getName, m -> m)));
-        contractChannelMethods.put(contractName, channelMap);
-
-        Map<String, Method> queryMethodMap = queryMethods.computeIfAbsent(contractName,
-                k -> serviceMethods.stream()
-                        .filter(method -> method.isAnnotationPresent(ContractQuery.class))
-                        .collect(Collectors.toMap(Method::getName, m -> m)));
-        queryMethods.put(contractName, queryMethodMap);
-
-        Map<String, Method> endBlockMap = endBlockMethods.computeIfAbsent(contractName,
-                k -> serviceMethods.stream()
-                        .filter(method -> method.isAnnotationPresent(ContractEndBlock.class))
-                        .collect(Collectors.toMap(Method::getName, m -> m)));
-        endBlockMethods.put(contractName, endBlockMap);
+    @Override
+    public Map<String, ContractMethod> getContractMethodMap(
+            String contractVersion, ContractMethodType type, Object service) {
+        return contracts.computeIfAbsent(contractVersion, k -> new ContractMethods(k, service)).get(type);
     }
 
-    @Override
-    public Map<String, Method> getContractMethodMap(String contractVersion, ContractMethodType type, Object service) {
-        switch (type) {
-            case QUERY:
-                if (this.queryMethods.get(contractVersion) == null) {
-                    this.cacheContract(contractVersion, service);
-                }
-                return this.queryMethods.get(contractVersion);
-            case INVOKE:
-                if (this.invokeTransactionMethods.get(contractVersion) == null) {
-                    this.cacheContract(contractVersion, service);
-                }
-                return this.invokeTransactionMethods.get(contractVersion);
-            case END_BLOCK:
-                if (this.endBlockMethods.get(contractVersion) == null) {
-                    this.cacheContract(contractVersion, service);
-                }
-                return this.endBlockMethods.get(contractVersion);
-            case CHANNEL_METHOD:
-                if (this.contractChannelMethods.get(contractVersion) == null) {
-                    this.cacheContract(contractVersion, service);
+    /**
+     * The methods of a contract, indexed by the ordinal of the type and then by the name
+     */
+    private static class ContractMethods {
+        private final String contractVersion;
+        private final Map<String, ContractMethod>[] methodsByType;
+
+        @SuppressWarnings("unchecked")
+        ContractMethods(String contractVersion, Object service) {
+            this.contractVersion = contractVersion;
+            methodsByType = new Map[ContractMethodType.values().length];
+            for (ContractMethodType type : ContractMethodType.values()) {
+                methodsByType[type.ordinal()] = new HashMap<>();
+            }
+            for (Method method : service.getClass().getDeclaredMethods()) {
+                if (!Modifier.isPublic(method.getModifiers())) {
+                    continue;
                 }
-                return this.contractChannelMethods.get(contractVersion);
-            default:
-                return new HashMap<>();
+                ANNOTATIONS.forEach((type, annotation) -> {
+                    if (method.isAnnotationPresent(annotation)) {
+                        put(type, method);
+                    }
+                });
+            }
+            for (int i = 0; i < methodsByType.length; i++) {
+                methodsByType[i] = Collections.unmodifiableMap(methodsByType[i]);
+            }
         }
-    }
 
+        private void put(ContractMethodType type, Method method) {
+            try {
+                methodsByType[type.ordinal()].put(method.getName(), ContractMethod.of(contractVersion, method));
+            } catch (IllegalArgumentException e) {
+                log.debug("{} is not cached. {}", method, e.getMessage());
+            }
+        }
 
+        Map<String, ContractMethod> get(ContractMethodType type) {
+            return methodsByType[type.ordinal()];
+        }
+    }
 }
@@ -9,11 +9,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Map;
 
 public class ContractChannelCoupler implements ContractChannel {
     private static final Logger log = LoggerFactory.getLogger(ContractChannelCoupler.class);
+    private static final Gson GSON = new Gson();
 
     private Map<String, Object> serviceMap;
     private ContractCache cache;
@@ -25,6 +25,20 @@ public class ContractChannelCoupler implements ContractChannel {
 
     @Override
     public JsonObject call(String contractVersion, ContractMethodType type, String methodName, JsonObject params) {
+        Object result = invoke(contractVersion, type, methodName, params);
+
+        if (result instanceof JsonObject) {
+            return (JsonObject) result;
+        } else if (result != null) {
+            JsonElement element = GSON.toJsonTree(result);
+            JsonObject resultObject = new JsonObject();
+            resultObject.add("result", element);
+            return resultObject;
+        }
+        return null;
+    }
+
+    private Object invoke(String contractVersion, ContractMethodType type, String methodName, JsonObject params) {
         log.trace("Call {} {} {} ", contractVersion, type, methodName);
         Object service = serviceMap.get(contractVersion);
         if (service == null) {
@@ -32,35 +46,18 @@ public class ContractChannelCoupler implements ContractChannel {
             return null;
         }
 
-        Method method = cache.getContractMethodMap(contractVersion, type, service).get(methodName);
+        ContractMethod method = cache.getContractMethodMap(contractVersion, type, service).get(methodName);
 
         if (method == null) {
             log.error("Not found contract method: {}", methodName);
             return null;
         }
 
-        Object result = null;
         try {
-            if (method.getParameterCount() == 0) {
-                result = method.invoke(service);
-            } else {
-                result = method.invoke(service, params);
-            }
-        } catch (IllegalAccessException e) {
-            log.error("CallContractMethod : {} and bundle {} ", methodName, contractVersion);
+            return method.invoke(service, params);
         } catch (InvocationTargetException e) {
             log.error("{} occurred error in {} caused by {}", methodName, contractVersion, e.getCause());
+            return null;
         }
-
-        if (result instanceof JsonObject) {
-            return (JsonObject) result;
-        } else if (result != null) {
-            Gson gson = new Gson();
-            JsonElement element = gson.toJsonTree(result);
-            JsonObject resultObject = new JsonObject();
-            resultObject.add("result", element);
-            return resultObject;
-        }
-        return null;
     }
 }
@@ -1,7 +1,12 @@
 package io.yggdrash.core.blockchain.osgi;
 
 import com.google.gson.JsonObject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.yggdrash.common.contract.vo.PrefixKeyEnum;
 import io.yggdrash.common.crypto.HashUtil;
+import io.yggdrash.common.store.StateStore;
 import io.yggdrash.contract.core.ExecuteStatus;
 import io.yggdrash.contract.core.Receipt;
 import io.yggdrash.contract.core.ReceiptAdapter;
@@ -11,6 +16,7 @@ import io.yggdrash.contract.core.annotation.ContractChannelField;
 import io.yggdrash.contract.core.annotation.ContractReceipt;
 import io.yggdrash.contract.core.annotation.ContractStateStore;
 import io.yggdrash.contract.core.channel.ContractMethodType;
+import io.yggdrash.contract.core.store.ReadWriterStore;
 import io.yggdrash.core.blockchain.LogIndexer;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.consensus.ConsensusBlock;
@@ -20,6 +26,7 @@ import io.yggdrash.core.runtime.result.TransactionRuntimeResult;
 import io.yggdrash.core.store.ContractStore;
 import io.yggdrash.core.store.ReceiptStore;
 import io.yggdrash.core.store.StoreAdapter;
+import io.yggdrash.core.store.TempStateStore;
 import org.apache.commons.codec.binary.Base64;
 import org.osgi.framework.Bundle;
 import org.slf4j.Logger;
@@ -28,11 +35,16 @@ import org.slf4j.LoggerFactory;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class ContractExecutor {
@@ -48,14 +60,38 @@ public class ContractExecutor {
 
     private ReceiptAdapter trAdapter;
     private ContractChannelCoupler coupler;
+    private OverlayBranchStateStore branchStateStore;
 
+    // Workers of the optimistic parallel execution. null means that the transactions are executed serially.
+    private final ExecutorService txExecutor;
+    private final Counter reExecutionCounter = Counter.builder("yggdrash.contract.reexecution")
+            .description("The number of the transactions executed again after the speculative execution")
+            .register(Metrics.globalRegistry);
 
     ContractExecutor(ContractStore contractStore, LogIndexer logIndexer) {
+        this(contractStore, logIndexer, 1);
+    }
+
+    ContractExecutor(ContractStore contractStore, LogIndexer logIndexer, int executorThreads) {
         this.contractStore = contractStore;
         this.logIndexer = logIndexer;
         this.contractCache = new ContractCacheImpl();
         this.trAdapter = new ReceiptAdapter();
         this.coupler = new ContractChannelCoupler();
+        this.branchStateStore = new OverlayBranchStateStore(
+                contractStore.getBranchStore(), contractStore.getTmpStateStore());
+        this.txExecutor = executorThreads > 1 ? Executors.newFixedThreadPool(executorThreads, runnable -> {
+            Thread thread = new Thread(runnable, "contract-executor");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Compile the methods of the contract before it is called
+     */
+    void cacheContract(String contractVersion, Object service) {
+        contractCache.cacheContract(contractVersion, service);
     }
 
     void injectNodeContract(Object service) {
@@ -81,7 +117,7 @@ public class ContractExecutor {
                     }
 
                     if (annotation.annotationType().equals(ContractBranchStateStore.class)) {
-                        field.set(service, contractStore.getBranchStore());
+                        field.set(service, branchStateStore);
                     }
 
                     if (annotation.annotationType().equals(ContractReceipt.class)) {
@@ -105,11 +141,27 @@ public class ContractExecutor {
         return new String(Base64.encodeBase64(bundleSymbolicSha3));
     }
 
+    /**
+     * Invokes the query method on the calling thread against the state snapshot of the last block,
+     * so the queries neither wait for nor observe the block in execution
+     */
     Object query(Map<String, Object> serviceMap, String contractVersion, String methodName, JsonObject params) throws Exception {
         Object service = getService(serviceMap, contractVersion);
-        Method method = getMethod(service, contractVersion, ContractMethodType.QUERY, methodName);
+        ContractMethod method = getMethod(service, contractVersion, ContractMethodType.QUERY, methodName);
+        return queryOnSnapshot(service, method, params);
+    }
 
-        return invokeMethod(service, method, params);
+    // The overlay is bound to the calling thread, which is not executing the transactions
+    private Object queryOnSnapshot(Object service, ContractMethod method, JsonObject params) throws Exception {
+        TempStateStore tmpStateStore = contractStore.getTmpStateStore();
+        StateStore.Snapshot snapshot = contractStore.getStateStore().getSnapshot();
+        tmpStateStore.beginOverlay(snapshot);
+        try {
+            return invokeMethod(service, method, params);
+        } finally {
+            tmpStateStore.endOverlay();
+            snapshot.close();
+        }
     }
 
     private TransactionRuntimeResult getTransactionRuntimeResult(Map<String, Object> serviceMap, Transaction tx) {
@@ -168,21 +220,20 @@ public class ContractExecutor {
             List<Transaction> txList = nextBlock != null
                     ? nextBlock.getBody().getTransactionList() : blockRuntimeResult.getTxList();
 
-            for (Transaction tx : txList) {
-                Receipt receipt = createTxReceipt(tx, nextBlock);
-
-                Set<Map.Entry<String, JsonObject>> result = null;
-                try {
-                    result = invokeTx(serviceMap, tx, receipt);
-                } catch (ExecutorException e) {
-                    exceptionHandler(e, receipt);
-                }
+            if (txExecutor != null && txList.size() > 1) {
+                executeTxsInParallel(serviceMap, txList, blockRuntimeResult);
+            } else {
+                for (Transaction tx : txList) {
+                    Receipt receipt = createTxReceipt(tx, nextBlock);
+
+                    Set<Map.Entry<String, JsonObject>> result = null;
+                    try {
+                        result = invokeTx(serviceMap, tx, receipt);
+                    } catch (ExecutorException e) {
+                        exceptionHandler(e, receipt);
+                    }
 
-                blockRuntimeResult.addReceipt(receipt);
-                if (receipt.getStatus().equals(ExecuteStatus.SUCCESS)) {
-                    blockRuntimeResult.setBlockResult(result);
-                } else {
-                    log.warn("Error TxId={}, TxLog={}", receipt.getTxId(), receipt.getLog());
+                    addTxResult(blockRuntimeResult, receipt, result);
                 }
             }
 
@@ -192,16 +243,98 @@ public class ContractExecutor {
         }
     }
 
+    private void addTxResult(BlockRuntimeResult blockRuntimeResult, Receipt receipt,
+                             Set<Map.Entry<String, JsonObject>> result) {
+        blockRuntimeResult.addReceipt(receipt);
+        if (receipt.getStatus().equals(ExecuteStatus.SUCCESS)) {
+            blockRuntimeResult.setBlockResult(result);
+        } else {
+            log.warn("Error TxId={}, TxLog={}", receipt.getTxId(), receipt.getLog());
+        }
+    }
+
+    /**
+     * Executes the transactions speculatively on the workers, each against its own overlay of TempStateStore,
+     * and then applies the overlays in block order. A transaction that read a key written by a previous
+     * transaction of the block is executed again against the applied state, so the receipts, block result
+     * and state are the same as those of the serial execution.
+     */
+    private void executeTxsInParallel(
+            Map<String, Object> serviceMap, List<Transaction> txList, BlockRuntimeResult blockRuntimeResult) {
+        ConsensusBlock nextBlock = blockRuntimeResult.getOriginBlock();
+        TempStateStore tmpStateStore = contractStore.getTmpStateStore();
+
+        // The workers read the values before the block, while the overlays are applied to the temp store
+        ReadWriterStore<String, JsonObject> base = tmpStateStore.freeze();
+        List<Future<SpeculativeTx>> speculativeTxs = new ArrayList<>(txList.size());
+        for (Transaction tx : txList) {
+            speculativeTxs.add(txExecutor.submit(() -> executeInOverlay(serviceMap, tx, nextBlock, base)));
+        }
+
+        Set<String> writtenKeys = new HashSet<>();
+        int reExecuted = 0;
+        for (int i = 0; i < txList.size(); i++) {
+            SpeculativeTx speculativeTx = getSpeculativeTx(speculativeTxs.get(i));
+            if (speculativeTx == null
+                    || !Collections.disjoint(speculativeTx.overlay.getConflictKeys(), writtenKeys)) {
+                // Conflict with a previous transaction. Execute it again on the current state.
+                speculativeTx = executeInOverlay(serviceMap, txList.get(i), nextBlock, null);
+                reExecuted++;
+                reExecutionCounter.increment();
+            }
+
+            tmpStateStore.applyOverlay(speculativeTx.overlay);
+            writtenKeys.addAll(speculativeTx.overlay.getWriteKeys());
+            addTxResult(blockRuntimeResult, speculativeTx.receipt, tmpStateStore.changeValues());
+        }
+        log.debug("Parallel execution of {} txs, {} re-executed", txList.size(), reExecuted);
+    }
+
+    /**
+     * @param base the frozen values read by an isolated overlay, or null to read the temp store on this thread
+     */
+    private SpeculativeTx executeInOverlay(Map<String, Object> serviceMap, Transaction tx, ConsensusBlock block,
+                                           ReadWriterStore<String, JsonObject> base) {
+        TempStateStore tmpStateStore = contractStore.getTmpStateStore();
+        TempStateStore.Overlay overlay = base != null
+                ? tmpStateStore.beginOverlay(base) : tmpStateStore.beginOverlay(false);
+        // Every transfer credits the fee account of the branch, which is not a conflict of the transactions
+        String feeAccountKey = PrefixKeyEnum.getAccountKey(tx.getBranchId().toString());
+        overlay.setCreditKeys(key -> key.endsWith(feeAccountKey));
+        try {
+            Receipt receipt = createTxReceipt(tx, block);
+            try {
+                invokeTx(serviceMap, tx, receipt);
+            } catch (ExecutorException e) {
+                exceptionHandler(e, receipt);
+            }
+            return new SpeculativeTx(receipt, overlay);
+        } finally {
+            tmpStateStore.endOverlay();
+        }
+    }
+
+    private SpeculativeTx getSpeculativeTx(Future<SpeculativeTx> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.debug("Speculative execution failed. {}", e.getMessage());
+        }
+        return null;
+    }
+
     BlockRuntimeResult endBlock(Map<String, Object> serviceMap, BlockRuntimeResult result) {
         int i = 0;
         for (String contractVersion : serviceMap.keySet()) {
             Object service = serviceMap.get(contractVersion);
-            List<Method> values = new ArrayList<>(contractCache
+            List<ContractMethod> values = new ArrayList<>(contractCache
                     .getContractMethodMap(contractVersion, ContractMethodType.END_BLOCK, service)
                     .values());
             if (!values.isEmpty()) {
                 // Each contract has only one endBlock method
-                Method method = values.get(0);
+                ContractMethod method = values.get(0);
                 Receipt receipt = createBlockReceipt(result, contractVersion, i);
                 Set<Map.Entry<String, JsonObject>> changedValues
                         = invokeMethod(receipt, service, method, new JsonObject());
@@ -214,7 +347,13 @@ public class ContractExecutor {
                 }
             }
         }
-        contractStore.getTmpStateStore().close();
+
+        TempStateStore tmpStateStore = contractStore.getTmpStateStore();
+        if (!result.getBlockResult().isEmpty()) {
+            // The state trie is updated once per block with the changed values
+            result.setStateRoot(tmpStateStore.getStateRoot(result.getBlockResult()));
+        }
+        tmpStateStore.close();
         return result;
     }
 
@@ -229,14 +368,15 @@ public class ContractExecutor {
         receipt.setMethod(methodName);
 
         Object service = getService(serviceMap, contractVersion);
-        Method method = getMethod(service, contractVersion, ContractMethodType.INVOKE, methodName);
+        ContractMethod method = getMethod(service, contractVersion, ContractMethodType.INVOKE, methodName);
         return invokeMethod(receipt, service, method, params);
     }
 
-    private Method getMethod(
+    private ContractMethod getMethod(
             Object service, String contractVersion, ContractMethodType methodType, String methodName)
             throws ExecutorException {
-        Method method = contractCache.getContractMethodMap(contractVersion, methodType, service).get(methodName);
+        ContractMethod method =
+                contractCache.getContractMethodMap(contractVersion, methodType, service).get(methodName);
 
         if (method == null) {
             log.error("Not found contract method: {}", methodName);
@@ -257,15 +397,16 @@ public class ContractExecutor {
         return service;
     }
 
-    private Object invokeMethod(Object service, Method method, JsonObject params)
-            throws InvocationTargetException, IllegalAccessException {
-        return method.getParameterCount() == 0 ? method.invoke(service) : method.invoke(service, params);
+    private Object invokeMethod(Object service, ContractMethod method, JsonObject params)
+            throws InvocationTargetException {
+        return method.invoke(service, params);
     }
 
     private Set<Map.Entry<String, JsonObject>> invokeMethod(
-            Receipt receipt, Object service, Method method, JsonObject params) { //=> getRuntimeResult
+            Receipt receipt, Object service, ContractMethod method, JsonObject params) { //=> getRuntimeResult
         trAdapter.setReceipt(receipt);
 
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
         try {
             invokeMethod(service, method, params);
         } catch (InvocationTargetException e) {
@@ -273,6 +414,8 @@ public class ContractExecutor {
             trAdapter.addLog(e.getCause().getMessage());
         } catch (Exception e) {
             log.error("Invoke failed. {}", e.getMessage());
+        } finally {
+            sample.stop(method.getExecutionTimer());
         }
 
         return contractStore.getTmpStateStore().changeValues();
@@ -298,7 +441,11 @@ public class ContractExecutor {
 
             if (!result.getBlockResult().isEmpty()) {
                 result.freeze(); // Set blockHeight of stateRootHash
+                contractStore.getTmpStateStore().commitStateRoot(result.getStateRoot());
                 contractStore.getStateStore().updatePatch(result.getBlockResult());
+            } else {
+                // The roots of the proposals executed before are not committed by this block
+                contractStore.getTmpStateStore().discardStateRoot();
             }
             contractStore.getTmpStateStore().close(); // Set StateRootHash of TempStateStore
         } finally {
@@ -306,6 +453,12 @@ public class ContractExecutor {
         }
     }
 
+    void close() {
+        if (txExecutor != null) {
+            txExecutor.shutdown();
+        }
+    }
+
     private Receipt createBlockReceipt(BlockRuntimeResult result, String contractVersion, int index) {
         ConsensusBlock block = result.getOriginBlock();
         String branchId = result.getBranchId().isEmpty() ? contractStore.getBranchStore().getBranch().getBranchId().toString() : result.getBranchId();
@@ -344,4 +497,14 @@ public class ContractExecutor {
         }
     }
 
+    private static class SpeculativeTx {
+        private final Receipt receipt;
+        private final TempStateStore.Overlay overlay;
+
+        SpeculativeTx(Receipt receipt, TempStateStore.Overlay overlay) {
+            this.receipt = receipt;
+            this.overlay = overlay;
+        }
+    }
+
 }
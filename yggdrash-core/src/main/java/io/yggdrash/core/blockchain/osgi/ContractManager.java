@@ -75,7 +75,8 @@ public class ContractManager implements ContractEventListener {
         this.systemProperties = systemProperties;
 
         this.logIndexer = new LogIndexer(logStore, contractStore.getReceiptStore());
-        this.contractExecutor = new ContractExecutor(contractStore, logIndexer);
+        this.contractExecutor = new ContractExecutor(
+                contractStore, logIndexer, defaultConfig.getContractExecutorThreads());
 
         this.bundleService = bundleService;
         this.defaultConfig = defaultConfig;
@@ -216,6 +217,7 @@ public class ContractManager implements ContractEventListener {
     private void initNodeContract() {
         VersioningContract service = new VersioningContract();
         serviceMap.put(ContractConstants.VERSIONING_CONTRACT.toString(), service);
+        contractExecutor.cacheContract(ContractConstants.VERSIONING_CONTRACT.toString(), service);
         contractExecutor.injectNodeContract(service);
 
     }
@@ -296,6 +298,9 @@ public class ContractManager implements ContractEventListener {
     private void registerServiceMap(ContractVersion contractVersion, Bundle bundle) {
         Object service = bundleService.getBundleService(bundle);
         this.serviceMap.put(contractVersion.toString(), service);
+        if (service != null) {
+            contractExecutor.cacheContract(contractVersion.toString(), service);
+        }
     }
 
     // bundle service actions.
@@ -361,6 +366,17 @@ public class ContractManager implements ContractEventListener {
                 : new Sha3Hash(Constants.EMPTY_HASH);
     }
 
+    /**
+     * Get the proof of the state value against the state root of the last executed block.
+     * It can be verified with {@link io.yggdrash.common.trie.MerklePatriciaTrie#verifyProof}.
+     *
+     * @param key key of the state
+     * @return RLP encoded trie nodes on the path of the key
+     */
+    public List<byte[]> getStateProof(String key) {
+        return contractStore.getTmpStateStore().getProof(getOriginStateRootHash(), key);
+    }
+
     public JsonObject getOriginStateRoot() {
         return contractStore.getStateStore().contains("stateRoot")
                 ? contractStore.getStateStore().get("stateRoot") : new JsonObject();
@@ -438,6 +454,7 @@ public class ContractManager implements ContractEventListener {
     }
 
     public void close() {
+        contractExecutor.close();
         contractStore.close();
         logStore.close();
     }
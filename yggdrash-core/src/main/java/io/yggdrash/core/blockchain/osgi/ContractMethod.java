@@ -0,0 +1,97 @@
+package io.yggdrash.core.blockchain.osgi;
+
+import com.google.gson.JsonObject;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * A method of the contract compiled into a MethodHandle of (service, params) once it is cached,
+ * so it is invoked without the access checks and the argument array of Method.invoke.
+ * The methods without the parameter ignore the params.
+ */
+public final class ContractMethod {
+    private static final MethodType INVOKER_TYPE =
+            MethodType.methodType(Object.class, Object.class, JsonObject.class);
+    private static final String EXECUTION_METRIC = "yggdrash.contract.execution";
+
+    private final String contractVersion;
+    private final Method method;
+    private final MethodHandle invoker;
+    private volatile Timer executionTimer;
+
+    private ContractMethod(String contractVersion, Method method, MethodHandle invoker) {
+        this.contractVersion = contractVersion;
+        this.method = method;
+        this.invoker = invoker;
+    }
+
+    /**
+     * Compile the method of the contract
+     *
+     * @throws IllegalArgumentException if the method has the parameters other than a JsonObject
+     */
+    static ContractMethod of(String contractVersion, Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length > 1
+                || (parameterTypes.length == 1 && !parameterTypes[0].isAssignableFrom(JsonObject.class))) {
+            throw new IllegalArgumentException("Invalid parameters of the contract method " + method.getName());
+        }
+
+        try {
+            // The service classes of the bundles are not visible to this class
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (parameterTypes.length == 0) {
+                handle = MethodHandles.dropArguments(handle, 1, JsonObject.class);
+            }
+            return new ContractMethod(contractVersion, method, handle.asType(INVOKER_TYPE));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    public String getName() {
+        return method.getName();
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * The timer of the executions of the method, it is registered at the first execution
+     * and then reused by the following ones
+     */
+    public Timer getExecutionTimer() {
+        Timer timer = executionTimer;
+        if (timer == null) {
+            // The registry returns the same timer for the same id, so a racing registration is harmless
+            timer = Timer.builder(EXECUTION_METRIC)
+                    .tag("contract", String.valueOf(contractVersion))
+                    .tag("method", method.getName())
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+            executionTimer = timer;
+        }
+        return timer;
+    }
+
+    /**
+     * Invoke the method of the service, the exception of the method is wrapped as Method.invoke does
+     *
+     * @return the result of the method, or null if the method returns void
+     */
+    public Object invoke(Object service, JsonObject params) throws InvocationTargetException {
+        try {
+            return invoker.invokeExact(service, params);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.blockchain.osgi;
+
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.contract.BranchContract;
+import io.yggdrash.common.contract.vo.PrefixKeyEnum;
+import io.yggdrash.common.contract.vo.dpoa.ValidatorSet;
+import io.yggdrash.common.store.BranchStateStore;
+import io.yggdrash.common.utils.JsonUtil;
+import io.yggdrash.core.store.TempStateStore;
+
+import java.util.List;
+
+/**
+ * BranchStateStore injected into contracts.
+ * The branch store is written directly to the database, so the validator set written in the overlay of
+ * the executing thread is kept in the overlay and written to the branch store when the overlay is applied.
+ * The transactions which read it after the write are executed again as the conflicts.
+ */
+class OverlayBranchStateStore implements BranchStateStore {
+    private static final String VALIDATORS = PrefixKeyEnum.VALIDATORS.toValue();
+
+    private final BranchStateStore branchStore;
+    private final TempStateStore tmpStateStore;
+
+    OverlayBranchStateStore(BranchStateStore branchStore, TempStateStore tmpStateStore) {
+        this.branchStore = branchStore;
+        this.tmpStateStore = tmpStateStore;
+    }
+
+    @Override
+    public Long getLastExecuteBlockIndex() {
+        return branchStore.getLastExecuteBlockIndex();
+    }
+
+    @Override
+    public Sha3Hash getLastExecuteBlockHash() {
+        return branchStore.getLastExecuteBlockHash();
+    }
+
+    @Override
+    public Sha3Hash getGenesisBlockHash() {
+        return branchStore.getGenesisBlockHash();
+    }
+
+    @Override
+    public Sha3Hash getBranchIdHash() {
+        return branchStore.getBranchIdHash();
+    }
+
+    @Override
+    public ValidatorSet getValidators() {
+        ValidatorSet written = readValidators();
+        return written != null ? copy(written) : branchStore.getValidators();
+    }
+
+    @Override
+    public void setValidators(ValidatorSet validatorSet) {
+        TempStateStore.Overlay overlay = tmpStateStore.getOverlay();
+        if (overlay != null) {
+            overlay.writeExternal(VALIDATORS, copy(validatorSet), branchStore::setValidators);
+        } else {
+            branchStore.setValidators(validatorSet);
+        }
+    }
+
+    @Override
+    public boolean isValidator(String address) {
+        ValidatorSet written = readValidators();
+        return written != null ? written.contains(address) : branchStore.isValidator(address);
+    }
+
+    @Override
+    public List<BranchContract> getBranchContacts() {
+        return branchStore.getBranchContacts();
+    }
+
+    @Override
+    public String getContractVersion(String contractName) {
+        return branchStore.getContractVersion(contractName);
+    }
+
+    @Override
+    public String getContractName(String contractVersion) {
+        return branchStore.getContractName(contractVersion);
+    }
+
+    /**
+     * Record the read of the validator set in the overlay
+     *
+     * @return the validator set written in the overlay, or null
+     */
+    private ValidatorSet readValidators() {
+        TempStateStore.Overlay overlay = tmpStateStore.getOverlay();
+        if (overlay == null) {
+            return null;
+        }
+        overlay.markRead(VALIDATORS);
+        return (ValidatorSet) overlay.getExternal(VALIDATORS);
+    }
+
+    // The validator set is changed by the callers, so it is not shared
+    private static ValidatorSet copy(ValidatorSet validatorSet) {
+        return JsonUtil.generateJsonToClass(JsonUtil.convertObjToString(validatorSet), ValidatorSet.class);
+    }
+}
@@ -27,5 +27,14 @@ public interface BlockConsumer<T> {
 
     List<ConsensusBlock<T>> syncBlock(BranchId branchId, long offset, long limit);
 
+    /**
+     * Get the last index of the blocks to stream from the offset, the catch-up is requested as syncBlock does
+     *
+     * @return the last index, less than the offset if there is no block to stream
+     */
+    long getSyncEndIndex(BranchId branchId, long offset, long limit);
+
+    List<byte[]> getBlockBinaries(BranchId branchId, long fromIndex, long toIndex, long maxBytes);
+
     void broadcastBlock(ConsensusBlock<T> block);
 }
@@ -26,14 +26,41 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class BlockServiceConsumer<T> implements BlockConsumer<T> {
     private static final Logger log = LoggerFactory.getLogger(BlockServiceConsumer.class);
+
+    // The number of the blocks kept ahead of the next block of a branch
+    static final int PENDING_BLOCK_SIZE = 100;
+    // The time to wait for the missing blocks to be broadcast before requesting them
+    static final long GAP_WAIT_MILLIS = 1000;
+    // The period of checking the gaps below the pending blocks
+    static final long GAP_CHECK_MILLIS = 500;
+
     private final BranchGroup branchGroup;
+    private final long gapWaitMillis;
+    private final Map<BranchId, PendingBlocks<T>> pendingBlocks = new ConcurrentHashMap<>();
+    // The gaps are checked on a timer, so a gap is requested even if no other block is broadcast
+    private final ScheduledExecutorService gapChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "block-gap-check");
+        thread.setDaemon(true);
+        return thread;
+    });
     private CatchUpSyncEventListener listener;
 
     public BlockServiceConsumer(BranchGroup branchGroup) {
+        this(branchGroup, GAP_WAIT_MILLIS, GAP_CHECK_MILLIS);
+    }
+
+    BlockServiceConsumer(BranchGroup branchGroup, long gapWaitMillis, long gapCheckMillis) {
         this.branchGroup = branchGroup;
+        this.gapWaitMillis = gapWaitMillis;
+        gapChecker.scheduleWithFixedDelay(this::checkGaps, gapCheckMillis, gapCheckMillis, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -59,25 +86,94 @@ public class BlockServiceConsumer<T> implements BlockConsumer<T> {
         return blockList;
     }
 
-    //TODO check syncronization about addBlock()
+    @Override
+    public long getSyncEndIndex(BranchId branchId, long offset, long limit) {
+        long curBestBlock = branchGroup.getLastIndex(branchId);
+        if (curBestBlock == 0) {
+            return -1;
+        }
+        if (isNeedBlockSync(curBestBlock, offset)) {
+            // Catchup Event!
+            if (listener != null) {
+                listener.catchUpRequest(branchId, offset);
+            }
+            return -1;
+        }
+        return Math.min(Math.max(offset, 0) + limit - 1, curBestBlock);
+    }
+
+    @Override
+    public List<byte[]> getBlockBinaries(BranchId branchId, long fromIndex, long toIndex, long maxBytes) {
+        return branchGroup.getBlockBinariesByRange(branchId, fromIndex, toIndex, maxBytes);
+    }
+
+    /**
+     * The blocks ahead of the next block are kept, and added in order as soon as the gap is closed.
+     * The gaps are checked by checkGaps, not by the thread of the broadcast.
+     */
     @Override
     public void broadcastBlock(ConsensusBlock<T> block) {
         try {
             BranchId branchId = block.getBranchId();
+            PendingBlocks<T> pending = pendingBlocks.computeIfAbsent(branchId,
+                    id -> new PendingBlocks<>(PENDING_BLOCK_SIZE, gapWaitMillis));
             long nextIndex = branchGroup.getLastIndex(branchId) + 1;
-            long receivedIndex = block.getIndex();
 
-            if (receivedIndex == nextIndex) {
-                branchGroup.addBlock(block, true);
+            if (block.getIndex() == nextIndex || pending.add(block, nextIndex)) {
+                addBlocks(branchId, block, pending);
             } else {
-                log.trace("Received blockIndex({}) is not nextBlockIndex({}).",
-                        block.getIndex(), nextIndex);
+                log.trace("Received blockIndex({}) is not kept. nextBlockIndex({})", block.getIndex(), nextIndex);
             }
         } catch (Exception e) {
             log.debug("BroadcastBlock() is failed. {}", e.getMessage());
         }
     }
 
+    /**
+     * Add the pending blocks the gap of which is closed by the sync,
+     * and request only the missing blocks of the gap which is not closed by the broadcast in a while.
+     * The request is served by the executor of the listener.
+     */
+    void checkGaps() {
+        for (Map.Entry<BranchId, PendingBlocks<T>> entry : pendingBlocks.entrySet()) {
+            try {
+                BranchId branchId = entry.getKey();
+                long nextIndex = addBlocks(branchId, null, entry.getValue());
+                long missingUntil = entry.getValue().missingUntil(nextIndex, System.currentTimeMillis());
+                if (missingUntil >= nextIndex && listener != null) {
+                    log.debug("Request the missing blocks ({} - {})", nextIndex, missingUntil);
+                    listener.catchUpRequest(branchId, nextIndex, missingUntil);
+                }
+            } catch (Exception e) {
+                log.debug("checkGaps() is failed. {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Add the block if it is the next block, then the pending blocks following it
+     *
+     * @return the next index after the blocks are added
+     */
+    private long addBlocks(BranchId branchId, ConsensusBlock<T> block, PendingBlocks<T> pending) {
+        synchronized (pending) {
+            long nextIndex = branchGroup.getLastIndex(branchId) + 1;
+            ConsensusBlock<T> nextBlock = block != null && block.getIndex() == nextIndex
+                    ? block : pending.poll(nextIndex);
+            while (nextBlock != null) {
+                try {
+                    branchGroup.addBlock(nextBlock, true);
+                } catch (Exception e) {
+                    log.debug("Add the block({}) is failed. {}", nextBlock.getIndex(), e.getMessage());
+                    break;
+                }
+                nextIndex = branchGroup.getLastIndex(branchId) + 1;
+                nextBlock = pending.poll(nextIndex);
+            }
+            return nextIndex;
+        }
+    }
+
     private boolean isNeedBlockSync(long curIndex, long reqIndex) {
         // TODO limit maxDiff
         long maxDiffBetweenCurrentAndReceivedBlockHeight = 10000;
@@ -97,11 +193,8 @@ public class BlockServiceConsumer<T> implements BlockConsumer<T> {
 
             long bodyLengthSum = 0;
 
-            for (int i = 0; i < limit; i++) {
-                ConsensusBlock block = branchGroup.getBlockByIndex(branchId, offset++);
-                if (block == null) {
-                    return;
-                }
+            List<ConsensusBlock> blocks = branchGroup.getBlocksByRange(branchId, offset, offset + limit - 1);
+            for (ConsensusBlock block : blocks) {
                 bodyLengthSum += block.getSerializedSize();
                 if (bodyLengthSum > Limit.BLOCK_SYNC_SIZE) {
                     return;
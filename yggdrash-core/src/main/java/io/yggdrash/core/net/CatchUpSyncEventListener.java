@@ -10,5 +10,10 @@ public interface CatchUpSyncEventListener {
 
     void catchUpRequest(BranchId branchId, long offset);
 
+    /**
+     * Request the blocks of the range only, the blocks above it are received already
+     */
+    void catchUpRequest(BranchId branchId, long fromIndex, long toIndex);
+
     void catchUpRequest(BranchId branchId, Peer from);
 }
@@ -16,6 +16,7 @@
 
 package io.yggdrash.core.net;
 
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.consensus.ConsensusBlock;
@@ -28,17 +29,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
 
 public class KademliaPeerNetwork implements PeerNetwork {
     private static final Logger log = LoggerFactory.getLogger(KademliaPeerNetwork.class);
 
+    // The max number of the transactions taken from the queue at once
+    private static final int TX_DRAIN_SIZE = 1000;
+    // The max number of the hashes known to a peer
+    private static final int KNOWN_TX_SIZE = 4096;
+
     private final BlockingQueue<Transaction> txQueue = new LinkedBlockingQueue<>();
     private final ExecutorService txExecutor = Executors.newSingleThreadExecutor();
 
@@ -51,6 +62,9 @@ public class KademliaPeerNetwork implements PeerNetwork {
 
     private final Map<BranchId, List<Peer>> validatorMap = new HashMap<>();
 
+    // The hashes known to the peers by the peer address, which are not announced to them
+    private final Map<String, Set<Sha3Hash>> knownTxMap = new ConcurrentHashMap<>();
+
     public KademliaPeerNetwork(PeerTableGroup peerTableGroup, PeerDialer peerDialer) {
         this.peerTableGroup = peerTableGroup;
         this.peerDialer = peerDialer;
@@ -96,6 +110,21 @@ public class KademliaPeerNetwork implements PeerNetwork {
         return peerDialer.getPeerHandler(branchId, peer);
     }
 
+    @Override
+    public void receivedTxInventory(Peer from, List<Sha3Hash> txHashes) {
+        getKnownTxs(from).addAll(txHashes);
+    }
+
+    private Set<Sha3Hash> getKnownTxs(Peer peer) {
+        return knownTxMap.computeIfAbsent(peer.toAddress(), address ->
+                Collections.newSetFromMap(Collections.synchronizedMap(new LinkedHashMap<Sha3Hash, Boolean>() {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Sha3Hash, Boolean> eldest) {
+                        return size() > KNOWN_TX_SIZE;
+                    }
+                })));
+    }
+
     @Override
     public void receivedTransaction(Transaction tx) {
         try {
@@ -127,43 +156,51 @@ public class KademliaPeerNetwork implements PeerNetwork {
     private class TxWorker implements Runnable {
 
         public void run() {
+            List<Transaction> txList = new ArrayList<>();
             while (true) {
                 try {
-                    Transaction tx = txQueue.take();
-                    if (tx != null) {
-                        broadcastTx(tx);
-                    } else {
-                        try {
-                            Thread.sleep(500);
-                        } catch (InterruptedException e) {
-                            log.trace(e.getMessage());
-                            Thread.currentThread().interrupt();
-                        }
-                    }
+                    // The queued transactions are handed to the streams of the peers at once
+                    txList.add(txQueue.take());
+                    txQueue.drainTo(txList, TX_DRAIN_SIZE);
+                    txList.stream().collect(Collectors.groupingBy(Transaction::getBranchId))
+                            .forEach(this::broadcastTx);
+                } catch (InterruptedException e) {
+                    log.trace(e.getMessage());
+                    Thread.currentThread().interrupt();
+                    return;
                 } catch (Exception e) {
                     log.debug("broadcastTx() is failed. {}", e.getMessage());
+                } finally {
+                    txList.clear();
                 }
             }
         }
 
-        private void broadcastTx(Transaction tx) {
-            List<BlockChainHandler> getHandlerList = getHandlerList(tx.getBranchId());
+        private void broadcastTx(BranchId branchId, List<Transaction> txList) {
+            List<BlockChainHandler> getHandlerList = getHandlerList(branchId);
             for (BlockChainHandler peerHandler : getHandlerList) {
+                if (peerTableGroup.getSeedPeerList().contains(peerHandler.getPeer().getYnodeUri())
+                        || peerHandler.getPeer().equals(peerTableGroup.getOwner())) {
+                    log.trace("broadcastTx() is failed. peer: {}", peerHandler.getPeer().getYnodeUri());
+                    continue;
+                }
+                Set<Sha3Hash> knownTxs = getKnownTxs(peerHandler.getPeer());
                 try {
-                    if (peerTableGroup.getSeedPeerList().contains(peerHandler.getPeer().getYnodeUri())
-                            || peerHandler.getPeer().equals(peerTableGroup.getOwner())) {
-                        log.trace("broadcastTx() is failed. peer: {}", peerHandler.getPeer().getYnodeUri());
-                        continue;
+                    // Queued to the stream of the peer, which does not wait for the peer
+                    for (Transaction tx : txList) {
+                        if (knownTxs.add(tx.getHash()) && !peerHandler.announceTx(peerTableGroup.getOwner(), tx)) {
+                            // The peer is not told of the dropped transaction, so it can be announced again
+                            knownTxs.remove(tx.getHash());
+                        }
                     }
-                    peerHandler.broadcastTx(tx);
                 } catch (Exception e) {
                     log.debug("broadcastTx is failed. {} -> {} {}",
                             peerTableGroup.getOwner().getPort(),
                             peerHandler.getPeer().getPort(), e.getMessage());
                 }
 
-                log.trace("broadcastTx() tx={} peer={} txQueueSize={}",
-                        tx.getHash().toString(), peerHandler.getPeer().getYnodeUri(), txQueue.size());
+                log.trace("broadcastTx() txs={} peer={} txQueueSize={}",
+                        txList.size(), peerHandler.getPeer().getYnodeUri(), txQueue.size());
             }
         }
     }
@@ -16,6 +16,7 @@
 
 package io.yggdrash.core.net;
 
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.core.blockchain.BranchEventListener;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.p2p.BlockChainHandler;
@@ -31,4 +32,9 @@ public interface PeerNetwork extends BranchEventListener {
     List<BlockChainHandler> getHandlerList(BranchId branchId);
 
     BlockChainHandler getPeerHandler(BranchId branchId, Peer peer);
+
+    /**
+     * The hashes announced by the peer are known to it, so they are not announced back to it
+     */
+    void receivedTxInventory(Peer from, List<Sha3Hash> txHashes);
 }
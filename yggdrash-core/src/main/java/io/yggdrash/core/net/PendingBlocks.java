@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.net;
+
+import io.yggdrash.core.consensus.ConsensusBlock;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The blocks received ahead of the next block of a branch by the index.
+ * The buffer keeps the lowest blocks up to the capacity, and the gap below them is requested
+ * only if it is not closed by the broadcast within the wait time.
+ */
+class PendingBlocks<T> {
+    private final int capacity;
+    private final long gapWaitMillis;
+    private final NavigableMap<Long, ConsensusBlock<T>> blocks = new TreeMap<>();
+
+    // The next index the gap is found at and the time since then
+    private long gapIndex = -1;
+    private long gapSince;
+
+    PendingBlocks(int capacity, long gapWaitMillis) {
+        this.capacity = capacity;
+        this.gapWaitMillis = gapWaitMillis;
+    }
+
+    /**
+     * Add the block above the next index
+     *
+     * @return true if the block is kept
+     */
+    synchronized boolean add(ConsensusBlock<T> block, long nextIndex) {
+        long index = block.getIndex();
+        if (index < nextIndex || index >= nextIndex + capacity || blocks.containsKey(index)) {
+            return false;
+        }
+        if (blocks.size() >= capacity) {
+            if (index > blocks.lastKey()) {
+                return false;
+            }
+            blocks.pollLastEntry();
+        }
+        blocks.put(index, block);
+        return true;
+    }
+
+    /**
+     * Take the block of the next index, the blocks below it are discarded
+     */
+    synchronized ConsensusBlock<T> poll(long nextIndex) {
+        blocks.headMap(nextIndex, false).clear();
+        return blocks.remove(nextIndex);
+    }
+
+    /**
+     * Get the last index of the missing blocks, once the gap at the next index has lasted for the wait time.
+     * The gap is reported again after another wait time.
+     *
+     * @return the last index of the gap, or -1 if there is no gap to request
+     */
+    synchronized long missingUntil(long nextIndex, long now) {
+        Map.Entry<Long, ConsensusBlock<T>> first = blocks.ceilingEntry(nextIndex);
+        if (first == null || first.getKey() == nextIndex) {
+            gapIndex = -1;
+            return -1;
+        }
+        if (gapIndex != nextIndex) {
+            gapIndex = nextIndex;
+            gapSince = now;
+        }
+        if (now - gapSince < gapWaitMillis) {
+            return -1;
+        }
+        gapSince = now;
+        return first.getKey() - 1;
+    }
+
+    synchronized int size() {
+        return blocks.size();
+    }
+}
@@ -42,30 +42,16 @@ public abstract class AbstractBlockChainHandler<T> extends DiscoveryHandler<T> {
     private static final Logger log = LoggerFactory.getLogger(AbstractBlockChainHandler.class);
 
     private final TransactionServiceGrpc.TransactionServiceStub transactionAsyncStub;
-    private final StreamObserver<CommonProto.Empty> emptyResponseStreamObserver;
-    private StreamObserver<Proto.Transaction> broadcastTxRequestObserver;
+    private final TxGossipStream txGossipStream;
 
     public AbstractBlockChainHandler(ManagedChannel channel, Peer peer) {
         super(channel, peer);
         this.transactionAsyncStub = TransactionServiceGrpc.newStub(channel);
-        this.emptyResponseStreamObserver =
-                new StreamObserver<CommonProto.Empty>() {
-                    @Override
-                    public void onNext(CommonProto.Empty empty) {
-                        log.debug("[PeerHandler] Empty Received");
-                    }
-
-                    @Override
-                    public void onError(Throwable t) {
-                    }
-
-                    @Override
-                    public void onCompleted() {
-                        log.debug("[PeerHandler] Broadcast Finished");
-                        // Server destroyed
-                        channel.shutdown();
-                    }
-                };
+        this.txGossipStream = new TxGossipStream(transactionAsyncStub::broadcastTxList,
+                (inventory, requestedObserver) -> transactionAsyncStub
+                        .withDeadlineAfter(TIMEOUT_TRANSACTION, TimeUnit.SECONDS)
+                        .announceTxs(inventory, requestedObserver),
+                peer.getYnodeUri());
     }
 
     @Override
@@ -104,16 +90,27 @@ public abstract class AbstractBlockChainHandler<T> extends DiscoveryHandler<T> {
         return future;
     }
 
+    /**
+     * Queue the transaction to the stream of the peer, which sends the transactions in batches
+     */
     @Override
     public void broadcastTx(Transaction tx) {
-        try {
-            this.broadcastTxRequestObserver = transactionAsyncStub
-                    .withDeadlineAfter(TIMEOUT_TRANSACTION, TimeUnit.SECONDS)
-                    .broadcastTx(emptyResponseStreamObserver);
-            broadcastTxRequestObserver.onNext(tx.getInstance());
-            log.trace("Broadcasting tx={} to={}", tx.getHash().toString(), getPeer().getYnodeUri());
-        } catch (Exception e) {
-            log.trace("BroadcastingTx() is failed. {}", e.getMessage());
-        }
+        txGossipStream.send(tx);
+    }
+
+    /**
+     * Queue the hash of the transaction to announce, the transaction is sent if the peer requests it
+     *
+     * @return false if the buffer of the stream is full and the transaction is dropped
+     */
+    @Override
+    public boolean announceTx(Peer owner, Transaction tx) {
+        return txGossipStream.announce(owner.getYnodeUri(), tx);
+    }
+
+    @Override
+    public void stop() {
+        txGossipStream.close();
+        super.stop();
     }
 }
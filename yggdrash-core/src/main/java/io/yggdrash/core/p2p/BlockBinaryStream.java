@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.p2p;
+
+import com.google.protobuf.UnsafeByteOperations;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.yggdrash.common.config.Constants.Limit;
+import io.yggdrash.proto.CommonProto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Streams the stored binaries of the blocks to a peer as they are, without parsing and encoding them again.
+ * The blocks are read in order into the messages of up to BLOCK_SYNC_SIZE bytes while the peer is ready,
+ * and the stream is resumed when the peer is ready again.
+ */
+public class BlockBinaryStream implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(BlockBinaryStream.class);
+
+    private final ServerCallStreamObserver<CommonProto.BlockBinaryList> responseObserver;
+    private final BlockBinaryReader blockReader;
+    private long nextIndex;
+    private long endIndex;
+    private boolean completed;
+
+    private BlockBinaryStream(ServerCallStreamObserver<CommonProto.BlockBinaryList> responseObserver,
+                              long startIndex, long endIndex, BlockBinaryReader blockReader) {
+        this.responseObserver = responseObserver;
+        this.blockReader = blockReader;
+        this.nextIndex = startIndex;
+        this.endIndex = endIndex;
+    }
+
+    /**
+     * Stream the blocks from the start index until the end index or the first block which does not exist
+     *
+     * @param responseObserver the observer of the server-streaming call
+     * @param blockReader      reads the stored binaries of the consecutive blocks by a range scan
+     */
+    public static void start(StreamObserver<CommonProto.BlockBinaryList> responseObserver,
+                             long startIndex, long endIndex, BlockBinaryReader blockReader) {
+        ServerCallStreamObserver<CommonProto.BlockBinaryList> serverObserver =
+                (ServerCallStreamObserver<CommonProto.BlockBinaryList>) responseObserver;
+        BlockBinaryStream stream = new BlockBinaryStream(serverObserver, startIndex, endIndex, blockReader);
+        serverObserver.setOnCancelHandler(stream::cancel);
+        serverObserver.setOnReadyHandler(stream);
+        stream.run();
+    }
+
+    @Override
+    public synchronized void run() {
+        try {
+            while (!completed && responseObserver.isReady()) {
+                CommonProto.BlockBinaryList blockList = nextBlockList();
+                if (blockList.getBlocksCount() > 0) {
+                    responseObserver.onNext(blockList);
+                }
+                // The stream can be completed while the message is sent
+                if (!completed && nextIndex > endIndex) {
+                    completed = true;
+                    responseObserver.onCompleted();
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Stream blocks is failed. index={} {}", nextIndex, e.getMessage());
+            if (!completed) {
+                completed = true;
+                responseObserver.onError(Status.INTERNAL.withDescription(e.getMessage()).asRuntimeException());
+            }
+        }
+    }
+
+    private synchronized void cancel() {
+        log.trace("Stream blocks is cancelled. index={}", nextIndex);
+        completed = true;
+    }
+
+    private CommonProto.BlockBinaryList nextBlockList() {
+        List<byte[]> binaries = blockReader.read(nextIndex, endIndex, Limit.BLOCK_SYNC_SIZE);
+        if (binaries.isEmpty()) {
+            endIndex = nextIndex - 1;
+        }
+        CommonProto.BlockBinaryList.Builder builder = CommonProto.BlockBinaryList.newBuilder();
+        for (byte[] binary : binaries) {
+            // The binary is read from the store for this message only
+            builder.addBlocks(UnsafeByteOperations.unsafeWrap(binary));
+        }
+        nextIndex += binaries.size();
+        return builder.build();
+    }
+
+    @FunctionalInterface
+    public interface BlockBinaryReader {
+        /**
+         * Read the binaries of the consecutive blocks from the index until the end index or the first missing block,
+         * the total size does not exceed maxBytes unless it is a single block
+         */
+        List<byte[]> read(long fromIndex, long toIndex, long maxBytes);
+    }
+}
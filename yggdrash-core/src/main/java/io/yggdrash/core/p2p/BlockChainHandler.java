@@ -32,5 +32,12 @@ public interface BlockChainHandler<T> extends PeerHandler {
 
     void broadcastTx(Transaction tx);
 
+    /**
+     * Announce the hash of the transaction to the peer
+     *
+     * @return false if the transaction is dropped without being announced
+     */
+    boolean announceTx(Peer owner, Transaction tx);
+
     String gerConnectivityState();
 }
@@ -152,4 +152,9 @@ public class DiscoveryHandler<T> implements BlockChainHandler<T> {
     public void broadcastTx(Transaction tx) {
         throw NOT_IMPLEMENTED;
     }
+
+    @Override
+    public boolean announceTx(Peer owner, Transaction tx) {
+        throw NOT_IMPLEMENTED;
+    }
 }
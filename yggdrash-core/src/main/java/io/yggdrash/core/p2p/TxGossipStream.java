@@ -0,0 +1,332 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.p2p;
+
+import com.google.protobuf.ByteString;
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.core.blockchain.BranchId;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.proto.CommonProto;
+import io.yggdrash.proto.Proto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The outbound stream of the transactions to a peer.
+ * The transactions are buffered and sent in batches on a long-lived stream, which is opened again after it ends.
+ * The batches are sent only while the stream is ready, and the transactions beyond the bounded buffer are dropped,
+ * so a slow peer does not hold up the gossip to the other peers.
+ * The announced transactions are sent only if the peer requests them by the hashes.
+ */
+class TxGossipStream {
+    private static final Logger log = LoggerFactory.getLogger(TxGossipStream.class);
+
+    static final int BUFFER_SIZE = 10000;
+    static final int MAX_BATCH_COUNT = 500;
+    // Far below the max inbound message size of gRPC
+    static final long MAX_BATCH_BYTES = 1024 * 1024L;
+    static final long FLUSH_MILLIS = 50;
+    static final long REOPEN_MILLIS = 1000;
+    // The announcements waiting for the requested hashes
+    static final int MAX_ANNOUNCES_IN_FLIGHT = 4;
+
+    private static final ScheduledExecutorService flushExecutor =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "tx-gossip");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static final Counter droppedCounter = Counter.builder("yggdrash.gossip.tx.dropped")
+            .description("The number of the transactions dropped by the full buffers of the peers")
+            .register(Metrics.globalRegistry);
+
+    private final Function<StreamObserver<CommonProto.Empty>, StreamObserver<Proto.TransactionList>> opener;
+    private final BiConsumer<Proto.TxInventory, StreamObserver<Proto.TxInventory>> announcer;
+    private final String peerUri;
+    private final BlockingQueue<Transaction> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+    private final BlockingQueue<Transaction> announceBuffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+    private final AtomicInteger announcesInFlight = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    // Guarded by this
+    private StreamObserver<Proto.TransactionList> requestStream;
+    private ResponseObserver responseObserver;
+    private long reopenAt;
+    private boolean closed;
+    private volatile String from = "";
+
+    /**
+     * @param opener opens the stream with the response observer, e.g. broadcastTxList of the stub
+     * @param announcer announces the hashes with the observer of the requested hashes, e.g. announceTxs of the stub
+     * @param peerUri the uri of the peer for the logs
+     */
+    TxGossipStream(Function<StreamObserver<CommonProto.Empty>, StreamObserver<Proto.TransactionList>> opener,
+                   BiConsumer<Proto.TxInventory, StreamObserver<Proto.TxInventory>> announcer,
+                   String peerUri) {
+        this.opener = opener;
+        this.announcer = announcer;
+        this.peerUri = peerUri;
+    }
+
+    /**
+     * Queue the transaction to send
+     *
+     * @return false if the buffer is full and the transaction is dropped
+     */
+    boolean send(Transaction tx) {
+        return enqueue(buffer, tx);
+    }
+
+    /**
+     * Queue the hash of the transaction to announce
+     *
+     * @param from the ynode uri of this node, which the peer marks the announced hashes known to
+     * @return false if the buffer is full and the transaction is dropped
+     */
+    boolean announce(String from, Transaction tx) {
+        this.from = from;
+        return enqueue(announceBuffer, tx);
+    }
+
+    private boolean enqueue(BlockingQueue<Transaction> queue, Transaction tx) {
+        if (!queue.offer(tx)) {
+            droppedCounter.increment();
+            log.trace("Drop tx={} to={} The buffer is full.", tx.getHash(), peerUri);
+            return false;
+        }
+
+        if (queue.size() >= MAX_BATCH_COUNT) {
+            requestFlush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            // The transactions are coalesced within the window
+            flushExecutor.schedule(this::flush, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    int getBufferSize() {
+        return buffer.size() + announceBuffer.size();
+    }
+
+    synchronized void close() {
+        closed = true;
+        buffer.clear();
+        announceBuffer.clear();
+        if (requestStream != null) {
+            requestStream.onCompleted();
+            requestStream = null;
+        }
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    synchronized void flush() {
+        flushScheduled.set(false);
+        flushRequested.set(false);
+
+        announcePending();
+        sendPending();
+    }
+
+    private void announcePending() {
+        while (!closed && !announceBuffer.isEmpty() && announcesInFlight.get() < MAX_ANNOUNCES_IN_FLIGHT) {
+            // The hashes are announced by the branch
+            Map<BranchId, Map<Sha3Hash, Transaction>> announced = new HashMap<>();
+            Transaction tx;
+            int count = 0;
+            while (count++ < MAX_BATCH_COUNT && (tx = announceBuffer.poll()) != null) {
+                announced.computeIfAbsent(tx.getBranchId(), branchId -> new HashMap<>()).put(tx.getHash(), tx);
+            }
+
+            for (Map.Entry<BranchId, Map<Sha3Hash, Transaction>> entry : announced.entrySet()) {
+                Proto.TxInventory.Builder inventory = Proto.TxInventory.newBuilder()
+                        .setBranch(ByteString.copyFrom(entry.getKey().getBytes()))
+                        .setFrom(from);
+                entry.getValue().keySet().forEach(hash -> inventory.addHashes(ByteString.copyFrom(hash.getBytes())));
+
+                announcesInFlight.incrementAndGet();
+                try {
+                    announcer.accept(inventory.build(), new InventoryObserver(entry.getValue()));
+                    log.trace("Announcing txs={} to={}", inventory.getHashesCount(), peerUri);
+                } catch (Exception e) {
+                    log.debug("Announcing txs to {} is failed. {}", peerUri, e.getMessage());
+                    announcesInFlight.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void sendPending() {
+        while (!closed && !buffer.isEmpty()) {
+            if (requestStream == null && !open()) {
+                return;
+            }
+            if (requestStream instanceof ClientCallStreamObserver
+                    && !((ClientCallStreamObserver) requestStream).isReady()) {
+                // Flushed again when the stream is ready
+                return;
+            }
+
+            Proto.TransactionList.Builder batch = Proto.TransactionList.newBuilder();
+            long batchBytes = 0;
+            Transaction tx;
+            while (batch.getTransactionsCount() < MAX_BATCH_COUNT && batchBytes < MAX_BATCH_BYTES
+                    && (tx = buffer.poll()) != null) {
+                batch.addTransactions(tx.getInstance());
+                batchBytes += tx.getLength();
+            }
+
+            try {
+                requestStream.onNext(batch.build());
+                log.trace("Broadcasting txs={} to={}", batch.getTransactionsCount(), peerUri);
+            } catch (Exception e) {
+                log.debug("Broadcasting txs to {} is failed. {}", peerUri, e.getMessage());
+                ended();
+            }
+        }
+    }
+
+    private boolean open() {
+        long delay = reopenAt - System.currentTimeMillis();
+        if (delay > 0) {
+            if (flushScheduled.compareAndSet(false, true)) {
+                flushExecutor.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+            }
+            return false;
+        }
+
+        try {
+            ResponseObserver opened = new ResponseObserver();
+            responseObserver = opened;
+            requestStream = opener.apply(opened);
+            if (responseObserver != opened) {
+                // Ended while being opened
+                requestStream = null;
+            }
+            return requestStream != null;
+        } catch (Exception e) {
+            log.debug("Opening the tx stream to {} is failed. {}", peerUri, e.getMessage());
+            ended();
+            return false;
+        }
+    }
+
+    private synchronized void ended() {
+        requestStream = null;
+        responseObserver = null;
+        reopenAt = System.currentTimeMillis() + REOPEN_MILLIS;
+        if (!closed && !buffer.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.schedule(this::flush, REOPEN_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void ended(ResponseObserver endedObserver) {
+        // Not to end the stream opened after this one
+        if (endedObserver == responseObserver) {
+            ended();
+        }
+    }
+
+    /**
+     * Queues the transactions requested by the peer out of the announced ones
+     */
+    private class InventoryObserver implements StreamObserver<Proto.TxInventory> {
+        private final Map<Sha3Hash, Transaction> announced;
+
+        InventoryObserver(Map<Sha3Hash, Transaction> announced) {
+            this.announced = announced;
+        }
+
+        @Override
+        public void onNext(Proto.TxInventory requested) {
+            for (ByteString hash : requested.getHashesList()) {
+                Transaction tx = announced.get(new Sha3Hash(hash.toByteArray(), true));
+                if (tx != null) {
+                    enqueue(buffer, tx);
+                }
+            }
+            log.trace("Requested txs={}/{} by={}", requested.getHashesCount(), announced.size(), peerUri);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Announcing txs to {} is failed. {}", peerUri, Status.fromThrowable(t));
+            done();
+        }
+
+        @Override
+        public void onCompleted() {
+            done();
+        }
+
+        private void done() {
+            announcesInFlight.decrementAndGet();
+            if (!announceBuffer.isEmpty()) {
+                requestFlush();
+            }
+        }
+    }
+
+    private class ResponseObserver implements ClientResponseObserver<Proto.TransactionList, CommonProto.Empty> {
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<Proto.TransactionList> requestStream) {
+            requestStream.setOnReadyHandler(TxGossipStream.this::requestFlush);
+        }
+
+        @Override
+        public void onNext(CommonProto.Empty empty) {
+            log.trace("[PeerHandler] Empty Received");
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("The tx stream to {} is failed. {}", peerUri, Status.fromThrowable(t));
+            ended(this);
+        }
+
+        @Override
+        public void onCompleted() {
+            log.debug("The tx stream to {} is completed.", peerUri);
+            ended(this);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package io.yggdrash.core.runtime.result;
 
 import com.google.gson.JsonObject;
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.contract.core.Receipt;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.consensus.ConsensusBlock;
@@ -57,6 +58,17 @@ public class BlockRuntimeResult {
         receipts.add(receipt);
     }
 
+    public void setStateRoot(Sha3Hash stateRoot) {
+        JsonObject value = new JsonObject();
+        value.addProperty("stateHash", stateRoot.toString());
+        blockResult.put("stateRoot", value);
+    }
+
+    public Sha3Hash getStateRoot() {
+        return blockResult.containsKey("stateRoot")
+                ? new Sha3Hash(blockResult.get("stateRoot").get("stateHash").getAsString()) : null;
+    }
+
     public void freeze() {
         if (blockResult.containsKey("stateRoot") && block != null) {
             JsonObject value = blockResult.get("stateRoot");
@@ -1,6 +1,10 @@
 package io.yggdrash.core.store;
 
 import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.datasource.BatchDbSource;
+import io.yggdrash.common.trie.MerklePatriciaTrie;
+
+import java.util.List;
 
 public class BlockChainStore {
     private final TransactionStore transactionStore;
@@ -10,21 +14,30 @@ public class BlockChainStore {
     private final BranchStore branchStore;
     private final ContractStore contractStore;
     private final LogStore logStore;
+    private final TransactionIndexStore transactionIndexStore;
+    private final List<BatchDbSource> batchDbSources;
+    // The version of the state before the block in commit
+    private long stateVersion;
 
     public BlockChainStore(TransactionStore transactionStore,
                            ReceiptStore receiptStore,
                            StateStore stateStore,
+                           MerklePatriciaTrie stateTrie,
                            ConsensusBlockStore consensusBlockStore,
                            BranchStore branchStore,
-                           LogStore logStore) {
+                           LogStore logStore,
+                           TransactionIndexStore transactionIndexStore,
+                           List<BatchDbSource> batchDbSources) {
         this.transactionStore = transactionStore;
         this.receiptStore = receiptStore;
         this.stateStore = stateStore;
         this.consensusBlockStore = consensusBlockStore;
         this.branchStore = branchStore;
         this.logStore = logStore;
+        this.transactionIndexStore = transactionIndexStore;
+        this.batchDbSources = batchDbSources;
 
-        contractStore = new ContractStore(branchStore, stateStore, receiptStore);
+        contractStore = new ContractStore(branchStore, stateStore, receiptStore, stateTrie);
     }
 
     public TransactionStore getTransactionStore() {
@@ -54,4 +67,39 @@ public class BlockChainStore {
     public LogStore getLogStore() {
         return logStore;
     }
+
+    public TransactionIndexStore getTransactionIndexStore() {
+        return transactionIndexStore;
+    }
+
+    /**
+     * Collect the writes of the stores until commitBatch()
+     */
+    public void startBatch() {
+        batchDbSources.forEach(BatchDbSource::startBatch);
+        transactionStore.startBatch();
+        stateVersion = stateStore.getVersion();
+    }
+
+    /**
+     * Flush the collected writes in a single batch per database, in the order of the sources
+     */
+    public void commitBatch() {
+        batchDbSources.forEach(BatchDbSource::commitBatch);
+        transactionStore.commitBatch();
+    }
+
+    /**
+     * Drop the collected writes, and the values kept in memory which are ahead of the databases
+     */
+    public void discardBatch() {
+        batchDbSources.forEach(BatchDbSource::discardBatch);
+        transactionStore.discardBatch();
+        stateStore.rollback(stateVersion);
+        branchStore.reloadMetadata();
+        consensusBlockStore.reload();
+        // The state root of the next block is read from the state store again
+        contractStore.getTmpStateStore().discardStateRoot();
+        contractStore.getTmpStateStore().close();
+    }
 }
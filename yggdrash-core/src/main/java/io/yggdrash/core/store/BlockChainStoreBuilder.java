@@ -1,19 +1,29 @@
 package io.yggdrash.core.store;
 
+import io.micrometer.core.instrument.Metrics;
+import io.yggdrash.common.config.Constants;
 import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.datasource.BatchDbSource;
 import io.yggdrash.common.store.datasource.DbSource;
 import io.yggdrash.common.store.datasource.HashMapDbSource;
 import io.yggdrash.common.store.datasource.LevelDbDataSource;
+import io.yggdrash.common.trie.MerklePatriciaTrie;
 import io.yggdrash.contract.core.store.ReadWriterStore;
 import io.yggdrash.core.blockchain.BranchId;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class BlockChainStoreBuilder {
     BranchId branchId;
     private BlockStoreFactory blockStoreFactory;
     private String consensusAlgorithm;
     private boolean isProductionMode;
     private String databasePath;
-
+    private int txPoolMaxCount = Constants.Limit.TX_POOL_MAX_COUNT;
+    private long txPoolMaxBytes = Constants.Limit.TX_POOL_MAX_BYTES;
+    // The sources in the order of creation, which is the order of flushing the block commit
+    private final List<BatchDbSource> batchDbSources = new ArrayList<>();
 
     private BlockChainStoreBuilder(BranchId branchId) {
         this.branchId = branchId;
@@ -29,6 +39,12 @@ public class BlockChainStoreBuilder {
         return this;
     }
 
+    public BlockChainStoreBuilder withTxPoolLimit(int maxCount, long maxBytes) {
+        this.txPoolMaxCount = maxCount;
+        this.txPoolMaxBytes = maxBytes;
+        return this;
+    }
+
 
     public BlockChainStoreBuilder setBlockStoreFactory(BlockStoreFactory blockStoreFactory) {
         this.blockStoreFactory = blockStoreFactory;
@@ -46,11 +62,14 @@ public class BlockChainStoreBuilder {
 
 
     private DbSource<byte[], byte[]> getDbSource(String name) {
+        BatchDbSource dbSource;
         if (isProductionMode) {
-            return new LevelDbDataSource(databasePath, name);
+            dbSource = new BatchDbSource(new LevelDbDataSource(databasePath, name));
         } else {
-            return new HashMapDbSource();
+            dbSource = new BatchDbSource(new HashMapDbSource());
         }
+        batchDbSources.add(dbSource);
+        return dbSource;
     }
 
     private BranchStore buildBranchStore(ReadWriterStore store) {
@@ -59,17 +78,29 @@ public class BlockChainStoreBuilder {
     }
 
     private TransactionStore buildTransactionStore() {
-        return new TransactionStore(getDbSource(branchId + "/txs"));
+        TransactionPool transactionPool = new TransactionPool(txPoolMaxCount, txPoolMaxBytes);
+        transactionPool.bindTo(Metrics.globalRegistry, branchId);
+        return new TransactionStore(getDbSource(branchId + "/txs"), transactionPool);
     }
 
     private StateStore buildStateStore() {
-        return new StateStore(getDbSource(branchId + "/state"));
+        StateStore stateStore = new StateStore(getDbSource(branchId + "/state"));
+        stateStore.bindTo(Metrics.globalRegistry, branchId.toString());
+        return stateStore;
+    }
+
+    private MerklePatriciaTrie buildStateTrie() {
+        return new MerklePatriciaTrie(getDbSource(branchId + "/trie"));
     }
 
     private ReceiptStore buildReceiptStore() {
         return new ReceiptStore(getDbSource(branchId + "/receipt"));
     }
 
+    private TransactionIndexStore buildTransactionIndexStore() {
+        return new TransactionIndexStore(getDbSource(branchId + "/txindex"));
+    }
+
     private LogStore buildLogStore() {
         return new LogStore(getDbSource(branchId + "/log"));
     }
@@ -82,20 +113,27 @@ public class BlockChainStoreBuilder {
     public BlockChainStore build() {
         TransactionStore txStore = buildTransactionStore();
         ReceiptStore receiptStore = buildReceiptStore();
+        LogStore logStore = buildLogStore();
+        TransactionIndexStore transactionIndexStore = buildTransactionIndexStore();
+        MerklePatriciaTrie stateTrie = buildStateTrie();
         StateStore stateStore = buildStateStore();
-        ConsensusBlockStore blockStore = buildBlockStore();
         // State Store and Branch Store is merged
-        StoreAdapter adapter = new StoreAdapter(stateStore, "branch");
+        StoreAdapter adapter = new StoreAdapter(stateStore, BranchStore.NAMESPACE);
         BranchStore branchStore = buildBranchStore(adapter);
-        LogStore logStore = buildLogStore();
+        // The block store is flushed last. If a node is shutdown before the block is stored,
+        // the block is stored again as the last executed block on the next addBlock.
+        ConsensusBlockStore blockStore = buildBlockStore();
 
         BlockChainStore blockChainStore = new BlockChainStore(
                 txStore,
                 receiptStore,
                 stateStore,
+                stateTrie,
                 blockStore,
                 branchStore,
-                logStore
+                logStore,
+                transactionIndexStore,
+                new ArrayList<>(batchDbSources)
         );
 
         return blockChainStore;
@@ -17,6 +17,7 @@
 package io.yggdrash.core.store;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.contract.BranchContract;
@@ -32,25 +33,55 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * The metadata of the branch. The validators, the contracts and the block indexes are read on every transaction,
+ * so they are kept in an immutable snapshot which is replaced only when one of their keys is written.
+ */
 public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchStateStore {
 
     private static final Logger log = LoggerFactory.getLogger(BranchStore.class);
 
+    // The namespace of the branch metadata in the state store
+    static final String NAMESPACE = "branch";
+
+    private static final String VALIDATORS_KEY = PrefixKeyEnum.VALIDATORS.toValue();
+    private static final String CONTRACTS_KEY = BlockchainMetaInfo.BRANCH_CONTRACTS.toString();
+    private static final Set<String> INDEX_KEYS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            BlockchainMetaInfo.BEST_BLOCK_INDEX.toString(),
+            BlockchainMetaInfo.LAST_EXECUTE_BLOCK_INDEX.toString(),
+            BlockchainMetaInfo.LAST_CONFIRMED_BLOCK_INDEX.toString())));
+
     private final ReadWriterStore<String, JsonObject> store;
 
-    private List<BranchContract> contracts;
+    private final Object metadataLock = new Object();
+    private volatile Metadata metadata;
 
     BranchStore(ReadWriterStore<String, JsonObject> store) {
         this.store = store;
+        this.metadata = loadMetadata(0);
     }
 
     @Override
     public void put(String key, JsonObject value) {
-        this.store.put(key, value);
+        if (!isMetadataKey(key)) {
+            this.store.put(key, value);
+            return;
+        }
+        // The snapshot is replaced in the order of the writes
+        synchronized (metadataLock) {
+            this.store.put(key, value);
+            this.metadata = metadata.with(key, value);
+        }
     }
 
     @Override
@@ -69,7 +100,7 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
     }
 
     public Long getBestBlock() {
-        return reStoreToLong(BlockchainMetaInfo.BEST_BLOCK_INDEX.toString(), -1);
+        return metadata.getIndex(BlockchainMetaInfo.BEST_BLOCK_INDEX.toString());
     }
 
     public void setBestBlock(ConsensusBlock block) {
@@ -98,7 +129,7 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
     }
 
     public Long getLastExecuteBlockIndex() {
-        return reStoreToLong(BlockchainMetaInfo.LAST_EXECUTE_BLOCK_INDEX.toString(), -1);
+        return metadata.getIndex(BlockchainMetaInfo.LAST_EXECUTE_BLOCK_INDEX.toString());
     }
 
     public Sha3Hash getLastExecuteBlockHash() {
@@ -118,13 +149,16 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
         store.put(BlockchainMetaInfo.LAST_EXECUTE_BLOCK.toString(), lastExecuteBlock);
     }
 
-    private Long reStoreToLong(String key, long defaultValue) {
-        JsonObject value = this.store.get(key);
-        if (value != null) {
-            return value.get("value").getAsLong();
-        } else {
-            return defaultValue;
-        }
+    /**
+     * The checkpoint of the startup, the last block which is stored and confirmed.
+     * It is written with the block in the same commit.
+     */
+    public Long getLastConfirmedBlockIndex() {
+        return metadata.getIndex(BlockchainMetaInfo.LAST_CONFIRMED_BLOCK_INDEX.toString());
+    }
+
+    public void setLastConfirmedBlock(ConsensusBlock block) {
+        storeLongValue(BlockchainMetaInfo.LAST_CONFIRMED_BLOCK_INDEX.toString(), block.getIndex());
     }
 
     private void storeLongValue(String key, long value) {
@@ -193,17 +227,17 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
     // Get Validator
     @Override
     public ValidatorSet getValidators() {
-        ValidatorSet validatorSet = null;
-        JsonObject jsonValidatorSet = get(PrefixKeyEnum.VALIDATORS.toValue());
-        if (jsonValidatorSet != null) {
-            validatorSet = JsonUtil.generateJsonToClass(jsonValidatorSet.toString(), ValidatorSet.class);
+        // The validator set is changed by the callers, so a new one is returned
+        String validatorsJson = metadata.validatorsJson;
+        if (validatorsJson == null) {
+            return null;
         }
-        return validatorSet;
+        return JsonUtil.generateJsonToClass(validatorsJson, ValidatorSet.class);
     }
 
     @Override
     public boolean isValidator(String address) {
-        return getValidators().contains(address);
+        return metadata.validatorAddresses.contains(address);
     }
 
     // Set Contracts
@@ -213,12 +247,7 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
         contracts.forEach(c -> array.add(c.getJson()));
         JsonObject contract = new JsonObject();
         contract.add("contracts", array);
-        store.put(BlockchainMetaInfo.BRANCH_CONTRACTS.toString(), contract);
-
-        // init contracts
-        if (this.contracts != null) {
-            this.contracts = null;
-        }
+        put(CONTRACTS_KEY, contract);
     }
 
     /**
@@ -226,8 +255,9 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
      * @param contract return BranchContract
      */
     public void addBranchContract(BranchContract contract) {
-        this.contracts.add(contract);
-        setBranchContracts(this.contracts);
+        List<BranchContract> branchContracts = getBranchContacts();
+        branchContracts.add(contract);
+        setBranchContracts(branchContracts);
     }
 
     /**
@@ -235,8 +265,9 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
      * @param contractVersion return contractVersion
      */
     public void removeBranchContract(String contractVersion) {
-        this.contracts.remove(getBranchContractByVersion(contractVersion));
-        setBranchContracts(this.contracts);
+        List<BranchContract> branchContracts = getBranchContacts();
+        branchContracts.remove(getBranchContractByVersion(contractVersion));
+        setBranchContracts(branchContracts);
     }
 
     /***
@@ -244,21 +275,7 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
      * @return Branch Contract List
      */
     public List<BranchContract> getBranchContacts() {
-        if (this.contracts != null) {
-            return new ArrayList<>(contracts);
-        }
-        contracts = new ArrayList<>();
-        JsonObject contract = store.get(BlockchainMetaInfo.BRANCH_CONTRACTS.toString());
-        if (contract == null) {
-            return new ArrayList<>();
-        } else {
-            JsonArray contractArray = contract.get("contracts").getAsJsonArray();
-            for (int i = 0; i < contractArray.size(); i++) {
-                JsonObject contractObject = contractArray.get(i).getAsJsonObject();
-                contracts.add(BranchContract.of(contractObject));
-            }
-        }
-        return new ArrayList<>(contracts);
+        return new ArrayList<>(metadata.contracts);
     }
 
     /**
@@ -268,7 +285,7 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
      */
     public List<BranchContract> getBranchContractsByName(String contractName) {
         List<BranchContract> result = new ArrayList<>();
-        for (BranchContract bc: this.contracts) {
+        for (BranchContract bc: metadata.contracts) {
             if (bc.getName().equals(contractName)) {
                 result.add(bc);
             }
@@ -282,7 +299,7 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
      * @return BranchContract
      */
     private BranchContract getBranchContractByVersion(String contractVersion) {
-        Optional<BranchContract> contract = this.contracts.stream()
+        Optional<BranchContract> contract = metadata.contracts.stream()
                 .filter(c -> contractVersion.equalsIgnoreCase(c.getContractVersion().toString()))
                 .findFirst();
         return contract.orElse(null);
@@ -295,7 +312,7 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
      */
     @Override
     public String getContractVersion(String contractName) {
-        List<BranchContract> contractList = getBranchContacts().stream()
+        List<BranchContract> contractList = metadata.contracts.stream()
                 .filter(c -> contractName.equalsIgnoreCase(c.getName()))
                 .collect(Collectors.toList());
         if (!contractList.isEmpty()) {
@@ -312,7 +329,7 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
     @Override
     public String getContractName(String contractVersion) {
         // get contract Name by ContractVersion
-        List<BranchContract> contractList = getBranchContacts().stream()
+        List<BranchContract> contractList = metadata.contracts.stream()
                 .filter(c -> contractVersion.equalsIgnoreCase(c.getContractVersion().toString()))
                 .collect(Collectors.toList());
 
@@ -322,11 +339,110 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
         return null;
     }
 
+    /**
+     * The version of the metadata snapshot, it is increased whenever the snapshot is replaced
+     */
+    long getMetadataVersion() {
+        return metadata.version;
+    }
+
+    private static boolean isMetadataKey(String key) {
+        return VALIDATORS_KEY.equals(key) || CONTRACTS_KEY.equals(key) || INDEX_KEYS.contains(key);
+    }
+
+    /**
+     * Read the metadata from the store again, e.g. after the writes of a failed block are discarded
+     */
+    public void reloadMetadata() {
+        synchronized (metadataLock) {
+            this.metadata = loadMetadata(metadata.version + 1);
+        }
+    }
+
+    private Metadata loadMetadata(long version) {
+        Metadata loaded = new Metadata(version);
+        for (String key : INDEX_KEYS) {
+            loaded = loaded.with(key, store.get(key));
+        }
+        loaded = loaded.with(VALIDATORS_KEY, store.get(VALIDATORS_KEY));
+        return loaded.with(CONTRACTS_KEY, store.get(CONTRACTS_KEY));
+    }
+
+    /**
+     * The decoded values of the metadata keys. A snapshot is never changed, a write creates the next one.
+     */
+    private static final class Metadata {
+        private final long version;
+        private final Map<String, Long> indexes;
+        private final String validatorsJson;
+        private final Set<String> validatorAddresses;
+        private final List<BranchContract> contracts;
+
+        private Metadata(long version) {
+            this(version, Collections.emptyMap(), null, Collections.emptySet(), Collections.emptyList());
+        }
+
+        private Metadata(long version, Map<String, Long> indexes, String validatorsJson,
+                         Set<String> validatorAddresses, List<BranchContract> contracts) {
+            this.version = version;
+            this.indexes = indexes;
+            this.validatorsJson = validatorsJson;
+            this.validatorAddresses = validatorAddresses;
+            this.contracts = contracts;
+        }
+
+        private Long getIndex(String key) {
+            return indexes.getOrDefault(key, -1L);
+        }
+
+        private Metadata with(String key, JsonObject value) {
+            if (VALIDATORS_KEY.equals(key)) {
+                return withValidators(value);
+            } else if (CONTRACTS_KEY.equals(key)) {
+                return withContracts(value);
+            }
+            Map<String, Long> nextIndexes = new HashMap<>(indexes);
+            if (value != null) {
+                nextIndexes.put(key, value.get("value").getAsLong());
+            } else {
+                nextIndexes.remove(key);
+            }
+            return new Metadata(version + 1, Collections.unmodifiableMap(nextIndexes), validatorsJson,
+                    validatorAddresses, contracts);
+        }
+
+        private Metadata withValidators(JsonObject value) {
+            if (value == null) {
+                return new Metadata(version + 1, indexes, null, Collections.emptySet(), contracts);
+            }
+            Set<String> addresses = new HashSet<>();
+            JsonElement validatorMap = value.get("validatorMap");
+            if (validatorMap != null && validatorMap.isJsonObject()) {
+                addresses.addAll(validatorMap.getAsJsonObject().keySet());
+            }
+            return new Metadata(version + 1, indexes, value.toString(), Collections.unmodifiableSet(addresses),
+                    contracts);
+        }
+
+        private Metadata withContracts(JsonObject value) {
+            List<BranchContract> nextContracts = new ArrayList<>();
+            if (value != null) {
+                JsonArray contractArray = value.get("contracts").getAsJsonArray();
+                for (int i = 0; i < contractArray.size(); i++) {
+                    nextContracts.add(BranchContract.of(contractArray.get(i).getAsJsonObject()));
+                }
+            }
+            return new Metadata(version + 1, indexes, validatorsJson, validatorAddresses,
+                    Collections.unmodifiableList(nextContracts));
+        }
+    }
+
     public enum  BlockchainMetaInfo {
         BEST_BLOCK,
         BEST_BLOCK_INDEX,
         LAST_EXECUTE_BLOCK,
         LAST_EXECUTE_BLOCK_INDEX,
+        LAST_CONFIRMED_BLOCK_INDEX,
         BRANCH,
         BRANCH_ID,
         GENESIS_BLOCK,
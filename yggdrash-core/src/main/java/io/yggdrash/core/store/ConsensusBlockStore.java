@@ -20,6 +20,8 @@ import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.contract.core.store.ReadWriterStore;
 import io.yggdrash.core.consensus.ConsensusBlock;
 
+import java.util.List;
+
 public interface ConsensusBlockStore<T> extends ReadWriterStore<Sha3Hash, ConsensusBlock<T>> {
 
     long size();
@@ -27,4 +29,22 @@ public interface ConsensusBlockStore<T> extends ReadWriterStore<Sha3Hash, Consen
     void addBlock(ConsensusBlock<T> block);
 
     ConsensusBlock<T> getBlockByIndex(long index);
+
+    /**
+     * Get the consecutive blocks from the index to the end index, both inclusive, until the first missing block
+     */
+    List<ConsensusBlock<T>> getBlocksByRange(long fromIndex, long toIndex);
+
+    /**
+     * Get the stored binaries of the consecutive blocks from the index without parsing them.
+     * The binaries are read until the end index or the first missing block,
+     * and the total size does not exceed maxBytes unless it is a single block.
+     */
+    List<byte[]> getBlockBinariesByRange(long fromIndex, long toIndex, long maxBytes);
+
+    /**
+     * Read the values kept in memory from the database again, e.g. after the writes of a block are discarded
+     */
+    default void reload() {
+    }
 }
@@ -16,22 +16,44 @@
 
 package io.yggdrash.core.store;
 
+import com.google.gson.JsonObject;
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.datasource.HashMapDbSource;
+import io.yggdrash.common.trie.MerklePatriciaTrie;
+import io.yggdrash.common.utils.SerializationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class ContractStore {
+    private static final Logger log = LoggerFactory.getLogger(ContractStore.class);
+    private static final String STATE_ROOT = "stateRoot";
+    private static final String STATE_HASH = "stateHash";
+    private static final int TRIE_BATCH_VALUES = 2000;
 
     private BranchStore branchStore;
     private StateStore stateStore;
     private ReceiptStore receiptStore;
     private TempStateStore tmpStateStore;
     private TempStateStore pendingStateStore;
+    private MerklePatriciaTrie stateTrie;
 
     public ContractStore(BranchStore branchStore, StateStore stateStore, ReceiptStore receiptStore) {
+        this(branchStore, stateStore, receiptStore, new MerklePatriciaTrie(new HashMapDbSource()));
+    }
+
+    public ContractStore(BranchStore branchStore, StateStore stateStore, ReceiptStore receiptStore,
+                         MerklePatriciaTrie stateTrie) {
         this.branchStore = branchStore;
         this.stateStore = stateStore;
         this.receiptStore = receiptStore;
-        this.tmpStateStore = new TempStateStore(stateStore);
-        this.pendingStateStore = new TempStateStore(stateStore);
+        this.stateTrie = stateTrie;
+        buildLegacyStateTrie();
+        this.tmpStateStore = new TempStateStore(stateStore, stateTrie);
+        this.pendingStateStore = new TempStateStore(stateStore, stateTrie);
     }
 
     public BranchStore getBranchStore() {
@@ -54,6 +76,44 @@ public class ContractStore {
         return this.receiptStore;
     }
 
+    /**
+     * The state root of the previous releases is the chained hash of the writes, which is not a root of the trie.
+     * The trie is built once from the values of the state, which are the values of the block results,
+     * and the state root is replaced by the root of the trie.
+     */
+    private void buildLegacyStateTrie() {
+        JsonObject stateRoot = stateStore.get(STATE_ROOT);
+        if (stateRoot == null || !stateRoot.has(STATE_HASH)
+                || stateTrie.contains(new Sha3Hash(stateRoot.get(STATE_HASH).getAsString()).getBytes())) {
+            return;
+        }
+
+        byte[][] root = {MerklePatriciaTrie.EMPTY_ROOT};
+        Map<byte[], byte[]> values = new LinkedHashMap<>();
+        stateStore.forEach((key, value) -> {
+            // The branch metadata is not a result of the blocks
+            if (STATE_ROOT.equals(key) || key.startsWith(BranchStore.NAMESPACE)) {
+                return;
+            }
+            values.put(key.getBytes(), SerializationUtil.serializeJson(value));
+            if (values.size() >= TRIE_BATCH_VALUES) {
+                root[0] = stateTrie.update(root[0], values);
+                stateTrie.commit(root[0]);
+                values.clear();
+            }
+        });
+        if (!values.isEmpty()) {
+            root[0] = stateTrie.update(root[0], values);
+            stateTrie.commit(root[0]);
+        }
+
+        Sha3Hash rebuilt = Sha3Hash.createByHashed(root[0]);
+        log.info("The state trie is built from the state. legacyStateRoot={} stateRoot={}",
+                stateRoot.get(STATE_HASH).getAsString(), rebuilt);
+        stateRoot.addProperty(STATE_HASH, rebuilt.toString());
+        stateStore.put(STATE_ROOT, stateRoot);
+    }
+
     /*
     public void revertTmpStateStore() {
         this.tmpStateStore = new TempStateStore(stateStore);
@@ -64,6 +124,7 @@ public class ContractStore {
         this.branchStore.close();
         this.stateStore.close();
         this.receiptStore.close();
+        this.stateTrie.close();
     }
 
 }
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.common.primitives.Longs;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.crypto.HashUtil;
+import io.yggdrash.common.store.datasource.DbSource;
+import io.yggdrash.common.utils.ByteUtil;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.exception.NonExistObjectException;
+import org.iq80.leveldb.CompressionType;
+import org.iq80.leveldb.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static io.yggdrash.common.config.Constants.LEVELDB_SIZE_KEY;
+
+/**
+ * The blocks keyed by the big-endian height, so the consecutive blocks are stored next to each other
+ * and read by a range scan. The height of a block is indexed by the hash.
+ * <p>
+ * BLOCK_PREFIX + height : the block binary
+ * HASH_PREFIX + blockHash : the height
+ */
+public abstract class HeightOrderedBlockStore<T> implements ConsensusBlockStore<T> {
+    private static final Logger log = LoggerFactory.getLogger(HeightOrderedBlockStore.class);
+
+    private static final byte BLOCK_PREFIX = 'b';
+    private static final byte HASH_PREFIX = 'h';
+    private static final int BLOCK_KEY_LENGTH = 1 + Long.BYTES;
+
+    // The rows of the legacy layout are moved in the batches of the size
+    private static final int MIGRATION_BATCH_ROWS = 2000;
+
+    static final int DB_BLOCK_SIZE = 64 * 1024;
+    static final long DB_CACHE_SIZE = 32 * 1024 * 1024L;
+
+    protected final DbSource<byte[], byte[]> db;
+    private long size;
+
+    protected final ReentrantLock lock = new ReentrantLock();
+
+    protected HeightOrderedBlockStore(DbSource<byte[], byte[]> dbSource) {
+        // TODO: config params to configfile
+        Options options = new Options();
+        options.createIfMissing(true);
+        options.compressionType(CompressionType.NONE);
+        options.blockSize(DB_BLOCK_SIZE);
+        options.writeBufferSize(10 * 1024 * 1024);
+        options.cacheSize(DB_CACHE_SIZE);
+        options.paranoidChecks(true);
+        options.verifyChecksums(true);
+        options.maxOpenFiles(32);
+        this.db = dbSource.init(options);
+        this.size = loadSize();
+        migrateLegacyBlocks();
+    }
+
+    /**
+     * Parse the stored binary of the block
+     */
+    protected abstract ConsensusBlock<T> toBlock(byte[] binary);
+
+    /**
+     * Put the block by the hash. The block at the height is kept if another block is put at the height.
+     */
+    @Override
+    public void put(Sha3Hash key, ConsensusBlock<T> value) {
+        if (key == null || value == null) {
+            log.debug("put() is failed.");
+            return;
+        }
+
+        byte[] bytes = value.toBinary();
+        if (bytes.length > Constants.MAX_MEMORY) {
+            log.debug("block binary {} > {}", bytes.length, Constants.MAX_MEMORY);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (contains(key)) {
+                log.debug("put(): Key is duplicated. (key: {})(blockHash {})", key, value.getHash());
+                return;
+            }
+            byte[] blockKey = blockKey(value.getIndex());
+            byte[] stored = db.get(blockKey);
+            if (stored != null && !Arrays.equals(stored, bytes)) {
+                log.debug("put(): Another block is stored at {}. (blockHash {})", value.getIndex(), value.getHash());
+                return;
+            }
+
+            log.trace("put (key: {})(blockHash {})", key, value.getHash());
+            Map<byte[], byte[]> rows = new HashMap<>();
+            rows.put(hashKey(key), Longs.toByteArray(value.getIndex()));
+            // The block is counted once, even if only its hash row is missing
+            if (stored == null) {
+                rows.put(blockKey, bytes);
+                rows.put(LEVELDB_SIZE_KEY, ByteUtil.longToBytes(size + 1));
+            }
+            db.updateByBatch(rows);
+            if (stored == null) {
+                size++;
+            }
+        } catch (Exception e) {
+            log.debug(e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public ConsensusBlock<T> get(Sha3Hash key) {
+        byte[] height = db.get(hashKey(key));
+        byte[] binary = height != null ? db.get(blockKey(Longs.fromByteArray(height))) : null;
+        if (binary == null) {
+            throw new NonExistObjectException(key.toString());
+        }
+        return toBlock(binary);
+    }
+
+    @Override
+    public boolean contains(Sha3Hash key) {
+        try {
+            return db.get(hashKey(key)) != null;
+        } catch (Exception e) {
+            log.debug(e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        db.close();
+    }
+
+    @Override
+    public void reload() {
+        lock.lock();
+        try {
+            size = loadSize();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addBlock(ConsensusBlock<T> block) {
+        if (block == null) {
+            return;
+        }
+        put(block.getHash(), block);
+    }
+
+    @Override
+    public ConsensusBlock<T> getBlockByIndex(long index) {
+        byte[] binary = db.get(blockKey(index));
+        if (binary == null) {
+            throw new NonExistObjectException(String.valueOf(index));
+        }
+        return toBlock(binary);
+    }
+
+    @Override
+    public List<ConsensusBlock<T>> getBlocksByRange(long fromIndex, long toIndex) {
+        List<ConsensusBlock<T>> blocks = new ArrayList<>();
+        scanBlocks(fromIndex, toIndex, binary -> {
+            blocks.add(toBlock(binary));
+            return true;
+        });
+        return blocks;
+    }
+
+    @Override
+    public List<byte[]> getBlockBinariesByRange(long fromIndex, long toIndex, long maxBytes) {
+        List<byte[]> binaries = new ArrayList<>();
+        long[] totalBytes = new long[1];
+        scanBlocks(fromIndex, toIndex, binary -> {
+            if (!binaries.isEmpty() && totalBytes[0] + binary.length > maxBytes) {
+                return false;
+            }
+            binaries.add(binary);
+            totalBytes[0] += binary.length;
+            return true;
+        });
+        return binaries;
+    }
+
+    /**
+     * Visit the binaries of the consecutive blocks from the index while the visitor returns true
+     */
+    private void scanBlocks(long fromIndex, long toIndex, BinaryVisitor visitor) {
+        if (fromIndex < 0 || fromIndex > toIndex) {
+            return;
+        }
+        long[] nextIndex = {fromIndex};
+        db.scan(blockKey(fromIndex), blockKey(toIndex), (key, value) -> {
+            if (key.length != BLOCK_KEY_LENGTH) {
+                return true;
+            }
+            // The blocks end at the first missing block
+            if (Longs.fromByteArray(Arrays.copyOfRange(key, 1, BLOCK_KEY_LENGTH)) != nextIndex[0]) {
+                return false;
+            }
+            nextIndex[0]++;
+            return visitor.visit(value);
+        });
+    }
+
+    /**
+     * Move the blocks of the legacy layout, which keyed the block by the hash and the hash by sha3 of the index.
+     * The legacy keys are deleted after all the blocks are moved, so the migration is resumed if it is stopped.
+     */
+    private void migrateLegacyBlocks() {
+        if (db.get(legacyIndexKey(0)) == null) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            log.info("Migrate the blocks to the height ordered layout.");
+            Map<byte[], byte[]> rows = new HashMap<>();
+            long count = 0;
+            byte[] blockHash;
+            while ((blockHash = db.get(legacyIndexKey(count))) != null) {
+                byte[] binary = db.get(blockHash);
+                if (binary == null) {
+                    break;
+                }
+                rows.put(blockKey(count), binary);
+                rows.put(hashKey(blockHash), Longs.toByteArray(count));
+                count++;
+                flushIfFull(rows);
+            }
+            rows.put(LEVELDB_SIZE_KEY, ByteUtil.longToBytes(count));
+            db.updateByBatch(rows);
+            rows.clear();
+
+            long index = 0;
+            while ((blockHash = db.get(legacyIndexKey(index))) != null) {
+                rows.put(blockHash, null);
+                rows.put(legacyIndexKey(index), null);
+                index++;
+                flushIfFull(rows);
+            }
+            db.updateByBatch(rows);
+            size = count;
+            log.info("Migrated {} blocks.", count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushIfFull(Map<byte[], byte[]> rows) {
+        if (rows.size() >= MIGRATION_BATCH_ROWS) {
+            db.updateByBatch(rows);
+            rows.clear();
+        }
+    }
+
+    private long loadSize() {
+        byte[] sizeByte = db.get(LEVELDB_SIZE_KEY);
+        return sizeByte != null ? ByteUtil.byteArrayToLong(sizeByte) : 0L;
+    }
+
+    private static byte[] blockKey(long index) {
+        return ByteUtil.merge(new byte[] {BLOCK_PREFIX}, Longs.toByteArray(index));
+    }
+
+    private static byte[] hashKey(Sha3Hash blockHash) {
+        return hashKey(blockHash.getBytes());
+    }
+
+    private static byte[] hashKey(byte[] blockHash) {
+        return ByteUtil.merge(new byte[] {HASH_PREFIX}, blockHash);
+    }
+
+    private static byte[] legacyIndexKey(long index) {
+        String blockIndexKey = "BLOCK_INDEX_" + index;
+        return HashUtil.sha3(blockIndexKey.getBytes());
+    }
+
+    @FunctionalInterface
+    private interface BinaryVisitor {
+        boolean visit(byte[] binary);
+    }
+}
@@ -16,74 +16,132 @@
 
 package io.yggdrash.core.store;
 
-import com.google.common.primitives.Bytes;
 import com.google.gson.JsonObject;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
-import io.yggdrash.common.crypto.HashUtil;
+import io.yggdrash.common.store.datasource.HashMapDbSource;
+import io.yggdrash.common.trie.MerklePatriciaTrie;
+import io.yggdrash.common.utils.SerializationUtil;
 import io.yggdrash.contract.core.store.ReadWriterStore;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.spongycastle.util.encoders.Hex;
 
+import java.math.BigInteger;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class TempStateStore implements ReadWriterStore<String, JsonObject> {
-    private static final Logger log = LoggerFactory.getLogger(TempStateStore.class);
     private static final String STATE_ROOT = "stateRoot";
     private static final String STATE_HASH = "stateHash";
+    private static final String BALANCE = "balance";
 
     private final ReentrantLock lock = new ReentrantLock();
 
-    // Shared Resources(stateStore, tempStore, stateRootHash, stateRootHashBak)
+    // Shared Resources(stateStore, tempStore, stateRootHash)
     private final ReadWriterStore<String, JsonObject> stateStore;
     private final Map<String, JsonObject> tempStore = new LinkedHashMap<>();
+    private final MerklePatriciaTrie stateTrie;
     private Sha3Hash stateRootHash;
-    private Sha3Hash stateRootHashBak;
+    private Map.Entry<String, JsonObject> lastWrite;
+
+    // Read/write-set overlay of the current thread. Writes are recorded instead of applied while it is set.
+    private final ThreadLocal<Overlay> overlay = new ThreadLocal<>();
 
     public TempStateStore(ReadWriterStore<String, JsonObject> originStore) {
+        this(originStore, new MerklePatriciaTrie(new HashMapDbSource()));
+    }
+
+    public TempStateStore(ReadWriterStore<String, JsonObject> originStore, MerklePatriciaTrie stateTrie) {
         this.stateStore = originStore;
+        this.stateTrie = stateTrie;
         setStateRootHash();
     }
 
+    /**
+     * Get the state root of the origin store with the changes of this store
+     */
     public Sha3Hash getStateRoot() {
-        return stateRootHash;
+        lock.lock();
+        try {
+            return getStateRoot(tempStore);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the state root of the origin store with the given changes.
+     * Only the trie paths of the changed keys are hashed and the new nodes are kept in memory
+     * until {@link #commitStateRoot(Sha3Hash)} is called.
+     */
+    public Sha3Hash getStateRoot(Map<String, JsonObject> changes) {
+        Map<byte[], byte[]> values = new LinkedHashMap<>();
+        changes.forEach((key, value) -> {
+            if (!STATE_ROOT.equals(key)) {
+                values.put(key.getBytes(), SerializationUtil.serializeJson(value));
+            }
+        });
+        if (values.isEmpty()) {
+            return stateRootHash;
+        }
+        return Sha3Hash.createByHashed(stateTrie.update(stateRootHash.getBytes(), values));
+    }
+
+    /**
+     * Writes the trie nodes of the state root to the database
+     */
+    public void commitStateRoot(Sha3Hash stateRoot) {
+        stateTrie.commit(stateRoot.getBytes());
+    }
+
+    /**
+     * Drops the trie nodes of the state roots which are not committed
+     */
+    public void discardStateRoot() {
+        stateTrie.discard();
+    }
+
+    /**
+     * Get the trie nodes on the path of the key from the state root
+     */
+    public List<byte[]> getProof(Sha3Hash stateRoot, String key) {
+        return stateTrie.getProof(stateRoot.getBytes(), key.getBytes());
     }
 
     @Override
     public void put(String key, JsonObject value) {
+        Overlay current = overlay.get();
+        if (current != null) {
+            current.put(key, value);
+            return;
+        }
+
         lock.lock();
         try {
+            lastWrite = new AbstractMap.SimpleImmutableEntry<>(key, tempStore.get(key));
             tempStore.put(key, value);
-            tempStore.put(STATE_ROOT, stateRoot(key, value)); // sateRootObj contains stateHash
         } finally {
             lock.unlock();
         }
     }
 
-    // TODO: delete logging for speed up
-    private JsonObject stateRoot(String key, JsonObject value) {
-        stateRootHashBak = stateRootHash;
-        byte[] changedStateRootByte =  HashUtil.sha3(key.concat(value.toString()).getBytes());
-        log.trace("key={} value={} changedStateRoot={}",
-                key, value.toString(), stateRootHash.toString(), Hex.toHexString(changedStateRootByte));
-        log.trace("before stateRootHash={}", stateRootHash);
-        stateRootHash = new Sha3Hash(Bytes.concat(stateRootHash.getBytes(), changedStateRootByte));
-        log.trace("after stateRootHash={}", stateRootHash);
-        return stateRootObj(stateRootHash);
-    }
-
-    private JsonObject stateRootObj(Sha3Hash stateHash) {
-        JsonObject obj = contains(STATE_ROOT) ? get(STATE_ROOT) : new JsonObject();
-        obj.addProperty(STATE_HASH, stateHash.toString());
-        return obj;
-    }
-
     @Override
     public JsonObject get(String key) {
+        Overlay current = overlay.get();
+        if (current != null) {
+            return current.get(key);
+        }
+        return getOrigin(key);
+    }
+
+    private JsonObject getOrigin(String key) {
         if (tempStore.get(key) != null) {
             return tempStore.get(key);
         } else {
@@ -93,6 +151,14 @@ public class TempStateStore implements ReadWriterStore<String, JsonObject> {
 
     @Override
     public boolean contains(String key) {
+        Overlay current = overlay.get();
+        if (current != null) {
+            return current.contains(key);
+        }
+        return containsOrigin(key);
+    }
+
+    private boolean containsOrigin(String key) {
         if (tempStore.containsKey(key)) {
             return true;
         } else {
@@ -102,7 +168,11 @@ public class TempStateStore implements ReadWriterStore<String, JsonObject> {
 
     @Override
     public void close() {
+        if (overlay.get() != null) {
+            return;
+        }
         tempStore.clear();
+        lastWrite = null;
         setStateRootHash();
     }
 
@@ -116,11 +186,121 @@ public class TempStateStore implements ReadWriterStore<String, JsonObject> {
     }
 
     public Set<Map.Entry<String, JsonObject>> changeValues() {
+        Overlay current = overlay.get();
+        if (current != null) {
+            return current.writes.entrySet();
+        }
         return this.tempStore.entrySet();
     }
 
+    /**
+     * Binds a new overlay to the current thread. Until {@link #endOverlay()} is called, reads of this thread
+     * are recorded and writes are kept in the overlay, leaving the shared store and the stateRoot untouched.
+     *
+     * The overlay reads the shared temp store, so it must not run while the temp store is written.
+     * The concurrent workers read a frozen view by {@link #beginOverlay(ReadWriterStore)} instead.
+     *
+     * @param isolated if true, values read from the shared temp store are copied so that concurrent overlays
+     *                 never share a mutable JsonObject
+     * @return the overlay bound to the current thread
+     */
+    public Overlay beginOverlay(boolean isolated) {
+        Overlay current = new Overlay(isolated, null);
+        overlay.set(current);
+        return current;
+    }
+
+    /**
+     * Binds a new isolated overlay which reads the given store instead of this store, e.g. a snapshot of
+     * the state store for the queries, or the frozen values for the speculative workers.
+     *
+     * @param origin the store read by the overlay, the values read from it must not be shared
+     * @return the overlay bound to the current thread
+     */
+    public Overlay beginOverlay(ReadWriterStore<String, JsonObject> origin) {
+        Overlay current = new Overlay(true, origin);
+        overlay.set(current);
+        return current;
+    }
+
+    /**
+     * Copy the changes of this store into a read-only view over the origin store. The overlays of the
+     * concurrent workers read the view instead of this store, which is written while they are running.
+     *
+     * @return the view of the current values, each read of it returns a copy
+     */
+    public ReadWriterStore<String, JsonObject> freeze() {
+        Map<String, JsonObject> frozen = new HashMap<>();
+        lock.lock();
+        try {
+            tempStore.forEach((key, value) -> frozen.put(key, value.deepCopy()));
+        } finally {
+            lock.unlock();
+        }
+        return new FrozenStore(frozen);
+    }
+
+    public Overlay getOverlay() {
+        return overlay.get();
+    }
+
+    public void endOverlay() {
+        overlay.remove();
+    }
+
+    /**
+     * Applies the writes of the overlay in the order they were made,
+     * which results in the same state as executing them directly.
+     * The credits of the overlay are added to the current balances instead of the balances it read.
+     */
+    public void applyOverlay(Overlay applied) {
+        Map<String, BigInteger> credits = applied.getCredits();
+        for (Map.Entry<String, JsonObject> write : applied.writeLog) {
+            BigInteger credit = credits.get(write.getKey());
+            put(write.getKey(), credit != null ? credit(write.getKey(), credit) : write.getValue());
+        }
+        applied.externalWrites.values().forEach(Runnable::run);
+    }
+
+    private JsonObject credit(String key, BigInteger credit) {
+        JsonObject current = getOrigin(key);
+        BigInteger balance = current != null && current.has(BALANCE)
+                ? current.get(BALANCE).getAsBigInteger() : BigInteger.ZERO;
+        JsonObject value = new JsonObject();
+        value.addProperty(BALANCE, balance.add(credit));
+        return value;
+    }
+
+    // The balance of a value which has only the balance, zero of no value, or null of the other values
+    private static BigInteger getBalance(JsonObject value) {
+        if (value == null) {
+            return BigInteger.ZERO;
+        }
+        if (value.size() != 1 || !value.has(BALANCE) || !value.get(BALANCE).isJsonPrimitive()
+                || !value.getAsJsonPrimitive(BALANCE).isNumber()) {
+            return null;
+        }
+        return value.get(BALANCE).getAsBigInteger();
+    }
+
+    /**
+     * Reverts the last write, which reverts the state root to the one before the write
+     */
     public void revertStateRootHash() {
-        stateRootHash = stateRootHashBak;
+        lock.lock();
+        try {
+            if (lastWrite == null) {
+                return;
+            }
+            if (lastWrite.getValue() == null) {
+                tempStore.remove(lastWrite.getKey());
+            } else {
+                tempStore.put(lastWrite.getKey(), lastWrite.getValue());
+            }
+            lastWrite = null;
+        } finally {
+            lock.unlock();
+        }
     }
 
     private void setStateRootHash() {
@@ -131,4 +311,176 @@ public class TempStateStore implements ReadWriterStore<String, JsonObject> {
         }
     }
 
-}
\ No newline at end of file
+    private class FrozenStore implements ReadWriterStore<String, JsonObject> {
+        private final Map<String, JsonObject> values;
+
+        private FrozenStore(Map<String, JsonObject> values) {
+            this.values = values;
+        }
+
+        @Override
+        public JsonObject get(String key) {
+            JsonObject value = values.get(key);
+            // The frozen values are never changed, so they are copied concurrently
+            return value != null ? value.deepCopy() : stateStore.get(key);
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return values.containsKey(key) || stateStore.contains(key);
+        }
+
+        @Override
+        public void put(String key, JsonObject value) {
+            throw new UnsupportedOperationException("The frozen store is read only");
+        }
+
+        @Override
+        public void close() {
+            // The values are dropped with the store
+        }
+    }
+
+    public class Overlay {
+        private final boolean isolated;
+        private final ReadWriterStore<String, JsonObject> origin;
+        private final Set<String> readKeys = new HashSet<>();
+        private final Map<String, JsonObject> writes = new LinkedHashMap<>();
+        private final List<Map.Entry<String, JsonObject>> writeLog = new ArrayList<>();
+        private final Set<String> writeKeys = new HashSet<>();
+        // The writes of the keys kept outside of this store, which are made when the overlay is applied
+        private final Map<String, Object> externalValues = new HashMap<>();
+        private final Map<String, Runnable> externalWrites = new LinkedHashMap<>();
+        // The keys which may be credited commutatively, e.g. the fee account of the branch
+        private Predicate<String> creditKeys = key -> false;
+        // The number of the reads and the writes of the credit keys, and the values read from the origin
+        private final Map<String, Integer> creditUses = new HashMap<>();
+        private final Map<String, JsonObject> creditBases = new HashMap<>();
+        private Map<String, BigInteger> credits;
+
+        private Overlay(boolean isolated, ReadWriterStore<String, JsonObject> origin) {
+            this.isolated = isolated;
+            this.origin = origin;
+        }
+
+        private void put(String key, JsonObject value) {
+            useCreditKey(key);
+            writes.put(key, value);
+            writeKeys.add(key);
+            writeLog.add(new AbstractMap.SimpleImmutableEntry<>(key, value));
+        }
+
+        private JsonObject get(String key) {
+            boolean creditKey = useCreditKey(key);
+            if (writes.containsKey(key)) {
+                return writes.get(key);
+            }
+            readKeys.add(key);
+            JsonObject value;
+            if (origin != null) {
+                value = origin.get(key);
+            } else {
+                value = getOrigin(key);
+                value = isolated && value != null ? value.deepCopy() : value;
+            }
+            if (creditKey) {
+                creditBases.put(key, value != null ? value.deepCopy() : null);
+            }
+            return value;
+        }
+
+        private boolean contains(String key) {
+            useCreditKey(key);
+            if (writes.containsKey(key)) {
+                return true;
+            }
+            readKeys.add(key);
+            return origin != null ? origin.contains(key) : containsOrigin(key);
+        }
+
+        /**
+         * Records a read of a key kept outside of this store (e.g. the branch store)
+         */
+        public void markRead(String key) {
+            readKeys.add(key);
+        }
+
+        /**
+         * Records a write of a key kept outside of this store (e.g. the branch store). The write is made by
+         * applyOverlay, so the write of an overlay which is not applied is dropped with it.
+         */
+        public <T> void writeExternal(String key, T value, Consumer<T> writer) {
+            writeKeys.add(key);
+            externalValues.put(key, value);
+            externalWrites.put(key, () -> writer.accept(value));
+        }
+
+        /**
+         * The value of a key kept outside of this store written by the overlay, or null
+         */
+        public Object getExternal(String key) {
+            return externalValues.get(key);
+        }
+
+        private boolean useCreditKey(String key) {
+            if (!creditKeys.test(key)) {
+                return false;
+            }
+            creditUses.merge(key, 1, Integer::sum);
+            return true;
+        }
+
+        /**
+         * Set the keys of the balances which may be credited commutatively. A key is credited when the overlay
+         * read its balance once and then wrote a larger balance once, so the result of the overlay does not
+         * depend on the balance. The credit is added to the current balance when the overlay is applied,
+         * and the key is not a conflict with the previous writes.
+         */
+        public void setCreditKeys(Predicate<String> creditKeys) {
+            this.creditKeys = creditKeys;
+        }
+
+        /**
+         * The credits of the overlay by the key
+         */
+        public Map<String, BigInteger> getCredits() {
+            if (credits != null) {
+                return credits;
+            }
+            credits = new HashMap<>();
+            creditUses.forEach((key, uses) -> {
+                if (uses != 2 || !creditBases.containsKey(key) || !writes.containsKey(key)) {
+                    return;
+                }
+                BigInteger base = getBalance(creditBases.get(key));
+                BigInteger written = getBalance(writes.get(key));
+                if (base != null && written != null && written.compareTo(base) >= 0) {
+                    credits.put(key, written.subtract(base));
+                }
+            });
+            return credits;
+        }
+
+        /**
+         * The keys read by the overlay which conflict with the previous writes, which are the keys read
+         * except the credited ones
+         */
+        public Set<String> getConflictKeys() {
+            Set<String> conflictKeys = new HashSet<>(readKeys);
+            conflictKeys.removeAll(getCredits().keySet());
+            return conflictKeys;
+        }
+
+        public Set<String> getReadKeys() {
+            return readKeys;
+        }
+
+        public Set<String> getWriteKeys() {
+            return writeKeys;
+        }
+
+        public boolean isIsolated() {
+            return isolated;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.common.primitives.Longs;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.store.datasource.DbSource;
+import io.yggdrash.core.blockchain.Block;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.blockchain.TransactionLocation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Secondary index of the transactions in blocks. <txHash : (blockIndex, blockHash, position)>
+ */
+public class TransactionIndexStore {
+    private static final byte[] LAST_INDEXED_BLOCK_KEY = "lastIndexedBlock".getBytes();
+
+    private final DbSource<byte[], byte[]> db;
+
+    public TransactionIndexStore(DbSource<byte[], byte[]> dbSource) {
+        this.db = dbSource.init();
+    }
+
+    /**
+     * Index the transactions of the block and the index of the block in a single batch
+     */
+    public void addBlock(Block block) {
+        Map<byte[], byte[]> rows = new HashMap<>();
+        List<Transaction> txList = block.getBody().getTransactionList();
+        for (int i = 0; i < txList.size(); i++) {
+            TransactionLocation location = new TransactionLocation(block.getIndex(), block.getHash(), i);
+            rows.put(txList.get(i).getHash().getBytes(), location.toBinary());
+        }
+        rows.put(LAST_INDEXED_BLOCK_KEY, Longs.toByteArray(block.getIndex()));
+
+        db.updateByBatch(rows);
+    }
+
+    public TransactionLocation get(Sha3Hash txHash) {
+        byte[] location = db.get(txHash.getBytes());
+        return location != null ? TransactionLocation.parseFrom(location) : null;
+    }
+
+    public boolean contains(Sha3Hash txHash) {
+        return db.get(txHash.getBytes()) != null;
+    }
+
+    /**
+     * Get the index of the last indexed block
+     *
+     * @return the block index, -1 if no block is indexed
+     */
+    public long getLastIndexedBlock() {
+        byte[] index = db.get(LAST_INDEXED_BLOCK_KEY);
+        return index != null ? Longs.fromByteArray(index) : -1;
+    }
+
+    public void close() {
+        db.close();
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.gson.JsonObject;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.core.blockchain.BranchId;
+import io.yggdrash.core.blockchain.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pending transactions ordered by the fee per byte.
+ * The transactions of a sender are kept in the order of arrival, so the block candidate takes
+ * the best of the first pending transactions of the senders one by one.
+ * The pool is bounded by the count and the bytes, the lowest priority is evicted when it is full.
+ */
+public class TransactionPool {
+    private static final Logger log = LoggerFactory.getLogger(TransactionPool.class);
+
+    private static final String PARAMS = "params";
+    private static final String FEE = "fee";
+    private static final BigInteger MAX_PRIORITY = BigInteger.valueOf(Long.MAX_VALUE);
+
+    // The higher fee per byte first, then the earlier arrival first
+    private static final Comparator<PooledTx> PRIORITY_ORDER = Comparator
+            .comparingLong((PooledTx pooledTx) -> pooledTx.feePerByte).reversed()
+            .thenComparingLong(pooledTx -> pooledTx.sequence);
+
+    private final int maxCount;
+    private final long maxBytes;
+
+    private final ConcurrentHashMap<Sha3Hash, PooledTx> txs = new ConcurrentHashMap<>();
+    // The queues are modified only in the compute of the sender, which locks the sender alone
+    private final ConcurrentHashMap<Object, SenderQueue> senders = new ConcurrentHashMap<>();
+    // The lowest priority is the last, which is evicted first
+    private final ConcurrentSkipListSet<PooledTx> evictionOrder = new ConcurrentSkipListSet<>(PRIORITY_ORDER);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TransactionPool() {
+        this(Constants.Limit.TX_POOL_MAX_COUNT, Constants.Limit.TX_POOL_MAX_BYTES);
+    }
+
+    public TransactionPool(int maxCount, long maxBytes) {
+        this.maxCount = maxCount;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Register the size, the bytes and the evictions of the pool as the metrics of the branch
+     */
+    public void bindTo(MeterRegistry registry, BranchId branchId) {
+        String branch = branchId.toString();
+        Gauge.builder("yggdrash.txpool.size", this, TransactionPool::size)
+                .description("The number of the pending transactions")
+                .tag("branch", branch)
+                .register(registry);
+        Gauge.builder("yggdrash.txpool.bytes", this, TransactionPool::sizeInBytes)
+                .description("The sum of the length of the pending transactions")
+                .baseUnit("bytes")
+                .tag("branch", branch)
+                .register(registry);
+        FunctionCounter.builder("yggdrash.txpool.evictions", evictions, AtomicLong::get)
+                .description("The number of the transactions evicted from the full pool")
+                .tag("branch", branch)
+                .register(registry);
+    }
+
+    /**
+     * Add the transaction to the pool
+     *
+     * @return true if the transaction is pending, false if it exists already or is evicted
+     */
+    public boolean add(Transaction tx) {
+        PooledTx pooledTx = new PooledTx(tx, senderOf(tx), feePerByte(tx), sequence.getAndIncrement());
+        if (txs.putIfAbsent(pooledTx.hash, pooledTx) != null) {
+            return false;
+        }
+        bytes.addAndGet(pooledTx.length);
+
+        senders.compute(pooledTx.sender, (sender, queue) -> {
+            SenderQueue senderQueue = queue != null ? queue : new SenderQueue();
+            senderQueue.append(pooledTx);
+            // Not appended, if it is removed while being added
+            return senderQueue.isEmpty() ? null : senderQueue;
+        });
+        evictionOrder.add(pooledTx);
+        if (pooledTx.removed) {
+            // Removed while being added
+            evictionOrder.remove(pooledTx);
+        }
+
+        evictIfFull();
+        return txs.containsKey(pooledTx.hash);
+    }
+
+    public Transaction get(Sha3Hash hash) {
+        PooledTx pooledTx = txs.get(hash);
+        return pooledTx != null ? pooledTx.tx : null;
+    }
+
+    public boolean contains(Sha3Hash hash) {
+        return txs.containsKey(hash);
+    }
+
+    public Transaction remove(Sha3Hash hash) {
+        PooledTx pooledTx = txs.remove(hash);
+        if (pooledTx == null) {
+            return null;
+        }
+        // Not to be appended, if it is being added
+        pooledTx.removed = true;
+        senders.computeIfPresent(pooledTx.sender, (sender, queue) -> {
+            queue.unlink(pooledTx);
+            return queue.isEmpty() ? null : queue;
+        });
+        evictionOrder.remove(pooledTx);
+        bytes.addAndGet(-pooledTx.length);
+        return pooledTx.tx;
+    }
+
+    public int size() {
+        return txs.size();
+    }
+
+    public long sizeInBytes() {
+        return bytes.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    // The number of the senders with the pending transactions
+    int senderCount() {
+        return senders.size();
+    }
+
+    /**
+     * Get the transactions of the block candidate.
+     * The transactions are taken in a single pass over the senders, and a sender whose next transaction
+     * exceeds the limit is skipped not to take its later transactions ahead of it.
+     *
+     * @param limit the limit of the sum of the transaction length
+     * @return the transactions in order of the priority
+     */
+    public List<Transaction> getBest(long limit) {
+        PriorityQueue<PooledTx> heads = new PriorityQueue<>(PRIORITY_ORDER);
+        for (SenderQueue queue : senders.values()) {
+            PooledTx head = queue.first();
+            if (head != null) {
+                heads.add(head);
+            }
+        }
+
+        List<Transaction> best = new ArrayList<>();
+        long sizeSum = 0;
+        PooledTx pooledTx;
+        while ((pooledTx = heads.poll()) != null) {
+            if (sizeSum + pooledTx.length > limit) {
+                continue;
+            }
+            sizeSum += pooledTx.length;
+            best.add(pooledTx.tx);
+
+            PooledTx next = pooledTx.nextPending();
+            if (next != null) {
+                heads.add(next);
+            }
+        }
+        return best;
+    }
+
+    private void evictIfFull() {
+        while (txs.size() > maxCount || bytes.get() > maxBytes) {
+            PooledTx lowest = evictionOrder.pollLast();
+            if (lowest == null) {
+                return;
+            }
+            if (remove(lowest.hash) != null) {
+                evictions.incrementAndGet();
+                log.debug("Evict tx={} poolSize={} poolBytes={}", lowest.hash, txs.size(), bytes.get());
+            }
+        }
+    }
+
+    private static Object senderOf(Transaction tx) {
+        try {
+            return tx.getAddress();
+        } catch (Exception e) {
+            // The transaction without a valid signature is queued alone
+            return tx.getHash();
+        }
+    }
+
+    private static long feePerByte(Transaction tx) {
+        try {
+            JsonObject body = tx.getBody().getBody();
+            if (body.has(PARAMS) && body.getAsJsonObject(PARAMS).has(FEE)) {
+                BigInteger fee = body.getAsJsonObject(PARAMS).get(FEE).getAsBigInteger();
+                return fee.divide(BigInteger.valueOf(Math.max(1, tx.getLength())))
+                        .max(BigInteger.ZERO).min(MAX_PRIORITY).longValue();
+            }
+        } catch (Exception e) {
+            log.trace("No fee of tx={} {}", tx.getHash(), e.getMessage());
+        }
+        return 0;
+    }
+
+    private static class PooledTx {
+        private final Transaction tx;
+        private final Sha3Hash hash;
+        private final Object sender;
+        private final long feePerByte;
+        private final long length;
+        private final long sequence;
+
+        // The link to the next transaction is kept after removed, to continue the traversal of the sender
+        private volatile PooledTx prev;
+        private volatile PooledTx next;
+        private volatile boolean linked;
+        private volatile boolean removed;
+
+        PooledTx(Transaction tx, Object sender, long feePerByte, long sequence) {
+            this.tx = tx;
+            this.hash = tx.getHash();
+            this.sender = sender;
+            this.feePerByte = feePerByte;
+            this.length = tx.getLength();
+            this.sequence = sequence;
+        }
+
+        PooledTx nextPending() {
+            PooledTx pooledTx = next;
+            while (pooledTx != null && pooledTx.removed) {
+                pooledTx = pooledTx.next;
+            }
+            return pooledTx;
+        }
+    }
+
+    /**
+     * The pending transactions of a sender in order of arrival, which are unlinked in O(1)
+     */
+    private static class SenderQueue {
+        private volatile PooledTx head;
+        private PooledTx tail;
+
+        void append(PooledTx pooledTx) {
+            if (pooledTx.removed) {
+                return;
+            }
+            pooledTx.prev = tail;
+            if (tail != null) {
+                tail.next = pooledTx;
+            } else {
+                head = pooledTx;
+            }
+            tail = pooledTx;
+            pooledTx.linked = true;
+        }
+
+        void unlink(PooledTx pooledTx) {
+            if (!pooledTx.linked) {
+                return;
+            }
+            PooledTx prev = pooledTx.prev;
+            PooledTx next = pooledTx.next;
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                head = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            } else {
+                tail = prev;
+            }
+            pooledTx.linked = false;
+        }
+
+        PooledTx first() {
+            PooledTx pooledTx = head;
+            while (pooledTx != null && pooledTx.removed) {
+                pooledTx = pooledTx.next;
+            }
+            return pooledTx;
+        }
+
+        boolean isEmpty() {
+            return head == null;
+        }
+    }
+}
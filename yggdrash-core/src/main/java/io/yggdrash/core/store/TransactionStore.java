@@ -24,43 +24,38 @@ import io.yggdrash.core.blockchain.Block;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.blockchain.TransactionImpl;
 import io.yggdrash.core.exception.NonExistObjectException;
-import org.ehcache.Cache;
-import org.ehcache.config.builders.CacheConfigurationBuilder;
-import org.ehcache.config.builders.CacheManagerBuilder;
-import org.ehcache.config.builders.ResourcePoolsBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class TransactionStore implements ReadWriterStore<Sha3Hash, Transaction> {
     private static final Logger log = LoggerFactory.getLogger(TransactionStore.class);
-    private static final Lock lock = new ReentrantLock();
     private static final int CACHE_SIZE = 1000;
 
     private final DbSource<byte[], byte[]> db;
+    private final TransactionPool pendingPool;
 
-    // Shared resources(pendingPool, pendingKeys, stateRoot) must be synchronized.
-    private final Cache<Sha3Hash, Transaction> pendingPool;
-    private final Queue<Sha3Hash> pendingKeys;
-
-    private Queue<Transaction> readCache;
+    // The readCache must be synchronized.
+    private final Lock lock = new ReentrantLock();
+    private EvictingQueue<Transaction> readCache;
+    // The transactions of the block in commit, which are kept in the pool until the block is committed
+    private final ThreadLocal<List<Transaction>> committingTxs = new ThreadLocal<>();
 
     public TransactionStore(DbSource<byte[], byte[]> db) {
+        this(db, new TransactionPool());
+    }
+
+    public TransactionStore(DbSource<byte[], byte[]> db, TransactionPool pendingPool) {
         this.db = db.init();
-        this.pendingPool = CacheManagerBuilder
-                .newCacheManagerBuilder().build(true)
-                .createCache("txPool", CacheConfigurationBuilder
-                        .newCacheConfigurationBuilder(Sha3Hash.class, Transaction.class,
-                                ResourcePoolsBuilder.heap(CACHE_SIZE)));
-        this.pendingKeys = EvictingQueue.create(CACHE_SIZE);
+        this.pendingPool = pendingPool;
         this.readCache = EvictingQueue.create(CACHE_SIZE);
     }
 
@@ -70,35 +65,23 @@ public class TransactionStore implements ReadWriterStore<Sha3Hash, Transaction>
     }
 
     public Collection<Transaction> getRecentTxs() {
-        return new ArrayList<>(readCache);
-    }
-
-    @Override
-    public boolean contains(Sha3Hash key) {
-        if (key == null || key.getBytes() == null) {
-            log.warn("contains() is failed. key is not valid.");
-            return false;
-        }
-
         lock.lock();
         try {
-            return pendingPool.containsKey(key) || db.get(key.getBytes()) != null;
-        } catch (Exception e) {
-            log.warn("contains() is failed. {} {}", e.getMessage(), key.toString());
-            return false;
+            return new ArrayList<>(readCache);
         } finally {
             lock.unlock();
         }
     }
 
-    private boolean containsUnlock(Sha3Hash key) {
+    @Override
+    public boolean contains(Sha3Hash key) {
         if (key == null || key.getBytes() == null) {
             log.warn("contains() is failed. key is not valid.");
             return false;
         }
 
         try {
-            return pendingPool.containsKey(key) || db.get(key.getBytes()) != null;
+            return pendingPool.contains(key) || db.get(key.getBytes()) != null;
         } catch (Exception e) {
             log.warn("contains() is failed. {} {}", e.getMessage(), key.toString());
             return false;
@@ -112,20 +95,12 @@ public class TransactionStore implements ReadWriterStore<Sha3Hash, Transaction>
 
     @Override
     public void put(Sha3Hash key, Transaction tx) {
-        lock.lock();
         try {
-            if (!containsUnlock(key)) {
-                pendingPool.put(key, tx);
-                if (pendingPool.containsKey(key)) {
-                    pendingKeys.add(key);
-                } else {
-                    log.debug("unconfirmedTxs size={}, ignore key={}", pendingKeys.size(), key);
-                }
+            if (db.get(key.getBytes()) == null && !pendingPool.add(tx)) {
+                log.debug("unconfirmedTxs size={}, ignore key={}", pendingPool.size(), key);
             }
         } catch (Exception e) {
             log.warn("put() is failed. {} {}", e.getMessage(), key.toString());
-        } finally {
-            lock.unlock();
         }
     }
 
@@ -149,77 +124,116 @@ public class TransactionStore implements ReadWriterStore<Sha3Hash, Transaction>
             return;
         }
 
-        lock.lock();
-        try {
-            Map<Sha3Hash, Transaction> map = pendingPool.getAll(keys);
-            for (Map.Entry<Sha3Hash, Transaction> entry : map.entrySet()) {
-                Transaction foundTx = entry.getValue();
-                if (foundTx != null) {
-                    db.put(entry.getKey().getBytes(), foundTx.toBinary());
-                    addReadCache(foundTx);
-                }
+        List<Transaction> committing = committingTxs.get();
+        Map<byte[], byte[]> rows = new HashMap<>();
+        List<Transaction> foundTxs = new ArrayList<>();
+        for (Sha3Hash key : keys) {
+            Transaction foundTx = committing != null ? pendingPool.get(key) : pendingPool.remove(key);
+            if (foundTx != null) {
+                rows.put(key.getBytes(), foundTx.toBinary());
+                foundTxs.add(foundTx);
             }
-            this.flush(keys);
-        } finally {
-            lock.unlock();
+        }
+        db.updateByBatch(rows);
+        log.trace("flushSize={} remainPendingSize={}", keys.size(), pendingPool.size());
+
+        if (committing != null) {
+            committing.addAll(foundTxs);
+        } else {
+            addToReadCache(foundTxs);
         }
     }
 
-    private void addReadCache(Transaction tx) {
-        readCache.add(tx);
+    /**
+     * Keep the transactions batched by the current thread in the pool until commitBatch()
+     */
+    public void startBatch() {
+        committingTxs.set(new ArrayList<>());
     }
 
+    /**
+     * Remove the transactions of the committed block from the pool
+     */
+    public void commitBatch() {
+        List<Transaction> committing = committingTxs.get();
+        committingTxs.remove();
+        if (committing == null) {
+            return;
+        }
+        committing.forEach(tx -> pendingPool.remove(tx.getHash()));
+        addToReadCache(committing);
+    }
 
-    public List<Transaction> getUnconfirmedTxsWithLimit(long limit) {
+    /**
+     * Keep the transactions of the block which is failed to commit in the pool
+     */
+    public void discardBatch() {
+        committingTxs.remove();
+    }
+
+    private void addToReadCache(List<Transaction> txs) {
         lock.lock();
         try {
-            long bodySizeSum = 0;
-            List<Transaction> unconfirmedTxs = new ArrayList<>(pendingKeys.size());
-            for (Sha3Hash key : pendingKeys) {
-                Transaction tx = pendingPool.get(key);
-                if (tx != null) {
-                    bodySizeSum += tx.getLength();
-                    if (bodySizeSum > limit) {
-                        break;
-                    }
-                    unconfirmedTxs.add(tx);
-                }
-            }
-            return unconfirmedTxs;
+            readCache.addAll(txs);
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Get the pending transactions of the block candidate
+     *
+     * @param limit the limit of the sum of the transaction length
+     * @return the transactions in order of the priority
+     */
+    public List<Transaction> getUnconfirmedTxsWithLimit(long limit) {
+        return pendingPool.getBest(limit);
+    }
+
     public Collection<Transaction> getUnconfirmedTxs() {
-        lock.lock();
-        try {
-            Collection<Transaction> unconfirmedTxs = getTransactionList();
-            if (!unconfirmedTxs.isEmpty()) {
-                log.trace("unconfirmedKeys={} unconfirmedTxs={}", pendingKeys.size(), unconfirmedTxs.size());
-            }
-            return unconfirmedTxs;
-        } finally {
-            lock.unlock();
+        Collection<Transaction> unconfirmedTxs = pendingPool.getBest(Long.MAX_VALUE);
+        if (!unconfirmedTxs.isEmpty()) {
+            log.trace("unconfirmedTxs={}", unconfirmedTxs.size());
         }
+        return unconfirmedTxs;
     }
 
     public int getUnconfirmedTxsSize() {
-        return this.pendingKeys.size();
+        return pendingPool.size();
+    }
+
+    public void flush(Set<Sha3Hash> keys) {
+        for (Sha3Hash key : keys) {
+            pendingPool.remove(key);
+        }
+        log.trace("flushSize={} remainPendingSize={}", keys.size(), pendingPool.size());
     }
 
-    private List<Transaction> getTransactionList() {
-        List<Transaction> unconfirmedTxs = new ArrayList<>();
-        for (Sha3Hash key : pendingKeys) {
-            unconfirmedTxs.add(pendingPool.get(key));
+    public int getCacheCapacity() {
+        lock.lock();
+        try {
+            return readCache.size() + readCache.remainingCapacity();
+        } finally {
+            lock.unlock();
         }
-        return unconfirmedTxs;
     }
 
-    public void flush(Set<Sha3Hash> keys) {
-        pendingPool.removeAll(keys);
-        pendingKeys.removeAll(keys);
-        log.trace("flushSize={} remainPendingSize={}", keys.size(), pendingKeys.size());
+    /**
+     * Fill the cache with the transactions confirmed before the cached ones,
+     * which are loaded after the cache is updated by the new blocks.
+     *
+     * @param txs the older transactions in order of the confirmation
+     */
+    public void warmUpCache(List<Transaction> txs) {
+        lock.lock();
+        try {
+            EvictingQueue<Transaction> cache = EvictingQueue.create(getCacheCapacity());
+            cache.addAll(txs);
+            cache.addAll(readCache);
+            this.readCache = cache;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public void updateCache(Block block) {
@@ -26,6 +26,7 @@ import io.yggdrash.common.config.DefaultConfig;
 import io.yggdrash.common.crypto.ECKey;
 import io.yggdrash.common.crypto.HashUtil;
 import io.yggdrash.common.crypto.HexUtil;
+import io.yggdrash.common.crypto.SignatureVerifier;
 import io.yggdrash.common.utils.ByteUtil;
 import io.yggdrash.common.utils.FileUtil;
 import io.yggdrash.common.utils.JsonUtil;
@@ -42,7 +43,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.PosixFilePermission;
 import java.security.SecureRandom;
-import java.security.SignatureException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -365,34 +365,21 @@ public class Wallet {
      * @return verification result
      */
     public static boolean verify(byte[] data, byte[] signature, boolean hashed, byte[] pubKey) {
-        ECKey.ECDSASignature ecdsaSignature = new ECKey.ECDSASignature(signature);
         byte[] hashedData = hashed ? data : HashUtil.sha3(data);
-        ECKey ecKeyPub;
-        try {
-            ecKeyPub = ECKey.signatureToKey(hashedData, ecdsaSignature);
-        } catch (SignatureException e) {
-            log.debug("Invalid signature");
-            return false;
-        }
+        byte[] recoveredPubKey = SignatureVerifier.recoverPubKey(hashedData, signature);
 
         //todo: check pubkey
-        if (pubKey != null && !Arrays.equals(ecKeyPub.getPubKey(), pubKey)) {
+        if (recoveredPubKey == null || (pubKey != null && !Arrays.equals(recoveredPubKey, pubKey))) {
             log.debug("Invalid signature");
             return false;
         }
 
-        return ecKeyPub.verify(hashedData, ecdsaSignature);
+        return true;
     }
 
     public static byte[] calculatePubKey(byte[] data, byte[] signature, boolean hashed) {
-        ECKey.ECDSASignature ecdsaSignature = new ECKey.ECDSASignature(signature);
         byte[] hashedData = hashed ? data : HashUtil.sha3(data);
-        try {
-            return ECKey.signatureToKey(hashedData, ecdsaSignature).getPubKey();
-        } catch (SignatureException e) {
-            log.debug("Invalid signature", e.getMessage());
-            return null;
-        }
+        return SignatureVerifier.recoverPubKey(hashedData, signature);
     }
 
     public static byte[] calculateAddress(byte[] publicKey) {
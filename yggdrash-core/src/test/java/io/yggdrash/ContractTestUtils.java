@@ -69,7 +69,11 @@ import static io.yggdrash.common.config.Constants.BASE_CURRENCY;
 public class ContractTestUtils {
 
     public static Map<ContractManager, ContractStore> createContractManager(GenesisBlock genesis) {
-        DefaultConfig config = new DefaultConfig();
+        return createContractManager(genesis, new DefaultConfig());
+    }
+
+    public static Map<ContractManager, ContractStore> createContractManager(
+            GenesisBlock genesis, DefaultConfig config) {
         BlockChainStore bcStore = BlockChainStoreBuilder.newBuilder(genesis.getBranchId())
                 .withDataBasePath(config.getDatabasePath())
                 .withProductionMode(config.isProductionMode())
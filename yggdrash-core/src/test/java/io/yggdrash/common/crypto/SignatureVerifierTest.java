@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package io.yggdrash.common.crypto;
+
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.TestConstants;
+import io.yggdrash.common.util.VerifierUtils;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.wallet.Wallet;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SignatureVerifierTest {
+
+    private final Wallet wallet = TestConstants.wallet();
+
+    @Test
+    public void recoveredPubKeyShouldBeSigner() {
+        byte[] hashedData = HashUtil.sha3("data".getBytes());
+        byte[] signature = wallet.sign(hashedData, true);
+
+        assertThat(SignatureVerifier.recoverPubKey(hashedData, signature)).isEqualTo(wallet.getPubicKey());
+        // from the cache
+        assertThat(SignatureVerifier.recoverPubKey(hashedData, signature)).isEqualTo(wallet.getPubicKey());
+        assertThat(SignatureVerifier.verify(hashedData, signature)).isTrue();
+    }
+
+    @Test
+    public void tamperedSignatureShouldNotRecoverSigner() {
+        byte[] hashedData = HashUtil.sha3("data".getBytes());
+        byte[] signature = wallet.sign(hashedData, true);
+        signature[signature.length - 1] ^= 0x01;
+
+        assertThat(SignatureVerifier.recoverPubKey(hashedData, signature)).isNotEqualTo(wallet.getPubicKey());
+        assertThat(Wallet.verify(hashedData, signature, true, wallet.getPubicKey())).isFalse();
+    }
+
+    @Test
+    public void invalidSignatureShouldNotBeVerified() {
+        byte[] hashedData = HashUtil.sha3("data".getBytes());
+        byte[] signature = wallet.sign(hashedData, true);
+        // invalid recovery header
+        signature[0] = 0;
+
+        assertThat(SignatureVerifier.recoverPubKey(hashedData, signature)).isNull();
+        assertThat(SignatureVerifier.verify(hashedData, signature)).isFalse();
+    }
+
+    @Test
+    public void transactionsShouldBeVerifiedInBatch() {
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            txs.add(BlockChainTestUtils.createTransferTx());
+        }
+        assertThat(VerifierUtils.verifySignatures(txs)).isTrue();
+
+        txs.add(BlockChainTestUtils.createInvalidTransferTx());
+        assertThat(VerifierUtils.verifySignatures(txs)).isFalse();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.trie;
+
+import io.yggdrash.common.store.datasource.HashMapDbSource;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.yggdrash.common.trie.MerklePatriciaTrie.EMPTY_ROOT;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class MerklePatriciaTrieTest {
+
+    private MerklePatriciaTrie trie;
+
+    @Before
+    public void setUp() {
+        trie = new MerklePatriciaTrie(new HashMapDbSource());
+    }
+
+    @Test
+    public void rootShouldNotDependOnWriteOrder() {
+        Map<byte[], byte[]> values = new LinkedHashMap<>();
+        Map<byte[], byte[]> reversed = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            values.put(("key" + i).getBytes(), ("value" + i).getBytes());
+            reversed.put(("key" + (99 - i)).getBytes(), ("value" + (99 - i)).getBytes());
+        }
+
+        byte[] root = trie.update(EMPTY_ROOT, values);
+        assertFalse(Arrays.equals(EMPTY_ROOT, root));
+        assertArrayEquals(root, trie.update(EMPTY_ROOT, reversed));
+
+        // Updating in two blocks results in the same root
+        Map<byte[], byte[]> first = new LinkedHashMap<>();
+        Map<byte[], byte[]> second = new LinkedHashMap<>();
+        values.forEach((key, value) -> (first.size() < 50 ? first : second).put(key, value));
+        byte[] firstRoot = trie.update(EMPTY_ROOT, first);
+        trie.commit(firstRoot);
+        assertArrayEquals(root, trie.update(firstRoot, second));
+    }
+
+    @Test
+    public void committedNodesShouldBeLoaded() {
+        byte[] root = trie.update(EMPTY_ROOT, singleValue("key", "value"));
+        trie.commit(root);
+
+        byte[] updated = trie.update(root, singleValue("key", "changed"));
+        trie.commit(updated);
+
+        assertArrayEquals("value".getBytes(), trie.get(root, "key".getBytes()));
+        assertArrayEquals("changed".getBytes(), trie.get(updated, "key".getBytes()));
+        assertNull(trie.get(updated, "unknown".getBytes()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void discardedNodesShouldNotBeLoaded() {
+        byte[] root = trie.update(EMPTY_ROOT, singleValue("key", "value"));
+        trie.commit(root);
+
+        byte[] discarded = trie.update(root, singleValue("key", "changed"));
+        trie.discard();
+
+        assertArrayEquals("value".getBytes(), trie.get(root, "key".getBytes()));
+        trie.get(discarded, "key".getBytes());
+    }
+
+    @Test
+    public void proofShouldBeVerified() {
+        Map<byte[], byte[]> values = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            values.put(("key" + i).getBytes(), ("value" + i).getBytes());
+        }
+        byte[] root = trie.update(EMPTY_ROOT, values);
+        trie.commit(root);
+
+        List<byte[]> proof = trie.getProof(root, "key7".getBytes());
+        assertArrayEquals("value7".getBytes(), MerklePatriciaTrie.verifyProof(root, "key7".getBytes(), proof));
+
+        // Absence of a key is proved as well
+        List<byte[]> absentProof = trie.getProof(root, "unknown".getBytes());
+        assertNull(MerklePatriciaTrie.verifyProof(root, "unknown".getBytes(), absentProof));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void proofOfOtherRootShouldBeRejected() {
+        byte[] root = trie.update(EMPTY_ROOT, singleValue("key", "value"));
+        byte[] otherRoot = trie.update(root, singleValue("key", "changed"));
+        trie.commit(otherRoot);
+
+        MerklePatriciaTrie.verifyProof(root, "key".getBytes(), trie.getProof(otherRoot, "key".getBytes()));
+    }
+
+    @Test
+    public void emptyTrie() {
+        assertArrayEquals(EMPTY_ROOT, trie.update(EMPTY_ROOT, new LinkedHashMap<>()));
+        assertEquals(0, trie.getProof(EMPTY_ROOT, "key".getBytes()).size());
+        assertNull(trie.get(EMPTY_ROOT, "key".getBytes()));
+    }
+
+    private Map<byte[], byte[]> singleValue(String key, String value) {
+        Map<byte[], byte[]> values = new LinkedHashMap<>();
+        values.put(key.getBytes(), value.getBytes());
+        return values;
+    }
+}
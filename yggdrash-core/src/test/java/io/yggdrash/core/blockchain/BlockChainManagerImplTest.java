@@ -27,16 +27,18 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class BlockChainManagerImplTest {
 
+    private BlockChainStore store;
     private BlockChainManagerImpl<PbftProto.PbftBlock> blockChainManager;
 
     @Before
     public void setUp() {
         BlockStoreFactory storeFactory = (consensusAlgorithm, dbSource) -> new PbftBlockStoreMock(dbSource);
-        BlockChainStore store = BlockChainStoreBuilder.newBuilder(BranchId.NULL)
+        store = BlockChainStoreBuilder.newBuilder(BranchId.NULL)
                 .withProductionMode(false)
                 .withDataBasePath(null)
                 .setBlockStoreFactory(storeFactory)
@@ -94,6 +96,12 @@ public class BlockChainManagerImplTest {
         assertEquals(0, blockChainManager.getUnconfirmedTxs().size());
         assertEquals(10, blockChainManager.getRecentTxs().size());
 
+        List<Transaction> txList = block.getBody().getTransactionList();
+        for (int i = 0; i < txList.size(); i++) {
+            assertEquals(new TransactionLocation(1, block.getHash(), i),
+                    blockChainManager.getTxLocation(txList.get(i).getHash()));
+        }
+
         assertEquals(32004, blockChainManager.verify(block)); //blockHeight > blockHash, duplicated
         block.getBlock().getBody().getTransactionList().add(BlockChainTestUtils.createTransferTx());
         assertEquals(32004, blockChainManager.verify(block)); // blockHeight > + invalid format, invalid merkleRoot
@@ -106,6 +114,44 @@ public class BlockChainManagerImplTest {
         assertEquals(20, blockChainManager.getRecentTxs().size()); //invalid tx was excluded
     }
 
+    @Test
+    public void rebuildTxIndexTest() {
+        // The blocks stored before the transaction index was introduced
+        ConsensusBlock<PbftProto.PbftBlock> genesisBlock = BlockChainTestUtils.genesisBlock();
+        store.getConsensusBlockStore().addBlock(genesisBlock);
+        store.getBranchStore().setBestBlock(genesisBlock);
+
+        Transaction tx = genesisBlock.getBody().getTransactionList().get(1);
+        assertNull(blockChainManager.getTxLocation(tx.getHash()));
+
+        blockChainManager.loadTransaction();
+        assertEquals(new TransactionLocation(0, genesisBlock.getHash(), 1),
+                blockChainManager.getTxLocation(tx.getHash()));
+    }
+
+    @Test
+    public void shouldBeLoadedFromCheckpoint() throws InterruptedException {
+        ConsensusBlock<PbftProto.PbftBlock> genesisBlock = BlockChainTestUtils.genesisBlock();
+        blockChainManager.addBlock(genesisBlock);
+        ConsensusBlock<PbftProto.PbftBlock> block = generateBlockWithTxs(true);
+        // The best block is set before the block is stored, as BlockChainImpl does
+        store.getBranchStore().setBestBlock(block);
+        blockChainManager.addBlock(block);
+        assertEquals(1L, (long) store.getBranchStore().getLastConfirmedBlockIndex());
+
+        // Restart with the stored blocks
+        BlockChainManagerImpl<PbftProto.PbftBlock> restarted = new BlockChainManagerImpl<>(store);
+        restarted.loadTransaction();
+        assertEquals(block, restarted.getLastConfirmedBlock());
+
+        // The cache is filled with the txs of the stored blocks in the background
+        List<Transaction> genesisTxs = genesisBlock.getBody().getTransactionList();
+        for (int i = 0; i < 50 && !restarted.getRecentTxs().containsAll(genesisTxs); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(restarted.getRecentTxs().containsAll(genesisTxs));
+    }
+
     private ConsensusBlock<PbftProto.PbftBlock> generateBlockWithTxs(Boolean valid) {
         for (int i = 0; i < 10; i++) {
             blockChainManager.addTransaction(BlockChainTestUtils.createTransferTx());
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package io.yggdrash.core.blockchain;
+
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.p2p.BlockChainHandler;
+import io.yggdrash.core.p2p.PeerHandlerMock;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BlockRangeSchedulerTest {
+
+    private static BlockChain peerBlockChain;
+    private static BlockChain emptyBlockChain;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @BeforeClass
+    public static void setUp() {
+        peerBlockChain = BlockChainTestUtils.createBlockChain(false);
+        BlockChainTestUtils.setBlockHeightOfBlockChain(peerBlockChain, 10);
+        emptyBlockChain = BlockChainTestUtils.createBlockChain(false);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void chunksShouldBeHandedOverInOrder() throws InterruptedException {
+        List<BlockChainHandler> peerHandlers = Arrays.asList(
+                PeerHandlerMock.servingBlocksOf(peerBlockChain, 2),
+                PeerHandlerMock.servingBlocksOf(peerBlockChain, 1),
+                // The failing peer is not assigned any more and its chunks are downloaded by the others
+                PeerHandlerMock.servingBlocksOf(emptyBlockChain, 2));
+        BlockRangeScheduler scheduler = new BlockRangeScheduler(BranchId.NULL, peerHandlers, 1, 10, 3);
+        scheduler.start(executor);
+
+        List<Long> indexes = new ArrayList<>();
+        List<ConsensusBlock> blockList;
+        while ((blockList = scheduler.next()) != null) {
+            blockList.forEach(block -> indexes.add(block.getIndex()));
+        }
+        scheduler.stop();
+
+        assertThat(scheduler.isCompleted()).isTrue();
+        assertThat(indexes).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    public void shouldNotBeCompletedWithoutHealthyPeers() throws InterruptedException {
+        List<BlockChainHandler> peerHandlers =
+                Collections.singletonList(PeerHandlerMock.servingBlocksOf(emptyBlockChain, 2));
+        BlockRangeScheduler scheduler = new BlockRangeScheduler(BranchId.NULL, peerHandlers, 1, 10, 3);
+        scheduler.start(executor);
+
+        assertThat(scheduler.next()).isNull();
+        assertThat(scheduler.isCompleted()).isFalse();
+        scheduler.stop();
+    }
+}
@@ -19,7 +19,9 @@ package io.yggdrash.core.blockchain;
 import com.google.gson.JsonObject;
 import io.yggdrash.BlockChainTestUtils;
 import io.yggdrash.TestConstants;
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.contract.ContractVersion;
+import io.yggdrash.common.trie.MerklePatriciaTrie;
 import io.yggdrash.contract.core.ExecuteStatus;
 import io.yggdrash.contract.core.Receipt;
 import io.yggdrash.core.blockchain.osgi.ContractManager;
@@ -171,6 +173,17 @@ public class BranchGroupTest {
         }
     }
 
+    @Test
+    public void getStateProof() {
+        BranchId branchId = tx.getBranchId();
+        Sha3Hash stateRoot = branchGroup.getBranch(branchId).getContractManager().getOriginStateRootHash();
+
+        // The genesis state proves that the key does not exist
+        List<byte[]> proof = branchGroup.getStateProof(branchId, "unknown");
+        assertThat(proof).isNotEmpty();
+        Assert.assertNull(MerklePatriciaTrie.verifyProof(stateRoot.getBytes(), "unknown".getBytes(), proof));
+    }
+
     @Test
     public void specificBlockHeightOfBlockChain() {
         addMultipleBlock(block);
@@ -1,11 +1,19 @@
 package io.yggdrash.core.blockchain.osgi;
 
+import com.google.gson.JsonObject;
+import io.yggdrash.contract.core.channel.ContractMethodType;
 import io.yggdrash.core.contract.TestContract;
 import org.junit.Before;
 import org.junit.Test;
+
+import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
 public class ContractChannelCouplerTest {
 
     ContractCache cache;
@@ -58,5 +66,27 @@ public class ContractChannelCouplerTest {
 
     }
 
+    @Test
+    public void callResultTest() {
+        ContractChannelCoupler coupler = new ContractChannelCoupler();
+        coupler.setContract(contractMap, cache);
+
+        JsonObject param = new JsonObject();
+        param.addProperty("from", "FROM_ACCOUNT");
+        param.addProperty("to", "TO_ACCOUNT");
+        param.addProperty("amount", BigInteger.valueOf(100L));
+        param.addProperty("fee", BigInteger.valueOf(1L));
+
+        // The result that is not a JsonObject is wrapped in the "result" field
+        assertTrue(coupler.call("TEST1", ContractMethodType.CHANNEL_METHOD, "transferChannel", param)
+                .get("result").getAsBoolean());
+        // The method without the parameter ignores the params
+        assertEquals("", coupler.call("TEST1", ContractMethodType.QUERY, "someQuery", param)
+                .get("result").getAsString());
+        assertNull(coupler.call("TEST1", ContractMethodType.QUERY, "unknownQuery", param));
+        assertEquals("YES", coupler.call("TEST1", ContractMethodType.QUERY, "yesmanQuery", param)
+                .get("result").getAsString());
+    }
+
 
 }
\ No newline at end of file
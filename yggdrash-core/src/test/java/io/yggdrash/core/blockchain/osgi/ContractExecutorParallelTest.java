@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package io.yggdrash.core.blockchain.osgi;
+
+import com.typesafe.config.ConfigFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.ContractTestUtils;
+import io.yggdrash.TestConstants;
+import io.yggdrash.common.config.DefaultConfig;
+import io.yggdrash.contract.core.ExecuteStatus;
+import io.yggdrash.contract.core.Receipt;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.runtime.result.BlockRuntimeResult;
+import io.yggdrash.core.wallet.Wallet;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.yggdrash.common.config.Constants.BASE_CURRENCY;
+import static org.junit.Assert.assertEquals;
+
+public class ContractExecutorParallelTest {
+
+    private ContractManager serialManager;
+    private ContractManager parallelManager;
+
+    @Before
+    public void setUp() {
+        serialManager = createContractManager(1);
+        parallelManager = createContractManager(4);
+    }
+
+    @Test
+    public void parallelExecutionShouldBeSameAsSerial() {
+        // The validator set of DPoA changed by the genesis block is written when the overlay is applied
+        BlockRuntimeResult serialGenesis = serialManager.executeTxs(BlockChainTestUtils.genesisBlock());
+        BlockRuntimeResult parallelGenesis = parallelManager.executeTxs(BlockChainTestUtils.genesisBlock());
+        assertSameResult(serialGenesis, parallelGenesis);
+        serialManager.commitBlockResult(serialGenesis);
+        parallelManager.commitBlockResult(parallelGenesis);
+
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            // Conflicting transfers of the same sender
+            txs.add(BlockChainTestUtils.createTransferTx(TestConstants.TRANSFER_TO, BigInteger.valueOf(100 + i)));
+            // Failed transfers of an account without balance
+            txs.add(BlockChainTestUtils.buildTx(
+                    ContractTestUtils.transferTxBodyJson(TestConstants.TRANSFER_TO, BigInteger.valueOf(100 + i)),
+                    TestConstants.wallet(), TestConstants.yggdrash()));
+        }
+
+        BlockRuntimeResult serialResult = serialManager.executeTxs(txs);
+        BlockRuntimeResult parallelResult = parallelManager.executeTxs(txs);
+        assertSameResult(serialResult, parallelResult);
+        assertEquals(serialManager.getOriginStateRootHash(), parallelManager.getOriginStateRootHash());
+    }
+
+    @Test
+    public void disjointTransfersShouldNotBeExecutedAgain() throws Exception {
+        BlockRuntimeResult serialGenesis = serialManager.executeTxs(BlockChainTestUtils.genesisBlock());
+        BlockRuntimeResult parallelGenesis = parallelManager.executeTxs(BlockChainTestUtils.genesisBlock());
+        serialManager.commitBlockResult(serialGenesis);
+        parallelManager.commitBlockResult(parallelGenesis);
+
+        // Fund the senders, the transfers of the same sender conflict
+        List<Wallet> senders = new ArrayList<>();
+        senders.add(TestConstants.transferWallet());
+        List<Transaction> funding = new ArrayList<>();
+        for (String key : new String[] {"047269a50640ed2b0d45d461488c13abad1e0fac",
+                "2ee2eb80c93d031147c21ba8e2e0f0f4a33f5312", "51e2128e8deb622c2ec6dc38f9d895f0be044eb4"}) {
+            Wallet sender = new Wallet(getClass().getResource("/keys/" + key + ".json").getFile(), "Aa1234567890!");
+            senders.add(sender);
+            funding.add(BlockChainTestUtils.createTransferTx(sender.getHexAddress(), BASE_CURRENCY));
+        }
+        BlockRuntimeResult serialFunding = serialManager.executeTxs(funding);
+        BlockRuntimeResult parallelFunding = parallelManager.executeTxs(funding);
+        assertSameResult(serialFunding, parallelFunding);
+        serialManager.commitBlockResult(serialFunding);
+        parallelManager.commitBlockResult(parallelFunding);
+
+        // Every transfer credits the fee of the same branch account
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < senders.size(); i++) {
+            txs.add(BlockChainTestUtils.buildTx(
+                    ContractTestUtils.transferTxBodyJson("a" + i, BigInteger.valueOf(100 + i)),
+                    senders.get(i), TestConstants.yggdrash()));
+        }
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            BlockRuntimeResult serialResult = serialManager.executeTxs(txs);
+            double reExecuted = registry.counter("yggdrash.contract.reexecution").count();
+            BlockRuntimeResult parallelResult = parallelManager.executeTxs(txs);
+
+            assertEquals(reExecuted, registry.counter("yggdrash.contract.reexecution").count(), 0);
+            assertSameResult(serialResult, parallelResult);
+            for (Receipt receipt : parallelResult.getReceipts()) {
+                assertEquals(ExecuteStatus.SUCCESS, receipt.getStatus());
+            }
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+
+    private void assertSameResult(BlockRuntimeResult expected, BlockRuntimeResult actual) {
+        assertEquals(expected.getBlockResult(), actual.getBlockResult());
+        assertEquals(expected.getReceipts().size(), actual.getReceipts().size());
+        for (int i = 0; i < expected.getReceipts().size(); i++) {
+            Receipt expectedReceipt = expected.getReceipts().get(i);
+            Receipt actualReceipt = actual.getReceipts().get(i);
+            assertEquals(expectedReceipt.getTxId(), actualReceipt.getTxId());
+            assertEquals(expectedReceipt.getStatus(), actualReceipt.getStatus());
+            assertEquals(expectedReceipt.getLog(), actualReceipt.getLog());
+        }
+    }
+
+    private ContractManager createContractManager(int executorThreads) {
+        DefaultConfig config = new DefaultConfig(
+                ConfigFactory.parseString("yggdrash.contract.executor.threads = " + executorThreads));
+        return ContractTestUtils.createContractManager(BlockChainTestUtils.getGenesis(), config)
+                .keySet().stream().findFirst().get();
+    }
+}
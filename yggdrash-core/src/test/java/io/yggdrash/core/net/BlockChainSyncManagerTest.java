@@ -20,6 +20,8 @@ import io.yggdrash.core.blockchain.BlockChain;
 import io.yggdrash.core.blockchain.BlockChainManager;
 import io.yggdrash.core.blockchain.BlockChainSyncManager;
 import io.yggdrash.core.blockchain.Branch;
+import io.yggdrash.core.blockchain.BranchGroup;
+import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.genesis.GenesisBlock;
 import io.yggdrash.core.p2p.BlockChainHandler;
 import io.yggdrash.core.p2p.PeerHandlerMock;
@@ -30,6 +32,11 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class BlockChainSyncManagerTest {
@@ -60,6 +67,64 @@ public class BlockChainSyncManagerTest {
         assertThat(blockChainManager.getLastIndex()).isEqualTo(33);
     }
 
+    @Test
+    public void syncBlockWithPipeline() {
+        BlockChain peerBlockChain = BlockChainTestUtils.createBlockChain(false);
+        BlockChainTestUtils.setBlockHeightOfBlockChain(peerBlockChain, 10);
+        // More batches than the prefetched ones
+        BlockChainHandler peerHandler = PeerHandlerMock.servingBlocksOf(peerBlockChain, 2);
+
+        assertThat(syncManager.syncBlock(peerHandler, blockChain)).isTrue();
+        assertThat(blockChainManager.getLastIndex()).isEqualTo(10);
+        assertThat(blockChainManager.getLastHash()).isEqualTo(peerBlockChain.getBlockChainManager().getLastHash());
+    }
+
+    @Test
+    public void syncBlockShouldStopAtUnlinkedBlock() {
+        BlockChain peerBlockChain = BlockChainTestUtils.createBlockChain(false);
+        BlockChainTestUtils.setBlockHeightOfBlockChain(peerBlockChain, 10);
+        BlockChainTestUtils.setBlockHeightOfBlockChain(blockChain, 2);
+        BlockChainHandler peerHandler = PeerHandlerMock.servingBlocksOf(peerBlockChain, 3);
+
+        // The blocks of the peer are not linked to the last block of the blockChain
+        assertThat(syncManager.syncBlock(peerHandler, blockChain)).isFalse();
+        assertThat(blockChainManager.getLastIndex()).isEqualTo(2);
+    }
+
+    @Test
+    public void catchUpRangeShouldNotHoldTheCaller() throws InterruptedException {
+        BranchGroup branchGroup = BlockChainTestUtils.createBranchGroup();
+        BlockChain localBlockChain = branchGroup.getAllBranch().iterator().next();
+        BlockChain peerBlockChain = BlockChainTestUtils.createBlockChain(false);
+        BlockChainTestUtils.setBlockHeightOfBlockChain(peerBlockChain, 10);
+        CountDownLatch peerReady = new CountDownLatch(1);
+        PeerNetwork peerNetwork = new PeerNetworkMock() {
+            @Override
+            public List<BlockChainHandler> getHandlerList(BranchId branchId) {
+                try {
+                    peerReady.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Collections.singletonList(PeerHandlerMock.servingBlocksOf(peerBlockChain, 2));
+            }
+        };
+        BlockChainSyncManager catchUpManager = new BlockChainSyncManager(NodeStatusMock.create(), peerNetwork,
+                branchGroup, BlockChainSyncManagerMock.peerTableGroup);
+
+        // Returns while the range is synced
+        catchUpManager.catchUpRequest(localBlockChain.getBranchId(), 1, 5);
+        assertThat(localBlockChain.getBlockChainManager().getLastIndex()).isEqualTo(0);
+        peerReady.countDown();
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (localBlockChain.getBlockChainManager().getLastIndex() < 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // The blocks above the range are not downloaded
+        assertThat(localBlockChain.getBlockChainManager().getLastIndex()).isEqualTo(5);
+    }
+
     @Ignore
     @Test
     public void syncBlockFailed() {
@@ -7,14 +7,17 @@ import io.yggdrash.core.blockchain.BlockChainManager;
 import io.yggdrash.core.blockchain.BranchGroup;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.p2p.Peer;
 import io.yggdrash.proto.PbftProto;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 public class BlockServiceConsumerTest {
     private BranchGroup branchGroup;
@@ -81,4 +84,61 @@ public class BlockServiceConsumerTest {
 
         assertEquals(1, branchGroup.getBranch(branchId).getBlockChainManager().getLastIndex());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void pendingBlocksShouldBeAddedWhenGapIsClosed() {
+        List<ConsensusBlock<PbftProto.PbftBlock>> blockList = BlockChainTestUtils.createBlockListWithoutTxs(3, null);
+
+        blockServiceConsumer.broadcastBlock(blockList.get(2));
+        blockServiceConsumer.broadcastBlock(blockList.get(1));
+        assertEquals(0, blockChainManager.getLastIndex());
+
+        blockServiceConsumer.broadcastBlock(blockList.get(0));
+        assertEquals(3, blockChainManager.getLastIndex());
+    }
+
+    @Test
+    public void onlyMissingBlocksShouldBeRequested() throws InterruptedException {
+        List<ConsensusBlock<PbftProto.PbftBlock>> blockList = BlockChainTestUtils.createBlockListWithoutTxs(3, null);
+        List<long[]> requested = new ArrayList<>();
+        List<Thread> requestingThreads = new ArrayList<>();
+        BlockServiceConsumer<PbftProto.PbftBlock> consumer = new BlockServiceConsumer<>(branchGroup, 0, 10);
+        consumer.setListener(new CatchUpSyncEventListener() {
+            @Override
+            public void catchUpRequest(ConsensusBlock block) {
+            }
+
+            @Override
+            public void catchUpRequest(BranchId branchId, long offset) {
+            }
+
+            @Override
+            public void catchUpRequest(BranchId branchId, long fromIndex, long toIndex) {
+                requested.add(new long[] {fromIndex, toIndex});
+                requestingThreads.add(Thread.currentThread());
+                // The missing blocks are downloaded
+                for (long i = fromIndex; i <= toIndex; i++) {
+                    branch.addBlock(blockList.get((int) i - 1), false);
+                }
+            }
+
+            @Override
+            public void catchUpRequest(BranchId branchId, Peer from) {
+            }
+        });
+
+        consumer.broadcastBlock(blockList.get(2));
+
+        // The gap is requested by the timer, even though no other block is broadcast
+        long deadline = System.currentTimeMillis() + 5000;
+        while (blockChainManager.getLastIndex() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, requested.size());
+        Assert.assertArrayEquals(new long[] {1, 2}, requested.get(0));
+        assertNotEquals(Thread.currentThread(), requestingThreads.get(0));
+        // The pending block is added after the gap is closed
+        assertEquals(3, blockChainManager.getLastIndex());
+    }
+}
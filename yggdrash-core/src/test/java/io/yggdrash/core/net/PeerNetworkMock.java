@@ -16,6 +16,7 @@
 
 package io.yggdrash.core.net;
 
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.consensus.ConsensusBlock;
@@ -51,6 +52,10 @@ public class PeerNetworkMock implements PeerNetwork {
         return PeerHandlerMock.dummy(null, Peer.valueOf("ynode://75bff16c@127.0.0.1:32930"));
     }
 
+    @Override
+    public void receivedTxInventory(Peer from, List<Sha3Hash> txHashes) {
+    }
+
     @Override
     public void receivedTransaction(Transaction tx) {
     }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.p2p;
+
+import com.google.protobuf.ByteString;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.yggdrash.common.config.Constants.Limit;
+import io.yggdrash.proto.CommonProto;
+import io.yggdrash.proto.PbftServiceGrpc;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BlockBinaryStreamTest {
+
+    private static final String SERVER_NAME = "blockBinaryStreamTest";
+
+    // The stored binaries by the index
+    private final List<byte[]> binaries = new ArrayList<>();
+
+    private Server server;
+    private ManagedChannel channel;
+    private PbftServiceGrpc.PbftServiceBlockingStub blockingStub;
+
+    @Before
+    public void setUp() throws IOException {
+        server = InProcessServerBuilder.forName(SERVER_NAME).directExecutor()
+                .addService(new PbftServiceGrpc.PbftServiceImplBase() {
+                    @Override
+                    public void streamPbftBlocks(CommonProto.Offset request,
+                                                 StreamObserver<CommonProto.BlockBinaryList> responseObserver) {
+                        BlockBinaryStream.start(responseObserver, request.getIndex(),
+                                request.getIndex() + request.getCount() - 1,
+                                BlockBinaryStreamTest.this::readBinaries);
+                    }
+                }).build().start();
+        channel = InProcessChannelBuilder.forName(SERVER_NAME).directExecutor().build();
+        blockingStub = PbftServiceGrpc.newBlockingStub(channel);
+    }
+
+    @After
+    public void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    public void blocksShouldBeStreamedInOrder() {
+        for (int i = 0; i < 10; i++) {
+            binaries.add(new byte[] {(byte) i});
+        }
+
+        List<ByteString> received = stream(2, 5);
+
+        assertThat(received).hasSize(5);
+        for (int i = 0; i < received.size(); i++) {
+            assertThat(received.get(i).toByteArray()).isEqualTo(binaries.get(i + 2));
+        }
+    }
+
+    @Test
+    public void streamShouldStopAtMissingBlock() {
+        for (int i = 0; i < 3; i++) {
+            binaries.add(new byte[] {(byte) i});
+        }
+
+        assertThat(stream(1, 10)).hasSize(2);
+        assertThat(stream(5, 10)).isEmpty();
+    }
+
+    @Test
+    public void messagesShouldNotExceedSyncSize() {
+        int blockSize = (int) (Limit.BLOCK_SYNC_SIZE / 2 - 1);
+        for (int i = 0; i < 5; i++) {
+            binaries.add(new byte[blockSize]);
+        }
+
+        List<CommonProto.BlockBinaryList> messages = new ArrayList<>();
+        blockingStub.streamPbftBlocks(offset(0, 5)).forEachRemaining(messages::add);
+
+        assertThat(messages).hasSize(3);
+        assertThat(messages.stream().mapToInt(CommonProto.BlockBinaryList::getBlocksCount).sum()).isEqualTo(5);
+        messages.forEach(message -> assertThat(message.getSerializedSize()).isLessThan(
+                (int) Limit.BLOCK_SYNC_SIZE + 100));
+    }
+
+    private List<byte[]> readBinaries(long fromIndex, long toIndex, long maxBytes) {
+        List<byte[]> read = new ArrayList<>();
+        long totalBytes = 0;
+        for (long index = fromIndex; index <= toIndex && index < binaries.size(); index++) {
+            byte[] binary = binaries.get((int) index);
+            if (!read.isEmpty() && totalBytes + binary.length > maxBytes) {
+                break;
+            }
+            read.add(binary);
+            totalBytes += binary.length;
+        }
+        return read;
+    }
+
+    private List<ByteString> stream(long index, long count) {
+        List<ByteString> received = new ArrayList<>();
+        blockingStub.streamPbftBlocks(offset(index, count))
+                .forEachRemaining(message -> received.addAll(message.getBlocksList()));
+        return received;
+    }
+
+    private static CommonProto.Offset offset(long index, long count) {
+        return CommonProto.Offset.newBuilder().setIndex(index).setCount(count).build();
+    }
+}
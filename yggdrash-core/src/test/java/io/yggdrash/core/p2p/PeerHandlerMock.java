@@ -18,6 +18,7 @@ package io.yggdrash.core.p2p;
 
 import io.grpc.ConnectivityState;
 import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.core.blockchain.BlockChain;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.consensus.ConsensusBlock;
@@ -40,6 +41,8 @@ public class PeerHandlerMock implements BlockChainHandler {
     private final Peer peer;
     private boolean pongResponse = true;
     private int failCount = 0;
+    private BlockChain blockSource;
+    private int batchSize;
 
     private PeerHandlerMock(String ynodeUri) {
         this.peer = Peer.valueOf(ynodeUri);
@@ -100,6 +103,15 @@ public class PeerHandlerMock implements BlockChainHandler {
         log.debug("[PeerHandlerMock] SyncBlock branchId={}, offset={}", branchId, offset);
 
         CompletableFuture<List<ConsensusBlock>> future = new CompletableFuture<>();
+        if (blockSource != null) {
+            List<ConsensusBlock> blockList = new ArrayList<>();
+            long lastIndex = Math.min(offset + batchSize - 1, blockSource.getBlockChainManager().getLastIndex());
+            for (long i = offset; i <= lastIndex; i++) {
+                blockList.add(blockSource.getBlockChainManager().getBlockByIndex(i));
+            }
+            future.complete(blockList);
+            return future;
+        }
 
         List<ConsensusBlock> tmp = new ArrayList<>();
         if (offset < 33) {
@@ -130,6 +142,11 @@ public class PeerHandlerMock implements BlockChainHandler {
     public void broadcastTx(Transaction tx) {
     }
 
+    @Override
+    public boolean announceTx(Peer owner, Transaction tx) {
+        return true;
+    }
+
     @Override
     public void setFailCount(int failCount) {
         this.failCount = failCount;
@@ -148,4 +165,15 @@ public class PeerHandlerMock implements BlockChainHandler {
         return new PeerHandlerMock(peer.getYnodeUri());
     }
 
+    /**
+     * The handler of a peer which serves the blocks of the blockChain in batches of the batchSize
+     */
+    public static BlockChainHandler servingBlocksOf(BlockChain blockChain, int batchSize) {
+        PeerHandlerMock handler = new PeerHandlerMock(OWNER.getYnodeUri());
+        handler.blockSource = blockChain;
+        handler.batchSize = batchSize;
+        handler.peer.setBestBlock(blockChain.getBlockChainManager().getLastIndex());
+        return handler;
+    }
+
 }
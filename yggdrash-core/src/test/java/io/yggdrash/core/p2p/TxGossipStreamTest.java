@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.p2p;
+
+import com.google.protobuf.ByteString;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.TestConstants;
+import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.proto.CommonProto;
+import io.yggdrash.proto.Proto;
+import io.yggdrash.proto.TransactionServiceGrpc;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TxGossipStreamTest {
+
+    private static final String SERVER_NAME = "txGossipStreamTest";
+    private static final String OWNER = "ynode://75bff16c@127.0.0.1:32918";
+
+    private final List<Proto.TransactionList> receivedBatches = new CopyOnWriteArrayList<>();
+    private final AtomicInteger openedStreams = new AtomicInteger();
+    private final List<StreamObserver<CommonProto.Empty>> serverResponses = new CopyOnWriteArrayList<>();
+    // The hashes the server holds already
+    private final Set<ByteString> heldHashes = ConcurrentHashMap.newKeySet();
+
+    private Server server;
+    private ManagedChannel channel;
+    private TxGossipStream txGossipStream;
+
+    @Before
+    public void setUp() throws IOException {
+        server = InProcessServerBuilder.forName(SERVER_NAME).directExecutor()
+                .addService(new TransactionServiceGrpc.TransactionServiceImplBase() {
+                    @Override
+                    public void announceTxs(Proto.TxInventory inventory,
+                                            StreamObserver<Proto.TxInventory> responseObserver) {
+                        Proto.TxInventory.Builder requested = Proto.TxInventory.newBuilder();
+                        inventory.getHashesList().stream()
+                                .filter(hash -> !heldHashes.contains(hash))
+                                .forEach(requested::addHashes);
+                        responseObserver.onNext(requested.build());
+                        responseObserver.onCompleted();
+                    }
+
+                    @Override
+                    public StreamObserver<Proto.TransactionList> broadcastTxList(
+                            StreamObserver<CommonProto.Empty> responseObserver) {
+                        openedStreams.incrementAndGet();
+                        serverResponses.add(responseObserver);
+                        return new StreamObserver<Proto.TransactionList>() {
+                            @Override
+                            public void onNext(Proto.TransactionList protoTxList) {
+                                receivedBatches.add(protoTxList);
+                            }
+
+                            @Override
+                            public void onError(Throwable t) {
+                            }
+
+                            @Override
+                            public void onCompleted() {
+                                responseObserver.onCompleted();
+                            }
+                        };
+                    }
+                }).build().start();
+        channel = InProcessChannelBuilder.forName(SERVER_NAME).directExecutor().build();
+        TransactionServiceGrpc.TransactionServiceStub stub = TransactionServiceGrpc.newStub(channel);
+        txGossipStream = new TxGossipStream(stub::broadcastTxList, stub::announceTxs, SERVER_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        txGossipStream.close();
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    public void txsShouldBeSentInBatchOnOneStream() throws InterruptedException {
+        Transaction tx = BlockChainTestUtils.createTransferTx();
+        for (int i = 0; i < 3; i++) {
+            txGossipStream.send(tx);
+        }
+
+        awaitReceived(3);
+        assertThat(receivedBatches).hasSize(1);
+        assertThat(openedStreams.get()).isEqualTo(1);
+
+        txGossipStream.send(tx);
+        awaitReceived(4);
+        assertThat(openedStreams.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void streamShouldBeReopenedAfterEnded() throws InterruptedException {
+        Transaction tx = BlockChainTestUtils.createTransferTx();
+        txGossipStream.send(tx);
+        awaitReceived(1);
+
+        // The peer ends the stream
+        serverResponses.get(0).onCompleted();
+
+        txGossipStream.send(tx);
+        awaitReceived(2);
+        assertThat(openedStreams.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void onlyRequestedTxsShouldBeSent() throws InterruptedException {
+        Transaction held = BlockChainTestUtils.createTransferTx(TestConstants.TRANSFER_TO, BigInteger.ONE);
+        Transaction notHeld = BlockChainTestUtils.createTransferTx(TestConstants.TRANSFER_TO, BigInteger.TEN);
+        heldHashes.add(ByteString.copyFrom(held.getHash().getBytes()));
+
+        txGossipStream.announce(OWNER, held);
+        txGossipStream.announce(OWNER, notHeld);
+
+        awaitReceived(1);
+        assertThat(receivedBatches.get(0).getTransactions(0)).isEqualTo(notHeld.getInstance());
+    }
+
+    @Test
+    public void txsShouldBeDroppedIfBufferIsFull() {
+        TxGossipStream unreachable = new TxGossipStream(responseObserver -> {
+            throw new FailedOperationException("Unreachable");
+        }, (inventory, responseObserver) -> {
+            throw new FailedOperationException("Unreachable");
+        }, "unreachable");
+        Transaction tx = BlockChainTestUtils.createTransferTx();
+
+        for (int i = 0; i < TxGossipStream.BUFFER_SIZE; i++) {
+            unreachable.send(tx);
+        }
+        assertThat(unreachable.send(tx)).isFalse();
+        assertThat(unreachable.getBufferSize()).isLessThanOrEqualTo(TxGossipStream.BUFFER_SIZE);
+        unreachable.close();
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (receivedCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(receivedCount()).isEqualTo(count);
+    }
+
+    private int receivedCount() {
+        return receivedBatches.stream().mapToInt(Proto.TransactionList::getTransactionsCount).sum();
+    }
+}
@@ -1,5 +1,6 @@
 package io.yggdrash.core.store;
 
+import com.google.gson.JsonObject;
 import io.yggdrash.BlockChainTestUtils;
 import io.yggdrash.common.config.DefaultConfig;
 import io.yggdrash.core.blockchain.BranchId;
@@ -8,6 +9,8 @@ import io.yggdrash.core.consensus.ConsensusBlock;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class BlockChainStoreBuilderTest {
@@ -35,6 +38,50 @@ public class BlockChainStoreBuilderTest {
         assertThat(store.getBestBlockHash()).isEqualTo(block.getHash());
     }
 
+    @Test
+    public void discardedWritesShouldNotBeKept() {
+        ConsensusBlock block = BlockChainTestUtils.genesisBlock();
+        JsonObject value = new JsonObject();
+        value.addProperty("balance", 100);
+        Transaction tx = BlockChainTestUtils.createTransferTx();
+        bcStore.getTransactionStore().addTransaction(tx);
+        long stateVersion = bcStore.getStateStore().getVersion();
+
+        bcStore.startBatch();
+        bcStore.getBranchStore().setBestBlock(block);
+        bcStore.getStateStore().updatePatch(Collections.singletonMap("account", value));
+        bcStore.getConsensusBlockStore().addBlock(block);
+        bcStore.getTransactionStore().batch(Collections.singleton(tx.getHash()));
+        assertThat(bcStore.getStateStore().contains("account")).isTrue();
+        bcStore.discardBatch();
+
+        // Neither the databases nor the values kept in memory have the writes
+        assertThat(bcStore.getBranchStore().getBestBlock()).isEqualTo(-1L);
+        assertThat(bcStore.getStateStore().contains("account")).isFalse();
+        assertThat(bcStore.getStateStore().getVersion()).isEqualTo(stateVersion);
+        assertThat(bcStore.getStateStore().getSnapshot().contains("account")).isFalse();
+        assertThat(bcStore.getConsensusBlockStore().contains(block.getHash())).isFalse();
+        assertThat(bcStore.getConsensusBlockStore().size()).isZero();
+        // The transactions of the block are kept in the pool
+        assertThat(bcStore.getTransactionStore().getUnconfirmedTxsSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void committedTxsShouldBeRemovedFromPool() {
+        Transaction tx = BlockChainTestUtils.createTransferTx();
+        TransactionStore store = bcStore.getTransactionStore();
+        store.addTransaction(tx);
+
+        bcStore.startBatch();
+        store.batch(Collections.singleton(tx.getHash()));
+        assertThat(store.getUnconfirmedTxsSize()).isEqualTo(1);
+        bcStore.commitBatch();
+
+        assertThat(store.getUnconfirmedTxsSize()).isZero();
+        assertThat(store.contains(tx.getHash())).isTrue();
+        assertThat(store.getRecentTxs()).containsExactly(tx);
+    }
+
     @Test
     public void buildBlockStore() {
         ConsensusBlock block = BlockChainTestUtils.genesisBlock();
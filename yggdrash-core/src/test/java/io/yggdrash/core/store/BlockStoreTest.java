@@ -18,13 +18,19 @@ package io.yggdrash.core.store;
 
 import io.yggdrash.BlockChainTestUtils;
 import io.yggdrash.StoreTestUtils;
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.crypto.HashUtil;
 import io.yggdrash.common.store.datasource.LevelDbDataSource;
+import io.yggdrash.common.utils.ByteUtil;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.proto.PbftProto;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class BlockStoreTest {
@@ -67,4 +73,86 @@ public class BlockStoreTest {
         assertThat(foundBlock).isEqualTo(block);
         assertThat(blockStore.size()).isEqualTo(1L);
     }
+
+    @Test
+    public void shouldBeGotBlocksByRange() {
+        List<ConsensusBlock<PbftProto.PbftBlock>> blocks = addBlocks(5);
+
+        List<ConsensusBlock<PbftProto.PbftBlock>> foundBlocks = blockStore.getBlocksByRange(1, 3);
+        assertThat(foundBlocks).containsExactlyElementsOf(blocks.subList(1, 4));
+        // The range ends at the last block
+        assertThat(blockStore.getBlocksByRange(3, 10)).hasSize(2);
+        assertThat(blockStore.getBlocksByRange(5, 10)).isEmpty();
+        assertThat(blockStore.getBlocksByRange(3, 1)).isEmpty();
+    }
+
+    @Test
+    public void shouldBeGotBlockBinariesByRange() {
+        List<ConsensusBlock<PbftProto.PbftBlock>> blocks = addBlocks(3);
+        long blockSize = blocks.get(1).toBinary().length;
+
+        List<byte[]> binaries = blockStore.getBlockBinariesByRange(0, 2, Long.MAX_VALUE);
+        assertThat(binaries).hasSize(3);
+        assertThat(binaries.get(1)).isEqualTo(blocks.get(1).toBinary());
+        // A single block is read even if it exceeds the size
+        assertThat(blockStore.getBlockBinariesByRange(1, 2, 1)).hasSize(1);
+        assertThat(blockStore.getBlockBinariesByRange(1, 2, blockSize)).hasSize(1);
+        assertThat(blockStore.getBlockBinariesByRange(3, 5, Long.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    public void legacyBlocksShouldBeMigrated() {
+        blockStore.close();
+        LevelDbDataSource ds = new LevelDbDataSource(StoreTestUtils.getTestPath(), "legacy-block-store-test");
+        ds.init();
+        List<ConsensusBlock<PbftProto.PbftBlock>> blocks = createBlocks(3);
+        for (ConsensusBlock<PbftProto.PbftBlock> block : blocks) {
+            byte[] indexKey = HashUtil.sha3(("BLOCK_INDEX_" + block.getIndex()).getBytes());
+            ds.put(block.getHash().getBytes(), block.toBinary());
+            ds.put(indexKey, block.getHash().getBytes());
+        }
+        ds.put(Constants.LEVELDB_SIZE_KEY, ByteUtil.longToBytes(blocks.size()));
+        ds.close();
+
+        blockStore = new PbftBlockStoreMock(
+                new LevelDbDataSource(StoreTestUtils.getTestPath(), "legacy-block-store-test"));
+
+        assertThat(blockStore.size()).isEqualTo(3L);
+        assertThat(blockStore.get(blocks.get(2).getHash())).isEqualTo(blocks.get(2));
+        assertThat(blockStore.getBlocksByRange(0, 2)).containsExactlyElementsOf(blocks);
+    }
+
+    @Test
+    public void blockShouldBeCountedOnceWhenOnlyHashIsMissing() {
+        blockStore.close();
+        LevelDbDataSource ds = new LevelDbDataSource(StoreTestUtils.getTestPath(), "hash-missing-block-store-test");
+        blockStore = new PbftBlockStoreMock(ds);
+        ConsensusBlock<PbftProto.PbftBlock> block = BlockChainTestUtils.genesisBlock();
+        blockStore.put(block.getHash(), block);
+
+        // The same block is put again after its hash row is lost
+        ds.delete(ByteUtil.merge(new byte[] {'h'}, block.getHash().getBytes()));
+        assertThat(blockStore.contains(block.getHash())).isFalse();
+        blockStore.put(block.getHash(), block);
+
+        assertThat(blockStore.contains(block.getHash())).isTrue();
+        assertThat(blockStore.size()).isEqualTo(1L);
+        blockStore.close();
+        blockStore = new PbftBlockStoreMock(
+                new LevelDbDataSource(StoreTestUtils.getTestPath(), "hash-missing-block-store-test"));
+        assertThat(blockStore.size()).isEqualTo(1L);
+    }
+
+    private List<ConsensusBlock<PbftProto.PbftBlock>> addBlocks(int count) {
+        List<ConsensusBlock<PbftProto.PbftBlock>> blocks = createBlocks(count);
+        blocks.forEach(blockStore::addBlock);
+        return blocks;
+    }
+
+    private static List<ConsensusBlock<PbftProto.PbftBlock>> createBlocks(int count) {
+        List<ConsensusBlock<PbftProto.PbftBlock>> blocks = new ArrayList<>();
+        blocks.add(BlockChainTestUtils.genesisBlock());
+        blocks.addAll(BlockChainTestUtils.createBlockListWithoutTxs(count - 1, null));
+        return blocks;
+    }
 }
@@ -117,6 +117,50 @@ public class BranchStoreTest {
         assertThat(ms.getValidators().getValidatorMap().containsKey("TEST1")).isTrue();
     }
 
+    @Test
+    public void metadataShouldBeReplacedOnlyByWrites() {
+        ValidatorSet validatorSet = new ValidatorSet();
+        validatorSet.getValidatorMap().put("TEST1", new Validator("TEST1"));
+        ms.setValidators(validatorSet);
+        ms.setLastExecuteBlock(BlockChainTestUtils.genesisBlock());
+        long version = ms.getMetadataVersion();
+
+        assertThat(ms.isValidator("TEST1")).isTrue();
+        assertThat(ms.getLastExecuteBlockIndex()).isEqualTo(0L);
+        // The returned validator set is not the snapshot
+        ms.getValidators().getValidatorMap().put("TEST2", new Validator("TEST2"));
+        assertThat(ms.isValidator("TEST2")).isFalse();
+        ms.setBestBlockHash(BlockChainTestUtils.genesisBlock().getHash());
+        assertThat(ms.getMetadataVersion()).isEqualTo(version);
+
+        validatorSet.getValidatorMap().put("TEST2", new Validator("TEST2"));
+        ms.setValidators(validatorSet);
+        assertThat(ms.getMetadataVersion()).isGreaterThan(version);
+        assertThat(ms.isValidator("TEST2")).isTrue();
+        assertThat(ms.getValidators().getValidatorMap()).containsKeys("TEST1", "TEST2");
+    }
+
+    @Test
+    public void metadataShouldBeLoadedFromStore() {
+        StateStore stateStore = new StateStore(new HashMapDbSource());
+        BranchStore branchStore = new BranchStore(stateStore);
+        TestConstants.yggdrash();
+        List<BranchContract> bc = TestConstants.TEST_BRANCH.getBranchContracts();
+        ValidatorSet validatorSet = new ValidatorSet();
+        validatorSet.getValidatorMap().put("TEST1", new Validator("TEST1"));
+        branchStore.setBranchContracts(bc);
+        branchStore.setValidators(validatorSet);
+        branchStore.setBestBlock(BlockChainTestUtils.genesisBlock());
+
+        BranchStore reopened = new BranchStore(stateStore);
+        assertThat(reopened.getBestBlock()).isEqualTo(0L);
+        assertThat(reopened.getLastExecuteBlockIndex()).isEqualTo(-1L);
+        assertThat(reopened.isValidator("TEST1")).isTrue();
+        assertThat(reopened.getBranchContacts()).hasSameSizeAs(bc);
+        assertThat(reopened.getContractVersion(bc.get(0).getName()))
+                .isEqualTo(branchStore.getContractVersion(bc.get(0).getName()));
+    }
+
     @Test
     public void branchContracts() {
         TestConstants.yggdrash();
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.datasource.HashMapDbSource;
+import io.yggdrash.common.trie.MerklePatriciaTrie;
+import io.yggdrash.common.utils.SerializationUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ContractStoreTest {
+
+    @Test
+    public void legacyStateRootShouldBeReplacedByTrieRoot() {
+        // A state written by the previous release, whose state root is the chained hash of the writes
+        StateStore stateStore = new StateStore(new HashMapDbSource());
+        Map<byte[], byte[]> values = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            JsonObject value = new JsonObject();
+            value.addProperty("balance", i);
+            stateStore.put("account" + i, value);
+            values.put(("account" + i).getBytes(), SerializationUtil.serializeJson(value));
+        }
+        JsonObject bestBlock = new JsonObject();
+        bestBlock.addProperty("bestBlock", "00");
+        stateStore.put(BranchStore.NAMESPACE + "bestBlock", bestBlock);
+        JsonObject legacyRoot = new JsonObject();
+        legacyRoot.addProperty("stateHash", new Sha3Hash("legacy".getBytes()).toString());
+        stateStore.put("stateRoot", legacyRoot);
+
+        MerklePatriciaTrie stateTrie = new MerklePatriciaTrie(new HashMapDbSource());
+        ContractStore contractStore = new ContractStore(new BranchStore(new StoreAdapter(stateStore, "branch")),
+                stateStore, new ReceiptStore(new HashMapDbSource()), stateTrie);
+
+        // The branch metadata is not in the trie, as the trie of a node synced from the genesis
+        byte[] expected = new MerklePatriciaTrie(new HashMapDbSource()).update(MerklePatriciaTrie.EMPTY_ROOT, values);
+        TempStateStore tmpStateStore = contractStore.getTmpStateStore();
+        Assert.assertArrayEquals(expected, tmpStateStore.getStateRoot().getBytes());
+        Assert.assertEquals(Sha3Hash.createByHashed(expected).toString(),
+                stateStore.get("stateRoot").get("stateHash").getAsString());
+
+        // The blocks are executed on the rebuilt trie
+        Map<String, JsonObject> changes = new HashMap<>();
+        JsonObject changed = new JsonObject();
+        changed.addProperty("balance", 100);
+        changes.put("account0", changed);
+        Sha3Hash stateRoot = tmpStateStore.getStateRoot(changes);
+        tmpStateStore.commitStateRoot(stateRoot);
+        Assert.assertArrayEquals(SerializationUtil.serializeJson(changed),
+                stateTrie.get(stateRoot.getBytes(), "account0".getBytes()));
+
+        // The trie is built only once
+        Assert.assertArrayEquals(expected, new ContractStore(contractStore.getBranchStore(), stateStore,
+                contractStore.getReceiptStore(), stateTrie).getTmpStateStore().getStateRoot().getBytes());
+    }
+}
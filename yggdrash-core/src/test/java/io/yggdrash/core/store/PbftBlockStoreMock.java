@@ -1,15 +1,13 @@
 package io.yggdrash.core.store;
 
 import com.google.common.annotations.VisibleForTesting;
-import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.store.datasource.DbSource;
 import io.yggdrash.core.blockchain.PbftBlockMock;
 import io.yggdrash.core.consensus.ConsensusBlock;
-import io.yggdrash.core.exception.NonExistObjectException;
 import io.yggdrash.proto.PbftProto;
 
 @VisibleForTesting
-public class PbftBlockStoreMock extends AbstractBlockStore<PbftProto.PbftBlock> {
+public class PbftBlockStoreMock extends HeightOrderedBlockStore<PbftProto.PbftBlock> {
 
     public PbftBlockStoreMock(String consensus, DbSource<byte[], byte[]> dbSource) {
         this(dbSource);
@@ -20,13 +18,7 @@ public class PbftBlockStoreMock extends AbstractBlockStore<PbftProto.PbftBlock>
     }
 
     @Override
-    public ConsensusBlock<PbftProto.PbftBlock> get(Sha3Hash key) {
-        lock.lock();
-        byte[] foundValue = db.get(key.getBytes());
-        lock.unlock();
-        if (foundValue != null) {
-            return new PbftBlockMock(foundValue);
-        }
-        throw new NonExistObjectException(key.toString());
+    protected ConsensusBlock<PbftProto.PbftBlock> toBlock(byte[] binary) {
+        return new PbftBlockMock(binary);
     }
 }
\ No newline at end of file
@@ -18,15 +18,26 @@ package io.yggdrash.core.store;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import io.yggdrash.StoreTestUtils;
 import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.StateValueCodec;
 import io.yggdrash.common.store.datasource.HashMapDbSource;
+import io.yggdrash.common.store.datasource.LevelDbDataSource;
+import io.yggdrash.common.utils.SerializationUtil;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class StateStoreTest {
     private static final Logger log = LoggerFactory.getLogger(StateStoreTest.class);
@@ -60,4 +71,106 @@ public class StateStoreTest {
         log.debug(obj.getClass().toString());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void hotValuesShouldBeReadFromCache() {
+        JsonObject obj = new JsonParser().parse("{\"balance\":100}").getAsJsonObject();
+        stateStore.put("account", obj);
+        obj.addProperty("balance", 0);
+
+        JsonObject found = stateStore.get("account");
+        found.addProperty("balance", 1);
+
+        // The cached value is not changed by the callers
+        assertEquals(100, stateStore.get("account").get("balance").getAsInt());
+        assertEquals(0, stateStore.getCacheStats().missCount());
+        assertEquals(2, stateStore.getCacheStats().hitCount());
+    }
+
+    @Test
+    public void cacheShouldBeUpdatedByPatch() {
+        assertFalse(stateStore.contains("account"));
+        assertFalse(stateStore.contains("account"));
+        assertEquals(1, stateStore.getCacheStats().missCount());
+
+        Map<String, JsonObject> patch = new HashMap<>();
+        patch.put("account", new JsonParser().parse("{\"balance\":100}").getAsJsonObject());
+        stateStore.updatePatch(patch);
+
+        assertEquals(100, stateStore.get("account").get("balance").getAsInt());
+        assertEquals(1, stateStore.getCacheStats().missCount());
+
+        stateStore.invalidateCache();
+        assertTrue(stateStore.contains("account"));
+        assertEquals(2, stateStore.getCacheStats().missCount());
+    }
+
+    @Test
+    public void snapshotShouldBePinnedToLastPatch() {
+        Map<String, JsonObject> patch = new HashMap<>();
+        patch.put("account", new JsonParser().parse("{\"balance\":100}").getAsJsonObject());
+        stateStore.updatePatch(patch);
+        StateStore.Snapshot snapshot = stateStore.getSnapshot();
+        assertEquals(1, snapshot.getVersion());
+
+        patch.put("account", new JsonParser().parse("{\"balance\":200}").getAsJsonObject());
+        patch.put("other", new JsonParser().parse("{\"balance\":10}").getAsJsonObject());
+        stateStore.updatePatch(patch);
+        stateStore.put("branch", new JsonParser().parse("{\"value\":1}").getAsJsonObject());
+
+        // The snapshot reads the values replaced after it
+        assertEquals(100, snapshot.get("account").get("balance").getAsInt());
+        assertFalse(snapshot.contains("other"));
+        assertFalse(snapshot.contains("branch"));
+        assertEquals(200, stateStore.get("account").get("balance").getAsInt());
+
+        StateStore.Snapshot latest = stateStore.getSnapshot();
+        assertEquals(2, latest.getVersion());
+        assertEquals(200, latest.get("account").get("balance").getAsInt());
+        assertTrue(latest.contains("other"));
+        snapshot.close();
+        latest.close();
+    }
+
+    @Test
+    public void legacyValuesShouldBeMigrated() {
+        LevelDbDataSource db = new LevelDbDataSource(StoreTestUtils.getTestPath(), "legacy-state-test");
+        db.init();
+        db.put("balance".getBytes(), SerializationUtil.serializeString("{\"balance\":100}"));
+        db.put("State".getBytes(), SerializationUtil.serializeString("{\"value\":\"value\"}"));
+        db.close();
+
+        StateStore migrated = new StateStore(db);
+
+        assertTrue(StateValueCodec.isBinary(db.get("balance".getBytes())));
+        assertTrue(StateValueCodec.isBinary(db.get("State".getBytes())));
+        assertEquals(0, migrated.migrateLegacyValues());
+        assertEquals(100, migrated.get("balance").get("balance").getAsInt());
+        assertEquals("value", migrated.get("State").get("value").getAsString());
+        migrated.close();
+        StoreTestUtils.clearTestDb();
+    }
+
+    @Test
+    public void migratedStoreShouldNotBeScannedAgain() {
+        AtomicInteger scans = new AtomicInteger();
+        LevelDbDataSource db = new LevelDbDataSource(StoreTestUtils.getTestPath(), "migrated-state-test") {
+            @Override
+            public void scan(byte[] fromKey, byte[] toKey, BiPredicate<byte[], byte[]> visitor) {
+                scans.incrementAndGet();
+                super.scan(fromKey, toKey, visitor);
+            }
+        };
+        db.init();
+        db.put("balance".getBytes(), SerializationUtil.serializeString("{\"balance\":100}"));
+        db.close();
+
+        new StateStore(db).close();
+        assertEquals(1, scans.get());
+
+        StateStore reopened = new StateStore(db);
+        assertEquals(1, scans.get());
+        assertEquals(100, reopened.get("balance").get("balance").getAsInt());
+        reopened.close();
+        StoreTestUtils.clearTestDb();
+    }
+}
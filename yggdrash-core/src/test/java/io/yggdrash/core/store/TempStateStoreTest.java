@@ -20,11 +20,15 @@ import com.google.gson.JsonObject;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.store.StateStore;
 import io.yggdrash.common.store.datasource.HashMapDbSource;
+import io.yggdrash.contract.core.store.ReadWriterStore;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class TempStateStoreTest {
 
     private StateStore stateStore;
@@ -83,4 +87,126 @@ public class TempStateStoreTest {
 
         Assert.assertEquals(changedStateRoot, changedStateRoot2);
     }
+
+    @Test
+    public void stateRootShouldNotDependOnWriteOrder() {
+        JsonObject testObj = new JsonObject();
+        testObj.addProperty("test", "yes");
+        JsonObject otherObj = new JsonObject();
+        otherObj.addProperty("test", "other");
+
+        TempStateStore store = new TempStateStore(stateStore);
+        store.put("TEST", testObj);
+        store.put("OTHER", otherObj);
+
+        TempStateStore reversed = new TempStateStore(stateStore);
+        reversed.put("OTHER", otherObj);
+        reversed.put("TEST", testObj);
+
+        Assert.assertEquals(store.getStateRoot(), reversed.getStateRoot());
+    }
+
+    @Test
+    public void applyOverlay() {
+        JsonObject originObj = new JsonObject();
+        originObj.addProperty("test", "origin");
+        stateStore.put("TEST", originObj);
+
+        JsonObject testObj = new JsonObject();
+        testObj.addProperty("test", "yes");
+        JsonObject otherObj = new JsonObject();
+        otherObj.addProperty("test", "other");
+
+        TempStateStore direct = new TempStateStore(stateStore);
+        direct.put("TEST", testObj);
+        direct.put("OTHER", otherObj);
+
+        TempStateStore store = new TempStateStore(stateStore);
+        TempStateStore.Overlay overlay = store.beginOverlay(true);
+        Assert.assertEquals(originObj, store.get("TEST"));
+        store.put("TEST", testObj);
+        store.put("OTHER", otherObj);
+        Assert.assertEquals(testObj, store.get("TEST"));
+        store.endOverlay();
+
+        // The overlay keeps the read/write set and does not change the shared store
+        Assert.assertTrue(overlay.getReadKeys().contains("TEST"));
+        Assert.assertFalse(overlay.getReadKeys().contains("OTHER"));
+        Assert.assertEquals(2, overlay.getWriteKeys().size());
+        Assert.assertEquals(originObj, store.get("TEST"));
+        Assert.assertEquals(0, store.changeValues().size());
+
+        store.applyOverlay(overlay);
+        Assert.assertEquals(direct.getStateRoot(), store.getStateRoot());
+        Assert.assertEquals(testObj, store.get("TEST"));
+    }
+
+    @Test
+    public void frozenValuesShouldNotBeChanged() {
+        JsonObject originObj = new JsonObject();
+        originObj.addProperty("test", "origin");
+        stateStore.put("ORIGIN", originObj);
+
+        TempStateStore store = new TempStateStore(stateStore);
+        JsonObject testObj = new JsonObject();
+        testObj.addProperty("test", "yes");
+        store.put("TEST", testObj);
+        ReadWriterStore<String, JsonObject> frozen = store.freeze();
+
+        // The writes and the changes of the values after the freeze are not read
+        testObj.addProperty("test", "changed");
+        store.put("OTHER", testObj);
+        TempStateStore.Overlay overlay = store.beginOverlay(frozen);
+        Assert.assertEquals("yes", store.get("TEST").get("test").getAsString());
+        Assert.assertEquals(originObj, store.get("ORIGIN"));
+        Assert.assertFalse(store.contains("OTHER"));
+        store.get("TEST").addProperty("test", "mutated");
+        Assert.assertEquals("yes", frozen.get("TEST").get("test").getAsString());
+        store.endOverlay();
+
+        Assert.assertTrue(overlay.isIsolated());
+        Assert.assertTrue(overlay.getReadKeys().contains("OTHER"));
+    }
+
+    @Test
+    public void overlayShouldReadSnapshot() {
+        JsonObject originObj = new JsonObject();
+        originObj.addProperty("test", "origin");
+        Map<String, JsonObject> patch = new HashMap<>();
+        patch.put("TEST", originObj);
+        stateStore.updatePatch(patch);
+
+        TempStateStore store = new TempStateStore(stateStore);
+        JsonObject testObj = new JsonObject();
+        testObj.addProperty("test", "yes");
+        store.put("TEST", testObj);
+
+        StateStore.Snapshot snapshot = stateStore.getSnapshot();
+        store.beginOverlay(snapshot);
+        // The changes of the block in execution are not read
+        Assert.assertEquals(originObj, store.get("TEST"));
+        store.put("QUERY", testObj);
+        store.endOverlay();
+        snapshot.close();
+
+        Assert.assertEquals(testObj, store.get("TEST"));
+        Assert.assertFalse(store.contains("QUERY"));
+    }
+
+    @Test
+    public void externalWriteShouldBeMadeOnApply() {
+        TempStateStore store = new TempStateStore(stateStore);
+        Map<String, String> external = new HashMap<>();
+
+        TempStateStore.Overlay overlay = store.beginOverlay(true);
+        overlay.writeExternal("EXTERNAL", "written", value -> external.put("EXTERNAL", value));
+        Assert.assertEquals("written", overlay.getExternal("EXTERNAL"));
+        store.endOverlay();
+
+        // The write of the overlay which is not applied is dropped
+        Assert.assertTrue(external.isEmpty());
+        Assert.assertTrue(overlay.getWriteKeys().contains("EXTERNAL"));
+        store.applyOverlay(overlay);
+        Assert.assertEquals("written", external.get("EXTERNAL"));
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.common.store.datasource.HashMapDbSource;
+import io.yggdrash.core.blockchain.Block;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.blockchain.TransactionLocation;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransactionIndexStoreTest {
+
+    private TransactionIndexStore store;
+
+    @Before
+    public void setUp() {
+        store = new TransactionIndexStore(new HashMapDbSource());
+    }
+
+    @Test
+    public void shouldBeIndexedByTxHash() {
+        assertThat(store.getLastIndexedBlock()).isEqualTo(-1);
+
+        Block block = BlockChainTestUtils.genesisBlock().getBlock();
+        store.addBlock(block);
+
+        List<Transaction> txList = block.getBody().getTransactionList();
+        for (int i = 0; i < txList.size(); i++) {
+            TransactionLocation location = store.get(txList.get(i).getHash());
+            assertThat(location).isEqualTo(new TransactionLocation(0, block.getHash(), i));
+            assertThat(location.getBlockIndex()).isEqualTo(0);
+            assertThat(location.getPosition()).isEqualTo(i);
+        }
+        assertThat(store.getLastIndexedBlock()).isEqualTo(block.getIndex());
+    }
+
+    @Test
+    public void unknownTxShouldNotBeIndexed() {
+        Transaction tx = BlockChainTestUtils.createTransferTx();
+        assertThat(store.contains(tx.getHash())).isFalse();
+        assertThat(store.get(tx.getHash())).isNull();
+    }
+
+    @Test
+    public void locationShouldBeParsedFromBinary() {
+        Block block = BlockChainTestUtils.genesisBlock().getBlock();
+        TransactionLocation location = new TransactionLocation(7, block.getHash(), 3);
+        assertThat(TransactionLocation.parseFrom(location.toBinary())).isEqualTo(location);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.gson.JsonObject;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.ContractTestUtils;
+import io.yggdrash.TestConstants;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.wallet.Wallet;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransactionPoolTest {
+
+    private static final Wallet senderA = TestConstants.wallet();
+    private static final Wallet senderB = TestConstants.transferWallet();
+
+    private int amount = 0;
+
+    @Test
+    public void shouldBeOrderedByFeeInOrderOfSender() {
+        TransactionPool pool = new TransactionPool();
+        Transaction lowFeeOfA = createTx(senderA, 1);
+        Transaction highFeeOfA = createTx(senderA, 100);
+        Transaction midFeeOfB = createTx(senderB, 10);
+
+        assertThat(pool.add(lowFeeOfA)).isTrue();
+        assertThat(pool.add(highFeeOfA)).isTrue();
+        assertThat(pool.add(midFeeOfB)).isTrue();
+        assertThat(pool.add(midFeeOfB)).isFalse();
+
+        // The high fee of A is not taken ahead of the former transaction of A
+        assertThat(pool.getBest(Long.MAX_VALUE)).containsExactly(midFeeOfB, lowFeeOfA, highFeeOfA);
+    }
+
+    @Test
+    public void shouldBeLimitedByLength() {
+        TransactionPool pool = new TransactionPool();
+        Transaction lowFee = createTx(senderA, 1);
+        Transaction highFee = createTx(senderB, 100);
+        pool.add(lowFee);
+        pool.add(highFee);
+
+        assertThat(pool.getBest(highFee.getLength())).containsExactly(highFee);
+        assertThat(pool.getBest(0)).isEmpty();
+    }
+
+    @Test
+    public void lowestFeeShouldBeEvicted() {
+        Transaction lowFee = createTx(senderA, 1);
+        Transaction midFee = createTx(senderB, 10);
+        Transaction highFee = createTx(senderB, 100);
+        TransactionPool pool = new TransactionPool(2, Long.MAX_VALUE);
+
+        pool.add(midFee);
+        pool.add(highFee);
+        assertThat(pool.add(lowFee)).isFalse();
+        assertThat(pool.size()).isEqualTo(2);
+
+        pool = new TransactionPool(Integer.MAX_VALUE, midFee.getLength() + highFee.getLength());
+        pool.add(lowFee);
+        pool.add(midFee);
+        pool.add(highFee);
+        assertThat(pool.contains(lowFee.getHash())).isFalse();
+        assertThat(pool.sizeInBytes()).isEqualTo(midFee.getLength() + highFee.getLength());
+    }
+
+    @Test
+    public void metricsShouldBeBound() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TransactionPool pool = new TransactionPool(1, Long.MAX_VALUE);
+        pool.bindTo(registry, TestConstants.yggdrash());
+
+        pool.add(createTx(senderA, 10));
+        pool.add(createTx(senderB, 1));
+
+        assertThat(registry.get("yggdrash.txpool.size").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("yggdrash.txpool.bytes").gauge().value()).isEqualTo(pool.sizeInBytes());
+        assertThat(registry.get("yggdrash.txpool.evictions").functionCounter().count()).isEqualTo(1);
+        assertThat(pool.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void removedTxShouldNotBeCandidate() {
+        TransactionPool pool = new TransactionPool();
+        Transaction first = createTx(senderA, 10);
+        Transaction second = createTx(senderA, 10);
+        Transaction third = createTx(senderA, 10);
+        pool.add(first);
+        pool.add(second);
+        pool.add(third);
+
+        assertThat(pool.remove(second.getHash())).isEqualTo(second);
+        assertThat(pool.remove(second.getHash())).isNull();
+        assertThat(pool.getBest(Long.MAX_VALUE)).containsExactly(first, third);
+
+        pool.remove(first.getHash());
+        pool.remove(third.getHash());
+        assertThat(pool.getBest(Long.MAX_VALUE)).isEmpty();
+        assertThat(pool.size()).isZero();
+        assertThat(pool.sizeInBytes()).isZero();
+        assertThat(pool.senderCount()).isZero();
+    }
+
+    @Test
+    public void txRemovedWhileAddedShouldNotLeaveSender() throws Exception {
+        TransactionPool pool = new TransactionPool();
+        Transaction tx = createTx(senderA, 10);
+
+        int rounds = 20000;
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // The transaction is removed as soon as it is in the pool, sometimes before it is in the sender queue
+            Future<?> removing = executor.submit(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    barrier.await();
+                    while (pool.remove(tx.getHash()) == null) {
+                        // Spin to remove it as soon as possible
+                    }
+                    barrier.await();
+                }
+                return null;
+            });
+            for (int round = 0; round < rounds; round++) {
+                barrier.await(10, TimeUnit.SECONDS);
+                pool.add(tx);
+                barrier.await(10, TimeUnit.SECONDS);
+                assertThat(pool.senderCount()).isZero();
+            }
+            removing.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Transaction createTx(Wallet wallet, long feePerByte) {
+        // The contract versions are loaded with the branch
+        TestConstants.yggdrash();
+        JsonObject params = new JsonObject();
+        params.addProperty("to", TestConstants.TRANSFER_TO);
+        params.addProperty("amount", ++amount);
+        // The transactions are about 500 bytes
+        params.addProperty("fee", BigInteger.valueOf(feePerByte * 1000));
+        JsonObject txBody = ContractTestUtils.txBodyJson(TestConstants.YEED_CONTRACT, "transfer", params, true);
+        return BlockChainTestUtils.buildTx(txBody, wallet, TestConstants.yggdrash());
+    }
+}
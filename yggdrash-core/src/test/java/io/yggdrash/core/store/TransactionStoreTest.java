@@ -30,6 +30,7 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -96,6 +97,23 @@ public class TransactionStoreTest {
         assertThat(recentTxs.contains(tx)).isTrue();
     }
 
+    @Test
+    public void warmedUpTxsShouldBeBeforeRecentTxs() {
+        int cacheSize = 3;
+        ts = new TransactionStore(new HashMapDbSource(), cacheSize);
+        ts.put(tx.getHash(), tx);
+        batch();
+
+        List<Transaction> olderTxs = new ArrayList<>();
+        for (int i = 0; i < cacheSize; i++) {
+            olderTxs.add(BlockChainTestUtils.createTransferTx());
+        }
+        ts.warmUpCache(olderTxs);
+
+        // The recent tx is kept and the oldest one is evicted
+        assertThat(ts.getRecentTxs()).containsExactly(olderTxs.get(1), olderTxs.get(2), tx);
+    }
+
     /* 배치가 돌기 전에는 최근 트랜잭션에 들어가지 않고 언컨펌트랜잭션에서만 조회 가능 */
     @Test
     public void shouldNotGetRecentTxsWhenNotBatched() {
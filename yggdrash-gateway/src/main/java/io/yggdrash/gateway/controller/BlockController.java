@@ -76,12 +76,13 @@ class BlockController {
             offset = lastIdx;
         }
 
-        for (int i = 0; i < limit && offset >= 0; i++) {
-            ConsensusBlock block = branchGroup.getBlockByIndex(id, offset--);
-            if (block == null) {
-                break;
-            }
-            blocks.add(BlockDto.createBy(block));
+        if (limit <= 0 || offset < 0) {
+            return ResponseEntity.ok(blocks);
+        }
+        // The blocks are read by a range scan and listed from the offset in descending order
+        List<ConsensusBlock> range = branchGroup.getBlocksByRange(id, Math.max(offset - limit + 1, 0), offset);
+        for (int i = range.size() - 1; i >= 0; i--) {
+            blocks.add(BlockDto.createBy(range.get(i)));
         }
         return ResponseEntity.ok(blocks);
     }
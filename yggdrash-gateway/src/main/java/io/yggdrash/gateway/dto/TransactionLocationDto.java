@@ -0,0 +1,33 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package io.yggdrash.gateway.dto;
+
+import io.yggdrash.core.blockchain.TransactionLocation;
+
+public class TransactionLocationDto {
+
+    public String txId;
+    public long blockNumber;
+    public String blockId;
+    public int txIndexPosition;
+
+    public static TransactionLocationDto createBy(String txId, TransactionLocation location) {
+        TransactionLocationDto locationDto = new TransactionLocationDto();
+        locationDto.txId = txId;
+        locationDto.blockNumber = location.getBlockIndex();
+        locationDto.blockId = location.getBlockHash().toString();
+        locationDto.txIndexPosition = location.getPosition();
+
+        return locationDto;
+    }
+}
@@ -8,6 +8,7 @@ import io.yggdrash.common.exception.FailedOperationException;
 import io.yggdrash.core.exception.DecodeException;
 import io.yggdrash.core.exception.NonExistObjectException;
 
+import java.util.List;
 import java.util.Map;
 
 @JsonRpcService("/api/contract")
@@ -31,4 +32,17 @@ public interface ContractApi {
                  @JsonRpcParam(value = "method") String method,
                  @JsonRpcParam(value = "params") Map params);
 
+    /**
+     * Get the proof of the state against the state root of the last executed block
+     *
+     * @param branchId branch id of contract
+     * @param key key of the state
+     * @return hex encoded trie nodes on the path of the key from the state root
+     */
+    @JsonRpcErrors({
+            @JsonRpcError(exception = NonExistObjectException.class, code = NonExistObjectException.CODE),
+            @JsonRpcError(exception = FailedOperationException.class, code = FailedOperationException.CODE)})
+    List<String> getStateProof(@JsonRpcParam(value = "branchId") String branchId,
+                               @JsonRpcParam(value = "key") String key);
+
 }
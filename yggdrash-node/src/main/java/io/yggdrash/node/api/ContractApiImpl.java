@@ -8,13 +8,16 @@ import io.yggdrash.core.blockchain.BranchGroup;
 import io.yggdrash.core.blockchain.BranchId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.spongycastle.util.encoders.Hex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigInteger;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @AutoJsonRpcServiceImpl
@@ -52,4 +55,11 @@ public class ContractApiImpl implements ContractApi {
         return result;
     }
 
+    @Override
+    public List<String> getStateProof(String branchId, String key) {
+        return branchGroup.getStateProof(BranchId.of(branchId), key).stream()
+                .map(Hex::toHexString)
+                .collect(Collectors.toList());
+    }
+
 }
@@ -8,7 +8,9 @@ import io.yggdrash.core.exception.DecodeException;
 import io.yggdrash.core.exception.NonExistObjectException;
 import io.yggdrash.core.exception.RejectedAccessException;
 import io.yggdrash.core.exception.WrongStructuredException;
+import io.yggdrash.gateway.dto.BlockDto;
 import io.yggdrash.gateway.dto.TransactionDto;
+import io.yggdrash.gateway.dto.TransactionLocationDto;
 import io.yggdrash.gateway.dto.TransactionReceiptDto;
 import io.yggdrash.gateway.dto.TransactionResponseDto;
 
@@ -52,6 +54,26 @@ public interface TransactionApi {
     TransactionDto getTransactionByHash(@JsonRpcParam(value = BRANCH_ID) String branchId,
                                          @JsonRpcParam(value = TX_ID) String txId);
 
+    /**
+     * Returns the block number, block hash and index position of a transaction included in a block.
+     *
+     * @param txId hash of transaction
+     */
+    @JsonRpcErrors({@JsonRpcError(exception = NonExistObjectException.class, code = NonExistObjectException.CODE),
+            @JsonRpcError(exception = DecodeException.class, code = DecodeException.CODE)})
+    TransactionLocationDto getTransactionLocation(@JsonRpcParam(value = BRANCH_ID) String branchId,
+                                                  @JsonRpcParam(value = TX_ID) String txId);
+
+    /**
+     * Returns the block that includes a transaction.
+     *
+     * @param txId hash of transaction
+     */
+    @JsonRpcErrors({@JsonRpcError(exception = NonExistObjectException.class, code = NonExistObjectException.CODE),
+            @JsonRpcError(exception = DecodeException.class, code = DecodeException.CODE)})
+    BlockDto getBlockByTransactionHash(@JsonRpcParam(value = BRANCH_ID) String branchId,
+                                       @JsonRpcParam(value = TX_ID) String txId);
+
     /**
      * Returns information about a transaction by block hash and transaction index position.
      *
@@ -6,11 +6,14 @@ import io.yggdrash.core.blockchain.BranchGroup;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.blockchain.TransactionImpl;
+import io.yggdrash.core.blockchain.TransactionLocation;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.exception.NonExistObjectException;
 import io.yggdrash.core.exception.RejectedAccessException;
 import io.yggdrash.core.exception.WrongStructuredException;
+import io.yggdrash.gateway.dto.BlockDto;
 import io.yggdrash.gateway.dto.TransactionDto;
+import io.yggdrash.gateway.dto.TransactionLocationDto;
 import io.yggdrash.gateway.dto.TransactionReceiptDto;
 import io.yggdrash.gateway.dto.TransactionResponseDto;
 import org.slf4j.Logger;
@@ -55,6 +58,19 @@ public class TransactionApiImpl implements TransactionApi {
         return TransactionDto.createBy(tx);
     }
 
+    @Override
+    public TransactionLocationDto getTransactionLocation(String branchId, String txId) {
+        TransactionLocation location = branchGroup.getTxLocation(BranchId.of(branchId), txId);
+        return TransactionLocationDto.createBy(txId, location);
+    }
+
+    @Override
+    public BlockDto getBlockByTransactionHash(String branchId, String txId) {
+        TransactionLocation location = branchGroup.getTxLocation(BranchId.of(branchId), txId);
+        ConsensusBlock block = branchGroup.getBlockByIndex(BranchId.of(branchId), location.getBlockIndex());
+        return BlockDto.createBy(block);
+    }
+
     @Override
     public TransactionDto getTransactionByBlockHash(String branchId, String blockId,
                                                      int txIndexPosition) {
@@ -42,6 +42,7 @@ import io.yggdrash.core.store.BlockChainStore;
 import io.yggdrash.core.store.BlockChainStoreBuilder;
 import io.yggdrash.core.store.ContractStore;
 import io.yggdrash.node.service.ValidatorService;
+import io.yggdrash.validator.data.pbft.PbftMessageSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,6 +65,7 @@ public class BranchConfiguration {
     @Autowired
     BranchConfiguration(DefaultConfig defaultConfig) {
         this.defaultConfig = defaultConfig;
+        PbftMessageSet.setCompactEncoding(defaultConfig.isPbftCertificateCompact());
     }
 
     @Bean
@@ -104,6 +106,7 @@ public class BranchConfiguration {
             BlockChainStoreBuilder builder = BlockChainStoreBuilder.newBuilder(branchId)
                     .withDataBasePath(defaultConfig.getDatabasePath())
                     .withProductionMode(defaultConfig.isProductionMode())
+                    .withTxPoolLimit(defaultConfig.getTxPoolMaxCount(), defaultConfig.getTxPoolMaxBytes())
                     .setBlockStoreFactory(ValidatorService.blockStoreFactory())
                     .setConsensusAlgorithm(consensus.getAlgorithm())
             ;
@@ -102,6 +102,7 @@ public class ValidatorConfiguration {
                 BlockChainStoreBuilder builder = BlockChainStoreBuilder.newBuilder(branchId);
                 builder.withDataBasePath(mergedConfig.getDatabasePath())
                         .withProductionMode(mergedConfig.isProductionMode())
+                        .withTxPoolLimit(mergedConfig.getTxPoolMaxCount(), mergedConfig.getTxPoolMaxBytes())
                         .setBlockStoreFactory(ValidatorService.blockStoreFactory())
                         .setConsensusAlgorithm(consensus.getAlgorithm())
                 ;
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.node.grpc.interceptor;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records the latency of the gRPC calls by the method and the status code.
+ * The latency is from the start of the call to the close of it, so the streaming calls are timed as a whole.
+ */
+public class MetricsInterceptor implements ServerInterceptor {
+    static final String METRIC_NAME = "yggdrash.grpc.server";
+
+    private final MeterRegistry registry;
+
+    public MetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+        Timer.Sample sample = Timer.start(registry);
+        String method = call.getMethodDescriptor().getFullMethodName();
+
+        ServerCall<ReqT, RespT> timedCall = new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                sample.stop(Timer.builder(METRIC_NAME)
+                        .description("The latency of the gRPC calls")
+                        .tag("method", method)
+                        .tag("status", status.getCode().name())
+                        .publishPercentileHistogram()
+                        .register(registry));
+                super.close(status, trailers);
+            }
+        };
+        return next.startCall(timedCall, headers);
+    }
+}
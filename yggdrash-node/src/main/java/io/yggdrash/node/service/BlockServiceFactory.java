@@ -25,6 +25,7 @@ import io.yggdrash.core.exception.NotValidateException;
 import io.yggdrash.core.net.BlockConsumer;
 import io.yggdrash.core.net.BlockServiceConsumer;
 import io.yggdrash.core.net.CatchUpSyncEventListener;
+import io.yggdrash.core.p2p.BlockBinaryStream;
 import io.yggdrash.proto.CommonProto;
 import io.yggdrash.proto.EbftProto;
 import io.yggdrash.proto.EbftServiceGrpc;
@@ -38,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 
 public class BlockServiceFactory {
+    private static final Logger log = LoggerFactory.getLogger(BlockServiceFactory.class);
     private static final CommonProto.Empty EMPTY = CommonProto.Empty.getDefaultInstance();
 
     private BlockServiceFactory() {
@@ -56,6 +58,16 @@ public class BlockServiceFactory {
         throw new NotValidateException("Algorithm is not valid.");
     }
 
+    private static void streamBlocks(BlockConsumer<?> blockConsumer, CommonProto.Offset request,
+                                     StreamObserver<CommonProto.BlockBinaryList> responseObserver) {
+        long offset = Math.max(request.getIndex(), 0);
+        BranchId branchId = BranchId.of(request.getChain().toByteArray());
+        log.debug("Received streamBlocks request branch={} offset={}, limit={}", branchId, offset, request.getCount());
+        long endIndex = blockConsumer.getSyncEndIndex(branchId, offset, request.getCount());
+        BlockBinaryStream.start(responseObserver, offset, endIndex, (fromIndex, toIndex, maxBytes) ->
+                blockConsumer.getBlockBinaries(branchId, fromIndex, toIndex, maxBytes));
+    }
+
     private static class PbftBlockService extends PbftServiceGrpc.PbftServiceImplBase {
         private static final Logger log = LoggerFactory.getLogger(PbftBlockService.class);
         private final BlockConsumer<PbftProto.PbftBlock> blockConsumer;
@@ -87,6 +99,18 @@ public class BlockServiceFactory {
             responseObserver.onCompleted();
         }
 
+        /**
+         * Sync block response streaming the stored blocks
+         *
+         * @param request          the start branch id, block index and limit to sync
+         * @param responseObserver the observer response to the stored blocks
+         */
+        @Override
+        public void streamPbftBlocks(CommonProto.Offset request,
+                                     StreamObserver<CommonProto.BlockBinaryList> responseObserver) {
+            streamBlocks(blockConsumer, request, responseObserver);
+        }
+
         @Override
         public void broadcastPbftBlock(PbftProto.PbftBlock request,
                                        StreamObserver<CommonProto.Empty> responseObserver) {
@@ -129,6 +153,18 @@ public class BlockServiceFactory {
             responseObserver.onCompleted();
         }
 
+        /**
+         * Sync block response streaming the stored blocks
+         *
+         * @param request          the start branch id, block index and limit to sync
+         * @param responseObserver the observer response to the stored blocks
+         */
+        @Override
+        public void streamEbftBlocks(CommonProto.Offset request,
+                                     StreamObserver<CommonProto.BlockBinaryList> responseObserver) {
+            streamBlocks(blockConsumer, request, responseObserver);
+        }
+
         @Override
         public void broadcastEbftBlock(EbftProto.EbftBlock request,
                                        StreamObserver<CommonProto.Empty> responseObserver) {
@@ -20,6 +20,8 @@ import com.google.protobuf.ByteString;
 import io.grpc.Context;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.yggdrash.common.config.Constants;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.consensus.ConsensusBlock;
@@ -68,10 +70,20 @@ public class PeerHandlerProvider {
         };
     }
 
+    private static CommonProto.Offset syncRequest(BranchId branchId, long offset, long count) {
+        return CommonProto.Offset.newBuilder()
+                .setIndex(offset)
+                .setCount(count)
+                .setChain(ByteString.copyFrom(branchId.getBytes()))
+                .build();
+    }
+
     public static class PbftPeerHandler extends AbstractBlockChainHandler<PbftProto.PbftBlock> {
         private static final org.slf4j.Logger log = LoggerFactory.getLogger(PbftPeerHandler.class);
 
         private final PbftServiceGrpc.PbftServiceBlockingStub blockingStub;
+        // The peers not serving the stream are requested for the block list
+        private volatile boolean streamSupported = true;
 
         PbftPeerHandler(Peer peer) {
             this(ManagedChannelBuilder.forAddress(peer.getHost(), peer.getPort()).usePlaintext().build(), peer);
@@ -87,18 +99,28 @@ public class PeerHandlerProvider {
             try {
                 log.debug("Requesting sync block: branchId={}, offset={}, to={}",
                         branchId, offset, this.getPeer().getYnodeUri());
-                CommonProto.Offset request = CommonProto.Offset.newBuilder()
-                        .setIndex(offset)
-                        .setCount(Constants.BLOCK_SYNC_COUNT)
-                        .setChain(ByteString.copyFrom(branchId.getBytes()))
-                        .build();
-
-                PbftProto.PbftBlockList protoPbftBlockList
-                        = blockingStub.withDeadlineAfter(TIMEOUT_BLOCKLIST, TimeUnit.SECONDS).getPbftBlockList(request);
-
                 CompletableFuture<List<ConsensusBlock<PbftProto.PbftBlock>>> futureBlockList =
                         new CompletableFuture<>();
                 List<ConsensusBlock<PbftProto.PbftBlock>> newBlockList = new ArrayList<>();
+                if (streamSupported) {
+                    try {
+                        blockingStub.withDeadlineAfter(TIMEOUT_BLOCKLIST, TimeUnit.SECONDS)
+                                .streamPbftBlocks(syncRequest(branchId, offset, Constants.BLOCK_STREAM_COUNT))
+                                .forEachRemaining(blocks -> blocks.getBlocksList()
+                                        .forEach(binary -> newBlockList.add(new PbftBlock(binary.toByteArray()))));
+                        futureBlockList.complete(newBlockList);
+                        return futureBlockList;
+                    } catch (StatusRuntimeException e) {
+                        if (e.getStatus().getCode() != Status.Code.UNIMPLEMENTED) {
+                            throw e;
+                        }
+                        streamSupported = false;
+                    }
+                }
+
+                PbftProto.PbftBlockList protoPbftBlockList = blockingStub
+                        .withDeadlineAfter(TIMEOUT_BLOCKLIST, TimeUnit.SECONDS)
+                        .getPbftBlockList(syncRequest(branchId, offset, Constants.BLOCK_SYNC_COUNT));
                 for (PbftProto.PbftBlock block : protoPbftBlockList.getPbftBlockList()) {
                     newBlockList.add(new PbftBlock(block));
                 }
@@ -126,6 +148,8 @@ public class PeerHandlerProvider {
         private static final org.slf4j.Logger log = LoggerFactory.getLogger(EbftPeerHandler.class);
 
         private final EbftServiceGrpc.EbftServiceBlockingStub blockingStub;
+        // The peers not serving the stream are requested for the block list
+        private volatile boolean streamSupported = true;
 
         EbftPeerHandler(Peer peer) {
             this(ManagedChannelBuilder.forAddress(peer.getHost(), peer.getPort()).usePlaintext()
@@ -142,18 +166,28 @@ public class PeerHandlerProvider {
             log.debug("Requesting sync block: branchId={}, offset={}, to={}",
                     branchId, offset, this.getPeer().getYnodeUri());
 
-            CommonProto.Offset request = CommonProto.Offset.newBuilder()
-                    .setIndex(offset)
-                    .setCount(Constants.BLOCK_SYNC_COUNT)
-                    .setChain(ByteString.copyFrom(branchId.getBytes()))
-                    .build();
+            CompletableFuture<List<ConsensusBlock<EbftProto.EbftBlock>>> futureBlockList = new CompletableFuture<>();
+            List<ConsensusBlock<EbftProto.EbftBlock>> newEbftBlockList = new ArrayList<>();
+            if (streamSupported) {
+                try {
+                    blockingStub.withDeadlineAfter(TIMEOUT_BLOCKLIST, TimeUnit.SECONDS)
+                            .streamEbftBlocks(syncRequest(branchId, offset, Constants.BLOCK_STREAM_COUNT))
+                            .forEachRemaining(blocks -> blocks.getBlocksList()
+                                    .forEach(binary -> newEbftBlockList.add(new EbftBlock(binary.toByteArray()))));
+                    futureBlockList.complete(newEbftBlockList);
+                    return futureBlockList;
+                } catch (StatusRuntimeException e) {
+                    if (e.getStatus().getCode() != Status.Code.UNIMPLEMENTED) {
+                        throw e;
+                    }
+                    streamSupported = false;
+                }
+            }
 
             EbftProto.EbftBlockList protoEbftBlockList = blockingStub
                     .withDeadlineAfter(TIMEOUT_BLOCKLIST, TimeUnit.SECONDS)
-                    .getEbftBlockList(request);
+                    .getEbftBlockList(syncRequest(branchId, offset, Constants.BLOCK_SYNC_COUNT));
 
-            CompletableFuture<List<ConsensusBlock<EbftProto.EbftBlock>>> futureBlockList = new CompletableFuture<>();
-            List<ConsensusBlock<EbftProto.EbftBlock>> newEbftBlockList = new ArrayList<>();
             if (!Context.current().isCancelled()) {
                 for (EbftProto.EbftBlock block : protoEbftBlockList.getEbftBlockList()) {
                     newEbftBlockList.add(new EbftBlock(block));
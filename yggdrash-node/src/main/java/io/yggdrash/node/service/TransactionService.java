@@ -16,24 +16,37 @@
 
 package io.yggdrash.node.service;
 
+import com.google.protobuf.ByteString;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.util.VerifierUtils;
+import io.yggdrash.core.blockchain.BlockChain;
 import io.yggdrash.core.blockchain.BranchGroup;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.blockchain.TransactionImpl;
+import io.yggdrash.core.net.PeerNetwork;
+import io.yggdrash.core.p2p.Peer;
 import io.yggdrash.node.springboot.grpc.GrpcService;
 import io.yggdrash.proto.CommonProto;
 import io.yggdrash.proto.Proto;
 import io.yggdrash.proto.TransactionServiceGrpc;
+import org.ehcache.Cache;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Profile(Constants.ActiveProfiles.NODE)
 @GrpcService
@@ -41,11 +54,27 @@ public class TransactionService extends TransactionServiceGrpc.TransactionServic
     private static final Logger log = LoggerFactory.getLogger(TransactionService.class);
     private static final CommonProto.Empty EMPTY = CommonProto.Empty.getDefaultInstance();
 
+    // The hashes requested from a peer are not requested from the other peers until the transactions arrive
+    private static final long REQUESTED_TX_EXPIRY_SECONDS = 5;
+
     private final BranchGroup branchGroup;
+    private final PeerNetwork peerNetwork;
+    private final Cache<Sha3Hash, Boolean> requestedTxs = CacheManagerBuilder
+            .newCacheManagerBuilder().build(true)
+            .createCache("requestedTxs", CacheConfigurationBuilder
+                    .newCacheConfigurationBuilder(Sha3Hash.class, Boolean.class,
+                            ResourcePoolsBuilder.heap(Constants.Limit.TX_POOL_MAX_COUNT))
+                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(
+                            Duration.ofSeconds(REQUESTED_TX_EXPIRY_SECONDS))));
 
-    @Autowired
     public TransactionService(BranchGroup branchGroup) {
+        this(branchGroup, null);
+    }
+
+    @Autowired
+    public TransactionService(BranchGroup branchGroup, PeerNetwork peerNetwork) {
         this.branchGroup = branchGroup;
+        this.peerNetwork = peerNetwork;
     }
 
     /**
@@ -145,4 +174,85 @@ public class TransactionService extends TransactionServiceGrpc.TransactionServic
             }
         };
     }
+
+    /**
+     * Request the announced transactions which are not in the transaction store
+     *
+     * @param inventory        the hashes announced by the peer
+     * @param responseObserver the observer response to the requested hashes
+     */
+    @Override
+    public void announceTxs(Proto.TxInventory inventory, StreamObserver<Proto.TxInventory> responseObserver) {
+        BranchId branchId = BranchId.of(inventory.getBranch().toByteArray());
+        BlockChain blockChain = branchGroup.getBranch(branchId);
+        Proto.TxInventory.Builder requested = Proto.TxInventory.newBuilder().setBranch(inventory.getBranch());
+
+        if (blockChain != null && blockChain.isFullSynced()) {
+            List<Sha3Hash> txHashes = inventory.getHashesList().stream()
+                    .map(hash -> new Sha3Hash(hash.toByteArray(), true)).collect(Collectors.toList());
+            markKnownTxs(inventory.getFrom(), txHashes);
+
+            for (Sha3Hash txHash : txHashes) {
+                if (!blockChain.getBlockChainManager().containsTxHash(txHash)
+                        && requestedTxs.putIfAbsent(txHash, Boolean.TRUE) == null) {
+                    requested.addHashes(ByteString.copyFrom(txHash.getBytes()));
+                }
+            }
+        } else {
+            log.debug("AnnounceTxs() is ignored. Not yet fullSynced.");
+        }
+
+        log.trace("Requested txs={}/{} from={}",
+                requested.getHashesCount(), inventory.getHashesCount(), inventory.getFrom());
+        responseObserver.onNext(requested.build());
+        responseObserver.onCompleted();
+    }
+
+    private void markKnownTxs(String from, List<Sha3Hash> txHashes) {
+        if (peerNetwork == null || from.isEmpty()) {
+            return;
+        }
+        try {
+            peerNetwork.receivedTxInventory(Peer.valueOf(from), txHashes);
+        } catch (Exception e) {
+            log.debug("Invalid announcer. from={} {}", from, e.getMessage());
+        }
+    }
+
+    @Override
+    public StreamObserver<Proto.TransactionList> broadcastTxList(
+            StreamObserver<CommonProto.Empty> responseObserver) {
+        return new StreamObserver<Proto.TransactionList>() {
+            @Override
+            public void onNext(Proto.TransactionList protoTxList) {
+                List<Transaction> txList = protoTxList.getTransactionsList().stream()
+                        .map(TransactionImpl::new).collect(Collectors.toList());
+                // The public keys of the batch are recovered in parallel ahead of adding them one by one
+                VerifierUtils.verifySignatures(txList);
+                for (Transaction tx : txList) {
+                    try {
+                        if (branchGroup.getBranch(tx.getBranchId()).isFullSynced()) {
+                            branchGroup.addTransaction(tx);
+                        } else {
+                            log.debug("BroadcastTxList() is failed. Not yet fullSynced.");
+                        }
+                    } catch (Exception e) {
+                        log.debug("BroadcastTxList() is failed. {}", e.getMessage());
+                    }
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.trace("Encountered error in broadcastTxList: {}", Status.fromThrowable(t));
+            }
+
+            @Override
+            public void onCompleted() {
+                log.debug("[BlockChainService] Complete broadcast tx list");
+                responseObserver.onNext(EMPTY);
+                responseObserver.onCompleted();
+            }
+        };
+    }
 }
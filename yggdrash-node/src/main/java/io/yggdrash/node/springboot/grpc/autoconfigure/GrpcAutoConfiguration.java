@@ -18,8 +18,10 @@ package io.yggdrash.node.springboot.grpc.autoconfigure;
 
 import io.grpc.ServerBuilder;
 import io.grpc.ServerInterceptor;
+import io.micrometer.core.instrument.Metrics;
 import io.yggdrash.common.config.Constants;
 import io.yggdrash.node.grpc.interceptor.IpBlockInterceptor;
+import io.yggdrash.node.grpc.interceptor.MetricsInterceptor;
 import io.yggdrash.node.springboot.grpc.GrpcGlobalInterceptor;
 import io.yggdrash.node.springboot.grpc.GrpcServerBuilderConfigurer;
 import io.yggdrash.node.springboot.grpc.GrpcServerRunner;
@@ -66,4 +68,10 @@ public class GrpcAutoConfiguration {
         ipBlockInterceptor.setBlackIps(blackList);
         return ipBlockInterceptor;
     }
+
+    @Bean(name = "metricsInterceptor")
+    @GrpcGlobalInterceptor
+    public ServerInterceptor metricsInterceptor() {
+        return new MetricsInterceptor(Metrics.globalRegistry);
+    }
 }
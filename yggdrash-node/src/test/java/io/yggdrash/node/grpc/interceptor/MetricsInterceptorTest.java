@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.node.grpc.interceptor;
+
+import io.grpc.ServerInterceptors;
+import io.grpc.testing.GrpcServerRule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.yggdrash.node.springboot.grpc.demo.GrpcDemoApp;
+import io.yggdrash.proto.DiscoveryServiceGrpc;
+import io.yggdrash.proto.Proto;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetricsInterceptorTest {
+
+    @Rule
+    public final GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Before
+    public void setUp() {
+        grpcServerRule.getServiceRegistry().addService(ServerInterceptors.intercept(
+                new GrpcDemoApp.PingPongService(), new MetricsInterceptor(registry)));
+    }
+
+    @Test
+    public void callShouldBeTimedByMethod() {
+        DiscoveryServiceGrpc.DiscoveryServiceBlockingStub blockingStub =
+                DiscoveryServiceGrpc.newBlockingStub(grpcServerRule.getChannel());
+
+        blockingStub.ping(Proto.Ping.newBuilder().setPing("Ping").build());
+        blockingStub.ping(Proto.Ping.newBuilder().setPing("Ping").build());
+
+        Timer timer = registry.get(MetricsInterceptor.METRIC_NAME)
+                .tag("method", DiscoveryServiceGrpc.getPingMethod().getFullMethodName())
+                .tag("status", "OK")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+}
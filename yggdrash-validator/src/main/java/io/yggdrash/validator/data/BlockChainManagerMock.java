@@ -18,6 +18,7 @@ import io.yggdrash.core.blockchain.Block;
 import io.yggdrash.core.blockchain.BlockChainManager;
 import io.yggdrash.core.blockchain.BlockChainManagerImpl;
 import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.blockchain.TransactionLocation;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.store.BlockChainStore;
 
@@ -58,6 +59,21 @@ public class BlockChainManagerMock<T> implements BlockChainManager<T> {
         blockChainManager.addBlock(nextBlock);
     }
 
+    @Override
+    public void startBlockCommit() {
+        blockChainManager.startBlockCommit();
+    }
+
+    @Override
+    public void endBlockCommit() {
+        blockChainManager.endBlockCommit();
+    }
+
+    @Override
+    public void discardBlockCommit() {
+        blockChainManager.discardBlockCommit();
+    }
+
     @Override
     public void batchTxs(ConsensusBlock<T> block) {
         blockChainManager.batchTxs(block);
@@ -98,11 +114,26 @@ public class BlockChainManagerMock<T> implements BlockChainManager<T> {
         return blockChainManager.getBlockByIndex(index);
     }
 
+    @Override
+    public List<ConsensusBlock<T>> getBlocksByRange(long fromIndex, long toIndex) {
+        return blockChainManager.getBlocksByRange(fromIndex, toIndex);
+    }
+
+    @Override
+    public List<byte[]> getBlockBinariesByRange(long fromIndex, long toIndex, long maxBytes) {
+        return blockChainManager.getBlockBinariesByRange(fromIndex, toIndex, maxBytes);
+    }
+
     @Override
     public Transaction getTxByHash(Sha3Hash hash) {
         return blockChainManager.getTxByHash(hash);
     }
 
+    @Override
+    public TransactionLocation getTxLocation(Sha3Hash txHash) {
+        return blockChainManager.getTxLocation(txHash);
+    }
+
     @Override
     public Collection<Transaction> getRecentTxs() {
         return blockChainManager.getRecentTxs();
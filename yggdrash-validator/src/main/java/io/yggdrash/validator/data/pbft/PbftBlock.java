@@ -36,7 +36,7 @@ public class PbftBlock extends AbstractConsensusBlock<PbftProto.PbftBlock> {
     }
 
     public PbftBlock(PbftProto.PbftBlock block) {
-        this(new BlockImpl(block.getBlock()), new PbftMessageSet(block.getPbftMessageSet()));
+        this(new BlockImpl(block.getBlock()), new PbftMessageSet(block.getPbftMessageSet(), block.getBlock()));
     }
 
     public PbftBlock(Block block, PbftMessageSet pbftMessageSet) {
@@ -63,7 +63,7 @@ public class PbftBlock extends AbstractConsensusBlock<PbftProto.PbftBlock> {
     public PbftProto.PbftBlock getInstance() {
         return PbftProto.PbftBlock.newBuilder()
                 .setBlock(getProtoBlock())
-                .setPbftMessageSet(PbftMessageSet.toProto(pbftMessageSet)).build();
+                .setPbftMessageSet(PbftMessageSet.toProto(pbftMessageSet, getBlock())).build();
     }
 
     @Override
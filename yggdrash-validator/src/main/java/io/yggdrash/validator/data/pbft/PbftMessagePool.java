@@ -0,0 +1,209 @@
+package io.yggdrash.validator.data.pbft;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The unconfirmed PBFT messages by the signature.
+ * The messages are indexed by the sequence number, the view number and the type,
+ * and a signer has only the first message for each of them.
+ * The removed messages are cleared.
+ * The threads waiting for the messages of a phase are woken on the monitor of the pool when a message is added.
+ */
+public class PbftMessagePool extends AbstractMap<String, PbftMessage> {
+    private static final Logger log = LoggerFactory.getLogger(PbftMessagePool.class);
+
+    private final Map<String, PbftMessage> messages = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final Map<String, String> signers = new HashMap<>();
+    // seqNumber -> viewNumber -> type -> signer -> key
+    private final NavigableMap<Long, NavigableMap<Long, Map<String, Map<String, String>>>> index = new TreeMap<>();
+
+    /**
+     * Add the message, unless the signer has a message of the same sequence, view and type
+     *
+     * @return null if the message is added, the message of the key or of the signer if it is duplicated,
+     *         or the message itself if its signer is not valid
+     */
+    @Override
+    public synchronized PbftMessage put(String key, PbftMessage message) {
+        PbftMessage existing = messages.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        String signer;
+        try {
+            signer = message.getAddressHex();
+        } catch (Exception e) {
+            log.debug("The signer of the message is not valid. {}", e.getMessage());
+            return message;
+        }
+
+        Map<String, String> bucket = index
+                .computeIfAbsent(message.getSeqNumber(), seqNumber -> new TreeMap<>())
+                .computeIfAbsent(message.getViewNumber(), viewNumber -> new HashMap<>())
+                .computeIfAbsent(message.getType(), type -> new LinkedHashMap<>());
+        String signed = bucket.putIfAbsent(signer, key);
+        if (signed != null) {
+            log.debug("Messages are duplicated by {} {}", signer, message);
+            return messages.get(signed);
+        }
+        messages.put(key, message);
+        signers.put(key, signer);
+        notifyAll();
+        return null;
+    }
+
+    @Override
+    public PbftMessage get(Object key) {
+        return messages.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return messages.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return messages.size();
+    }
+
+    @Override
+    public synchronized PbftMessage remove(Object key) {
+        PbftMessage message = messages.remove(key);
+        if (message == null) {
+            return null;
+        }
+        String signer = signers.remove(key);
+        NavigableMap<Long, Map<String, Map<String, String>>> views = index.get(message.getSeqNumber());
+        Map<String, Map<String, String>> types = views.get(message.getViewNumber());
+        Map<String, String> bucket = types.get(message.getType());
+        bucket.remove(signer);
+        if (bucket.isEmpty()) {
+            types.remove(message.getType());
+            if (types.isEmpty()) {
+                views.remove(message.getViewNumber());
+                if (views.isEmpty()) {
+                    index.remove(message.getSeqNumber());
+                }
+            }
+        }
+        message.clear();
+        return message;
+    }
+
+    @Override
+    public synchronized void clear() {
+        messages.values().forEach(PbftMessage::clear);
+        messages.clear();
+        signers.clear();
+        index.clear();
+    }
+
+    /**
+     * The messages are read only, and they are removed by the key
+     */
+    @Override
+    public Set<Entry<String, PbftMessage>> entrySet() {
+        return Collections.unmodifiableMap(messages).entrySet();
+    }
+
+    /**
+     * Get the messages of the sequence, the view and the type by the signature
+     */
+    public synchronized Map<String, PbftMessage> getMessages(long viewNumber, long seqNumber, String type) {
+        Map<String, PbftMessage> msgMap = new TreeMap<>();
+        for (String key : bucket(viewNumber, seqNumber, type).values()) {
+            msgMap.put(key, messages.get(key));
+        }
+        return msgMap;
+    }
+
+    public synchronized int count(long viewNumber, long seqNumber, String type) {
+        return bucket(viewNumber, seqNumber, type).size();
+    }
+
+    /**
+     * Wait until the messages of the sequence, the view and the type are enough.
+     * The count is checked again whenever a message is added, not by polling.
+     *
+     * @return true if the messages are enough, or false if the time is out
+     */
+    public synchronized boolean awaitCount(long viewNumber, long seqNumber, String type, int count,
+                                           long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (count(viewNumber, seqNumber, type) < count) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Get the messages at or above the view and the sequence by the signature
+     */
+    public synchronized Map<String, PbftMessage> getMessagesFrom(long viewNumber, long seqNumber) {
+        Map<String, PbftMessage> msgMap = new TreeMap<>();
+        for (NavigableMap<Long, Map<String, Map<String, String>>> views : index.tailMap(seqNumber, true).values()) {
+            for (Map<String, Map<String, String>> types : views.tailMap(viewNumber, true).values()) {
+                for (Map<String, String> bucket : types.values()) {
+                    bucket.values().forEach(key -> msgMap.put(key, messages.get(key)));
+                }
+            }
+        }
+        return msgMap;
+    }
+
+    /**
+     * Remove the messages below the sequence
+     */
+    public synchronized void removeBelow(long seqNumber) {
+        List<String> keys = new ArrayList<>();
+        for (NavigableMap<Long, Map<String, Map<String, String>>> views : index.headMap(seqNumber, false).values()) {
+            views.values().forEach(types -> collectKeys(types, keys));
+        }
+        keys.forEach(this::remove);
+    }
+
+    /**
+     * Remove the messages below the view or below the sequence
+     */
+    public synchronized void removeBelow(long viewNumber, long seqNumber) {
+        removeBelow(seqNumber);
+        List<String> keys = new ArrayList<>();
+        for (NavigableMap<Long, Map<String, Map<String, String>>> views : index.values()) {
+            views.headMap(viewNumber, false).values().forEach(types -> collectKeys(types, keys));
+        }
+        keys.forEach(this::remove);
+    }
+
+    private static void collectKeys(Map<String, Map<String, String>> types, List<String> keys) {
+        types.values().forEach(bucket -> keys.addAll(bucket.values()));
+    }
+
+    private Map<String, String> bucket(long viewNumber, long seqNumber, String type) {
+        NavigableMap<Long, Map<String, Map<String, String>>> views = index.get(seqNumber);
+        Map<String, Map<String, String>> types = views != null ? views.get(viewNumber) : null;
+        Map<String, String> bucket = types != null ? types.get(type) : null;
+        return bucket != null ? bucket : Collections.emptyMap();
+    }
+}
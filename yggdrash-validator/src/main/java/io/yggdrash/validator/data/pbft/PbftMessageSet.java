@@ -3,19 +3,29 @@ package io.yggdrash.validator.data.pbft;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.protobuf.ByteString;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.config.Constants;
 import io.yggdrash.common.utils.JsonUtil;
 import io.yggdrash.common.utils.SerializationUtil;
+import io.yggdrash.core.blockchain.Block;
 import io.yggdrash.core.consensus.ConsensusMessageSet;
 import io.yggdrash.core.exception.NotValidateException;
 import io.yggdrash.proto.PbftProto;
+import io.yggdrash.proto.Proto;
 import org.spongycastle.util.encoders.Hex;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Map;
 import java.util.TreeMap;
 
 public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
 
+    // Whether the certificates are written compact. Both forms are read, but the nodes of the previous release
+    // read the full form only, so it is enabled once all the nodes and validators are upgraded.
+    private static volatile boolean compactEncoding = false;
+
     private final PbftMessage prePrepare;
 
     // Map<SignatureHex, PbftMessage>
@@ -72,7 +82,30 @@ public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
     }
 
     public PbftMessageSet(PbftProto.PbftMessageSet protoPbftMessageSet) {
-        this.prePrepare = new PbftMessage(protoPbftMessageSet.getPrePrepare());
+        this(protoPbftMessageSet, null);
+    }
+
+    /**
+     * @param prePrepareBlock the block of the prePrepare, if it is omitted in the message set of the block
+     */
+    public PbftMessageSet(PbftProto.PbftMessageSet protoPbftMessageSet, Proto.Block prePrepareBlock) {
+        PbftProto.PbftMessage protoPrePrepare = protoPbftMessageSet.getPrePrepare();
+        if (prePrepareBlock != null && !protoPrePrepare.hasBlock()
+                && Constants.PBFT_PREPREPARE.equals(protoPrePrepare.getType())) {
+            protoPrePrepare = protoPrePrepare.toBuilder().setBlock(prePrepareBlock).build();
+        }
+        this.prePrepare = new PbftMessage(protoPrePrepare);
+
+        // The compact signatures are of the messages for the prePrepare
+        for (ByteString signature : protoPbftMessageSet.getPrepareSignaturesList()) {
+            PbftMessage pbftMessage = certifiedMessage(Constants.PBFT_PREPARE, signature);
+            this.prepareMap.putIfAbsent(pbftMessage.getSignatureHex(), pbftMessage);
+        }
+
+        for (ByteString signature : protoPbftMessageSet.getCommitSignaturesList()) {
+            PbftMessage pbftMessage = certifiedMessage(Constants.PBFT_COMMIT, signature);
+            this.commitMap.putIfAbsent(pbftMessage.getSignatureHex(), pbftMessage);
+        }
 
         for (PbftProto.PbftMessage pbftMessage : protoPbftMessageSet.getPrepareList().getPbftMessageListList()) {
             if (!this.prepareMap.containsKey(Hex.toHexString(pbftMessage.getSignature().toByteArray()))) {
@@ -96,6 +129,11 @@ public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
         }
     }
 
+    private PbftMessage certifiedMessage(String type, ByteString signature) {
+        return new PbftMessage(type, prePrepare.getViewNumber(), prePrepare.getSeqNumber(),
+                Sha3Hash.createByHashed(prePrepare.getHash()), null, signature.toByteArray(), null);
+    }
+
     @Override
     public PbftMessage getPrePrepare() {
         return prePrepare;
@@ -164,31 +202,59 @@ public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
     }
 
 
+    public static void setCompactEncoding(boolean compactEncoding) {
+        PbftMessageSet.compactEncoding = compactEncoding;
+    }
+
+    public static boolean isCompactEncoding() {
+        return compactEncoding;
+    }
+
     public static PbftProto.PbftMessageSet toProto(PbftMessageSet pbftMessageSet) {
+        return toProto(pbftMessageSet, null);
+    }
+
+    /**
+     * Convert the message set to the proto.
+     * If the compact encoding is enabled, the prepare and commit messages for the prePrepare are converted
+     * to their signatures only, and the block of the prePrepare is omitted if it is the given block.
+     *
+     * @param block the block of the message set, or null
+     */
+    public static PbftProto.PbftMessageSet toProto(PbftMessageSet pbftMessageSet, Block block) {
 
         if (pbftMessageSet == null) {
             return null;
         }
 
-        PbftProto.PbftMessage protoPrePrepareMessage =
-                PbftMessage.toProto(pbftMessageSet.getPrePrepare());
-
-        PbftProto.PbftMessageList protoPrepareMessageList =
-                PbftMessage.toProtoList(pbftMessageSet.getPrepareMap().values());
-
-        PbftProto.PbftMessageList protoCommitMessageList =
-                PbftMessage.toProtoList(pbftMessageSet.getCommitMap().values());
+        boolean compact = compactEncoding;
+        PbftMessage prePrepare = pbftMessageSet.getPrePrepare();
+        PbftProto.PbftMessage protoPrePrepareMessage = PbftMessage.toProto(prePrepare);
 
         PbftProto.PbftMessageSet.Builder protoPbftMessageSetBuilder =
                 PbftProto.PbftMessageSet.newBuilder();
         if (protoPrePrepareMessage != null) {
+            if (compact && block != null && prePrepare.getBlock() != null
+                    && Arrays.equals(prePrepare.getHash(), block.getHash().getBytes())) {
+                protoPrePrepareMessage = protoPrePrepareMessage.toBuilder().clearBlock().build();
+            }
             protoPbftMessageSetBuilder.setPrePrepare(protoPrePrepareMessage);
         }
-        if (protoPrepareMessageList != null) {
-            protoPbftMessageSetBuilder.setPrepareList(protoPrepareMessageList);
+
+        Collection<PbftMessage> prepares = pbftMessageSet.getPrepareMap().values();
+        if (compact && isCertified(prePrepare, prepares)) {
+            prepares.forEach(pbftMessage ->
+                    protoPbftMessageSetBuilder.addPrepareSignatures(ByteString.copyFrom(pbftMessage.getSignature())));
+        } else {
+            protoPbftMessageSetBuilder.setPrepareList(PbftMessage.toProtoList(prepares));
         }
-        if (protoCommitMessageList != null) {
-            protoPbftMessageSetBuilder.setCommitList(protoCommitMessageList);
+
+        Collection<PbftMessage> commits = pbftMessageSet.getCommitMap().values();
+        if (compact && isCertified(prePrepare, commits)) {
+            commits.forEach(pbftMessage ->
+                    protoPbftMessageSetBuilder.addCommitSignatures(ByteString.copyFrom(pbftMessage.getSignature())));
+        } else {
+            protoPbftMessageSetBuilder.setCommitList(PbftMessage.toProtoList(commits));
         }
 
         PbftProto.PbftMessageList protoViewChangeMessageList =
@@ -200,6 +266,21 @@ public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
         return protoPbftMessageSetBuilder.build();
     }
 
+    // Whether the messages differ from the prePrepare only by the type and the signature
+    private static boolean isCertified(PbftMessage prePrepare, Collection<PbftMessage> pbftMessages) {
+        for (PbftMessage pbftMessage : pbftMessages) {
+            if (pbftMessage.getViewNumber() != prePrepare.getViewNumber()
+                    || pbftMessage.getSeqNumber() != prePrepare.getSeqNumber()
+                    || !Arrays.equals(pbftMessage.getHash(), prePrepare.getHash())
+                    || pbftMessage.getResult() != null
+                    || pbftMessage.getSignature() == null
+                    || pbftMessage.getBlock() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static PbftMessageSet forGenesis() {
         PbftProto.PbftMessage empty = PbftProto.PbftMessage.newBuilder().build();
         return new PbftMessageSet(new PbftMessage(empty), null, null, null);
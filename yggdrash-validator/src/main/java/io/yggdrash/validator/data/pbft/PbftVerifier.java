@@ -12,6 +12,7 @@
 
 package io.yggdrash.validator.data.pbft;
 
+import io.yggdrash.common.crypto.SignatureVerifier;
 import io.yggdrash.common.util.VerifierUtils;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.consensus.ConsensusMessage;
@@ -20,7 +21,9 @@ import io.yggdrash.core.consensus.ConsensusVerifier;
 import io.yggdrash.core.wallet.Wallet;
 import io.yggdrash.proto.PbftProto;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 public class PbftVerifier implements ConsensusVerifier<PbftProto.PbftBlock, PbftMessage> {
@@ -69,23 +72,12 @@ public class PbftVerifier implements ConsensusVerifier<PbftProto.PbftBlock, Pbft
             return false;
         }
 
-        for (Map.Entry<String, PbftMessage> entry : prepareMap.entrySet()) {
-            if (!verify(entry.getValue())) {
-                return false;
-            }
-        }
-
-        for (Map.Entry<String, PbftMessage> entry : commitMap.entrySet()) {
-            if (!verify(entry.getValue())) {
-                return false;
-            }
-        }
-
-        Map<String, PbftMessage> viewChangeMap = pbftMessageSet.getViewChangeMap();
-        for (Map.Entry<String, PbftMessage> entry : viewChangeMap.entrySet()) {
-            if (!verify(entry.getValue())) {
-                return false;
-            }
+        // The signatures of the prepare, commit and view change messages are verified in parallel
+        List<PbftMessage> messages = new ArrayList<>(prepareMap.values());
+        messages.addAll(commitMap.values());
+        messages.addAll(pbftMessageSet.getViewChangeMap().values());
+        if (!SignatureVerifier.verifyAll(messages, this::verify)) {
+            return false;
         }
 
         //todo : check 2f + 1 message count
@@ -0,0 +1,55 @@
+package io.yggdrash.validator.service;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.yggdrash.proto.CommonProto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Observes an asynchronous send to a validator, which is issued without waiting for the acknowledgement.
+ * The latency until the acknowledgement is recorded by the validator, the method and the status code.
+ */
+public class SendObserver implements StreamObserver<CommonProto.Empty> {
+    private static final Logger log = LoggerFactory.getLogger(SendObserver.class);
+
+    static final String METRIC_NAME = "yggdrash.consensus.send";
+
+    private final String validatorId;
+    private final String method;
+    private final Timer.Sample sample;
+
+    public SendObserver(String validatorId, String method) {
+        this.validatorId = validatorId;
+        this.method = method;
+        this.sample = Timer.start(Metrics.globalRegistry);
+    }
+
+    @Override
+    public void onNext(CommonProto.Empty empty) {
+        log.trace("{} to {} is acknowledged", method, validatorId);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        Status status = Status.fromThrowable(t);
+        log.debug("{} to {} is failed. {}", method, validatorId, status);
+        record(status);
+    }
+
+    @Override
+    public void onCompleted() {
+        record(Status.OK);
+    }
+
+    private void record(Status status) {
+        sample.stop(Timer.builder(METRIC_NAME)
+                .description("The latency of the messages sent to the validators")
+                .tag("validator", validatorId)
+                .tag("method", method)
+                .tag("status", status.getCode().name())
+                .register(Metrics.globalRegistry));
+    }
+}
@@ -13,6 +13,7 @@ import io.yggdrash.core.exception.NotValidateException;
 import io.yggdrash.core.wallet.Wallet;
 import io.yggdrash.validator.data.ebft.EbftBlockChain;
 import io.yggdrash.validator.data.pbft.PbftBlockChain;
+import io.yggdrash.validator.data.pbft.PbftMessageSet;
 import io.yggdrash.validator.service.ebft.EbftServerStub;
 import io.yggdrash.validator.service.ebft.EbftService;
 import io.yggdrash.validator.service.node.TransactionServiceStub;
@@ -46,6 +47,7 @@ public class ValidatorService {
             DefaultConfig defaultConfig, Block genesisBlock) throws IOException, InvalidCipherTextException {
         this.defaultConfig = defaultConfig;
         setLogLevel();
+        PbftMessageSet.setCompactEncoding(defaultConfig.isPbftCertificateCompact());
         this.host = defaultConfig.getString(Constants.VALIDATOR_GRPC_HOST_CONF);
         this.port = defaultConfig.getInt(Constants.VALIDATOR_GRPC_PORT_CONF);
         this.wallet = new Wallet(defaultConfig.getString(Constants.YGGDRASH_KEY_PATH),
@@ -12,6 +12,7 @@ import io.yggdrash.proto.Proto;
 import io.yggdrash.validator.data.ebft.EbftBlock;
 import io.yggdrash.validator.data.ebft.EbftStatus;
 import io.yggdrash.validator.service.ConsensusClientStub;
+import io.yggdrash.validator.service.SendObserver;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +35,7 @@ public class EbftClientStub implements ConsensusClientStub<EbftBlock> {
 
     private ManagedChannel channel;
     private final EbftServiceGrpc.EbftServiceBlockingStub blockingStub;
+    private final EbftServiceGrpc.EbftServiceStub asyncStub;
 
     public EbftClientStub(String addr, String host, int port) {
         this.addr = addr;
@@ -47,6 +49,7 @@ public class EbftClientStub implements ConsensusClientStub<EbftBlock> {
                 .maxInboundMessageSize(Constants.MAX_GRPC_MESSAGE_LIMIT)
                 .build();
         blockingStub = EbftServiceGrpc.newBlockingStub(channel);
+        asyncStub = EbftServiceGrpc.newStub(channel);
     }
 
     public void shutdown() throws InterruptedException {
@@ -89,14 +92,20 @@ public class EbftClientStub implements ConsensusClientStub<EbftBlock> {
         return ebftStatus;
     }
 
+    /**
+     * Send the block without waiting for the acknowledgement
+     */
     public void multicastEbftBlock(EbftProto.EbftBlock block) {
-        blockingStub.withDeadlineAfter(TIMEOUT_BLOCK, TimeUnit.SECONDS)
-                .multicastEbftBlock(block);
+        asyncStub.withDeadlineAfter(TIMEOUT_BLOCK, TimeUnit.SECONDS)
+                .multicastEbftBlock(block, new SendObserver(id, "multicastEbftBlock"));
     }
 
+    /**
+     * Send the block without waiting for the acknowledgement
+     */
     public void broadcastEbftBlock(EbftProto.EbftBlock block) {
-        blockingStub.withDeadlineAfter(TIMEOUT_BLOCK, TimeUnit.SECONDS)
-                .broadcastEbftBlock(block);
+        asyncStub.withDeadlineAfter(TIMEOUT_BLOCK, TimeUnit.SECONDS)
+                .broadcastEbftBlock(block, new SendObserver(id, "broadcastEbftBlock"));
     }
 
     @Override
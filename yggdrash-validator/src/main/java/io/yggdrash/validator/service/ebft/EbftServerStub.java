@@ -8,6 +8,7 @@ import io.yggdrash.core.blockchain.TransactionImpl;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.consensus.ConsensusBlockChain;
 import io.yggdrash.core.exception.errorcode.BusinessError;
+import io.yggdrash.core.p2p.BlockBinaryStream;
 import io.yggdrash.proto.CommonProto;
 import io.yggdrash.proto.EbftProto;
 import io.yggdrash.proto.EbftServiceGrpc;
@@ -16,6 +17,8 @@ import io.yggdrash.validator.data.ebft.EbftBlock;
 import io.yggdrash.validator.data.ebft.EbftStatus;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 public class EbftServerStub extends EbftServiceGrpc.EbftServiceImplBase {
 
     private static final org.slf4j.Logger log = LoggerFactory.getLogger(EbftServerStub.class);
@@ -130,24 +133,36 @@ public class EbftServerStub extends EbftServiceGrpc.EbftServiceImplBase {
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamEbftBlocks(CommonProto.Offset request,
+                                 StreamObserver<CommonProto.BlockBinaryList> responseObserver) {
+        long start = Math.max(request.getIndex(), 0);
+        long end = Math.min(start - 1 + request.getCount(), blockChain.getBlockChainManager().getLastIndex());
+        log.trace("stream start: {} - end: {}", start, end);
+
+        BlockBinaryStream.start(responseObserver, start, end,
+                blockChain.getBlockChainManager()::getBlockBinariesByRange);
+    }
+
     private EbftProto.EbftBlockList getBlockList(long start, long end) {
         EbftProto.EbftBlockList.Builder builder = EbftProto.EbftBlockList.newBuilder();
         if (start >= end) {
             return builder.build();
         }
+        List<ConsensusBlock<EbftProto.EbftBlock>> blocks;
+        try {
+            blocks = blockChain.getBlockChainManager().getBlocksByRange(start, end);
+        } catch (Exception e) {
+            log.debug("getBlockList() is failed. {}", e.getMessage());
+            return builder.build();
+        }
         long bodyLengthSum = 0;
-        for (long l = start; l <= end; l++) {
-            try {
-                // todo: check efficiency
-                ConsensusBlock<EbftProto.EbftBlock> block = blockChain.getBlockChainManager().getBlockByIndex(l);
-                bodyLengthSum += block.getSerializedSize();
-                if (bodyLengthSum > Constants.Limit.BLOCK_SYNC_SIZE) {
-                    return builder.build();
-                }
-                builder.addEbftBlock(block.getInstance());
-            } catch (Exception e) {
+        for (ConsensusBlock<EbftProto.EbftBlock> block : blocks) {
+            bodyLengthSum += block.getSerializedSize();
+            if (bodyLengthSum > Constants.Limit.BLOCK_SYNC_SIZE) {
                 break;
             }
+            builder.addEbftBlock(block.getInstance());
         }
         return builder.build();
     }
@@ -5,6 +5,7 @@ import com.typesafe.config.ConfigException;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
 import io.yggdrash.common.config.DefaultConfig;
+import io.yggdrash.common.crypto.SignatureVerifier;
 import io.yggdrash.common.util.TimeUtils;
 import io.yggdrash.core.blockchain.Block;
 import io.yggdrash.core.blockchain.BlockBody;
@@ -301,7 +302,8 @@ public class EbftService implements ConsensusService<EbftProto.EbftBlock, EbftBl
     }
 
     private Block makeNewBlock(long index, byte[] prevBlockHash) {
-        List<Transaction> txList = new ArrayList<>(blockChain.getBlockChainManager().getUnconfirmedTxs());
+        List<Transaction> txList =
+                blockChain.getBlockChainManager().getUnconfirmedTxsWithLimit(Constants.Limit.BLOCK_SYNC_SIZE);
         BlockRuntimeResult result = blockChain.getContractManager().executeTxs(txList);
         Sha3Hash curStateRootHash
                 = new Sha3Hash(result.getBlockResult().get("stateRoot").get("stateHash").getAsString());
@@ -477,7 +479,9 @@ public class EbftService implements ConsensusService<EbftProto.EbftBlock, EbftBl
         log.debug("");
     }
 
+    // The sends are issued to all validators at once, so a slow validator does not delay the others
     private void multicastBlock(EbftBlock block) {
+        EbftProto.EbftBlock protoBlock = block.getInstance();
         for (Map.Entry<String, EbftClientStub> entry : totalValidatorMap.entrySet()) {
             EbftClientStub client = entry.getValue();
             if (client.isMyclient()) {
@@ -485,7 +489,7 @@ public class EbftService implements ConsensusService<EbftProto.EbftBlock, EbftBl
             }
             if (client.isRunning()) {
                 try {
-                    client.multicastEbftBlock(block.getInstance());
+                    client.multicastEbftBlock(protoBlock);
                 } catch (Exception e) {
                     log.debug("multicast exception: {}", e.getMessage());
                     log.debug("client: {}", client.getId());
@@ -496,13 +500,14 @@ public class EbftService implements ConsensusService<EbftProto.EbftBlock, EbftBl
     }
 
     private void broadcastBlock(EbftBlock block, Map<String, EbftClientStub> clientMap) {
+        EbftProto.EbftBlock protoBlock = block.getInstance();
         for (Map.Entry<String, EbftClientStub> entry : clientMap.entrySet()) {
             EbftClientStub client = entry.getValue();
             if (client.isMyclient()) {
                 continue;
             }
             try {
-                client.broadcastEbftBlock(block.getInstance());
+                client.broadcastEbftBlock(protoBlock);
                 log.debug("BroadcastBlock [{}]{} to {}:{}", block.getIndex(), block.getHash(),
                         client.getHost(), client.getPort());
             } catch (Exception e) {
@@ -653,14 +658,10 @@ public class EbftService implements ConsensusService<EbftProto.EbftBlock, EbftBl
             return true;
         }
 
-        for (ByteString signature : ebftBlock.getConsensusMessages()) {
-            if (!Wallet.verify(ebftBlock.getHash().getBytes(), signature.toByteArray(), true)) {
-                return false;
-            }
-            // todo: else, check validator
-        }
-
-        return true;
+        // todo: check validator
+        byte[] hash = ebftBlock.getHash().getBytes();
+        return SignatureVerifier.verifyAll(ebftBlock.getConsensusMessages(),
+                signature -> Wallet.verify(hash, signature.toByteArray(), true));
     }
 
     // todo: check security
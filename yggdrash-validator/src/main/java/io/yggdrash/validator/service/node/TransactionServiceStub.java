@@ -16,8 +16,11 @@
 
 package io.yggdrash.validator.service.node;
 
+import com.google.protobuf.ByteString;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.util.VerifierUtils;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.blockchain.TransactionImpl;
@@ -32,6 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class TransactionServiceStub extends TransactionServiceGrpc.TransactionServiceImplBase {
     private static final Logger log = LoggerFactory.getLogger(TransactionServiceStub.class);
@@ -69,13 +73,7 @@ public class TransactionServiceStub extends TransactionServiceGrpc.TransactionSe
         return new StreamObserver<Proto.Transaction>() {
             @Override
             public void onNext(Proto.Transaction protoTx) {
-                Transaction tx = new TransactionImpl(protoTx);
-                log.trace("Received transaction: hash={}", tx.getHash());
-                if (tx.getBranchId().equals(blockChain.getBranchId())
-                        && blockChain.getBlockChainManager().verify(tx) == BusinessError.VALID.toValue()) {
-                    blockChain.getBlockChainManager().addTransaction(tx);
-                    multicastTransaction(protoTx);
-                }
+                addTransaction(new TransactionImpl(protoTx), protoTx);
             }
 
             @Override
@@ -92,6 +90,58 @@ public class TransactionServiceStub extends TransactionServiceGrpc.TransactionSe
         };
     }
 
+    @Override
+    public void announceTxs(Proto.TxInventory inventory, StreamObserver<Proto.TxInventory> responseObserver) {
+        Proto.TxInventory.Builder requested = Proto.TxInventory.newBuilder().setBranch(inventory.getBranch());
+        if (BranchId.of(inventory.getBranch().toByteArray()).equals(blockChain.getBranchId())) {
+            for (ByteString hash : inventory.getHashesList()) {
+                if (!blockChain.getBlockChainManager().containsTxHash(new Sha3Hash(hash.toByteArray(), true))) {
+                    requested.addHashes(hash);
+                }
+            }
+        }
+        responseObserver.onNext(requested.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<Proto.TransactionList> broadcastTxList(
+            StreamObserver<CommonProto.Empty> responseObserver) {
+        return new StreamObserver<Proto.TransactionList>() {
+            @Override
+            public void onNext(Proto.TransactionList protoTxList) {
+                List<Transaction> txList = protoTxList.getTransactionsList().stream()
+                        .map(TransactionImpl::new).collect(Collectors.toList());
+                // The public keys of the batch are recovered in parallel ahead of the verification one by one
+                VerifierUtils.verifySignatures(txList);
+                for (int i = 0; i < txList.size(); i++) {
+                    addTransaction(txList.get(i), protoTxList.getTransactions(i));
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.trace("Encountered error in broadcastTxList: {}", Status.fromThrowable(t));
+            }
+
+            @Override
+            public void onCompleted() {
+                log.debug("[BlockChainService] Complete broadcast tx list");
+                responseObserver.onNext(EMPTY);
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private void addTransaction(Transaction tx, Proto.Transaction protoTx) {
+        log.trace("Received transaction: hash={}", tx.getHash());
+        if (tx.getBranchId().equals(blockChain.getBranchId())
+                && blockChain.getBlockChainManager().verify(tx) == BusinessError.VALID.toValue()) {
+            blockChain.getBlockChainManager().addTransaction(tx);
+            multicastTransaction(protoTx);
+        }
+    }
+
     private void multicastTransaction(Proto.Transaction protoTx) {
         for (Object object : consensusService.getTotalValidatorMap().values()) {
             ConsensusClientStub client = (ConsensusClientStub) object;
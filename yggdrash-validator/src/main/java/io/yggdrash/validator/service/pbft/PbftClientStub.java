@@ -12,6 +12,7 @@ import io.yggdrash.proto.Proto;
 import io.yggdrash.validator.data.pbft.PbftBlock;
 import io.yggdrash.validator.data.pbft.PbftStatus;
 import io.yggdrash.validator.service.ConsensusClientStub;
+import io.yggdrash.validator.service.SendObserver;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
@@ -37,6 +38,7 @@ public class PbftClientStub implements ConsensusClientStub<PbftBlock> {
 
     private ManagedChannel channel;
     private PbftServiceGrpc.PbftServiceBlockingStub blockingStub;
+    private PbftServiceGrpc.PbftServiceStub asyncStub;
 
     PbftClientStub(String addr, String host, int port) {
         this.addr = addr;
@@ -48,6 +50,7 @@ public class PbftClientStub implements ConsensusClientStub<PbftBlock> {
         if (host == null || host.equals("") || port == 0L) {
             this.channel = null;
             this.blockingStub = null;
+            this.asyncStub = null;
         } else {
             try {
                 this.channel = ManagedChannelBuilder.forAddress(host, port)
@@ -55,12 +58,14 @@ public class PbftClientStub implements ConsensusClientStub<PbftBlock> {
                         .maxInboundMessageSize(Constants.MAX_GRPC_MESSAGE_LIMIT)
                         .build();
                 blockingStub = PbftServiceGrpc.newBlockingStub(channel);
+                asyncStub = PbftServiceGrpc.newStub(channel);
             } catch (Exception e) {
                 if (channel != null) {
                     channel.shutdown();
                 }
                 this.channel = null;
                 this.blockingStub = null;
+                this.asyncStub = null;
             }
         }
     }
@@ -71,14 +76,20 @@ public class PbftClientStub implements ConsensusClientStub<PbftBlock> {
                 .multicastTransaction(protoTx);
     }
 
+    /**
+     * Send the message without waiting for the acknowledgement
+     */
     void multicastPbftMessage(PbftProto.PbftMessage pbftMessage) {
-        blockingStub.withDeadlineAfter(TIMEOUT_BLOCK, TimeUnit.SECONDS)
-                .multicastPbftMessage(pbftMessage);
+        asyncStub.withDeadlineAfter(TIMEOUT_BLOCK, TimeUnit.SECONDS)
+                .multicastPbftMessage(pbftMessage, new SendObserver(id, "multicastPbftMessage"));
     }
 
+    /**
+     * Send the block without waiting for the acknowledgement
+     */
     void broadcastPbftBlock(PbftProto.PbftBlock pbftBlock) {
-        blockingStub.withDeadlineAfter(TIMEOUT_BLOCK, TimeUnit.SECONDS)
-                .broadcastPbftBlock(pbftBlock);
+        asyncStub.withDeadlineAfter(TIMEOUT_BLOCK, TimeUnit.SECONDS)
+                .broadcastPbftBlock(pbftBlock, new SendObserver(id, "broadcastPbftBlock"));
     }
 
     @Override
@@ -8,6 +8,7 @@ import io.yggdrash.core.blockchain.TransactionImpl;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.consensus.ConsensusBlockChain;
 import io.yggdrash.core.exception.errorcode.BusinessError;
+import io.yggdrash.core.p2p.BlockBinaryStream;
 import io.yggdrash.proto.CommonProto;
 import io.yggdrash.proto.PbftProto;
 import io.yggdrash.proto.PbftServiceGrpc;
@@ -18,6 +19,8 @@ import io.yggdrash.validator.data.pbft.PbftStatus;
 import io.yggdrash.validator.data.pbft.PbftVerifier;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 public class PbftServerStub extends PbftServiceGrpc.PbftServiceImplBase {
 
     private static final org.slf4j.Logger log = LoggerFactory.getLogger(PbftServerStub.class);
@@ -95,9 +98,7 @@ public class PbftServerStub extends PbftServiceGrpc.PbftServiceImplBase {
             responseObserver.onNext(EMPTY);
             responseObserver.onCompleted();
 
-            pbftService.getLock().lock();
             pbftService.updateUnconfirmedMsg(pbftMessage);
-            pbftService.getLock().unlock();
         } finally {
             pbftMessage.clear();
         }
@@ -147,24 +148,36 @@ public class PbftServerStub extends PbftServiceGrpc.PbftServiceImplBase {
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamPbftBlocks(CommonProto.Offset request,
+                                 StreamObserver<CommonProto.BlockBinaryList> responseObserver) {
+        long start = Math.max(request.getIndex(), 0);
+        long end = Math.min(start - 1 + request.getCount(), blockChain.getBlockChainManager().getLastIndex());
+        log.trace("stream start: {} - end: {}", start, end);
+
+        BlockBinaryStream.start(responseObserver, start, end,
+                blockChain.getBlockChainManager()::getBlockBinariesByRange);
+    }
+
     private PbftProto.PbftBlockList getBlockList(long start, long end) {
         PbftProto.PbftBlockList.Builder builder = PbftProto.PbftBlockList.newBuilder();
         if (start > end) {
             return builder.build();
         }
+        List<ConsensusBlock<PbftProto.PbftBlock>> blocks;
+        try {
+            blocks = blockChain.getBlockChainManager().getBlocksByRange(start, end);
+        } catch (Exception e) {
+            log.debug("getBlockList() is failed. {}", e.getMessage());
+            return builder.build();
+        }
         long bodyLengthSum = 0;
-        for (long l = start; l <= end; l++) {
-            try {
-                // todo: check efficiency
-                ConsensusBlock<PbftProto.PbftBlock> block = blockChain.getBlockChainManager().getBlockByIndex(l);
-                bodyLengthSum += block.getSerializedSize();
-                if (bodyLengthSum > Constants.Limit.BLOCK_SYNC_SIZE) {
-                    return builder.build();
-                }
-                builder.addPbftBlock(block.getInstance());
-            } catch (Exception e) {
+        for (ConsensusBlock<PbftProto.PbftBlock> block : blocks) {
+            bodyLengthSum += block.getSerializedSize();
+            if (bodyLengthSum > Constants.Limit.BLOCK_SYNC_SIZE) {
                 break;
             }
+            builder.addPbftBlock(block.getInstance());
         }
         return builder.build();
     }
@@ -179,8 +192,6 @@ public class PbftServerStub extends PbftServiceGrpc.PbftServiceImplBase {
             return;
         }
 
-        pbftService.getLock().lock();
         pbftService.updateUnconfirmedMsgMap(status.getUnConfirmedPbftMessageMap());
-        pbftService.getLock().unlock();
     }
 }
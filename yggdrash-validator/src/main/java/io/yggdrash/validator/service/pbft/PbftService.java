@@ -1,6 +1,9 @@
 package io.yggdrash.validator.service.pbft;
 
 import com.typesafe.config.ConfigException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
 import io.yggdrash.common.config.DefaultConfig;
@@ -21,18 +24,20 @@ import io.yggdrash.core.wallet.Wallet;
 import io.yggdrash.proto.PbftProto;
 import io.yggdrash.validator.data.pbft.PbftBlock;
 import io.yggdrash.validator.data.pbft.PbftMessage;
+import io.yggdrash.validator.data.pbft.PbftMessagePool;
 import io.yggdrash.validator.data.pbft.PbftMessageSet;
 import io.yggdrash.validator.data.pbft.PbftStatus;
 import io.yggdrash.validator.data.pbft.PbftVerifier;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMessage, PbftClientStub> {
@@ -40,6 +45,8 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
     private static final org.slf4j.Logger log = LoggerFactory.getLogger(PbftService.class);
 
     private static final int FAIL_COUNT = 3;
+    // The time waiting for the messages of a phase
+    private static final long MESSAGE_WAIT_MILLIS = 100;
 
     private final DefaultConfig defaultConfig;
     private final Wallet wallet;
@@ -47,24 +54,29 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
 
     private final PbftClientStub myNode;
     private final Map<String, Peer> validatorConfigMap;
+    private final PbftMessagePool messagePool = new PbftMessagePool();
     private final Map<String, PbftClientStub> proxyNodeMap;
     private final ReentrantLock lock = new ReentrantLock();
     private final String grpcHost;
     private final int grpcPort;
+    // The time waiting for the messages of each phase, by the message type
+    private final Map<String, Timer> phaseTimers = new HashMap<>();
+    private final Counter viewChangeCounter;
     private Map<String, PbftClientStub> totalValidatorMap;
     private int bftCount;
     private int consensusCount;
 
     private boolean isActive;
     private boolean isSynced;
-    private boolean isPrePrepared;
+    // Set by the arrival of a message as well, which does not take the lock
+    private volatile boolean isPrePrepared;
     private boolean isPrepared;
     private boolean isCommitted;
     private boolean isViewchanged;
     private boolean isPrimary;
 
-    private long viewNumber;
-    private long seqNumber;
+    private volatile long viewNumber;
+    private volatile long seqNumber;
     private int failCount;
 
     public PbftService(Wallet wallet,
@@ -77,6 +89,13 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         this.defaultConfig = defaultConfig;
         this.grpcHost = grpcHost;
         this.grpcPort = grpcPort;
+        this.phaseTimers.put(Constants.PBFT_PREPREPARE, phaseTimer("prePrepare"));
+        this.phaseTimers.put(Constants.PBFT_PREPARE, phaseTimer("prepare"));
+        this.phaseTimers.put(Constants.PBFT_COMMIT, phaseTimer("commit"));
+        this.phaseTimers.put(Constants.PBFT_VIEWCHANGE, phaseTimer("viewChange"));
+        this.viewChangeCounter = Counter.builder("yggdrash.pbft.viewchange")
+                .description("The number of the view changes requested by this node")
+                .register(Metrics.globalRegistry);
 
         this.myNode = initMyNode();
         this.validatorConfigMap = initValidatorConfigMap();
@@ -99,16 +118,26 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         printInitInfo();
     }
 
+    private static Timer phaseTimer(String phase) {
+        return Timer.builder("yggdrash.pbft.phase")
+                .description("The time waiting for the messages of the PBFT phase")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
     /**
      * Main Scheduler about PBFT consensus service.
+     *
+     * @return true if a block is confirmed
      */
-    private void mainScheduler() {
+    private boolean mainScheduler() {
 
         updateTotalValidatorMap();
 
         if (!isValidator()) {
             log.warn("Node is not validator.");
-            return;
+            return false;
         }
 
         loggingStatus();
@@ -117,9 +146,19 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
 
         if (!isActive) {
             log.info("Validators are not activated. {}/{}", getActiveNodeCount(), consensusCount);
-            return;
+            return false;
         }
 
+        return consensusRound();
+    }
+
+    /**
+     * Run a round of the consensus for the next block.
+     * The phases move on as soon as the messages of the phase are enough.
+     *
+     * @return true if a block is confirmed
+     */
+    private boolean consensusRound() {
         lock.lock();
         PbftMessage viewChangeMsg = null;
         try {
@@ -211,31 +250,30 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
 
         if (block != null) {
             broadcastBlock(block, this.proxyNodeMap);
+            return true;
         }
+        return false;
     }
 
     private boolean waitingForMessage(String message) {
-        int messageCount;
-        for (int i = 0; i < consensusCount * 2; i++) {
-            if (Constants.PBFT_PREPREPARE.equals(message)) {
-                messageCount = 1;
-            } else {
-                messageCount = consensusCount;
-            }
+        long started = System.nanoTime();
+        try {
+            return waitForMessage(message);
+        } finally {
+            phaseTimers.get(message).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
 
-            if (getMsgMap(this.viewNumber, this.seqNumber, message).size()
-                    < messageCount) {
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    log.trace(e.getMessage());
-                    Thread.currentThread().interrupt();
-                }
-            } else {
-                return true;
-            }
+    private boolean waitForMessage(String message) {
+        int messageCount = Constants.PBFT_PREPREPARE.equals(message) ? 1 : consensusCount;
+        try {
+            return messagePool.awaitCount(this.viewNumber, this.seqNumber, message, messageCount,
+                    MESSAGE_WAIT_MILLIS * consensusCount * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            log.trace(e.getMessage());
+            Thread.currentThread().interrupt();
+            return false;
         }
-        return false;
     }
 
     private void loggingStatus() {
@@ -244,19 +282,21 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
                         + "unConMsg={}, unConTx={}, viewNum={}, seqNum={}",
                 getActiveNodeCount(),
                 failCount, isActive, isSynced, isPrePrepared, isPrepared, isCommitted, isViewchanged,
-                this.blockChain.getUnConfirmedData().size(),
+                messagePool.size(),
                 blockChain.getBlockChainManager().getUnconfirmedTxs().size(),
                 this.viewNumber,
                 this.seqNumber);
         if (log.isTraceEnabled()) {
-            for (PbftMessage message : this.blockChain.getUnConfirmedData().values()) {
+            for (PbftMessage message : messagePool.values()) {
                 log.trace(message.toJsonObject().toString());
             }
         }
         log.debug("");
     }
 
+    // The sends are issued to all validators at once, so a slow validator does not delay the others
     private void multicastMessage(PbftMessage message) {
+        PbftProto.PbftMessage protoMessage = PbftMessage.toProto(message);
         for (Map.Entry<String, PbftClientStub> entry : totalValidatorMap.entrySet()) {
             PbftClientStub client = entry.getValue();
             if (client.isMyclient()) {
@@ -264,7 +304,7 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
             }
             if (client.isRunning()) {
                 try {
-                    client.multicastPbftMessage(PbftMessage.toProto(message));
+                    client.multicastPbftMessage(protoMessage);
                 } catch (Exception e) {
                     log.debug("multicastMessage exception: {} {} {}", client.getId(), message, e.getMessage());
                 }
@@ -273,13 +313,14 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
     }
 
     private void broadcastBlock(PbftBlock block, Map<String, PbftClientStub> clientMap) {
+        PbftProto.PbftBlock protoBlock = block.getInstance();
         for (Map.Entry<String, PbftClientStub> entry : clientMap.entrySet()) {
             PbftClientStub client = entry.getValue();
             if (client.isMyclient()) {
                 continue;
             }
             try {
-                client.broadcastPbftBlock(block.getInstance());
+                client.broadcastPbftBlock(protoBlock);
                 log.debug("BroadcastBlock [{}]{} to {}:{}", block.getIndex(), block.getHash(),
                         client.getHost(), client.getPort());
             } catch (Exception e) {
@@ -312,7 +353,7 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
             return null;
         }
 
-        this.blockChain.getUnConfirmedData().put(prePrepare.getSignatureHex(), prePrepare);
+        messagePool.put(prePrepare.getSignatureHex(), prePrepare);
         this.isPrePrepared = true;
 
         log.debug("make PrePrepareMsg ({}) [{}] ({}) ({})",
@@ -326,22 +367,8 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
 
     private long getCurrentViewNumber() {
         long newViewNumber = this.viewNumber + 1;
-        Map<String, PbftMessage> viewChangeMsgMap = getMsgMap(newViewNumber, this.seqNumber, Constants.PBFT_VIEWCHANGE);
-
-        for (int i = 0; i < viewChangeMsgMap.size(); i++) {
-            PbftMessage firstMsg = (PbftMessage) viewChangeMsgMap.values().toArray()[i];
-            for (int j = i + 1; j < viewChangeMsgMap.size(); j++) {
-                PbftMessage secondMsg = (PbftMessage) viewChangeMsgMap.values().toArray()[j];
-                if (Arrays.equals(firstMsg.getAddress(), secondMsg.getAddress())) {
-                    log.debug("Messages are duplicated by {}", secondMsg.getAddress());
-                    log.debug("First Message {}", firstMsg);
-                    log.debug("Second Message {}", secondMsg);
-                    viewChangeMsgMap.remove(secondMsg.getSignatureHex());
-                }
-            }
-        }
-
-        if (viewChangeMsgMap.size() < consensusCount) {
+        // The messages duplicated by a signer are not added to the pool
+        if (messagePool.count(newViewNumber, this.seqNumber, Constants.PBFT_VIEWCHANGE) < consensusCount) {
             return this.viewNumber;
         } else {
             this.isViewchanged = false;
@@ -350,7 +377,8 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
     }
 
     private Block makeNewBlock(long index, byte[] prevBlockHash) {
-        List<Transaction> txList = new ArrayList<>(blockChain.getBlockChainManager().getUnconfirmedTxs());
+        List<Transaction> txList =
+                blockChain.getBlockChainManager().getUnconfirmedTxsWithLimit(Constants.Limit.BLOCK_SYNC_SIZE);
         Sha3Hash curStateRootHash = blockChain.getContractManager().getOriginStateRootHash();
 
         List<Transaction> errTxList = new ArrayList<>();
@@ -401,7 +429,8 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         // todo : check 1 more PREPREPARE msg
         PbftMessage prePrepareMsg;
         try {
-            prePrepareMsg = (PbftMessage) getMsgMap(this.viewNumber, this.seqNumber, Constants.PBFT_PREPREPARE).values()
+            prePrepareMsg = (PbftMessage) messagePool.getMessages(
+                    this.viewNumber, this.seqNumber, Constants.PBFT_PREPREPARE).values()
                     .toArray()[0];
             if (prePrepareMsg == null) {
                 return null;
@@ -424,7 +453,7 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
             return null;
         }
 
-        this.blockChain.getUnConfirmedData().put(prepareMsg.getSignatureHex(), prepareMsg);
+        messagePool.put(prepareMsg.getSignatureHex(), prepareMsg);
         this.isPrepared = true;
 
         log.debug("make PrepareMsg ({}) [{}] {}",
@@ -443,7 +472,8 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
             return null;
         }
 
-        Map<String, PbftMessage> prepareMsgMap = getMsgMap(this.viewNumber, this.seqNumber, Constants.PBFT_PREPARE);
+        Map<String, PbftMessage> prepareMsgMap =
+                messagePool.getMessages(this.viewNumber, this.seqNumber, Constants.PBFT_PREPARE);
         if (prepareMsgMap.isEmpty()) {
             return null;
         } else if (prepareMsgMap.size() < consensusCount) {
@@ -459,7 +489,7 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
             return null;
         }
 
-        this.blockChain.getUnConfirmedData().put(commitMsg.getSignatureHex(), commitMsg);
+        messagePool.put(commitMsg.getSignatureHex(), commitMsg);
         this.isCommitted = true;
 
         log.debug("make CommitMsg ({}) [{}] {}",
@@ -483,68 +513,27 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
             return null;
         }
 
-        PbftMessage prePrepareMsg = null;
-        Map<String, PbftMessage> prepareMessageMap = new TreeMap<>();
-        Map<String, PbftMessage> commitMessageMap = new TreeMap<>();
-        Map<String, PbftMessage> viewChangeMessageMap = new TreeMap<>();
+        messagePool.removeBelow(this.viewNumber, this.seqNumber);
 
-        for (String key : this.blockChain.getUnConfirmedData().keySet()) {
-            PbftMessage pbftMessage = this.blockChain.getUnConfirmedData().get(key);
-            if (pbftMessage == null) {
-                this.blockChain.getUnConfirmedData().remove(key);
-            } else if (pbftMessage.getSeqNumber() < this.seqNumber
-                    || pbftMessage.getViewNumber() < this.viewNumber) {
-                pbftMessage.clear();
-                this.blockChain.getUnConfirmedData().remove(key);
-            } else if (pbftMessage.getSeqNumber() == this.seqNumber
-                    || pbftMessage.getViewNumber() == this.viewNumber) {
-                switch (pbftMessage.getType()) {
-                    case Constants.PBFT_PREPREPARE:
-                        if (prePrepareMsg != null) {
-                            log.debug("PrePrepare msg is duplicated.");
-                            pbftMessage.clear();
-                            this.blockChain.getUnConfirmedData().remove(key);
-                        } else {
-                            prePrepareMsg = pbftMessage;
-                        }
-                        break;
-                    case Constants.PBFT_PREPARE:
-                        prepareMessageMap.put(key, pbftMessage);
-                        break;
-                    case Constants.PBFT_COMMIT:
-                        commitMessageMap.put(key, pbftMessage);
-                        break;
-                    case Constants.PBFT_VIEWCHANGE:
-                        viewChangeMessageMap.put(key, pbftMessage);
-                        break;
-                    default:
-                        log.warn("Invalid message type: {}", pbftMessage.getType());
-                        break;
-                }
+        PbftMessage prePrepareMsg = null;
+        for (PbftMessage pbftMessage : messagePool.getMessages(
+                this.viewNumber, this.seqNumber, Constants.PBFT_PREPREPARE).values()) {
+            if (prePrepareMsg != null) {
+                log.debug("PrePrepare msg is duplicated.");
+                messagePool.remove(pbftMessage.getSignatureHex());
+            } else {
+                prePrepareMsg = pbftMessage;
             }
         }
+        Map<String, PbftMessage> prepareMessageMap =
+                messagePool.getMessages(this.viewNumber, this.seqNumber, Constants.PBFT_PREPARE);
+        Map<String, PbftMessage> commitMessageMap =
+                messagePool.getMessages(this.viewNumber, this.seqNumber, Constants.PBFT_COMMIT);
+        Map<String, PbftMessage> viewChangeMessageMap =
+                messagePool.getMessages(this.viewNumber, this.seqNumber, Constants.PBFT_VIEWCHANGE);
 
         if (prePrepareMsg == null) {
-            for (PbftMessage pbftMessage : prepareMessageMap.values()) {
-                if (pbftMessage != null) {
-                    pbftMessage.clear();
-                }
-            }
-            prepareMessageMap.clear();
-
-            for (PbftMessage pbftMessage : commitMessageMap.values()) {
-                if (pbftMessage != null) {
-                    pbftMessage.clear();
-                }
-            }
-            commitMessageMap.clear();
-
-            for (PbftMessage pbftMessage : viewChangeMessageMap.values()) {
-                if (pbftMessage != null) {
-                    pbftMessage.clear();
-                }
-            }
-            viewChangeMessageMap.clear();
+            return null;
         } else if (prepareMessageMap.size() >= consensusCount
                 && commitMessageMap.size() >= consensusCount) {
             PbftMessageSet pbftMessageSet = new PbftMessageSet(
@@ -580,8 +569,9 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
             return null;
         }
 
-        this.blockChain.getUnConfirmedData().put(viewChangeMsg.getSignatureHex(), viewChangeMsg);
+        messagePool.put(viewChangeMsg.getSignatureHex(), viewChangeMsg);
         this.isViewchanged = true;
+        viewChangeCounter.increment();
         log.warn("ViewChanged ({}) -> ({}}", seqNumber, newViewNumber);
 
         return viewChangeMsg;
@@ -593,15 +583,7 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
     }
 
     private void resetUnConfirmedBlock(long index) {
-        for (String key : this.blockChain.getUnConfirmedData().keySet()) {
-            PbftMessage pbftMessage = this.blockChain.getUnConfirmedData().get(key);
-            if (pbftMessage == null) {
-                continue;
-            } else if (pbftMessage.getSeqNumber() <= index) {
-                pbftMessage.clear();
-                this.blockChain.getUnConfirmedData().remove(key);
-            }
-        }
+        messagePool.removeBelow(index + 1);
 
         this.isPrePrepared = false;
         this.isPrepared = false;
@@ -613,21 +595,6 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         this.seqNumber = index + 1;
     }
 
-    private Map<String, PbftMessage> getMsgMap(long viewNumber, long seqNumber, String msg) {
-        Map<String, PbftMessage> msgMap = new TreeMap<>();
-        for (String key : this.blockChain.getUnConfirmedData().keySet()) {
-            PbftMessage pbftMessage = this.blockChain.getUnConfirmedData().get(key);
-            if (pbftMessage == null) {
-                continue;
-            } else if (pbftMessage.getViewNumber() == viewNumber
-                    && pbftMessage.getSeqNumber() == seqNumber
-                    && pbftMessage.getType().equals(msg)) {
-                msgMap.put(key, pbftMessage);
-            }
-        }
-        return msgMap;
-    }
-
     private void checkPrimary() {
         long checkViewNumber = getCurrentViewNumber();
         if (checkViewNumber > this.viewNumber) {
@@ -644,16 +611,7 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
     }
 
     private void resetUnConfirmedMessage(long viewNumber, long seqNumber) {
-        for (String key : this.blockChain.getUnConfirmedData().keySet()) {
-            PbftMessage pbftMessage = this.blockChain.getUnConfirmedData().get(key);
-            if (pbftMessage == null) {
-                continue;
-            } else if (pbftMessage.getViewNumber() < viewNumber
-                    || pbftMessage.getSeqNumber() < seqNumber) {
-                pbftMessage.clear();
-                this.blockChain.getUnConfirmedData().remove(key);
-            }
-        }
+        messagePool.removeBelow(viewNumber, seqNumber);
 
         this.isPrePrepared = false;
         this.isPrepared = false;
@@ -779,10 +737,19 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         }
     }
 
+    /**
+     * Add the message of a validator.
+     * The lock is not taken, so a message is not held while a block is confirmed,
+     * and a waiting phase is woken by the message pool.
+     */
     public void updateUnconfirmedMsg(PbftMessage newPbftMessage) {
-        if (!this.blockChain.getUnConfirmedData().containsKey(newPbftMessage.getSignatureHex())) {
-            this.blockChain.getUnConfirmedData()
-                    .put(newPbftMessage.getSignatureHex(), newPbftMessage.clone());
+        if (!messagePool.containsKey(newPbftMessage.getSignatureHex())) {
+            PbftMessage message = newPbftMessage.clone();
+            if (messagePool.put(newPbftMessage.getSignatureHex(), message) == message) {
+                // The signer is not valid
+                message.clear();
+                return;
+            }
         }
 
         if (newPbftMessage.getType().equals(Constants.PBFT_PREPREPARE)
@@ -807,14 +774,9 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
     public PbftStatus getMyNodeStatus() {
         long index = this.blockChain.getBlockChainManager().getLastIndex();
         Map<String, PbftMessage> pbftMessageMap = new TreeMap<>();
-        for (String key : this.blockChain.getUnConfirmedData().keySet()) {
-            PbftMessage pbftMessage = this.blockChain.getUnConfirmedData().get(key);
-            if (pbftMessage == null) {
-                continue;
-            } else if (pbftMessage.getSeqNumber() > index
-                    && pbftMessage.getViewNumber() >= this.viewNumber) {
-                pbftMessageMap.put(key, pbftMessage.clone());
-            }
+        Map<String, PbftMessage> unConfirmedMessages = messagePool.getMessagesFrom(this.viewNumber, index + 1);
+        for (Map.Entry<String, PbftMessage> entry : unConfirmedMessages.entrySet()) {
+            pbftMessageMap.put(entry.getKey(), entry.getValue().clone());
         }
         long timestamp = TimeUtils.time();
         return new PbftStatus(index, pbftMessageMap, timestamp, wallet);
@@ -942,9 +904,18 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         return count;
     }
 
+    /**
+     * Run the consensus on the schedule.
+     * The next round starts right after a block is confirmed while the transactions are pending,
+     * so the blocks are not held until the next schedule.
+     */
     @Override
     public void run() {
-        mainScheduler();
+        boolean confirmed = mainScheduler();
+        while (confirmed && blockChain.getBlockChainManager().getUnconfirmedTxsSize() > 0) {
+            updateTotalValidatorMap();
+            confirmed = isValidator() && isActive && consensusRound();
+        }
     }
 
     @Override
@@ -2,12 +2,11 @@ package io.yggdrash.validator.store.ebft;
 
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.store.datasource.DbSource;
-import io.yggdrash.core.exception.NonExistObjectException;
-import io.yggdrash.core.store.AbstractBlockStore;
+import io.yggdrash.core.store.HeightOrderedBlockStore;
 import io.yggdrash.proto.EbftProto;
 import io.yggdrash.validator.data.ebft.EbftBlock;
 
-public class EbftBlockStore extends AbstractBlockStore<EbftProto.EbftBlock> {
+public class EbftBlockStore extends HeightOrderedBlockStore<EbftProto.EbftBlock> {
 
     public EbftBlockStore(DbSource<byte[], byte[]> dbSource) {
         super(dbSource);
@@ -15,12 +14,11 @@ public class EbftBlockStore extends AbstractBlockStore<EbftProto.EbftBlock> {
 
     @Override
     public EbftBlock get(Sha3Hash key) {
-        lock.lock();
-        byte[] foundValue = db.get(key.getBytes());
-        lock.unlock();
-        if (foundValue != null) {
-            return new EbftBlock(foundValue);
-        }
-        throw new NonExistObjectException(key.toString());
+        return (EbftBlock) super.get(key);
+    }
+
+    @Override
+    protected EbftBlock toBlock(byte[] binary) {
+        return new EbftBlock(binary);
     }
 }
\ No newline at end of file
@@ -2,13 +2,13 @@ package io.yggdrash.validator.store.pbft;
 
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.store.datasource.DbSource;
-import io.yggdrash.core.store.AbstractBlockStore;
+import io.yggdrash.core.store.HeightOrderedBlockStore;
 import io.yggdrash.proto.PbftProto;
 import io.yggdrash.validator.data.pbft.PbftBlock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class PbftBlockStore extends AbstractBlockStore<PbftProto.PbftBlock> {
+public class PbftBlockStore extends HeightOrderedBlockStore<PbftProto.PbftBlock> {
     private static final Logger log = LoggerFactory.getLogger(PbftBlockStore.class);
 
     public PbftBlockStore(DbSource<byte[], byte[]> dbSource) {
@@ -18,10 +18,15 @@ public class PbftBlockStore extends AbstractBlockStore<PbftProto.PbftBlock> {
     @Override
     public PbftBlock get(Sha3Hash key) {
         try {
-            return new PbftBlock(db.get(key.getBytes()));
+            return (PbftBlock) super.get(key);
         } catch (Exception e) {
             log.debug("get() is failed. {}", e.getMessage());
             return null;
         }
     }
+
+    @Override
+    protected PbftBlock toBlock(byte[] binary) {
+        return new PbftBlock(binary);
+    }
 }
\ No newline at end of file
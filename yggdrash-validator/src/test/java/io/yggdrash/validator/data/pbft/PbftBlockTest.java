@@ -21,6 +21,7 @@ import static io.yggdrash.common.config.Constants.PBFT_PREPARE;
 import static io.yggdrash.common.config.Constants.PBFT_PREPREPARE;
 import static io.yggdrash.common.config.Constants.PBFT_VIEWCHANGE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -329,6 +330,47 @@ public class PbftBlockTest {
         }
     }
 
+    @Test
+    public void certificateShouldBeCompact() {
+        PbftMessageSet.setCompactEncoding(true);
+        try {
+            PbftProto.PbftBlock protoBlock = this.pbftBlock.getInstance();
+            PbftProto.PbftMessageSet protoMessageSet = protoBlock.getPbftMessageSet();
+
+            assertFalse(protoMessageSet.getPrePrepare().hasBlock());
+            assertEquals(0, protoMessageSet.getPrepareList().getPbftMessageListCount());
+            assertEquals(prepareMap.size(), protoMessageSet.getPrepareSignaturesCount());
+            assertEquals(commitMap.size(), protoMessageSet.getCommitSignaturesCount());
+
+            PbftBlock newBlock = new PbftBlock(protoBlock);
+            assertEquals(this.pbftBlock.toJsonObject(), newBlock.toJsonObject());
+            assertTrue(PbftVerifier.INSTANCE.verify(newBlock));
+
+            // The prePrepare of another block is kept
+            assertTrue(this.pbftBlock2.getInstance().getPbftMessageSet().getPrePrepare().hasBlock());
+        } finally {
+            PbftMessageSet.setCompactEncoding(false);
+        }
+    }
+
+    @Test
+    public void certificateShouldBeFullUntilCompactIsEnabled() {
+        assertFalse(PbftMessageSet.isCompactEncoding());
+        PbftProto.PbftBlock protoBlock = this.pbftBlock.getInstance();
+        PbftProto.PbftMessageSet protoMessageSet = protoBlock.getPbftMessageSet();
+
+        // The form the previous release reads
+        assertTrue(protoMessageSet.getPrePrepare().hasBlock());
+        assertEquals(prepareMap.size(), protoMessageSet.getPrepareList().getPbftMessageListCount());
+        assertEquals(commitMap.size(), protoMessageSet.getCommitList().getPbftMessageListCount());
+        assertEquals(0, protoMessageSet.getPrepareSignaturesCount());
+        assertEquals(0, protoMessageSet.getCommitSignaturesCount());
+
+        PbftBlock newBlock = new PbftBlock(protoBlock);
+        assertEquals(this.pbftBlock.toJsonObject(), newBlock.toJsonObject());
+        assertTrue(PbftVerifier.INSTANCE.verify(newBlock));
+    }
+
     @Test
     public void verifyTest() {
         assertTrue(VerifierUtils.verify(this.pbftBlock)
@@ -0,0 +1,131 @@
+package io.yggdrash.validator.data.pbft;
+
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.util.TimeUtils;
+import io.yggdrash.core.wallet.Wallet;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongycastle.crypto.InvalidCipherTextException;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.yggdrash.common.config.Constants.PBFT_COMMIT;
+import static io.yggdrash.common.config.Constants.PBFT_PREPARE;
+import static io.yggdrash.common.config.Constants.PBFT_VIEWCHANGE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PbftMessagePoolTest {
+
+    private Wallet wallet;
+    private Wallet wallet2;
+    private PbftMessagePool messagePool;
+
+    @Before
+    public void setUp() throws IOException, InvalidCipherTextException {
+        String password = "Aa1234567890!";
+        wallet = new Wallet(null, "tmp/", "pool1" + TimeUtils.time(), password);
+        wallet2 = new Wallet(null, "tmp/", "pool2" + TimeUtils.time(), password);
+        messagePool = new PbftMessagePool();
+    }
+
+    @Test
+    public void messagesShouldBeIndexedByViewSeqAndType() {
+        add(message(PBFT_PREPARE, 1L, 1L, wallet));
+        add(message(PBFT_PREPARE, 1L, 1L, wallet2));
+        add(message(PBFT_COMMIT, 1L, 1L, wallet));
+        add(message(PBFT_PREPARE, 1L, 2L, wallet));
+
+        assertEquals(4, messagePool.size());
+        assertEquals(2, messagePool.count(1L, 1L, PBFT_PREPARE));
+        assertEquals(2, messagePool.getMessages(1L, 1L, PBFT_PREPARE).size());
+        assertEquals(1, messagePool.count(1L, 1L, PBFT_COMMIT));
+        assertEquals(0, messagePool.count(2L, 1L, PBFT_PREPARE));
+        assertEquals(1, messagePool.getMessagesFrom(1L, 2L).size());
+    }
+
+    @Test
+    public void messageShouldBeDeduplicatedBySigner() {
+        PbftMessage first = message(PBFT_VIEWCHANGE, 2L, 1L, wallet);
+        PbftMessage second = new PbftMessage(PBFT_VIEWCHANGE, 2L, 1L,
+                new Sha3Hash("another".getBytes()), null, wallet, null);
+
+        assertNull(add(first));
+        assertEquals(first, add(second));
+        assertFalse(messagePool.containsKey(second.getSignatureHex()));
+        assertEquals(1, messagePool.count(2L, 1L, PBFT_VIEWCHANGE));
+    }
+
+    @Test
+    public void messageOfInvalidSignerShouldBeRejected() {
+        PbftMessage invalid = new PbftMessage(PBFT_PREPARE, 1L, 1L,
+                new Sha3Hash("block".getBytes()), null, new byte[65], null);
+
+        assertSame(invalid, add(invalid));
+        assertFalse(messagePool.containsKey(invalid.getSignatureHex()));
+        assertTrue(messagePool.isEmpty());
+        assertEquals(0, messagePool.count(1L, 1L, PBFT_PREPARE));
+    }
+
+    @Test
+    public void messagesBelowShouldBeRemoved() {
+        add(message(PBFT_PREPARE, 1L, 1L, wallet));
+        add(message(PBFT_PREPARE, 1L, 2L, wallet));
+        add(message(PBFT_PREPARE, 2L, 2L, wallet));
+        add(message(PBFT_PREPARE, 1L, 3L, wallet));
+
+        messagePool.removeBelow(2L);
+        assertEquals(3, messagePool.size());
+        assertEquals(0, messagePool.count(1L, 1L, PBFT_PREPARE));
+
+        messagePool.removeBelow(2L, 2L);
+        assertEquals(1, messagePool.size());
+        assertEquals(1, messagePool.getMessages(2L, 2L, PBFT_PREPARE).size());
+
+        messagePool.removeBelow(3L);
+        assertTrue(messagePool.isEmpty());
+    }
+
+    @Test
+    public void waitingThreadShouldBeWokenByMessage() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> waiting = executor.submit(
+                    () -> messagePool.awaitCount(1L, 1L, PBFT_PREPARE, 2, 10, TimeUnit.SECONDS));
+            add(message(PBFT_PREPARE, 1L, 1L, wallet));
+            Thread.sleep(100);
+            assertFalse(waiting.isDone());
+
+            // Woken by the message long before the time is out
+            add(message(PBFT_PREPARE, 1L, 1L, wallet2));
+            assertTrue(waiting.get(1, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void waitingShouldBeTimedOut() throws InterruptedException {
+        add(message(PBFT_PREPARE, 1L, 1L, wallet));
+
+        assertTrue(messagePool.awaitCount(1L, 1L, PBFT_PREPARE, 1, 10, TimeUnit.MILLISECONDS));
+        assertFalse(messagePool.awaitCount(1L, 1L, PBFT_PREPARE, 2, 10, TimeUnit.MILLISECONDS));
+        assertFalse(messagePool.awaitCount(1L, 1L, PBFT_COMMIT, 1, 10, TimeUnit.MILLISECONDS));
+    }
+
+    private PbftMessage add(PbftMessage message) {
+        return messagePool.put(message.getSignatureHex(), message);
+    }
+
+    private static PbftMessage message(String type, long viewNumber, long seqNumber, Wallet wallet) {
+        return new PbftMessage(type, viewNumber, seqNumber,
+                new Sha3Hash("block".getBytes()), null, wallet, null);
+    }
+}
@@ -0,0 +1,91 @@
+package io.yggdrash.validator.service.ebft;
+
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.yggdrash.proto.CommonProto;
+import io.yggdrash.proto.EbftProto;
+import io.yggdrash.proto.EbftServiceGrpc;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class EbftClientStubTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // The calls the stalled validator has not answered
+    private final List<StreamObserver<CommonProto.Empty>> stalledCalls = new CopyOnWriteArrayList<>();
+    private final CountDownLatch received = new CountDownLatch(1);
+    private Server stalledServer;
+    private Server server;
+
+    @Before
+    public void setUp() throws IOException {
+        Metrics.addRegistry(registry);
+        stalledServer = ServerBuilder.forPort(0).addService(new EbftServiceGrpc.EbftServiceImplBase() {
+            @Override
+            public void multicastEbftBlock(EbftProto.EbftBlock request,
+                                           StreamObserver<CommonProto.Empty> responseObserver) {
+                stalledCalls.add(responseObserver);
+            }
+        }).build().start();
+        server = ServerBuilder.forPort(0).addService(new EbftServiceGrpc.EbftServiceImplBase() {
+            @Override
+            public void multicastEbftBlock(EbftProto.EbftBlock request,
+                                           StreamObserver<CommonProto.Empty> responseObserver) {
+                responseObserver.onNext(CommonProto.Empty.getDefaultInstance());
+                responseObserver.onCompleted();
+                received.countDown();
+            }
+        }).build().start();
+    }
+
+    @After
+    public void tearDown() {
+        stalledServer.shutdownNow();
+        server.shutdownNow();
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    public void stalledValidatorShouldNotDelayTheOthers() throws InterruptedException {
+        EbftClientStub stalled = new EbftClientStub("stalled", "127.0.0.1", stalledServer.getPort());
+        EbftClientStub client = new EbftClientStub("client", "127.0.0.1", server.getPort());
+        EbftProto.EbftBlock block = EbftProto.EbftBlock.getDefaultInstance();
+
+        long started = System.nanoTime();
+        stalled.multicastEbftBlock(block);
+        client.multicastEbftBlock(block);
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(received.await(2, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 2000;
+        Timer acknowledged = null;
+        while (acknowledged == null && System.currentTimeMillis() < deadline) {
+            acknowledged = registry.find("yggdrash.consensus.send")
+                    .tags("validator", client.getId(), "method", "multicastEbftBlock", "status", "OK")
+                    .timer();
+            Thread.sleep(10);
+        }
+        assertNotNull(acknowledged);
+        assertEquals(1, acknowledged.count());
+        // The stalled validator has not answered yet
+        assertEquals(1, stalledCalls.size());
+
+        stalled.getChannel().shutdownNow();
+        client.getChannel().shutdownNow();
+    }
+}
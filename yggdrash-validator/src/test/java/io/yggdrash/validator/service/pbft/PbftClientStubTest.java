@@ -0,0 +1,105 @@
+package io.yggdrash.validator.service.pbft;
+
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.yggdrash.proto.CommonProto;
+import io.yggdrash.proto.PbftProto;
+import io.yggdrash.proto.PbftServiceGrpc;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class PbftClientStubTest {
+
+    private static final String SEND_METRIC = "yggdrash.consensus.send";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // The calls the stalled validator has not answered
+    private final List<StreamObserver<CommonProto.Empty>> stalledCalls = new CopyOnWriteArrayList<>();
+    private final CountDownLatch received = new CountDownLatch(1);
+    private Server stalledServer;
+    private Server server;
+
+    @Before
+    public void setUp() throws IOException {
+        Metrics.addRegistry(registry);
+        stalledServer = ServerBuilder.forPort(0).addService(new PbftServiceGrpc.PbftServiceImplBase() {
+            @Override
+            public void multicastPbftMessage(PbftProto.PbftMessage request,
+                                             StreamObserver<CommonProto.Empty> responseObserver) {
+                stalledCalls.add(responseObserver);
+            }
+        }).build().start();
+        server = ServerBuilder.forPort(0).addService(new PbftServiceGrpc.PbftServiceImplBase() {
+            @Override
+            public void multicastPbftMessage(PbftProto.PbftMessage request,
+                                             StreamObserver<CommonProto.Empty> responseObserver) {
+                responseObserver.onNext(CommonProto.Empty.getDefaultInstance());
+                responseObserver.onCompleted();
+                received.countDown();
+            }
+        }).build().start();
+    }
+
+    @After
+    public void tearDown() {
+        stalledServer.shutdownNow();
+        server.shutdownNow();
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    public void stalledValidatorShouldNotDelayTheOthers() throws InterruptedException {
+        PbftClientStub stalled = new PbftClientStub("stalled", "127.0.0.1", stalledServer.getPort());
+        PbftClientStub client = new PbftClientStub("client", "127.0.0.1", server.getPort());
+        PbftProto.PbftMessage message = PbftProto.PbftMessage.getDefaultInstance();
+
+        // The stalled validator is sent to first, as it is by the order of the validators
+        long started = System.nanoTime();
+        stalled.multicastPbftMessage(message);
+        client.multicastPbftMessage(message);
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(received.await(2, TimeUnit.SECONDS));
+        Timer acknowledged = awaitTimer(client.getId(), "OK");
+        assertEquals(1, acknowledged.count());
+        assertEquals(1, stalledCalls.size());
+
+        stalledCalls.get(0).onError(Status.UNAVAILABLE.asRuntimeException());
+        assertEquals(1, awaitTimer(stalled.getId(), "UNAVAILABLE").count());
+
+        stalled.getChannel().shutdownNow();
+        client.getChannel().shutdownNow();
+    }
+
+    // The timer is recorded by the callback of the acknowledgement
+    private Timer awaitTimer(String validatorId, String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        Timer timer = null;
+        while (timer == null && System.currentTimeMillis() < deadline) {
+            timer = registry.find(SEND_METRIC)
+                    .tag("validator", validatorId)
+                    .tag("method", "multicastPbftMessage")
+                    .tag("status", status)
+                    .timer();
+            Thread.sleep(10);
+        }
+        assertNotNull(timer);
+        return timer;
+    }
+}
@@ -0,0 +1,114 @@
+package io.yggdrash.validator.service.pbft;
+
+import com.typesafe.config.ConfigFactory;
+import io.yggdrash.TestConstants;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.config.DefaultConfig;
+import io.yggdrash.common.contract.vo.dpoa.Validator;
+import io.yggdrash.common.contract.vo.dpoa.ValidatorSet;
+import io.yggdrash.common.util.TimeUtils;
+import io.yggdrash.core.blockchain.BlockChainManager;
+import io.yggdrash.core.blockchain.osgi.ContractManager;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.consensus.ConsensusBlockChain;
+import io.yggdrash.core.runtime.result.BlockRuntimeResult;
+import io.yggdrash.core.wallet.Wallet;
+import io.yggdrash.proto.PbftProto;
+import io.yggdrash.validator.data.pbft.PbftMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PbftServiceTest {
+
+    private final List<Long> confirmed = new ArrayList<>();
+    private final AtomicInteger pendingTxs = new AtomicInteger();
+    private Wallet wallet;
+    private PbftService pbftService;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        wallet = new Wallet(null, "tmp/", "service" + TimeUtils.time(), "Aa1234567890!");
+
+        BlockChainManager<PbftProto.PbftBlock> blockChainManager = mock(BlockChainManager.class);
+        when(blockChainManager.getLastIndex()).thenAnswer(invocation -> (long) confirmed.size());
+        when(blockChainManager.getLastHash()).thenReturn(new Sha3Hash("last".getBytes()));
+        when(blockChainManager.getUnconfirmedTxs()).thenReturn(Collections.emptyList());
+        when(blockChainManager.getUnconfirmedTxsWithLimit(anyLong())).thenReturn(new ArrayList<>());
+        when(blockChainManager.getUnconfirmedTxsSize()).thenAnswer(invocation -> pendingTxs.get());
+
+        ContractManager contractManager = mock(ContractManager.class);
+        when(contractManager.getOriginStateRootHash()).thenReturn(new Sha3Hash("state".getBytes()));
+        when(contractManager.executeTxs(anyList())).thenReturn(new BlockRuntimeResult(Collections.emptyList()));
+
+        ValidatorSet validatorSet = new ValidatorSet();
+        validatorSet.getValidatorMap().put(wallet.getHexAddress(), new Validator(wallet.getHexAddress()));
+
+        ConsensusBlockChain<PbftProto.PbftBlock, PbftMessage> blockChain = mock(ConsensusBlockChain.class);
+        when(blockChain.getBranchId()).thenReturn(TestConstants.yggdrash());
+        when(blockChain.getBlockChainManager()).thenReturn(blockChainManager);
+        when(blockChain.getContractManager()).thenReturn(contractManager);
+        when(blockChain.getValidators()).thenReturn(validatorSet);
+        when(blockChain.addBlock(any(ConsensusBlock.class))).thenAnswer(invocation -> {
+            confirmed.add(((ConsensusBlock) invocation.getArgument(0)).getIndex());
+            pendingTxs.decrementAndGet();
+            return Collections.emptyMap();
+        });
+
+        DefaultConfig defaultConfig = new DefaultConfig(ConfigFactory.parseString(
+                Constants.VALIDATOR_INFO + " {}\n" + Constants.VALIDATOR_PROXYNODE + " {}"));
+        // A single validator makes the quorum by itself
+        pbftService = new PbftService(wallet, blockChain, defaultConfig, "", 0);
+    }
+
+    @Test
+    public void blocksShouldBeConfirmedBackToBackWhileTxsArePending() {
+        pendingTxs.set(3);
+
+        pbftService.run();
+
+        assertEquals(3, confirmed.size());
+        assertEquals(Long.valueOf(1L), confirmed.get(0));
+        assertEquals(Long.valueOf(3L), confirmed.get(2));
+    }
+
+    @Test
+    public void emptyPoolShouldWaitForTheSchedule() {
+        pbftService.run();
+
+        assertEquals(1, confirmed.size());
+    }
+
+    @Test
+    public void messageShouldNotWaitForTheLock() throws Exception {
+        PbftMessage message = new PbftMessage(Constants.PBFT_PREPARE, 1L, 1L,
+                new Sha3Hash("block".getBytes()), null, wallet, null);
+
+        // The lock is held while a block is confirmed
+        pbftService.getLock().lock();
+        try {
+            CompletableFuture.runAsync(() -> pbftService.updateUnconfirmedMsg(message))
+                    .get(1, TimeUnit.SECONDS);
+        } finally {
+            pbftService.getLock().unlock();
+        }
+        assertTrue(pbftService.getMyNodeStatus().getUnConfirmedPbftMessageMap()
+                .containsKey(message.getSignatureHex()));
+    }
+}
@@ -31,6 +31,7 @@ import static io.yggdrash.common.config.Constants.PBFT_PREPARE;
 import static io.yggdrash.common.config.Constants.PBFT_PREPREPARE;
 import static io.yggdrash.common.config.Constants.PBFT_VIEWCHANGE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(ConcurrentTestRunner.class)
 public class PbftBlockStoreMultiThreadTest {
@@ -260,7 +261,11 @@ public class PbftBlockStoreMultiThreadTest {
             this.blockStore.put(Sha3Hash.createByHashed(HashUtil.sha3(ByteUtil.longToBytes(l))), pbftBlock);
         }
         log.debug("blockStore size= " + this.blockStore.size());
-        assertEquals(testNumber + 1, this.blockStore.size());
+        for (long l = 0L; l < testNumber; l++) {
+            assertTrue(this.blockStore.contains(Sha3Hash.createByHashed(HashUtil.sha3(ByteUtil.longToBytes(l)))));
+        }
+        // The same block is counted once by its height
+        assertEquals(1, this.blockStore.size());
     }
 
     @Test